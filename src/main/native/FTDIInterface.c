@@ -29,6 +29,12 @@
 #include <stdlib.h>
 #include <stdint.h>
 
+#if !defined (_WIN32)
+#include <pthread.h>
+#include <sys/time.h>
+#include <time.h>
+#endif
+
 #if defined (_WIN32)
 #include <windows.h>
 #endif
@@ -41,6 +47,151 @@
 extern "C" {
 #endif
 
+/*
+ * Largest number of GPIO trigger events fetched per LibFT4222 call.
+ */
+#define GPIO_QUEUE_CHUNK 64
+
+/*
+ * Largest register file and staged response for I2C slave emulation, the
+ * register pointer is 8 bits.
+ */
+#define I2C_SLAVE_STAGE_MAX 256
+
+/*
+ * Longest single sleep, in milliseconds, of a POSIX receive wait. Bounds
+ * the delay if a driver signal is missed, see WaitForRx.
+ */
+#define RX_WAIT_SLICE 10
+
+/*
+ * writeWithBreak: longest wait, in milliseconds, for the previous frame to
+ * leave the driver transmit queue, and the interval between checks in
+ * microseconds.
+ */
+#define TX_DRAIN_TIMEOUT 1000
+#define TX_DRAIN_POLL 100
+
+/*
+ * Sizes of the FTStatus lookup tables, D2XX values start at 0 and LibFT4222
+ * values at 1000.
+ */
+#define STATUS_TABLE_SIZE 32
+#define FT4222_STATUS_BASE 1000
+
+/*
+ * References cached by JNI_OnLoad so that failures can be reported without
+ * class lookups or calls back into Java. NULL if caching failed, in which
+ * case ThrowFTDIException falls back to looking everything up.
+ */
+static jclass    cachedExceptionCls;
+static jmethodID cachedExceptionInit;
+static jobject   cachedStatus[STATUS_TABLE_SIZE];
+static jobject   cachedFT4222Status[STATUS_TABLE_SIZE];
+
+
+/*
+ * Fills one FTStatus lookup table by calling FTStatus.byOrdinal for each
+ * value until it returns null.
+ */
+static void CacheStatusValues(JNIEnv * env, jclass statusCls, jmethodID byOrdId, jint base, jobject * table) {
+
+    jint i;
+
+    for (i = 0; i < STATUS_TABLE_SIZE; i++) {
+        jobject status = (*env)->CallStaticObjectMethod(env, statusCls, byOrdId, base + i);
+        if (status == NULL) {
+            return;
+        }
+        table[i] = (*env)->NewGlobalRef(env, status);
+        (*env)->DeleteLocalRef(env, status);
+    }
+}
+
+
+/*
+ * Called by the JVM when the library is loaded. Caches the FTDIException
+ * class, its constructor and every FTStatus constant.
+ */
+JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM * vm, void * reserved) {
+
+    JNIEnv * env;
+
+    if ((*vm)->GetEnv(vm, (void **) &env, JNI_VERSION_1_6) != JNI_OK) {
+        return JNI_ERR;
+    }
+
+    jclass exceptionCls = (*env)->FindClass(env, "net/sf/yad2xx/FTDIException");
+    jclass statusCls = (*env)->FindClass(env, "net/sf/yad2xx/FTStatus");
+    if (exceptionCls == NULL || statusCls == NULL) {
+        return JNI_ERR;
+    }
+
+    jmethodID byOrdId = (*env)->GetStaticMethodID(env, statusCls, "byOrdinal", "(I)Lnet/sf/yad2xx/FTStatus;");
+    jmethodID cid = (*env)->GetMethodID(env, exceptionCls, "<init>", "(Lnet/sf/yad2xx/FTStatus;Ljava/lang/String;)V");
+    if (byOrdId == NULL || cid == NULL) {
+        return JNI_ERR;
+    }
+
+    CacheStatusValues(env, statusCls, byOrdId, 0, cachedStatus);
+    CacheStatusValues(env, statusCls, byOrdId, FT4222_STATUS_BASE, cachedFT4222Status);
+    if ((*env)->ExceptionCheck(env)) {
+        return JNI_ERR;
+    }
+
+    cachedExceptionCls = (jclass) (*env)->NewGlobalRef(env, exceptionCls);
+    cachedExceptionInit = cid;
+
+    (*env)->DeleteLocalRef(env, exceptionCls);
+    (*env)->DeleteLocalRef(env, statusCls);
+
+    return JNI_VERSION_1_6;
+}
+
+
+/*
+ * Called by the JVM when the class loader is collected. Releases the
+ * cached references.
+ */
+JNIEXPORT void JNICALL JNI_OnUnload(JavaVM * vm, void * reserved) {
+
+    JNIEnv * env;
+    int i;
+
+    if ((*vm)->GetEnv(vm, (void **) &env, JNI_VERSION_1_6) != JNI_OK) {
+        return;
+    }
+
+    for (i = 0; i < STATUS_TABLE_SIZE; i++) {
+        if (cachedStatus[i] != NULL) {
+            (*env)->DeleteGlobalRef(env, cachedStatus[i]);
+            cachedStatus[i] = NULL;
+        }
+        if (cachedFT4222Status[i] != NULL) {
+            (*env)->DeleteGlobalRef(env, cachedFT4222Status[i]);
+            cachedFT4222Status[i] = NULL;
+        }
+    }
+    if (cachedExceptionCls != NULL) {
+        (*env)->DeleteGlobalRef(env, cachedExceptionCls);
+        cachedExceptionCls = NULL;
+    }
+}
+
+
+/*
+ * Returns the cached FTStatus for a status code, NULL if there is none.
+ */
+static jobject CachedStatus(const jint ftStatus) {
+
+    if (ftStatus >= 0 && ftStatus < STATUS_TABLE_SIZE) {
+        return cachedStatus[ftStatus];
+    } else if (ftStatus >= FT4222_STATUS_BASE && ftStatus < FT4222_STATUS_BASE + STATUS_TABLE_SIZE) {
+        return cachedFT4222Status[ftStatus - FT4222_STATUS_BASE];
+    }
+    return NULL;
+}
+
 /*
  * Utility method to make it easier to handle failures.
  *
@@ -48,6 +199,22 @@ extern "C" {
  */
 void ThrowFTDIException(JNIEnv * env, const jint ftStatus, const char * functionName) {
 
+    // Fast path, everything was cached when the library loaded
+    jobject cached = CachedStatus(ftStatus);
+    if (cached != NULL && cachedExceptionCls != NULL) {
+        jstring jFuncName = (*env)->NewStringUTF(env, functionName);
+        if (jFuncName == NULL) {
+            return; // Exception thrown
+        }
+        jthrowable theException = (*env)->NewObject(env, cachedExceptionCls, cachedExceptionInit, cached, jFuncName);
+        if (theException != NULL) {
+            (*env)->Throw(env, theException);
+            (*env)->DeleteLocalRef(env, theException);
+        }
+        (*env)->DeleteLocalRef(env, jFuncName);
+        return;
+    }
+
     // Lookup exception class
     jclass exceptionCls = (*env)->FindClass(env, "net/sf/yad2xx/FTDIException");
     if (exceptionCls == NULL) {
@@ -98,1794 +265,4085 @@ void ThrowFTDIException(JNIEnv * env, const jint ftStatus, const char * function
 
 
 /*
- * Close an open device.
+ * Utility method for the direct ByteBuffer variants.
  *
- * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    close
- * Signature: (Lnet/sf/yad2xx/Device;)V
+ * Returns the start address of a direct buffer, or NULL with an
+ * IllegalArgumentException pending if the buffer is not direct.
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_close
-  (JNIEnv * env, jclass clsIFace, jobject device)
-{
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+uint8 * GetDirectAddress(JNIEnv * env, jobject buffer) {
 
-    // Get Device.class
-    jclass deviceCls = (*env)->GetObjectClass(env, device);
-    if (deviceCls == NULL) {
-        return; // Exception thrown
-    }
+    uint8 * address = (uint8 *) (*env)->GetDirectBufferAddress(env, buffer);
 
-    // get device field ftHandle
-    jfieldID handleID = (*env)->GetFieldID(env, deviceCls, "ftHandle", "J");
-    if (handleID == NULL) {
-        return; // Exception thrown
+    if (address == NULL) {
+        jclass exceptionCls = (*env)->FindClass(env, "java/lang/IllegalArgumentException");
+        if (exceptionCls != NULL) {
+            (*env)->ThrowNew(env, exceptionCls, "Buffer is not direct");
+            (*env)->DeleteLocalRef(env, exceptionCls);
+        }
     }
-    ftHandle = (FT_HANDLE) (*env)->GetLongField(env, device, handleID);
-
-    ftStatus = FT_Close(ftHandle);
 
-    if (ftStatus == FT_OK) {
+    return address;
+}
 
-        // update device flags
-        jint flags;
-        jfieldID flagsID = (*env)->GetFieldID(env, deviceCls, "flags", "I");
-        if (flagsID == NULL) {
-            return; // Exception thrown
-        }
-        flags = (*env)->GetIntField(env, device, flagsID);
-        flags &= ~(FT_FLAGS_OPENED);
-        (*env)->SetIntField(env, device, flagsID, flags);
 
-        // update device handle
-        (*env)->SetLongField(env, device, handleID, 0);
+/*
+ * Register file emulation helper. Copies a register file, at most
+ * I2C_SLAVE_STAGE_MAX bytes, out of its Java array so that no array is
+ * pinned across LibFT4222 calls. Returns zero with an exception pending
+ * if the file is too large.
+ */
+static int GetRegisters(JNIEnv * env, jbyteArray array, jsize length, uint8 * copy) {
 
-    } else {
-        ThrowFTDIException(env, ftStatus, "FT_Close");
+    if (length < 1 || length > I2C_SLAVE_STAGE_MAX) {
+        ThrowFTDIException(env, FT_INVALID_PARAMETER, "GetRegisters");
+        return 0;
     }
+    (*env)->GetByteArrayRegion(env, array, 0, length, (jbyte *) copy);
+    return !(*env)->ExceptionCheck(env);
 }
 
 
 /*
- * This function clears the Data Terminal Ready (DTR) control signal.
- *
- * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    clrDtr
- * Signature: (J)V
+ * Register file emulation helper. Clears the I2C slave caches, discarding
+ * any unread staged bytes, then stages registers from pointer onwards,
+ * wrapping at length, for the next master read.
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_clrDtr
-  (JNIEnv * env, jclass clsIFace, jlong handle)
-{
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+static FT4222_STATUS StageRegisters(FT_HANDLE ftHandle, uint8 * registers, jint length, jint pointer,
+        jint stageLength) {
 
-    ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_ClrDtr(ftHandle);
+    FT4222_STATUS ftStatus;
+    uint8         stage[I2C_SLAVE_STAGE_MAX];
+    uint16        sizeTransferred = 0;
+    jint          i;
 
-    if (ftStatus == FT_OK) {
-        return;
-    } else {
-        ThrowFTDIException(env, ftStatus, "FT_ClrDtr");
-        return;
+    for (i = 0; i < stageLength; i++) {
+        stage[i] = registers[(pointer + i) % length];
     }
-}
 
+    ftStatus = FT4222_I2CSlave_Reset(ftHandle);
+    if (ftStatus == FT4222_OK && stageLength > 0) {
+        ftStatus = FT4222_I2CSlave_Write(ftHandle, stage, (uint16) stageLength, &sizeTransferred);
+    }
+    return ftStatus;
+}
 
 /*
- * This function clears the Request To Send (RTS) control signal.
- *
- * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    clrRts
- * Signature: (J)V
+ * Event handle helpers shared by the notification based waits. On Windows
+ * the handle is an auto-reset event. Elsewhere it is the EVENT_HANDLE
+ * substitute from WinTypes.h, which D2XX signals with pthread_cond_signal
+ * while holding eMutex. D2XX never sets iVar, so iVar set means the wake
+ * up came from setEvent. Timed waits use the monotonic clock where the
+ * platform allows, so a change of wall clock time does not stretch them.
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_clrRts
-  (JNIEnv * env, jclass clsIFace, jlong handle)
-{
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+void * CreateEventHandle() {
+#if defined (_WIN32)
+    return (void *) CreateEvent(NULL, FALSE, FALSE, NULL);
+#else
+    EVENT_HANDLE * eh = (EVENT_HANDLE *) malloc(sizeof(EVENT_HANDLE));
 
-    ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_ClrRts(ftHandle);
+    if (eh != NULL) {
+#if defined (__APPLE__)
+        pthread_cond_init(&eh->eCondVar, NULL);
+#else
+        pthread_condattr_t attr;
 
-    if (ftStatus == FT_OK) {
-        return;
-    } else {
-        ThrowFTDIException(env, ftStatus, "FT_ClrRts");
-        return;
+        pthread_condattr_init(&attr);
+        pthread_condattr_setclock(&attr, CLOCK_MONOTONIC);
+        pthread_cond_init(&eh->eCondVar, &attr);
+        pthread_condattr_destroy(&attr);
+#endif
+        pthread_mutex_init(&eh->eMutex, NULL);
+        eh->iVar = 0;
     }
+    return (void *) eh;
+#endif
 }
 
+#if !defined (_WIN32)
+/*
+ * Waits up to timeout milliseconds unless setEvent has already been
+ * called. eMutex must be held. Returns non-zero if signalled.
+ */
+static int TimedWaitLocked(EVENT_HANDLE * eh, jint timeout) {
+    struct timespec deadline;
+    int             rc = 0;
+
+    if (eh->iVar != 0) {
+        return 1;
+    }
+#if defined (__APPLE__)
+    deadline.tv_sec = timeout / 1000;
+    deadline.tv_nsec = (timeout % 1000) * 1000000L;
+    rc = pthread_cond_timedwait_relative_np(&eh->eCondVar, &eh->eMutex, &deadline);
+#else
+    clock_gettime(CLOCK_MONOTONIC, &deadline);
+    deadline.tv_sec += timeout / 1000;
+    deadline.tv_nsec += (timeout % 1000) * 1000000L;
+    if (deadline.tv_nsec >= 1000000000L) {
+        deadline.tv_sec++;
+        deadline.tv_nsec -= 1000000000L;
+    }
+    rc = pthread_cond_timedwait(&eh->eCondVar, &eh->eMutex, &deadline);
+#endif
+    return rc == 0;
+}
+#endif
 
 /*
- * Sends a cycle command to the USB port.
- *
- * Windows only.
- *
- * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    cyclePort
- * Signature: (J)V
+ * Returns non-zero if the event was signalled within timeout milliseconds.
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_cyclePort
-  (JNIEnv * env, jclass clsIFace, jlong handle)
-{
+int WaitForEvent(void * event, jint timeout) {
 #if defined (_WIN32)
+    return WaitForSingleObject((HANDLE) event, (DWORD) timeout) == WAIT_OBJECT_0;
+#else
+    EVENT_HANDLE * eh = (EVENT_HANDLE *) event;
+    int            signalled;
 
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    pthread_mutex_lock(&eh->eMutex);
+    signalled = TimedWaitLocked(eh, timeout);
+    eh->iVar = 0;
+    pthread_mutex_unlock(&eh->eMutex);
 
-    ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_CyclePort(ftHandle);
+    return signalled;
+#endif
+}
 
-    if (ftStatus != FT_OK) {
-        ThrowFTDIException(env, ftStatus, "FT_CyclePort");
-    }
+/*
+ * Checks the receive queue and, if fewer than minBytes are waiting, sleeps
+ * on the event for up to timeout milliseconds. On POSIX the queue is read
+ * before eMutex is taken: D2XX takes eMutex from its own thread to signal,
+ * and holding it across a driver call would order our lock against the
+ * driver's internal ones. A signal that lands between the check and the
+ * wait is lost, so POSIX waits at most RX_WAIT_SLICE at a time and the
+ * caller's loop checks again. A Win32 auto-reset event stays set until
+ * waited on, so there nothing is lost. *queued receives the count from the
+ * check. *cancelled is set if setEvent was called, which only POSIX can
+ * tell apart from a driver signal.
+ */
+static FT_STATUS WaitForRx(FT_HANDLE ftHandle, void * event, DWORD minBytes, jint timeout, DWORD * queued,
+        int * cancelled) {
 
+    FT_STATUS ftStatus;
+
+    *cancelled = 0;
+#if defined (_WIN32)
+    ftStatus = FT_GetQueueStatus(ftHandle, queued);
+    if (ftStatus == FT_OK && *queued < minBytes && timeout > 0) {
+        WaitForSingleObject((HANDLE) event, (DWORD) timeout);
+    }
 #else
+    EVENT_HANDLE * eh = (EVENT_HANDLE *) event;
 
-    // Function is not defined on Linux or OS X platforms, no-op instead.
-    return;
+    ftStatus = FT_GetQueueStatus(ftHandle, queued);
 
+    pthread_mutex_lock(&eh->eMutex);
+    if (ftStatus == FT_OK && *queued < minBytes && timeout > 0 && !eh->iVar) {
+        TimedWaitLocked(eh, timeout < RX_WAIT_SLICE ? timeout : RX_WAIT_SLICE);
+    }
+    *cancelled = eh->iVar;
+    eh->iVar = 0;
+    pthread_mutex_unlock(&eh->eMutex);
 #endif
+    return ftStatus;
 }
 
 
 /*
- * Erases the device EEPROM.
- *
- * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    eraseEE
- * Signature: (J)V
+ * Millisecond clock for native timeouts, only differences are meaningful.
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_eraseEE
-  (JNIEnv * env, jclass clsIFace, jlong handle)
-{
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+static jlong NowMillis() {
+#if defined (_WIN32)
+    return (jlong) GetTickCount();
+#else
+    struct timespec now;
 
-    ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_EraseEE(ftHandle);
+    clock_gettime(CLOCK_MONOTONIC, &now);
+    return (jlong) now.tv_sec * 1000 + now.tv_nsec / 1000000;
+#endif
+}
 
-    if (ftStatus == FT_OK) {
-        return;
-    } else {
-        ThrowFTDIException(env, ftStatus, "FT_EraseEE");
+
+/*
+ * Sub-millisecond delay for line timing. Windows Sleep() has a 1ms floor,
+ * so short delays spin on the performance counter instead.
+ */
+static void SleepMicros(jint micros) {
+    if (micros <= 0) {
         return;
     }
-}
+#if defined (_WIN32)
+    LARGE_INTEGER frequency, start, now;
 
+    QueryPerformanceFrequency(&frequency);
+    QueryPerformanceCounter(&start);
+    do {
+        QueryPerformanceCounter(&now);
+    } while ((now.QuadPart - start.QuadPart) * 1000000 / frequency.QuadPart < micros);
+#else
+    struct timespec delay;
+
+    delay.tv_sec = micros / 1000000;
+    delay.tv_nsec = (micros % 1000000) * 1000L;
+    while (nanosleep(&delay, &delay) != 0) {
+        /* interrupted by a signal, sleep the remainder */
+    }
+#endif
+}
 
 /*
- * Returns the instantaneous value of the data bus.
- *
- * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getBitMode
- * Signature: (J)B
+ * Ends a transaction abandoned after its START, so that later transfers do
+ * not find the bus still held. Tries a STOP first, and resets the I2C
+ * master if even that fails.
  */
-JNIEXPORT jbyte JNICALL Java_net_sf_yad2xx_FTDIInterface_getBitMode
-  (JNIEnv * env, jclass clsIFace, jlong handle)
-{
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
-    UCHAR     BitMode;
+static void ReleaseI2cBus(FT_HANDLE ftHandle, uint16 slaveAddress) {
 
-    ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_GetBitMode(ftHandle, &BitMode);
+    uint8  none = 0;
+    uint16 sizeTransferred = 0;
 
-    if (ftStatus == FT_OK) {
-        return (jbyte)BitMode;
-    } else {
-        ThrowFTDIException(env, ftStatus, "FT_GetBitMode");
-        return 0;
+    if (FT4222_I2CMaster_WriteEx(ftHandle, slaveAddress, STOP, &none, 0, &sizeTransferred) != FT4222_OK) {
+        FT4222_I2CMaster_Reset(ftHandle);
     }
 }
 
+/*
+ * Transfer buffers. Heap arrays are never pinned across a LibFT4222 call:
+ * JNI forbids blocking inside a critical region, and the pin would hold
+ * off the garbage collector for every thread for the whole USB transfer.
+ * An array is copied through a malloc'd bounce buffer instead, at most
+ * one chunk at a time. A direct buffer is used in place.
+ */
+typedef struct {
+    jbyteArray array;       // heap array, NULL for a direct buffer
+    jint       offset;      // start of the transfer within array
+    uint8 *    base;        // bounce buffer, or direct address plus offset
+} TransferBuffer;
 
 /*
- * Returns the Windows COM port associated with a device. Returns -1 if no
- * port is associated with the device.
- *
- * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getComPortNumber
- * Signature: (J)J
+ * Prepares an array transfer with a bounce buffer of size bytes. Returns
+ * zero with an FTDIException pending if it cannot be allocated.
  */
-JNIEXPORT jlong JNICALL Java_net_sf_yad2xx_FTDIInterface_getComPortNumber
+static int ArrayTransfer(JNIEnv * env, TransferBuffer * tb, jbyteArray array, jint offset, jint size) {
+
+    tb->array = array;
+    tb->offset = offset;
+    tb->base = (uint8 *) malloc(size > 0 ? size : 1);
+    if (tb->base == NULL) {
+        ThrowFTDIException(env, FT_INSUFFICIENT_RESOURCES, "malloc");
+        return 0;
+    }
+    return 1;
+}
+
+/*
+ * Prepares a direct buffer transfer. Returns zero with an exception
+ * pending if the buffer is not direct.
+ */
+static int DirectTransfer(JNIEnv * env, TransferBuffer * tb, jobject buffer, jint offset) {
+
+    uint8 * address = GetDirectAddress(env, buffer);
+
+    tb->array = NULL;
+    tb->offset = offset;
+    tb->base = address == NULL ? NULL : address + offset;
+    return address != NULL;
+}
+
+static void EndTransfer(TransferBuffer * tb) {
+    if (tb->array != NULL) {
+        free(tb->base);
+    }
+}
+
+/*
+ * Returns the bytes to send for the chunk starting done bytes into the
+ * transfer, copying them from the array first.
+ */
+static uint8 * ChunkLoad(JNIEnv * env, TransferBuffer * tb, jint done, jint count) {
+    if (tb->array == NULL) {
+        return tb->base + done;
+    }
+    (*env)->GetByteArrayRegion(env, tb->array, tb->offset + done, count, (jbyte *) tb->base);
+    return tb->base;
+}
+
+/*
+ * Returns where to receive the chunk starting done bytes into the
+ * transfer. ChunkStore must follow once count bytes have arrived.
+ */
+static uint8 * ChunkTarget(TransferBuffer * tb, jint done) {
+    return tb->array == NULL ? tb->base + done : tb->base;
+}
+
+static void ChunkStore(JNIEnv * env, TransferBuffer * tb, jint done, jint count) {
+    if (tb->array != NULL && count > 0) {
+        (*env)->SetByteArrayRegion(env, tb->array, tb->offset + done, count, (jbyte *) tb->base);
+    }
+}
+
+/*
+ * Chunked transfer helpers. Each loops a LibFT4222 call over one transfer
+ * buffer in chunks of at most chunkSize bytes, stopping early on error or
+ * a short transfer. *done receives the number of bytes moved.
+ */
+static FT4222_STATUS SpiReadChunked(JNIEnv * env, FT_HANDLE ftHandle, TransferBuffer * tb, jint length,
+        jint chunkSize, BOOL isEndTransaction, jint * done) {
+
+    FT4222_STATUS ftStatus = FT4222_OK;
+    uint16 sizeOfRead;
+    uint16 request;
+
+    *done = 0;
+    while (*done < length) {
+        request = (uint16) ((length - *done) < chunkSize ? (length - *done) : chunkSize);
+        sizeOfRead = 0;
+        ftStatus = FT4222_SPIMaster_SingleRead(ftHandle, ChunkTarget(tb, *done), request, &sizeOfRead,
+                (BOOL) (isEndTransaction && *done + request == length));
+        ChunkStore(env, tb, *done, sizeOfRead);
+        *done += sizeOfRead;
+        if (ftStatus != FT4222_OK || sizeOfRead < request) {
+            break;
+        }
+    }
+    return ftStatus;
+}
+
+static FT4222_STATUS SpiWriteChunked(JNIEnv * env, FT_HANDLE ftHandle, TransferBuffer * tb, jint length,
+        jint chunkSize, BOOL isEndTransaction, jint * done) {
+
+    FT4222_STATUS ftStatus = FT4222_OK;
+    uint16 sizeTransferred;
+    uint16 request;
+
+    *done = 0;
+    while (*done < length) {
+        request = (uint16) ((length - *done) < chunkSize ? (length - *done) : chunkSize);
+        sizeTransferred = 0;
+        ftStatus = FT4222_SPIMaster_SingleWrite(ftHandle, ChunkLoad(env, tb, *done, request), request,
+                &sizeTransferred, (BOOL) (isEndTransaction && *done + request == length));
+        *done += sizeTransferred;
+        if (ftStatus != FT4222_OK || sizeTransferred < request) {
+            break;
+        }
+    }
+    return ftStatus;
+}
+
+/*
+ * I2C chunks form a single bus transaction: START on the first chunk,
+ * STOP on the last, no condition in between.
+ */
+static uint8 I2cChunkFlag(jint done, jint request, jint length) {
+
+    uint8 flag = NONE;
+
+    if (done == 0) {
+        flag |= START;
+    }
+    if (done + request == length) {
+        flag |= STOP;
+    }
+    return flag == (NONE | START | STOP) ? START_AND_STOP : flag;
+}
+
+static FT4222_STATUS I2cReadChunked(JNIEnv * env, FT_HANDLE ftHandle, uint16 slaveAddress, TransferBuffer * tb,
+        jint length, jint chunkSize, jint * done) {
+
+    FT4222_STATUS ftStatus = FT4222_OK;
+    uint16 sizeTransferred;
+    uint16 request;
+
+    *done = 0;
+    while (*done < length) {
+        request = (uint16) ((length - *done) < chunkSize ? (length - *done) : chunkSize);
+        sizeTransferred = 0;
+        ftStatus = FT4222_I2CMaster_ReadEx(ftHandle, slaveAddress, I2cChunkFlag(*done, request, length),
+                ChunkTarget(tb, *done), request, &sizeTransferred);
+        ChunkStore(env, tb, *done, sizeTransferred);
+        *done += sizeTransferred;
+        if (ftStatus != FT4222_OK || sizeTransferred < request) {
+            break;
+        }
+    }
+    return ftStatus;
+}
+
+static FT4222_STATUS I2cWriteChunked(JNIEnv * env, FT_HANDLE ftHandle, uint16 slaveAddress, TransferBuffer * tb,
+        jint length, jint chunkSize, jint * done) {
+
+    FT4222_STATUS ftStatus = FT4222_OK;
+    uint16 sizeTransferred;
+    uint16 request;
+
+    *done = 0;
+    while (*done < length) {
+        request = (uint16) ((length - *done) < chunkSize ? (length - *done) : chunkSize);
+        sizeTransferred = 0;
+        ftStatus = FT4222_I2CMaster_WriteEx(ftHandle, slaveAddress, I2cChunkFlag(*done, request, length),
+                ChunkLoad(env, tb, *done, request), request, &sizeTransferred);
+        *done += sizeTransferred;
+        if (ftStatus != FT4222_OK || sizeTransferred < request) {
+            break;
+        }
+    }
+    return ftStatus;
+}
+
+
+/*
+ * Wait until at least minBytes are in the receive queue, sleeping on an
+ * event handle registered with FT_SetEventNotification. Returns after at
+ * most one wake up, or on POSIX one RX_WAIT_SLICE, with the number of
+ * bytes queued; Device.awaitRx loops
+ * until minBytes arrive, the timeout expires or it is woken to close.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    awaitRx
+ * Signature: (JJII)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_awaitRx
+  (JNIEnv * env, jclass clsIFace, jlong handle, jlong event, jint minBytes, jint timeout)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     dwQueued;
+    int       cancelled;
+
+    ftHandle = (FT_HANDLE) handle;
+
+    ftStatus = WaitForRx(ftHandle, (void *) (intptr_t) event, (DWORD) minBytes, timeout, &dwQueued, &cancelled);
+    if (ftStatus == FT_OK && dwQueued < (DWORD) minBytes) {
+        ftStatus = FT_GetQueueStatus(ftHandle, &dwQueued);
+    }
+    if (ftStatus != FT_OK) {
+        ThrowFTDIException(env, ftStatus, "FT_GetQueueStatus");
+        return 0;
+    }
+
+    return (jint) dwQueued;
+}
+
+
+/*
+ * Close an open device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    close
+ * Signature: (Lnet/sf/yad2xx/Device;)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_close
+  (JNIEnv * env, jclass clsIFace, jobject device)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    // Get Device.class
+    jclass deviceCls = (*env)->GetObjectClass(env, device);
+    if (deviceCls == NULL) {
+        return; // Exception thrown
+    }
+
+    // get device field ftHandle
+    jfieldID handleID = (*env)->GetFieldID(env, deviceCls, "ftHandle", "J");
+    if (handleID == NULL) {
+        return; // Exception thrown
+    }
+    ftHandle = (FT_HANDLE) (*env)->GetLongField(env, device, handleID);
+
+    ftStatus = FT_Close(ftHandle);
+
+    if (ftStatus == FT_OK) {
+
+        // update device flags
+        jint flags;
+        jfieldID flagsID = (*env)->GetFieldID(env, deviceCls, "flags", "I");
+        if (flagsID == NULL) {
+            return; // Exception thrown
+        }
+        flags = (*env)->GetIntField(env, device, flagsID);
+        flags &= ~(FT_FLAGS_OPENED);
+        (*env)->SetIntField(env, device, flagsID, flags);
+
+        // update device handle
+        (*env)->SetLongField(env, device, handleID, 0);
+
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_Close");
+    }
+}
+
+
+/*
+ * This function clears the Data Terminal Ready (DTR) control signal.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    clrDtr
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_clrDtr
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_ClrDtr(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_ClrDtr");
+        return;
+    }
+}
+
+
+/*
+ * This function clears the Request To Send (RTS) control signal.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    clrRts
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_clrRts
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_ClrRts(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_ClrRts");
+        return;
+    }
+}
+
+
+/*
+ * Sends a cycle command to the USB port.
+ *
+ * Windows only.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    cyclePort
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_cyclePort
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+#if defined (_WIN32)
+
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_CyclePort(ftHandle);
+
+    if (ftStatus != FT_OK) {
+        ThrowFTDIException(env, ftStatus, "FT_CyclePort");
+    }
+
+#else
+
+    // Function is not defined on Linux or OS X platforms, no-op instead.
+    return;
+
+#endif
+}
+
+
+/*
+ * Erases the device EEPROM.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    eraseEE
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_eraseEE
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_EraseEE(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_EraseEE");
+        return;
+    }
+}
+
+
+/*
+ * Returns the instantaneous value of the data bus.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getBitMode
+ * Signature: (J)B
+ */
+JNIEXPORT jbyte JNICALL Java_net_sf_yad2xx_FTDIInterface_getBitMode
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    UCHAR     BitMode;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_GetBitMode(ftHandle, &BitMode);
+
+    if (ftStatus == FT_OK) {
+        return (jbyte)BitMode;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_GetBitMode");
+        return 0;
+    }
+}
+
+
+/*
+ * Returns the Windows COM port associated with a device. Returns -1 if no
+ * port is associated with the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getComPortNumber
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_net_sf_yad2xx_FTDIInterface_getComPortNumber
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    LONG      lPortNumber;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_GetComPortNumber(ftHandle, &lPortNumber);
+
+    if (ftStatus == FT_OK) {
+        return (jlong)lPortNumber;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_GetComPortNumber");
+        return 0;
+    }
+}
+
+
+/*
+ * Returns the number of D2XX devices attached.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getDeviceCount
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getDeviceCount
+  (JNIEnv * env, jclass clsIFace)
+{
+    FT_STATUS ftStatus;
+    DWORD dwNumDevs;
+
+    ftStatus = FT_CreateDeviceInfoList(&dwNumDevs);
+    if (ftStatus == FT_OK) {
+        return dwNumDevs;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_CreateDeviceInfoList");
+        return 0;
+    }
+}
+
+
+/**
+ * Combines FT_CreateDeviceInfoList and FT_GetDeviceInfoList.
+ *
+ * Copies values into individual Device objects.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getDevices
+ * Signature: ()[Lnet/sf/yad2xx/Device;
+ */
+JNIEXPORT jobjectArray JNICALL Java_net_sf_yad2xx_FTDIInterface_getDevices
+  (JNIEnv * env, jclass clsIFace)
+{
+    FT_STATUS ftStatus;
+    DWORD dwNumDevs;
+    char * serialNumber;
+    char * description;
+    char sBuff[64];
+    char dBuff[64];
+    
+    // How many devices are attached?
+    ftStatus = FT_CreateDeviceInfoList(&dwNumDevs);
+    if (ftStatus != FT_OK) {
+        ThrowFTDIException(env, ftStatus, "FT_CreateDeviceInfoList");
+        return NULL;
+    }
+
+    // Lookup Device.class
+    jclass deviceCls = (*env)->FindClass(env, "net/sf/yad2xx/Device");
+    if (deviceCls == NULL) {
+        return NULL;  // Exception thrown
+    }
+
+    // Lookup FT4222Device.class
+    jclass ft4222deviceCls = (*env)->FindClass(env, "net/sf/yad2xx/FT4222Device");
+    if (ft4222deviceCls == NULL) {
+        return NULL;  // Exception thrown
+    }
+
+    // Allocate an array to hold the correct number of attached Devices
+    jobjectArray devices = (*env)->NewObjectArray(env, dwNumDevs, deviceCls, NULL);
+    if (devices == NULL) {
+        return NULL;  // OutOfMemoryError thrown
+    }
+
+    if (dwNumDevs > 0) {
+        // allocate storage for list based on numDevs
+        FT_DEVICE_LIST_INFO_NODE * devInfo = (FT_DEVICE_LIST_INFO_NODE*) malloc(sizeof(FT_DEVICE_LIST_INFO_NODE) * dwNumDevs);
+
+        // get the device information list
+        ftStatus = FT_GetDeviceInfoList(devInfo, &dwNumDevs);
+        if (ftStatus == FT_OK) {
+
+            // Get the constructor for Device(int,int,int,int,int,String,String,long)
+            jmethodID cid = (*env)->GetMethodID(env, deviceCls, "<init>", "(IIIIILjava/lang/String;Ljava/lang/String;J)V");
+            if (cid == NULL) {
+                return NULL;  // Exception thrown
+            }
+
+            // Get the constructor for FT4222Device(int,int,int,int,int,String,String,long)
+            jmethodID ft4222cid = (*env)->GetMethodID(env, ft4222deviceCls, "<init>", "(IIIIILjava/lang/String;Ljava/lang/String;J)V");
+            if (ft4222cid == NULL) {
+                return NULL;  // Exception thrown
+            }
+
+            int64_t i;
+            for (i = 0LL; i < dwNumDevs; i++) {
+            
+                if (devInfo[i].Flags & FT_FLAGS_OPENED) {
+                    // Open devices have data missing in the DevInfoList structure,
+                    // need to get these details from FT_ListDevices.
+                    //
+                    // NB. The first argument to FT_ListDevices is interpreted as either
+                    // a pointer or an integer depending on the FLAGS used.
+                    //
+                    ftStatus = FT_ListDevices((PVOID)i, sBuff, FT_LIST_BY_INDEX | FT_OPEN_BY_SERIAL_NUMBER);
+                    serialNumber = sBuff;
+                    if (ftStatus != FT_OK) {
+                        sBuff[0] = 0;
+                    }
+                    ftStatus = FT_ListDevices((PVOID)i, dBuff, FT_LIST_BY_INDEX | FT_OPEN_BY_DESCRIPTION);
+                    description = dBuff;
+                    if (ftStatus != FT_OK) {
+                        dBuff[0] = 0;
+                    }
+                } else {
+                    // closed device
+                    serialNumber = devInfo[i].SerialNumber;
+                    description = devInfo[i].Description;
+                }
+                
+                // Convert C strings to Java
+                jstring jSerial = (*env)->NewStringUTF(env, serialNumber);
+                if (jSerial == NULL) {
+                    return NULL; // Exception thrown
+                }
+                jstring jDesc = (*env)->NewStringUTF(env, description);
+                if (jDesc == NULL) {
+                    return NULL; // Exception thrown
+                }
+
+                // Construct either a Device or FT4222Device
+                jobject device = NULL;
+                if (devInfo[i].Type >= FT_DEVICE_4222H_0 && devInfo[i].Type <= FT_DEVICE_4222_PROG) {
+                    // new FT4222Device
+                    device = (*env)->NewObject(env, ft4222deviceCls, ft4222cid, i, devInfo[i].Flags, devInfo[i].Type, devInfo[i].ID,
+                                               devInfo[i].LocId, jSerial, jDesc, devInfo[i].ftHandle);
+                } else {
+                    // new Device
+                    device = (*env)->NewObject(env, deviceCls, cid, i, devInfo[i].Flags, devInfo[i].Type, devInfo[i].ID,
+                                               devInfo[i].LocId, jSerial, jDesc, devInfo[i].ftHandle);
+                }
+                if (device == NULL) {
+                    return NULL; // Exception thrown
+                }
+
+                // insert into result array
+                (*env)->SetObjectArrayElement(env, devices, i, device);
+
+                (*env)->DeleteLocalRef(env, jSerial);
+                (*env)->DeleteLocalRef(env, jDesc);
+                (*env)->DeleteLocalRef(env, device);
+            }
+
+        }
+
+        free(devInfo);
+    }
+
+    return devices;
+}
+
+
+/*
+ * Returns the D2XX driver version number.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getDriverVersionRaw
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getDriverVersionRaw
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD dwVersion;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_GetDriverVersion(ftHandle, &dwVersion);
+
+    if (ftStatus == FT_OK) {
+        return dwVersion;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_GetDriverVersion");
+        return 0;
+    }
+}
+
+
+/*
+ * Get the current value of the latency timer.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getLatencyTimer
+ * Signature: (J)B
+ */
+JNIEXPORT jbyte JNICALL Java_net_sf_yad2xx_FTDIInterface_getLatencyTimer
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    UCHAR LatencyTimer;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_GetLatencyTimer(ftHandle, &LatencyTimer);
+
+    if (ftStatus == FT_OK) {
+        return (jbyte)LatencyTimer;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_GetLatencyTimer");
+        return 0;
+    }
+}
+
+
+/*
+ * Returns the D2XX DLL version number.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getLibraryVersionInt
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getLibraryVersionInt
+  (JNIEnv * env, jclass clsIFace)
+{
+    FT_STATUS ftStatus;
+    DWORD dwVersion;
+
+    ftStatus = FT_GetLibraryVersion(&dwVersion);
+    if (ftStatus == FT_OK) {
+        return dwVersion;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_GetLibraryVersion");
+        return 0;
+    }
+}
+
+
+/*
+ * Gets the modem status and the line status from the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getModemStatus
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getModemStatus
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     dwModemStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_GetModemStatus(ftHandle, &dwModemStatus);
+
+    if (ftStatus == FT_OK) {
+        return dwModemStatus;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_GetModemStatus");
+        return 0;
+    }
+}
+
+
+/*
+ * Gets the number of bytes in the receive queue.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getQueueStatus
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getQueueStatus
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     dwNumBytes;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_GetQueueStatus(ftHandle, &dwNumBytes);
+
+    if (ftStatus == FT_OK) {
+        return dwNumBytes;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_GetQueueStatus");
+        return 0;
+    }
+}
+
+
+/*
+ * Gets the device status including number of characters in the receive queue,
+ * number of characters in the transmit queue, and the current event status.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getStatus
+ * Signature: (J)Lnet/sf/yad2xx/DeviceStatus
+ */
+JNIEXPORT jobject JNICALL Java_net_sf_yad2xx_FTDIInterface_getStatus
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     rxCount, txCount, eventStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_GetStatus(ftHandle, &rxCount, &txCount, &eventStatus);
+
+    if (ftStatus != FT_OK) {
+        ThrowFTDIException(env, ftStatus, "FT_GetStatus");
+        return 0;
+    }
+
+    // Lookup DeviceStatus class
+    jclass statusCls = (*env)->FindClass(env, "net/sf/yad2xx/DeviceStatus");
+    if (statusCls == NULL) {
+        return 0;  // Exception thrown
+    }
+
+    // Get the constructor for DeviceStatus(long, long, long)
+    jmethodID cid = (*env)->GetMethodID(env, statusCls, "<init>", "(JJJ)V");
+    if (cid == NULL) {
+        return 0;  // Exception thrown
+    }
+
+    jobject result = (*env)->NewObject(env, statusCls, cid, rxCount, txCount, eventStatus);
+
+    (*env)->DeleteLocalRef(env, statusCls);
+
+    return result;
+}
+
+
+/*
+ * A command to retrieve the current VID and PID combination from within the
+ * internal device list table. Java prevents returning multiple values so
+ * VID and PID are encoded in the lower 32 bits of the return value.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getVidPidRaw
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_net_sf_yad2xx_FTDIInterface_getVidPidRaw
+  (JNIEnv * env, jclass clsIFace)
+{
+    FT_STATUS	ftStatus;
+    DWORD		vid, pid;
+    jlong		result = 0;
+
+//
+// As of D2XX driver v2.12.24 function FT_GetVIDPID is not available on
+// the Windows platform.
+//
+#ifndef WIN32
+    ftStatus = FT_GetVIDPID(&vid, &pid);
+    if (ftStatus == FT_OK) {
+        result = pid;
+        result &= 0xFFFF;	// prevent sign extension
+        result |= (vid << 16);
+        result &= 0xFFFFFFFF; // ditto
+        return result;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_GetVIDPID");
+        return 0;
+    }
+#else
+    return 0;
+#endif
+
+}
+
+
+/*
+ * Open the device and return a handle which will be used for subsequent accesses.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    open
+ * Signature: (Lnet/sf/yad2xx/Device;)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_open
+  (JNIEnv * env, jclass clsIFace, jobject device)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD dwDeviceIndex;
+
+    jclass deviceCls = (*env)->GetObjectClass(env, device);
+    if (deviceCls == NULL) {
+        return; // Exception thrown
+    }
+
+    // get device index
+    jfieldID indexID = (*env)->GetFieldID(env, deviceCls, "index", "I");
+    if (indexID == NULL) {
+        return; // Exception thrown
+    }
+    dwDeviceIndex = (*env)->GetIntField(env, device, indexID);
+
+    ftStatus = FT_Open(dwDeviceIndex, &ftHandle);
+
+    if (ftStatus == FT_OK) {
+
+        // update device flags
+        jint flags;
+        jfieldID flagsID = (*env)->GetFieldID(env, deviceCls, "flags", "I");
+        if (flagsID == NULL) {
+            return; // Exception thrown
+        }
+        flags = (*env)->GetIntField(env, device, flagsID);
+        flags |= FT_FLAGS_OPENED;
+        (*env)->SetIntField(env, device, flagsID, flags);
+
+        // update device handle
+        jfieldID handleID = (*env)->GetFieldID(env, deviceCls, "ftHandle", "J");
+        if (handleID == NULL) {
+            return; // Exception thrown
+        }
+        (*env)->SetLongField(env, device, handleID, (jlong) ftHandle);
+
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_Open");
+    }
+}
+
+
+/*
+ * Purges receive and/or transmit buffers in the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    purge
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_purge
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint mask)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_Purge(ftHandle, (DWORD) mask);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_Purge");
+        return;
+    }
+}
+
+
+/*
+ * Read data from the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    read
+ * Signature: (J[BI)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_read
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint buffLength)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     dwNumBytesToRead;
+    DWORD     dwNumBytesRead;
+    jbyte *   readBuff;
+
+    ftHandle = (FT_HANDLE) handle;
+    dwNumBytesToRead = buffLength;
+    readBuff = (jbyte *) malloc(buffLength * sizeof(jbyte));
+
+    ftStatus = FT_Read(ftHandle, readBuff, dwNumBytesToRead, &dwNumBytesRead);
+
+    if (ftStatus == FT_OK) {
+        (*env)->SetByteArrayRegion(env, buffer, 0, (jsize) dwNumBytesRead, readBuff);
+        free(readBuff);
+        return dwNumBytesRead;
+    } else {
+        free(readBuff);
+        ThrowFTDIException(env, ftStatus, "FT_Read");
+        return 0;
+    }
+
+}
+
+
+/*
+ * Read data from the device into a direct ByteBuffer, no copy is made.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    readDirect
+ * Signature: (JLjava/nio/ByteBuffer;II)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_readDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jobject buffer, jint offset, jint length)
+{
+    FT_STATUS ftStatus;
+    DWORD     dwNumBytesRead = 0;
+    uint8 *   address;
+
+    address = GetDirectAddress(env, buffer);
+    if (address == NULL) {
+        return 0; // Exception thrown
+    }
+
+    ftStatus = FT_Read((FT_HANDLE) handle, address + offset, (DWORD) length, &dwNumBytesRead);
+
+    if (ftStatus == FT_OK) {
+        return (jint) dwNumBytesRead;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_Read");
+        return 0;
+    }
+}
+
+
+/*
+ * Read EEPROM data.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    readEE
+ * Signature: (JI)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_readEE
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint offset)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     dwWordOffset;
+    WORD      wValue;
+
+    ftHandle = (FT_HANDLE) handle;
+    dwWordOffset = offset;
+
+    ftStatus = FT_ReadEE(ftHandle, dwWordOffset, &wValue);
+
+    if (ftStatus == FT_OK) {
+        return wValue;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_ReadEE");
+        return 0;
+    }
+}
+
+
+/*
+ * Windows only.
+ *
+ * This function can be of use when trying to recover devices programatically.
+ *
+ * Calling FT_Rescan is equivalent to clicking the "Scan for hardware changes"
+ * button in the Device Manager. Only USB hardware is checked for new devices.
+ * All USB devices are scanned, not just FTDI devices.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    rescan
+ * Signature: ()V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_rescan
+  (JNIEnv * env, jclass clsIFace)
+{
+#if defined (_WIN32)
+
+    FT_STATUS ftStatus;
+
+    ftStatus = FT_Rescan();
+
+    if (ftStatus != FT_OK) {
+        ThrowFTDIException(env, ftStatus, "FT_Rescan");
+    }
+
+#else
+
+    // Function is not defined on Linux or OS X platforms, no-op instead.
+    return;
+
+#endif
+}
+
+
+/*
+ * Windows only.
+ *
+ * Forces a reload of the driver for devices with a specific VID and PID
+ * combination.
+ *
+ * Calling FT_Reload forces the operating system to unload and reload the
+ * driver for the specified device IDs. If the VID and PID parameters are null,
+ * the drivers for USB root hubs will be reloaded, causing all USB devices
+ * connected to reload their drivers. Please note that this function will not
+ * work correctly on 64-bit Windows when called from a 32-bit application.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    reload
+ * Signature: (II)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_reload
+  (JNIEnv * env, jclass clsIFace, jint vid, jint pid)
+{
+#if defined (_WIN32)
+
+    FT_STATUS ftStatus;
+
+    ftStatus = FT_Reload((WORD) vid, (WORD) pid);
+
+    if (ftStatus != FT_OK) {
+        ThrowFTDIException(env, ftStatus, "FT_Reload");
+    }
+
+#else
+
+    // Function is not defined on Linux or OS X platforms, no-op instead.
+    return;
+
+#endif
+}
+
+
+/*
+ * Sends a reset command to the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    reset
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_reset
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_ResetDevice(ftHandle);
+
+    if (ftStatus != FT_OK) {
+        ThrowFTDIException(env, ftStatus, "FT_ResetDevice");
+    }
+}
+
+
+/*
+ * Sends a reset command to the port.
+ *
+ * Windows only.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    resetPort
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_resetPort
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+#if defined (_WIN32)
+
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_ResetPort(ftHandle);
+
+    if (ftStatus != FT_OK) {
+        ThrowFTDIException(env, ftStatus, "FT_ResetPort");
+    }
+
+#else
+
+    // Function is not defined on Linux or OS X platforms, no-op instead.
+    return;
+
+#endif
+}
+
+
+/*
+ * Restarts the driver's IN task.
+ *
+ * This function is used to restart the driver's IN task (read) after it has
+ * been stopped by a call to FT_StopInTask.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    restartInTask
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_restartInTask
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_RestartInTask(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_RestartInTask");
+        return;
+    }
+}
+
+
+/*
+ * Sets the baud rate for the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setBaudRate
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setBaudRate
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint baudRate)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetBaudRate(ftHandle, (DWORD) baudRate);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetBaudRate");
+        return;
+    }
+}
+
+
+/*
+ * Enables different chip modes.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setBitMode
+ * Signature: (JBB)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setBitMode
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyte mask, jbyte mode)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetBitMode(ftHandle, mask, mode);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetBitMode");
+        return;
+    }
+}
+
+
+/*
+ * Resets the BREAK condition of the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setBreakOff
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setBreakOff
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetBreakOff(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetBreakOff");
+        return;
+    }
+}
+
+
+/*
+ * Sets the BREAK condition of the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setBreakOn
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setBreakOn
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetBreakOn(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetBreakOn");
+        return;
+    }
+}
+
+
+/*
+ * Set special characters for the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setChars
+ * Signature: (JCZCZ)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setChars
+  (JNIEnv * env, jclass clsIFace, jlong handle, jchar event, jboolean eventEnable, jchar error, jboolean errorEnable)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetChars(ftHandle,
+            event,
+            eventEnable ? 1 : 0,
+            error,
+            errorEnable ? 1 : 0);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetChars");
+        return;
+    }
+}
+
+
+/*
+ * Set data characteristics for the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setDataCharacteristics
+ * Signature: (JBBB)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setDataCharacteristics
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyte wordLength, jbyte stopBits, jbyte parity)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetDataCharacteristics(ftHandle,
+            (UCHAR) wordLength,
+            (UCHAR) stopBits,
+            (UCHAR) parity);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetDataCharacteristics");
+        return;
+    }
+}
+
+
+/*
+ * Sets the maximum time in milliseconds that a USB request can remain
+ * outstanding.
+ *
+ * The deadman timeout is referred to in application note AN232B-10 Advanced
+ * Driver Options from the FTDI web site as the USB timeout. It is unlikely
+ * that this function will be required by most users.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setDeadmanTimeout
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setDeadmanTimeout
+  (JNIEnv * env, jclass clsIFace, jlong handle, jlong timeout)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetDeadmanTimeout(ftHandle, (DWORD) timeout);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetDeadmanTimeout");
+        return;
+    }
+}
+
+
+/*
+ * Sets the Data Terminal Ready (DTR) control signal.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setDtr
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setDtr
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetDtr(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetDtr");
+        return;
+    }
+}
+
+
+/*
+ * Request notification of device events. The event handle, from
+ * createEvent, is signalled whenever one of the events in mask occurs.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setEventNotification
+ * Signature: (JIJ)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setEventNotification
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint mask, jlong event)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetEventNotification(ftHandle, (DWORD) mask, (PVOID) (intptr_t) event);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetEventNotification");
+        return;
+    }
+}
+
+
+/*
+ * Sets flow control for the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setFlowControl
+ * Signature: (JSCC)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setFlowControl
+  (JNIEnv * env, jclass clsIFace, jlong handle, jshort flowControl, jchar xOn, jchar xOff)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetFlowControl(ftHandle,
+            (USHORT) flowControl,
+            (UCHAR) xOn,
+            (UCHAR) xOff);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetFlowControl");
+        return;
+    }
+}
+
+
+/*
+ * Set the latency timer value.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setLatencyTimer
+ * Signature: (JB)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setLatencyTimer
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyte timer)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetLatencyTimer(ftHandle, (UCHAR) timer);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetLatencyTimer");
+        return;
+    }
+}
+
+
+/*
+ * Sets the ResetPipeRetryCount value.
+ *
+ * ResetPipeRetryCount controls the maximum number of times that the driver
+ * tries to reset a pipe on which an error has occurred.
+ * ResetPipeRequestRetryCount defaults to 50. It may be necessary to increase
+ * this value in noisy environments where a lot of USB errors occur.
+ *
+ * Windows and Windows CE only.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setResetPipeRetryCount
+ * Signature: (JJ)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setResetPipeRetryCount
+  (JNIEnv * env, jclass clsIFace, jlong handle, jlong count)
+{
+#if defined (_WIN32)
+
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetResetPipeRetryCount(ftHandle, (DWORD) count);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetResetPipeRetryCount");
+        return;
+    }
+
+#else
+
+    // Function is not defined on Linux or OS X platforms, no-op instead.
+    return;
+
+#endif
+}
+
+
+/*
+ * Sets the Request To Send (RTS) control signal.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setRts
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setRts
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetRts(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetRts");
+        return;
+    }
+}
+
+
+/*
+ * This function sets the read and write timeouts for the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setTimeouts
+ * Signature: (JII)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setTimeouts
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint readTimeout, jint writeTimeout)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetTimeouts(ftHandle, (DWORD) readTimeout, (DWORD) writeTimeout);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetTimeouts");
+        return;
+    }
+}
+
+
+/*
+ * Set the USB request transfer size.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setUSBParameters
+ * Signature: (JII)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setUSBParameters
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint inTransferSize, jint outTransferSize)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_SetUSBParameters(ftHandle, (DWORD) inTransferSize, (DWORD) outTransferSize);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetUSBParameters");
+        return;
+    }
+}
+
+
+/*
+ * A command to include a custom VID and PID combination within the internal device list table.
+ * This will allow the driver to load for the specified VID and PID combination.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setVidPid
+ * Signature: (II)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setVidPid
+  (JNIEnv * env, jclass clsIFace, jint vid, jint pid)
+{
+#if defined (_WIN32)
+
+    // Function is not defined on Windows platform, no-op instead.
+
+    return;
+
+#else
+
+    FT_STATUS ftStatus;
+
+    ftStatus = FT_SetVIDPID(vid, pid);
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_SetVIDPID");
+        return;
+    }
+
+#endif
+}
+
+
+/*
+ * Stops the driver's IN task.
+ *
+ * This function is used to put the driver's IN task (read) into a wait state.
+ * It can be used in situations where data is being received continuously, so
+ * that the device can be purged without more data being received. It is used
+ * together with FT_RestartInTask which sets the IN task running again.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    stopInTask
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_stopInTask
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT_StopInTask(ftHandle);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_StopInTask");
+        return;
+    }
+}
+
+
+/*
+ * Write a command then read its response in one call. After FT_Write the
+ * receive queue is drained until rxLength bytes have arrived or timeout
+ * milliseconds have passed, sleeping on the FT_EVENT_RXCHAR event handle
+ * whenever it is empty. FT_Read is only asked for bytes already queued so
+ * it never blocks. Returns early if the event is signalled by setEvent.
+ * A short write is reported as FT_IO_ERROR.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    transact
+ * Signature: (JJ[BI[BII)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_transact
+  (JNIEnv * env, jclass clsIFace, jlong handle, jlong event, jbyteArray tx, jint txLength, jbyteArray rx,
+   jint rxLength, jint timeout)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     dwBytesWritten;
+    DWORD     dwQueued;
+    DWORD     dwRead;
+    DWORD     dwReceived = 0;
+    jbyte *   buffer;
+    jlong     deadline;
+    jlong     remaining;
+    int       cancelled;
+
+    ftHandle = (FT_HANDLE) handle;
+
+    // one allocation for both directions, transmit first
+    buffer = (jbyte *) malloc((txLength + rxLength) > 0 ? (txLength + rxLength) : 1);
+    if (buffer == NULL) {
+        ThrowFTDIException(env, FT_INSUFFICIENT_RESOURCES, "FT_Write");
+        return 0;
+    }
+
+    if (txLength > 0) {
+        (*env)->GetByteArrayRegion(env, tx, 0, txLength, buffer);
+        ftStatus = FT_Write(ftHandle, buffer, (DWORD) txLength, &dwBytesWritten);
+        if (ftStatus != FT_OK) {
+            free(buffer);
+            ThrowFTDIException(env, ftStatus, "FT_Write");
+            return 0;
+        }
+        if (dwBytesWritten < (DWORD) txLength) {
+            // the response to a partial command would never arrive
+            free(buffer);
+            ThrowFTDIException(env, FT_IO_ERROR, "FT_Write");
+            return 0;
+        }
+    }
+
+    deadline = NowMillis() + timeout;
+    while (dwReceived < (DWORD) rxLength) {
+        remaining = deadline - NowMillis();
+        ftStatus = WaitForRx(ftHandle, (void *) (intptr_t) event, 1, remaining > 0 ? (jint) remaining : 0,
+                &dwQueued, &cancelled);
+        if (ftStatus != FT_OK) {
+            free(buffer);
+            ThrowFTDIException(env, ftStatus, "FT_GetQueueStatus");
+            return 0;
+        }
+
+        if (dwQueued == 0) {
+            if (cancelled || remaining <= 0) {
+                break;
+            }
+            continue;       // woken, check the queue again
+        }
+
+        if (dwQueued > (DWORD) rxLength - dwReceived) {
+            dwQueued = (DWORD) rxLength - dwReceived;
+        }
+        ftStatus = FT_Read(ftHandle, buffer + txLength + dwReceived, dwQueued, &dwRead);
+        if (ftStatus != FT_OK) {
+            free(buffer);
+            ThrowFTDIException(env, ftStatus, "FT_Read");
+            return 0;
+        }
+        dwReceived += dwRead;
+    }
+
+    if (dwReceived > 0) {
+        (*env)->SetByteArrayRegion(env, rx, 0, (jsize) dwReceived, buffer + txLength);
+    }
+    free(buffer);
+
+    return (jint) dwReceived;
+}
+
+
+/*
+ * Gets the number of bytes in the receive queue without throwing. The
+ * FT_STATUS is stored in status[0].
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    tryGetQueueStatus
+ * Signature: (J[I)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_tryGetQueueStatus
+  (JNIEnv * env, jclass clsIFace, jlong handle, jintArray status)
+{
+    FT_STATUS ftStatus;
+    DWORD     dwNumBytes = 0;
+    jint      code;
+
+    ftStatus = FT_GetQueueStatus((FT_HANDLE) handle, &dwNumBytes);
+
+    code = (jint) ftStatus;
+    (*env)->SetIntArrayRegion(env, status, 0, 1, &code);
+
+    return ftStatus == FT_OK ? (jint) dwNumBytes : 0;
+}
+
+
+/*
+ * Read data from the device without throwing. The FT_STATUS is stored in
+ * status[0], bytes read before a failure are still copied.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    tryRead
+ * Signature: (J[BII[I)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_tryRead
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint length, jintArray status)
+{
+    FT_STATUS ftStatus;
+    DWORD     dwNumBytesRead = 0;
+    jbyte *   readBuff;
+    jint      code;
+
+    // FT_Read can block, so the array is not pinned
+    readBuff = (jbyte *) malloc(length > 0 ? length : 1);
+    if (readBuff == NULL) {
+        code = FT_INSUFFICIENT_RESOURCES;
+        (*env)->SetIntArrayRegion(env, status, 0, 1, &code);
+        return 0;
+    }
+
+    ftStatus = FT_Read((FT_HANDLE) handle, readBuff, (DWORD) length, &dwNumBytesRead);
+
+    if (dwNumBytesRead > 0) {
+        (*env)->SetByteArrayRegion(env, buffer, offset, (jsize) dwNumBytesRead, readBuff);
+    }
+    free(readBuff);
+
+    code = (jint) ftStatus;
+    (*env)->SetIntArrayRegion(env, status, 0, 1, &code);
+
+    return (jint) dwNumBytesRead;
+}
+
+
+/*
+ * Write data to the device without throwing. The FT_STATUS is stored in
+ * status[0].
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    tryWrite
+ * Signature: (J[BII[I)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_tryWrite
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint length, jintArray status)
+{
+    FT_STATUS ftStatus;
+    DWORD     dwBytesWritten = 0;
+    jbyte *   writeBuffer;
+    jint      code;
+
+    writeBuffer = (jbyte *) malloc(length > 0 ? length : 1);
+    if (writeBuffer == NULL) {
+        code = FT_INSUFFICIENT_RESOURCES;
+        (*env)->SetIntArrayRegion(env, status, 0, 1, &code);
+        return 0;
+    }
+    (*env)->GetByteArrayRegion(env, buffer, offset, length, writeBuffer);
+
+    ftStatus = FT_Write((FT_HANDLE) handle, writeBuffer, (DWORD) length, &dwBytesWritten);
+
+    free(writeBuffer);
+
+    code = (jint) ftStatus;
+    (*env)->SetIntArrayRegion(env, status, 0, 1, &code);
+
+    return (jint) dwBytesWritten;
+}
+
+
+/*
+ * Write data to the device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    write
+ * Signature: (J[BI)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_write
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint buffLength)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     dwByteCount;
+    DWORD     dwBytesWritten;
+    jbyte *   writeBuffer;
+
+    dwByteCount = (DWORD) buffLength;
+    ftHandle = (FT_HANDLE) handle;
+    writeBuffer = (jbyte *) malloc(buffLength * sizeof(jbyte));
+    (*env)->GetByteArrayRegion(env, buffer, 0, dwByteCount, writeBuffer);
+
+    ftStatus = FT_Write(ftHandle, writeBuffer, (DWORD) buffLength, &dwBytesWritten);
+
+    free(writeBuffer);
+
+    if (ftStatus == FT_OK) {
+        return (jint) dwBytesWritten;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_Write");
+        return 0;
+    }
+
+}
+
+
+/*
+ * Write data to the device from a direct ByteBuffer, no copy is made.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    writeDirect
+ * Signature: (JLjava/nio/ByteBuffer;II)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_writeDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jobject buffer, jint offset, jint length)
+{
+    FT_STATUS ftStatus;
+    DWORD     dwBytesWritten = 0;
+    uint8 *   address;
+
+    address = GetDirectAddress(env, buffer);
+    if (address == NULL) {
+        return 0; // Exception thrown
+    }
+
+    ftStatus = FT_Write((FT_HANDLE) handle, address + offset, (DWORD) length, &dwBytesWritten);
+
+    if (ftStatus == FT_OK) {
+        return (jint) dwBytesWritten;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_Write");
+        return 0;
+    }
+}
+
+
+/*
+ * Write a value to an EEPROM location.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    writeEE
+ * Signature: (JII)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_writeEE
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint offset, jint value)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+
+    ftHandle = (FT_HANDLE) handle;
+
+    ftStatus = FT_WriteEE(ftHandle, offset, value);
+
+    if (ftStatus == FT_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_Write");
+        return;
+    }
+
+}
+
+
+/*
+ * Write a frame preceded by a BREAK and a MARK after break, as used by
+ * DMX512 and RDM. Waits first until the driver transmit queue is empty,
+ * then guardMicros more for the last characters to leave the chip, so the
+ * BREAK does not truncate the previous frame. All steps happen in one
+ * native call so that the timing is not stretched by JNI transitions. The
+ * durations are minimums, each FT_SetBreakOn/Off is itself a USB control
+ * transfer.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    writeWithBreak
+ * Signature: (J[BIIII)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_writeWithBreak
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint length, jint guardMicros, jint breakMicros,
+   jint mabMicros)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    DWORD     dwBytesWritten = 0;
+    DWORD     rxBytes;
+    DWORD     txBytes;
+    DWORD     eventStatus;
+    jlong     deadline;
+    jbyte *   writeBuffer;
+
+    ftHandle = (FT_HANDLE) handle;
+
+    /* copy first so nothing but the line changes sits between BREAK and data */
+    writeBuffer = (jbyte *) malloc(length > 0 ? length : 1);
+    if (writeBuffer == NULL) {
+        ThrowFTDIException(env, FT_INSUFFICIENT_RESOURCES, "FT_Write");
+        return 0;
+    }
+    (*env)->GetByteArrayRegion(env, buffer, 0, length, writeBuffer);
+
+    /* BREAK must not cut off the end of the previous frame */
+    deadline = NowMillis() + TX_DRAIN_TIMEOUT;
+    for (;;) {
+        ftStatus = FT_GetStatus(ftHandle, &rxBytes, &txBytes, &eventStatus);
+        if (ftStatus != FT_OK) {
+            free(writeBuffer);
+            ThrowFTDIException(env, ftStatus, "FT_GetStatus");
+            return 0;
+        }
+        if (txBytes == 0) {
+            break;
+        }
+        if (NowMillis() > deadline) {
+            free(writeBuffer);
+            ThrowFTDIException(env, FT_IO_ERROR, "FT_GetStatus");
+            return 0;
+        }
+        SleepMicros(TX_DRAIN_POLL);
+    }
+    SleepMicros(guardMicros);
+
+    ftStatus = FT_SetBreakOn(ftHandle);
+    if (ftStatus != FT_OK) {
+        free(writeBuffer);
+        ThrowFTDIException(env, ftStatus, "FT_SetBreakOn");
+        return 0;
+    }
+    SleepMicros(breakMicros);
+
+    ftStatus = FT_SetBreakOff(ftHandle);
+    if (ftStatus != FT_OK) {
+        free(writeBuffer);
+        ThrowFTDIException(env, ftStatus, "FT_SetBreakOff");
+        return 0;
+    }
+    SleepMicros(mabMicros);
+
+    ftStatus = FT_Write(ftHandle, writeBuffer, (DWORD) length, &dwBytesWritten);
+
+    free(writeBuffer);
+
+    if (ftStatus == FT_OK) {
+        return (jint) dwBytesWritten;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT_Write");
+        return 0;
+    }
+
+}
+
+//
+// *************** LibFT4222 Functions ***************************************
+//
+
+/*
+ * Perform chip software reset.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    chipReset
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_chipReset
   (JNIEnv * env, jclass clsIFace, jlong handle)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    LONG      lPortNumber;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_GetComPortNumber(ftHandle, &lPortNumber);
+    ftStatus = FT4222_ChipReset(ftHandle);
 
-    if (ftStatus == FT_OK) {
-        return (jlong)lPortNumber;
+    if (ftStatus == FT4222_OK) {
+        return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_GetComPortNumber");
-        return 0;
+        ThrowFTDIException(env, ftStatus, "FT4222_ChipReset");
+        return;
     }
 }
 
 
 /*
- * Returns the number of D2XX devices attached.
+ * Get the current system clock rate.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getDeviceCount
- * Signature: ()I
+ * Method:    getClock
+ * Signature: (J)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getDeviceCount
-  (JNIEnv * env, jclass clsIFace)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getClock
+  (JNIEnv * env, jclass clsIFace, jlong handle)
 {
+    FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    DWORD dwNumDevs;
+    FT4222_ClockRate clk;
 
-    ftStatus = FT_CreateDeviceInfoList(&dwNumDevs);
-    if (ftStatus == FT_OK) {
-        return dwNumDevs;
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT4222_GetClock(ftHandle, &clk);
+
+    if (ftStatus == FT4222_OK) {
+        return clk;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_CreateDeviceInfoList");
-        return 0;
+        ThrowFTDIException(env, ftStatus, "FT4222_GetClock");
+        return -1;
     }
 }
 
 
-/**
- * Combines FT_CreateDeviceInfoList and FT_GetDeviceInfoList.
- *
- * Copies values into individual Device objects.
+/*
+ * Gets the maximum packet size in a transaction (FT4222 only).
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getDevices
- * Signature: ()[Lnet/sf/yad2xx/Device;
+ * Method:    getMaxTransferSize
+ * Signature: (J)I
  */
-JNIEXPORT jobjectArray JNICALL Java_net_sf_yad2xx_FTDIInterface_getDevices
-  (JNIEnv * env, jclass clsIFace)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getMaxTransferSize
+  (JNIEnv * env, jclass clsIFace, jlong handle)
 {
+    FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    DWORD dwNumDevs;
-    char * serialNumber;
-    char * description;
-    char sBuff[64];
-    char dBuff[64];
-    
-    // How many devices are attached?
-    ftStatus = FT_CreateDeviceInfoList(&dwNumDevs);
-    if (ftStatus != FT_OK) {
-        ThrowFTDIException(env, ftStatus, "FT_CreateDeviceInfoList");
-        return NULL;
-    }
-
-    // Lookup Device.class
-    jclass deviceCls = (*env)->FindClass(env, "net/sf/yad2xx/Device");
-    if (deviceCls == NULL) {
-        return NULL;  // Exception thrown
-    }
+    uint16    maxSize;
 
-    // Lookup FT4222Device.class
-    jclass ft4222deviceCls = (*env)->FindClass(env, "net/sf/yad2xx/FT4222Device");
-    if (ft4222deviceCls == NULL) {
-        return NULL;  // Exception thrown
-    }
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT4222_GetMaxTransferSize(ftHandle, &maxSize);
 
-    // Allocate an array to hold the correct number of attached Devices
-    jobjectArray devices = (*env)->NewObjectArray(env, dwNumDevs, deviceCls, NULL);
-    if (devices == NULL) {
-        return NULL;  // OutOfMemoryError thrown
+    if (ftStatus == FT_OK) {
+        return maxSize;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT4222_GetMaxTransferSize");
+        return 0;
     }
+}
 
-    if (dwNumDevs > 0) {
-        // allocate storage for list based on numDevs
-        FT_DEVICE_LIST_INFO_NODE * devInfo = (FT_DEVICE_LIST_INFO_NODE*) malloc(sizeof(FT_DEVICE_LIST_INFO_NODE) * dwNumDevs);
-
-        // get the device information list
-        ftStatus = FT_GetDeviceInfoList(devInfo, &dwNumDevs);
-        if (ftStatus == FT_OK) {
-
-            // Get the constructor for Device(int,int,int,int,int,String,String,long)
-            jmethodID cid = (*env)->GetMethodID(env, deviceCls, "<init>", "(IIIIILjava/lang/String;Ljava/lang/String;J)V");
-            if (cid == NULL) {
-                return NULL;  // Exception thrown
-            }
 
-            // Get the constructor for FT4222Device(int,int,int,int,int,String,String,long)
-            jmethodID ft4222cid = (*env)->GetMethodID(env, ft4222deviceCls, "<init>", "(IIIIILjava/lang/String;Ljava/lang/String;J)V");
-            if (ft4222cid == NULL) {
-                return NULL;  // Exception thrown
-            }
+/*
+ * Get the versions of FT4222H and LibFT4222.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    getVersion
+ * Signature: (J)Lnet/sf/yad2xx/ft4222/Version
+ */
+JNIEXPORT jobject JNICALL Java_net_sf_yad2xx_FTDIInterface_getVersion
+  (JNIEnv * env, jclass clsIFace, jlong handle)
+{
+    FT_HANDLE      ftHandle;
+    FT4222_STATUS  ftStatus;
+    FT4222_Version version;
 
-            int64_t i;
-            for (i = 0LL; i < dwNumDevs; i++) {
-            
-                if (devInfo[i].Flags & FT_FLAGS_OPENED) {
-                    // Open devices have data missing in the DevInfoList structure,
-                    // need to get these details from FT_ListDevices.
-                    //
-                    // NB. The first argument to FT_ListDevices is interpreted as either
-                    // a pointer or an integer depending on the FLAGS used.
-                    //
-                    ftStatus = FT_ListDevices((PVOID)i, sBuff, FT_LIST_BY_INDEX | FT_OPEN_BY_SERIAL_NUMBER);
-                    serialNumber = sBuff;
-                    if (ftStatus != FT_OK) {
-                        sBuff[0] = 0;
-                    }
-                    ftStatus = FT_ListDevices((PVOID)i, dBuff, FT_LIST_BY_INDEX | FT_OPEN_BY_DESCRIPTION);
-                    description = dBuff;
-                    if (ftStatus != FT_OK) {
-                        dBuff[0] = 0;
-                    }
-                } else {
-                    // closed device
-                    serialNumber = devInfo[i].SerialNumber;
-                    description = devInfo[i].Description;
-                }
-                
-                // Convert C strings to Java
-                jstring jSerial = (*env)->NewStringUTF(env, serialNumber);
-                if (jSerial == NULL) {
-                    return NULL; // Exception thrown
-                }
-                jstring jDesc = (*env)->NewStringUTF(env, description);
-                if (jDesc == NULL) {
-                    return NULL; // Exception thrown
-                }
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT4222_GetVersion(ftHandle, &version);
 
-                // Construct either a Device or FT4222Device
-                jobject device = NULL;
-                if (devInfo[i].Type >= FT_DEVICE_4222H_0 && devInfo[i].Type <= FT_DEVICE_4222_PROG) {
-                    // new FT4222Device
-                    device = (*env)->NewObject(env, ft4222deviceCls, ft4222cid, i, devInfo[i].Flags, devInfo[i].Type, devInfo[i].ID,
-                                               devInfo[i].LocId, jSerial, jDesc, devInfo[i].ftHandle);
-                } else {
-                    // new Device
-                    device = (*env)->NewObject(env, deviceCls, cid, i, devInfo[i].Flags, devInfo[i].Type, devInfo[i].ID,
-                                               devInfo[i].LocId, jSerial, jDesc, devInfo[i].ftHandle);
-                }
-                if (device == NULL) {
-                    return NULL; // Exception thrown
-                }
+    if (ftStatus != FT4222_OK) {
+        ThrowFTDIException(env, ftStatus, "FT4222_GetVersion");
+        return 0;
+    }
 
-                // insert into result array
-                (*env)->SetObjectArrayElement(env, devices, i, device);
+    // Lookup Version class
+    jclass versionCls = (*env)->FindClass(env, "net/sf/yad2xx/ft4222/Version");
+    if (versionCls == NULL) {
+        return 0;  // Exception thrown
+    }
 
-                (*env)->DeleteLocalRef(env, jSerial);
-                (*env)->DeleteLocalRef(env, jDesc);
-                (*env)->DeleteLocalRef(env, device);
-            }
+    // Get the constructor for Version(long, long)
+    jmethodID cid = (*env)->GetMethodID(env, versionCls, "<init>", "(II)V");
+    if (cid == NULL) {
+        return 0;  // Exception thrown
+    }
 
-        }
+    jobject result = (*env)->NewObject(env, versionCls, cid, version.chipVersion, version.dllVersion);
 
-        free(devInfo);
-    }
+    (*env)->DeleteLocalRef(env, versionCls);
 
-    return devices;
+    return result;
 }
 
 
 /*
- * Returns the D2XX driver version number.
+ * Get the size of the trigger event queue for a GPIO port.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getDriverVersionRaw
- * Signature: (J)I
+ * Method:    gpioGetTriggerStatus
+ * Signature: (JI)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getDriverVersionRaw
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_gpioGetTriggerStatus
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint portNum)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    DWORD dwVersion;
+    uint16    queueSize = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_GetDriverVersion(ftHandle, &dwVersion);
+    ftStatus = FT4222_GPIO_GetTriggerStatus(ftHandle, (GPIO_Port) portNum, &queueSize);
 
-    if (ftStatus == FT_OK) {
-        return dwVersion;
+    if (ftStatus == FT4222_OK) {
+        return queueSize;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_GetDriverVersion");
+        ThrowFTDIException(env, ftStatus, "FT4222_GPIO_GetTriggerStatus");
         return 0;
     }
 }
 
 
 /*
- * Get the current value of the latency timer.
+ * Initialize the GPIO interface, setting the direction of all four ports.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getLatencyTimer
- * Signature: (J)B
+ * Method:    gpioInit
+ * Signature: (J[I)V
  */
-JNIEXPORT jbyte JNICALL Java_net_sf_yad2xx_FTDIInterface_getLatencyTimer
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_gpioInit
+  (JNIEnv * env, jclass clsIFace, jlong handle, jintArray directions)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    UCHAR LatencyTimer;
+    GPIO_Dir  gpioDir[4];
+    jint      dirs[4];
+    int       i;
+
+    (*env)->GetIntArrayRegion(env, directions, 0, 4, dirs);
+    if ((*env)->ExceptionCheck(env)) {
+        return;     // Exception thrown
+    }
+    for (i = 0; i < 4; i++) {
+        gpioDir[i] = (GPIO_Dir) dirs[i];
+    }
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_GetLatencyTimer(ftHandle, &LatencyTimer);
+    ftStatus = FT4222_GPIO_Init(ftHandle, gpioDir);
 
-    if (ftStatus == FT_OK) {
-        return (jbyte)LatencyTimer;
+    if (ftStatus == FT4222_OK) {
+        return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_GetLatencyTimer");
-        return 0;
+        ThrowFTDIException(env, ftStatus, "FT4222_GPIO_Init");
+        return;
     }
 }
 
 
 /*
- * Returns the D2XX DLL version number.
+ * Read the value of a GPIO input port.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getLibraryVersionInt
- * Signature: ()I
+ * Method:    gpioRead
+ * Signature: (JI)Z
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getLibraryVersionInt
-  (JNIEnv * env, jclass clsIFace)
+JNIEXPORT jboolean JNICALL Java_net_sf_yad2xx_FTDIInterface_gpioRead
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint portNum)
 {
+    FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    DWORD dwVersion;
+    BOOL      value = FALSE;
 
-    ftStatus = FT_GetLibraryVersion(&dwVersion);
-    if (ftStatus == FT_OK) {
-        return dwVersion;
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT4222_GPIO_Read(ftHandle, (GPIO_Port) portNum, &value);
+
+    if (ftStatus == FT4222_OK) {
+        return value ? JNI_TRUE : JNI_FALSE;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_GetLibraryVersion");
-        return 0;
+        ThrowFTDIException(env, ftStatus, "FT4222_GPIO_Read");
+        return JNI_FALSE;
     }
 }
 
 
 /*
- * Gets the modem status and the line status from the device.
+ * Read up to events.length entries from the trigger event queue of a GPIO
+ * port.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getModemStatus
- * Signature: (J)I
+ * Method:    gpioReadTriggerQueue
+ * Signature: (JI[I)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getModemStatus
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_gpioReadTriggerQueue
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint portNum, jintArray events)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
-    DWORD     dwModemStatus;
+    FT_HANDLE    ftHandle;
+    FT_STATUS    ftStatus;
+    GPIO_Trigger triggers[GPIO_QUEUE_CHUNK];
+    jint         values[GPIO_QUEUE_CHUNK];
+    uint16       sizeOfRead = 0;
+    jsize        length;
+    int          i;
+
+    length = (*env)->GetArrayLength(env, events);
+    if (length > GPIO_QUEUE_CHUNK) {
+        length = GPIO_QUEUE_CHUNK;
+    }
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_GetModemStatus(ftHandle, &dwModemStatus);
+    ftStatus = FT4222_GPIO_ReadTriggerQueue(ftHandle, (GPIO_Port) portNum, triggers, (uint16) length, &sizeOfRead);
 
-    if (ftStatus == FT_OK) {
-        return dwModemStatus;
+    if (ftStatus == FT4222_OK) {
+        for (i = 0; i < sizeOfRead; i++) {
+            values[i] = (jint) triggers[i];
+        }
+        (*env)->SetIntArrayRegion(env, events, 0, sizeOfRead, values);
+        return sizeOfRead;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_GetModemStatus");
+        ThrowFTDIException(env, ftStatus, "FT4222_GPIO_ReadTriggerQueue");
         return 0;
     }
 }
 
 
 /*
- * Gets the number of bytes in the receive queue.
+ * Set the trigger conditions recorded in the event queue of a GPIO input
+ * port. trigger is a bitmask of GPIO_Trigger values, 0 disables.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getQueueStatus
- * Signature: (J)I
+ * Method:    gpioSetInputTrigger
+ * Signature: (JII)V
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getQueueStatus
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_gpioSetInputTrigger
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint portNum, jint trigger)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    DWORD     dwNumBytes;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_GetQueueStatus(ftHandle, &dwNumBytes);
+    ftStatus = FT4222_GPIO_SetInputTrigger(ftHandle, (GPIO_Port) portNum, (GPIO_Trigger) trigger);
 
-    if (ftStatus == FT_OK) {
-        return dwNumBytes;
+    if (ftStatus == FT4222_OK) {
+        return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_GetQueueStatus");
-        return 0;
+        ThrowFTDIException(env, ftStatus, "FT4222_GPIO_SetInputTrigger");
+        return;
     }
 }
 
 
 /*
- * Gets the device status including number of characters in the receive queue,
- * number of characters in the transmit queue, and the current event status.
+ * Block until GPIO trigger events are queued, then drain the queues of the
+ * ports in portMask into events. Each entry is (port << 8) | trigger.
+ * Queued events are collected before waiting so none are missed between
+ * calls, and the wait is bounded by timeout in case a notification is
+ * lost. Returns 0 on timeout or when the event handle was signalled.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getStatus
- * Signature: (J)Lnet/sf/yad2xx/DeviceStatus
+ * Method:    gpioWaitTriggerQueues
+ * Signature: (JJII[I)I
  */
-JNIEXPORT jobject JNICALL Java_net_sf_yad2xx_FTDIInterface_getStatus
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_gpioWaitTriggerQueues
+  (JNIEnv * env, jclass clsIFace, jlong handle, jlong event, jint portMask, jint timeout, jintArray events)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
-    DWORD     rxCount, txCount, eventStatus;
+    FT_HANDLE    ftHandle;
+    FT_STATUS    ftStatus;
+    GPIO_Trigger triggers[GPIO_QUEUE_CHUNK];
+    jint         values[GPIO_QUEUE_CHUNK];
+    uint16       queueSize;
+    uint16       sizeOfRead;
+    jsize        length;
+    jint         count = 0;
+    int          pass;
+    int          port;
+    int          i;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_GetStatus(ftHandle, &rxCount, &txCount, &eventStatus);
+    length = (*env)->GetArrayLength(env, events);
 
-    if (ftStatus != FT_OK) {
-        ThrowFTDIException(env, ftStatus, "FT_GetStatus");
-        return 0;
-    }
-
-    // Lookup DeviceStatus class
-    jclass statusCls = (*env)->FindClass(env, "net/sf/yad2xx/DeviceStatus");
-    if (statusCls == NULL) {
-        return 0;  // Exception thrown
-    }
+    for (pass = 0; pass < 2 && count == 0; pass++) {
+        if (pass == 1) {
+            WaitForEvent((void *) (intptr_t) event, timeout);
+        }
 
-    // Get the constructor for DeviceStatus(long, long, long)
-    jmethodID cid = (*env)->GetMethodID(env, statusCls, "<init>", "(JJJ)V");
-    if (cid == NULL) {
-        return 0;  // Exception thrown
-    }
+        for (port = 0; port < 4; port++) {
+            if ((portMask & (1 << port)) == 0) {
+                continue;
+            }
 
-    jobject result = (*env)->NewObject(env, statusCls, cid, rxCount, txCount, eventStatus);
+            ftStatus = FT4222_GPIO_GetTriggerStatus(ftHandle, (GPIO_Port) port, &queueSize);
+            while (ftStatus == FT4222_OK && queueSize > 0 && count < length) {
+                if (queueSize > GPIO_QUEUE_CHUNK) {
+                    queueSize = GPIO_QUEUE_CHUNK;
+                }
+                if (queueSize > length - count) {
+                    queueSize = (uint16) (length - count);
+                }
+                sizeOfRead = 0;
+                ftStatus = FT4222_GPIO_ReadTriggerQueue(ftHandle, (GPIO_Port) port, triggers, queueSize, &sizeOfRead);
+                if (ftStatus != FT4222_OK || sizeOfRead == 0) {
+                    break;
+                }
+                for (i = 0; i < sizeOfRead; i++) {
+                    values[i] = (port << 8) | (jint) triggers[i];
+                }
+                (*env)->SetIntArrayRegion(env, events, count, sizeOfRead, values);
+                count += sizeOfRead;
+                ftStatus = FT4222_GPIO_GetTriggerStatus(ftHandle, (GPIO_Port) port, &queueSize);
+            }
 
-    (*env)->DeleteLocalRef(env, statusCls);
+            if (ftStatus != FT4222_OK) {
+                ThrowFTDIException(env, ftStatus, "FT4222_GPIO_ReadTriggerQueue");
+                return 0;
+            }
+        }
+    }
 
-    return result;
+    return count;
 }
 
 
 /*
- * A command to retrieve the current VID and PID combination from within the
- * internal device list table. Java prevents returning multiple values so
- * VID and PID are encoded in the lower 32 bits of the return value.
+ * Set the value of a GPIO output port.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getVidPidRaw
- * Signature: ()J
+ * Method:    gpioWrite
+ * Signature: (JIZ)V
  */
-JNIEXPORT jlong JNICALL Java_net_sf_yad2xx_FTDIInterface_getVidPidRaw
-  (JNIEnv * env, jclass clsIFace)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_gpioWrite
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint portNum, jboolean value)
 {
-    FT_STATUS	ftStatus;
-    DWORD		vid, pid;
-    jlong		result = 0;
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
 
-//
-// As of D2XX driver v2.12.24 function FT_GetVIDPID is not available on
-// the Windows platform.
-//
-#ifndef WIN32
-    ftStatus = FT_GetVIDPID(&vid, &pid);
-    if (ftStatus == FT_OK) {
-        result = pid;
-        result &= 0xFFFF;	// prevent sign extension
-        result |= (vid << 16);
-        result &= 0xFFFFFFFF; // ditto
-        return result;
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT4222_GPIO_Write(ftHandle, (GPIO_Port) portNum, (BOOL) value);
+
+    if (ftStatus == FT4222_OK) {
+        return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_GetVIDPID");
-        return 0;
+        ThrowFTDIException(env, ftStatus, "FT4222_GPIO_Write");
+        return;
     }
-#else
-    return 0;
-#endif
-
 }
 
 
 /*
- * Open the device and return a handle which will be used for subsequent accesses.
+ * Initialize the FT4222H as an I2C master with the requested I2C speed.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    open
- * Signature: (Lnet/sf/yad2xx/Device;)V
+ * Method:    i2cMasterInit
+ * Signature: (JI)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_open
-  (JNIEnv * env, jclass clsIFace, jobject device)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterInit
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint kbps)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    DWORD dwDeviceIndex;
 
-    jclass deviceCls = (*env)->GetObjectClass(env, device);
-    if (deviceCls == NULL) {
-        return; // Exception thrown
-    }
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT4222_I2CMaster_Init(ftHandle, kbps);
 
-    // get device index
-    jfieldID indexID = (*env)->GetFieldID(env, deviceCls, "index", "I");
-    if (indexID == NULL) {
-        return; // Exception thrown
+    if (ftStatus == FT4222_OK) {
+        return;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_Init");
+        return;
     }
-    dwDeviceIndex = (*env)->GetIntField(env, device, indexID);
+}
 
-    ftStatus = FT_Open(dwDeviceIndex, &ftHandle);
 
-    if (ftStatus == FT_OK) {
+/*
+ * Read data from the specified I2C slave device with START and STOP
+ * conditions.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    i2cMasterRead
+ * Signature: (JI[BI)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterRead
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jbyteArray buffer, jint bytesToRead)
+{
+    FT_HANDLE ftHandle;
+    FT_STATUS ftStatus;
+    uint16_t  sizeTransferred;
+    jbyte *   readBuffer;
 
-        // update device flags
-        jint flags;
-        jfieldID flagsID = (*env)->GetFieldID(env, deviceCls, "flags", "I");
-        if (flagsID == NULL) {
-            return; // Exception thrown
-        }
-        flags = (*env)->GetIntField(env, device, flagsID);
-        flags |= FT_FLAGS_OPENED;
-        (*env)->SetIntField(env, device, flagsID, flags);
+    ftHandle = (FT_HANDLE) handle;
+    readBuffer = (jbyte *) malloc(bytesToRead * sizeof(jbyte));
 
-        // update device handle
-        jfieldID handleID = (*env)->GetFieldID(env, deviceCls, "ftHandle", "J");
-        if (handleID == NULL) {
-            return; // Exception thrown
-        }
-        (*env)->SetLongField(env, device, handleID, (jlong) ftHandle);
+    ftStatus = FT4222_I2CMaster_Read(ftHandle, slaveAddress, (uint8_t *) readBuffer, bytesToRead, &sizeTransferred);
 
+    if (ftStatus == FT4222_OK) {
+        (*env)->SetByteArrayRegion(env, buffer, 0, (jsize) sizeTransferred, readBuffer);
+        free(readBuffer);
+        return sizeTransferred;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_Open");
+        free(readBuffer);
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_Read");
+        return 0;
     }
 }
 
 
 /*
- * Purges receive and/or transmit buffers in the device.
+ * Read any amount of data from an I2C slave device as one
+ * START...STOP transaction, split into chunks of at most chunkSize bytes.
+ * Each chunk is copied through a bounce buffer, the array is never pinned.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    purge
- * Signature: (JI)V
+ * Method:    i2cMasterReadChunked
+ * Signature: (JI[BIII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_purge
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint mask)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterReadChunked
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jbyteArray buffer, jint offset, jint length, jint chunkSize)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    jint           done;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_Purge(ftHandle, (DWORD) mask);
+    if (!ArrayTransfer(env, &tb, buffer, offset, length < chunkSize ? length : chunkSize)) {
+        return 0;   // Exception thrown
+    }
 
-    if (ftStatus == FT_OK) {
-        return;
+    ftStatus = I2cReadChunked(env, ftHandle, (uint16) slaveAddress, &tb, length, chunkSize, &done);
+
+    EndTransfer(&tb);
+
+    if (ftStatus == FT4222_OK) {
+        return done;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_Purge");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_ReadEx");
+        return 0;
     }
 }
 
 
 /*
- * Read data from the device.
+ * Read any amount of data from an I2C slave device as one
+ * START...STOP transaction using a direct buffer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    read
- * Signature: (J[BI)I
+ * Method:    i2cMasterReadChunkedDirect
+ * Signature: (JILjava/nio/ByteBuffer;III)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_read
-  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint buffLength)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterReadChunkedDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jobject buffer, jint offset, jint length, jint chunkSize)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
-    DWORD     dwNumBytesToRead;
-    DWORD     dwNumBytesRead;
-    jbyte *   readBuff;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    jint           done;
 
     ftHandle = (FT_HANDLE) handle;
-    dwNumBytesToRead = buffLength;
-    readBuff = (jbyte *) malloc(buffLength * sizeof(jbyte));
+    if (!DirectTransfer(env, &tb, buffer, offset)) {
+        return 0;   // Exception thrown
+    }
 
-    ftStatus = FT_Read(ftHandle, readBuff, dwNumBytesToRead, &dwNumBytesRead);
+    ftStatus = I2cReadChunked(env, ftHandle, (uint16) slaveAddress, &tb, length, chunkSize, &done);
 
-    if (ftStatus == FT_OK) {
-        (*env)->SetByteArrayRegion(env, buffer, 0, (jsize) dwNumBytesRead, readBuff);
-        free(readBuff);
-        return dwNumBytesRead;
+    if (ftStatus == FT4222_OK) {
+        return done;
     } else {
-        free(readBuff);
-        ThrowFTDIException(env, ftStatus, "FT_Read");
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_ReadEx");
         return 0;
     }
-
 }
 
 
 /*
- * Read EEPROM data.
+ * Read data from the specified I2C slave device with the requested
+ * START, Repeated START and STOP conditions. The data is copied into the
+ * Java array afterwards, the array is not pinned during the transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    readEE
- * Signature: (JI)I
+ * Method:    i2cMasterReadEx
+ * Signature: (JII[BII)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_readEE
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint offset)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterReadEx
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jint flag, jbyteArray buffer, jint offset, jint length)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
-    DWORD     dwWordOffset;
-    WORD      wValue;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    uint16         sizeTransferred = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    dwWordOffset = offset;
+    if (!ArrayTransfer(env, &tb, buffer, offset, length)) {
+        return 0;   // Exception thrown
+    }
 
-    ftStatus = FT_ReadEE(ftHandle, dwWordOffset, &wValue);
+    ftStatus = FT4222_I2CMaster_ReadEx(ftHandle, (uint16) slaveAddress, (uint8) flag, ChunkTarget(&tb, 0),
+            (uint16) length, &sizeTransferred);
+    ChunkStore(env, &tb, 0, sizeTransferred);
 
-    if (ftStatus == FT_OK) {
-        return wValue;
+    EndTransfer(&tb);
+
+    if (ftStatus == FT4222_OK) {
+        return sizeTransferred;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_ReadEE");
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_ReadEx");
         return 0;
     }
 }
 
 
 /*
- * Windows only.
- *
- * This function can be of use when trying to recover devices programatically.
- *
- * Calling FT_Rescan is equivalent to clicking the "Scan for hardware changes"
- * button in the Device Manager. Only USB hardware is checked for new devices.
- * All USB devices are scanned, not just FTDI devices.
+ * Write data to the specified I2C slave device with START and STOP
+ * conditions.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    rescan
- * Signature: ()V
+ * Method:    i2cMasterWrite
+ * Signature: (JI[BI)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_rescan
-  (JNIEnv * env, jclass clsIFace)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterWrite
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jbyteArray buffer, jint bytesToWrite)
 {
-#if defined (_WIN32)
-
+    FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
+    uint16_t  sizeTransferred;
+    jbyte *   writeBuffer;
 
-    ftStatus = FT_Rescan();
-
-    if (ftStatus != FT_OK) {
-        ThrowFTDIException(env, ftStatus, "FT_Rescan");
-    }
+    writeBuffer = (jbyte *) malloc(bytesToWrite * sizeof(jbyte));
+    (*env)->GetByteArrayRegion(env, buffer, 0, bytesToWrite, writeBuffer);
 
-#else
+    ftHandle = (FT_HANDLE) handle;
+    ftStatus = FT4222_I2CMaster_Write(ftHandle, slaveAddress, (uint8_t *) writeBuffer, bytesToWrite, &sizeTransferred);
 
-    // Function is not defined on Linux or OS X platforms, no-op instead.
-    return;
+    free(writeBuffer);
 
-#endif
+    if (ftStatus == FT4222_OK) {
+        return sizeTransferred;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_Write");
+        return 0;
+    }
 }
 
 
 /*
- * Windows only.
- *
- * Forces a reload of the driver for devices with a specific VID and PID
- * combination.
- *
- * Calling FT_Reload forces the operating system to unload and reload the
- * driver for the specified device IDs. If the VID and PID parameters are null,
- * the drivers for USB root hubs will be reloaded, causing all USB devices
- * connected to reload their drivers. Please note that this function will not
- * work correctly on 64-bit Windows when called from a 32-bit application.
+ * Write any amount of data to an I2C slave device as one
+ * START...STOP transaction, split into chunks of at most chunkSize bytes.
+ * Each chunk is copied through a bounce buffer, the array is never pinned.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    reload
- * Signature: (II)V
+ * Method:    i2cMasterWriteChunked
+ * Signature: (JI[BIII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_reload
-  (JNIEnv * env, jclass clsIFace, jint vid, jint pid)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterWriteChunked
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jbyteArray buffer, jint offset, jint length, jint chunkSize)
 {
-#if defined (_WIN32)
-
-    FT_STATUS ftStatus;
-
-    ftStatus = FT_Reload((WORD) vid, (WORD) pid);
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    jint           done;
 
-    if (ftStatus != FT_OK) {
-        ThrowFTDIException(env, ftStatus, "FT_Reload");
+    ftHandle = (FT_HANDLE) handle;
+    if (!ArrayTransfer(env, &tb, buffer, offset, length < chunkSize ? length : chunkSize)) {
+        return 0;   // Exception thrown
     }
 
-#else
+    ftStatus = I2cWriteChunked(env, ftHandle, (uint16) slaveAddress, &tb, length, chunkSize, &done);
 
-    // Function is not defined on Linux or OS X platforms, no-op instead.
-    return;
+    EndTransfer(&tb);
 
-#endif
+    if (ftStatus == FT4222_OK) {
+        return done;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_WriteEx");
+        return 0;
+    }
 }
 
 
 /*
- * Sends a reset command to the device.
+ * Write any amount of data to an I2C slave device as one
+ * START...STOP transaction using a direct buffer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    reset
- * Signature: (J)V
+ * Method:    i2cMasterWriteChunkedDirect
+ * Signature: (JILjava/nio/ByteBuffer;III)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_reset
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterWriteChunkedDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jobject buffer, jint offset, jint length, jint chunkSize)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    jint           done;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_ResetDevice(ftHandle);
+    if (!DirectTransfer(env, &tb, buffer, offset)) {
+        return 0;   // Exception thrown
+    }
 
-    if (ftStatus != FT_OK) {
-        ThrowFTDIException(env, ftStatus, "FT_ResetDevice");
+    ftStatus = I2cWriteChunked(env, ftHandle, (uint16) slaveAddress, &tb, length, chunkSize, &done);
+
+    if (ftStatus == FT4222_OK) {
+        return done;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_WriteEx");
+        return 0;
     }
 }
 
 
 /*
- * Sends a reset command to the port.
- *
- * Windows only.
+ * Write data to the specified I2C slave device with the requested
+ * START, Repeated START and STOP conditions. The data is copied out of the
+ * Java array first, the array is not pinned during the transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    resetPort
- * Signature: (J)V
+ * Method:    i2cMasterWriteEx
+ * Signature: (JII[BII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_resetPort
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterWriteEx
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jint flag, jbyteArray buffer, jint offset, jint length)
 {
-#if defined (_WIN32)
-
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    uint16         sizeTransferred = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_ResetPort(ftHandle);
-
-    if (ftStatus != FT_OK) {
-        ThrowFTDIException(env, ftStatus, "FT_ResetPort");
+    if (!ArrayTransfer(env, &tb, buffer, offset, length)) {
+        return 0;   // Exception thrown
     }
 
-#else
+    ftStatus = FT4222_I2CMaster_WriteEx(ftHandle, (uint16) slaveAddress, (uint8) flag,
+            ChunkLoad(env, &tb, 0, length), (uint16) length, &sizeTransferred);
 
-    // Function is not defined on Linux or OS X platforms, no-op instead.
-    return;
+    EndTransfer(&tb);
 
-#endif
+    if (ftStatus == FT4222_OK) {
+        return sizeTransferred;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_WriteEx");
+        return 0;
+    }
 }
 
 
 /*
- * Restarts the driver's IN task.
- *
- * This function is used to restart the driver's IN task (read) after it has
- * been stopped by a call to FT_StopInTask.
+ * Write to an I2C slave device then read back with a Repeated START, the
+ * usual register read sequence. Both phases run within one JNI call. If
+ * the write fails the bus is released before the exception is thrown.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    restartInTask
- * Signature: (J)V
+ * Method:    i2cMasterWriteThenRead
+ * Signature: (JI[BII[BII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_restartInTask
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterWriteThenRead
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jbyteArray writeBuffer, jint writeOffset,
+   jint bytesToWrite, jbyteArray readBuffer, jint readOffset, jint bytesToRead)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tx;
+    TransferBuffer rx;
+    uint16         sizeTransferred = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_RestartInTask(ftHandle);
+    if (!ArrayTransfer(env, &tx, writeBuffer, writeOffset, bytesToWrite)) {
+        return 0;   // Exception thrown
+    }
+    if (!ArrayTransfer(env, &rx, readBuffer, readOffset, bytesToRead)) {
+        EndTransfer(&tx);
+        return 0;   // Exception thrown
+    }
 
-    if (ftStatus == FT_OK) {
-        return;
+    ftStatus = FT4222_I2CMaster_WriteEx(ftHandle, (uint16) slaveAddress, START,
+            ChunkLoad(env, &tx, 0, bytesToWrite), (uint16) bytesToWrite, &sizeTransferred);
+    EndTransfer(&tx);
+
+    if (ftStatus != FT4222_OK) {
+        EndTransfer(&rx);
+        ReleaseI2cBus(ftHandle, (uint16) slaveAddress);
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_WriteEx");
+        return 0;
+    }
+
+    sizeTransferred = 0;
+    ftStatus = FT4222_I2CMaster_ReadEx(ftHandle, (uint16) slaveAddress, Repeated_START | STOP,
+            ChunkTarget(&rx, 0), (uint16) bytesToRead, &sizeTransferred);
+    ChunkStore(env, &rx, 0, sizeTransferred);
+
+    EndTransfer(&rx);
+
+    if (ftStatus == FT4222_OK) {
+        return sizeTransferred;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_RestartInTask");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_ReadEx");
+        return 0;
     }
 }
 
 
 /*
- * Sets the baud rate for the device.
+ * Get the number of bytes received from the I2C master.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setBaudRate
- * Signature: (JI)V
+ * Method:    i2cSlaveGetRxStatus
+ * Signature: (J)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setBaudRate
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint baudRate)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cSlaveGetRxStatus
+  (JNIEnv * env, jclass clsIFace, jlong handle)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
+    uint16    rxSize = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetBaudRate(ftHandle, (DWORD) baudRate);
+    ftStatus = FT4222_I2CSlave_GetRxStatus(ftHandle, &rxSize);
 
-    if (ftStatus == FT_OK) {
-        return;
+    if (ftStatus == FT4222_OK) {
+        return rxSize;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetBaudRate");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_GetRxStatus");
+        return 0;
     }
 }
 
 
 /*
- * Enables different chip modes.
+ * Initialize the FT4222H as an I2C slave.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setBitMode
- * Signature: (JBB)V
+ * Method:    i2cSlaveInit
+ * Signature: (J)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setBitMode
-  (JNIEnv * env, jclass clsIFace, jlong handle, jbyte mask, jbyte mode)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cSlaveInit
+  (JNIEnv * env, jclass clsIFace, jlong handle)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetBitMode(ftHandle, mask, mode);
+    ftStatus = FT4222_I2CSlave_Init(ftHandle);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetBitMode");
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_Init");
         return;
     }
 }
 
 
 /*
- * Resets the BREAK condition of the device.
+ * Read data received from the I2C master. The data is copied into the Java
+ * array afterwards, the array is not pinned during the USB transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setBreakOff
- * Signature: (J)V
+ * Method:    i2cSlaveRead
+ * Signature: (J[BII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setBreakOff
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cSlaveRead
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint bytesToRead)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    uint16         sizeTransferred = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetBreakOff(ftHandle);
+    if (!ArrayTransfer(env, &tb, buffer, offset, bytesToRead)) {
+        return 0;   // Exception thrown
+    }
 
-    if (ftStatus == FT_OK) {
-        return;
+    ftStatus = FT4222_I2CSlave_Read(ftHandle, ChunkTarget(&tb, 0), (uint16) bytesToRead, &sizeTransferred);
+    ChunkStore(env, &tb, 0, sizeTransferred);
+
+    EndTransfer(&tb);
+
+    if (ftStatus == FT4222_OK) {
+        return sizeTransferred;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetBreakOff");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_Read");
+        return 0;
     }
 }
 
 
 /*
- * Sets the BREAK condition of the device.
+ * Reset the I2C slave, clearing its caches but keeping its settings.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setBreakOn
+ * Method:    i2cSlaveReset
  * Signature: (J)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setBreakOn
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cSlaveReset
   (JNIEnv * env, jclass clsIFace, jlong handle)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetBreakOn(ftHandle);
+    ftStatus = FT4222_I2CSlave_Reset(ftHandle);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetBreakOn");
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_Reset");
         return;
     }
 }
 
 
 /*
- * Set special characters for the device.
+ * Set the 7 bit address the I2C slave responds to.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setChars
- * Signature: (JCZCZ)V
+ * Method:    i2cSlaveSetAddress
+ * Signature: (JI)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setChars
-  (JNIEnv * env, jclass clsIFace, jlong handle, jchar event, jboolean eventEnable, jchar error, jboolean errorEnable)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cSlaveSetAddress
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint addr)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetChars(ftHandle,
-            event,
-            eventEnable ? 1 : 0,
-            error,
-            errorEnable ? 1 : 0);
+    ftStatus = FT4222_I2CSlave_SetAddress(ftHandle, (uint8) addr);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetChars");
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_SetAddress");
         return;
     }
 }
 
 
 /*
- * Set data characteristics for the device.
+ * Enable or disable clock stretching. While enabled the slave holds SCL
+ * low when the master reads and nothing is queued, until data is written.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setDataCharacteristics
- * Signature: (JBBB)V
+ * Method:    i2cSlaveSetClockStretch
+ * Signature: (JZ)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setDataCharacteristics
-  (JNIEnv * env, jclass clsIFace, jlong handle, jbyte wordLength, jbyte stopBits, jbyte parity)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cSlaveSetClockStretch
+  (JNIEnv * env, jclass clsIFace, jlong handle, jboolean enable)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetDataCharacteristics(ftHandle,
-            (UCHAR) wordLength,
-            (UCHAR) stopBits,
-            (UCHAR) parity);
+    ftStatus = FT4222_I2CSlave_SetClockStretch(ftHandle, enable ? TRUE : FALSE);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetDataCharacteristics");
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_SetClockStretch");
         return;
     }
 }
 
 
 /*
- * Sets the maximum time in milliseconds that a USB request can remain
- * outstanding.
+ * Register file emulation: apply everything the master has written since
+ * the last call, then clear the slave caches. The received burst is taken
+ * as one write transaction, a register pointer byte followed by data bytes
+ * written at auto-incrementing addresses. Bits clear in writeMask, when
+ * given, are read only. A pointer only write is the first half of a
+ * register read, so the response is staged for the read phase, which the
+ * slave holds off by clock stretching until it arrives. After a data write
+ * the transmit buffer is left empty.
  *
- * The deadman timeout is referred to in application note AN232B-10 Advanced
- * Driver Options from the FTDI web site as the USB timeout. It is unlikely
- * that this function will be required by most users.
+ * state[0] holds the register pointer and is updated. state[1] and state[2]
+ * receive the first register written and the number of data bytes.
+ * Returns the number of bytes received, 0 if there were none.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setDeadmanTimeout
- * Signature: (JJ)V
+ * Method:    i2cSlaveUpdateRegisters
+ * Signature: (J[B[B[II)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setDeadmanTimeout
-  (JNIEnv * env, jclass clsIFace, jlong handle, jlong timeout)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cSlaveUpdateRegisters
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray registers, jbyteArray writeMask, jintArray state,
+   jint stageLength)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
+    uint8     rx[I2C_SLAVE_STAGE_MAX];
+    uint16    rxSize = 0;
+    uint16    sizeTransferred;
+    jint      st[3];
+    jint      received = 0;
+    jint      written = 0;
+    jint      pointer;
+    jint      first;
+    jsize     length;
+    uint8     regs[I2C_SLAVE_STAGE_MAX];
+    uint8     maskCopy[I2C_SLAVE_STAGE_MAX];
+    uint8 *   mask = NULL;
+    jint      i;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetDeadmanTimeout(ftHandle, (DWORD) timeout);
+    ftStatus = FT4222_I2CSlave_GetRxStatus(ftHandle, &rxSize);
+    if (ftStatus != FT4222_OK) {
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_GetRxStatus");
+        return 0;
+    }
+    if (rxSize == 0) {
+        return 0;
+    }
 
-    if (ftStatus == FT_OK) {
-        return;
-    } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetDeadmanTimeout");
-        return;
+    (*env)->GetIntArrayRegion(env, state, 0, 3, st);
+    if ((*env)->ExceptionCheck(env)) {
+        return 0;   // Exception thrown
+    }
+    length = (*env)->GetArrayLength(env, registers);
+    pointer = st[0];
+    first = pointer;
+
+    if (!GetRegisters(env, registers, length, regs)) {
+        return 0;   // Exception thrown
+    }
+    if (writeMask != NULL) {
+        if (!GetRegisters(env, writeMask, length, maskCopy)) {
+            return 0;   // Exception thrown
+        }
+        mask = maskCopy;
+    }
+
+    while (ftStatus == FT4222_OK && rxSize > 0) {
+        sizeTransferred = 0;
+        ftStatus = FT4222_I2CSlave_Read(ftHandle, rx, rxSize < sizeof(rx) ? rxSize : sizeof(rx), &sizeTransferred);
+        if (ftStatus != FT4222_OK || sizeTransferred == 0) {
+            break;
+        }
+
+        for (i = 0; i < sizeTransferred; i++, received++) {
+            if (received == 0) {
+                pointer = rx[i] % length;
+                first = pointer;
+            } else {
+                if (mask == NULL) {
+                    regs[pointer] = rx[i];
+                } else {
+                    regs[pointer] = (uint8) ((regs[pointer] & ~mask[pointer]) | (rx[i] & mask[pointer]));
+                }
+                pointer = (pointer + 1) % length;
+                written++;
+            }
+        }
+        ftStatus = FT4222_I2CSlave_GetRxStatus(ftHandle, &rxSize);
+    }
+
+    if (ftStatus == FT4222_OK) {
+        ftStatus = StageRegisters(ftHandle, regs, length, pointer, written == 0 ? stageLength : 0);
+    }
+    if (written > 0) {
+        (*env)->SetByteArrayRegion(env, registers, 0, length, (jbyte *) regs);
+    }
+
+    if (ftStatus != FT4222_OK) {
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_Read");
+        return 0;
     }
+
+    st[0] = pointer;
+    st[1] = first;
+    st[2] = written;
+    (*env)->SetIntArrayRegion(env, state, 0, 3, st);
+
+    return received;
 }
 
 
 /*
- * Sets the Data Terminal Ready (DTR) control signal.
+ * Queue data for the I2C master to read. The data is copied out of the Java
+ * array first, the array is not pinned during the USB transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setDtr
- * Signature: (J)V
+ * Method:    i2cSlaveWrite
+ * Signature: (J[BII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setDtr
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cSlaveWrite
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint bytesToWrite)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    uint16         sizeTransferred = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetDtr(ftHandle);
+    if (!ArrayTransfer(env, &tb, buffer, offset, bytesToWrite)) {
+        return 0;   // Exception thrown
+    }
 
-    if (ftStatus == FT_OK) {
-        return;
+    ftStatus = FT4222_I2CSlave_Write(ftHandle, ChunkLoad(env, &tb, 0, bytesToWrite), (uint16) bytesToWrite,
+            &sizeTransferred);
+
+    EndTransfer(&tb);
+
+    if (ftStatus == FT4222_OK) {
+        return sizeTransferred;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetDtr");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_I2CSlave_Write");
+        return 0;
     }
 }
 
 
 /*
- * Sets flow control for the device.
+ * Set the system clock rate.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setFlowControl
- * Signature: (JSCC)V
+ * Method:    setClock
+ * Signature: (JJ)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setFlowControl
-  (JNIEnv * env, jclass clsIFace, jlong handle, jshort flowControl, jchar xOn, jchar xOff)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setClock
+  (JNIEnv * env, jclass clsIFace, jlong handle, jlong rate)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetFlowControl(ftHandle,
-            (USHORT) flowControl,
-            (UCHAR) xOn,
-            (UCHAR) xOff);
+    ftStatus = FT4222_SetClock(ftHandle, rate);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetFlowControl");
+        ThrowFTDIException(env, ftStatus, "FT4222_SetClock");
         return;
     }
 }
 
 
 /*
- * Set the latency timer value.
+ * Register an event handle, see createEvent, to be signalled on the
+ * conditions in mask, e.g. FT4222_EVENT_RXCHAR for GPIO triggers.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setLatencyTimer
- * Signature: (JB)V
+ * Method:    setFT4222EventNotification
+ * Signature: (JIJ)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setLatencyTimer
-  (JNIEnv * env, jclass clsIFace, jlong handle, jbyte timer)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setFT4222EventNotification
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint mask, jlong event)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetLatencyTimer(ftHandle, (UCHAR) timer);
+    ftStatus = FT4222_SetEventNotification(ftHandle, (DWORD) mask, (PVOID) (intptr_t) event);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetLatencyTimer");
+        ThrowFTDIException(env, ftStatus, "FT4222_SetEventNotification");
         return;
     }
 }
 
 
 /*
- * Sets the ResetPipeRetryCount value.
- *
- * ResetPipeRetryCount controls the maximum number of times that the driver
- * tries to reset a pipe on which an error has occurred.
- * ResetPipeRequestRetryCount defaults to 50. It may be necessary to increase
- * this value in noisy environments where a lot of USB errors occur.
- *
- * Windows and Windows CE only.
+ * Set trigger condition for the pin wakeup/interrupt.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setResetPipeRetryCount
- * Signature: (JJ)V
+ * Method:    setInterruptTrigger
+ * Signature: (JI)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setResetPipeRetryCount
-  (JNIEnv * env, jclass clsIFace, jlong handle, jlong count)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setInterruptTrigger
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint trigger)
 {
-#if defined (_WIN32)
-
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetResetPipeRetryCount(ftHandle, (DWORD) count);
+    ftStatus = FT4222_SetInterruptTrigger(ftHandle, trigger);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetResetPipeRetryCount");
+        ThrowFTDIException(env, ftStatus, "FT4222_SetInterruptTrigger");
         return;
     }
-
-#else
-
-    // Function is not defined on Linux or OS X platforms, no-op instead.
-    return;
-
-#endif
 }
 
 
 /*
- * Sets the Request To Send (RTS) control signal.
+ * Enable or disable, suspend out, which will emit a signal when FT4222H
+ * enters suspend mode.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setRts
- * Signature: (J)V
+ * Method:    setSuspendOut
+ * Signature: (JZ)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setRts
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setSuspendOut
+  (JNIEnv * env, jclass clsIFace, jlong handle, jboolean enable)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetRts(ftHandle);
+    ftStatus = FT4222_SetSuspendOut(ftHandle, enable);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetRts");
+        ThrowFTDIException(env, ftStatus, "FT4222_SetSuspendOut");
         return;
     }
 }
 
 
 /*
- * This function sets the read and write timeouts for the device.
+ * Enable or disable wakeup/interrupt.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setTimeouts
- * Signature: (JII)V
+ * Method:    setWakeUpInterrupt
+ * Signature: (JZ)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setTimeouts
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint readTimeout, jint writeTimeout)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setWakeUpInterrupt
+  (JNIEnv * env, jclass clsIFace, jlong handle, jboolean enable)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetTimeouts(ftHandle, (DWORD) readTimeout, (DWORD) writeTimeout);
+    ftStatus = FT4222_SetWakeUpInterrupt(ftHandle, enable);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetTimeouts");
+        ThrowFTDIException(env, ftStatus, "FT4222_SetWakeUpInterrupt");
         return;
     }
 }
 
 
 /*
- * Set the USB request transfer size.
+ * Initialize the FT4222H as an SPI master.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setUSBParameters
- * Signature: (JII)V
+ * Method:    spiMasterInit
+ * Signature: (JIIIII)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setUSBParameters
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint inTransferSize, jint outTransferSize)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterInit
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint ioLines, jint div, jint cpol, jint cpha, jint ssoMap)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_SetUSBParameters(ftHandle, (DWORD) inTransferSize, (DWORD) outTransferSize);
+    ftStatus = FT4222_SPIMaster_Init(ftHandle, ioLines, div, cpol, cpha, ssoMap);
 
-    if (ftStatus == FT_OK) {
+    if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetUSBParameters");
+        ThrowFTDIException(env, ftStatus, "FT4222_SpiMaster_Init");
         return;
     }
 }
 
 
 /*
- * A command to include a custom VID and PID combination within the internal device list table.
- * This will allow the driver to load for the specified VID and PID combination.
+ * Under SPI dual or quad mode, write the single line command phase, then
+ * write and/or read the multi line data phase. Both directions are copied
+ * through malloc'd buffers, the Java arrays are not pinned during the USB
+ * transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setVidPid
- * Signature: (II)V
+ * Method:    spiMasterMultiReadWrite
+ * Signature: (J[BI[BIIII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setVidPid
-  (JNIEnv * env, jclass clsIFace, jint vid, jint pid)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterMultiReadWrite
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray readBuffer, jint readOffset,
+   jbyteArray writeBuffer, jint writeOffset, jint singleWriteBytes, jint multiWriteBytes, jint multiReadBytes)
 {
-#if defined (_WIN32)
-
-    // Function is not defined on Windows platform, no-op instead.
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer rx;
+    TransferBuffer tx;
+    uint32         sizeOfRead = 0;
+    jint           writeBytes = singleWriteBytes + multiWriteBytes;
 
-    return;
+    ftHandle = (FT_HANDLE) handle;
+    if (!ArrayTransfer(env, &rx, readBuffer, readOffset, multiReadBytes)) {
+        return 0;   // Exception thrown
+    }
+    if (!ArrayTransfer(env, &tx, writeBuffer, writeOffset, writeBytes)) {
+        EndTransfer(&rx);
+        return 0;   // Exception thrown
+    }
 
-#else
+    ftStatus = FT4222_SPIMaster_MultiReadWrite(ftHandle, ChunkTarget(&rx, 0), ChunkLoad(env, &tx, 0, writeBytes),
+            (uint8) singleWriteBytes, (uint16) multiWriteBytes, (uint16) multiReadBytes, &sizeOfRead);
+    ChunkStore(env, &rx, 0, (jint) sizeOfRead);
 
-    FT_STATUS ftStatus;
+    EndTransfer(&tx);
+    EndTransfer(&rx);
 
-    ftStatus = FT_SetVIDPID(vid, pid);
-    if (ftStatus == FT_OK) {
-        return;
+    if (ftStatus == FT4222_OK) {
+        return (jint) sizeOfRead;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_SetVIDPID");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_MultiReadWrite");
+        return 0;
     }
-
-#endif
 }
 
 
 /*
- * Stops the driver's IN task.
- *
- * This function is used to put the driver's IN task (read) into a wait state.
- * It can be used in situations where data is being received continuously, so
- * that the device can be purged without more data being received. It is used
- * together with FT_RestartInTask which sets the IN task running again.
+ * Under SPI dual or quad mode, multi line transfer using direct buffers.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    stopInTask
- * Signature: (J)V
+ * Method:    spiMasterMultiReadWriteDirect
+ * Signature: (JLjava/nio/ByteBuffer;ILjava/nio/ByteBuffer;IIII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_stopInTask
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterMultiReadWriteDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jobject readBuffer, jint readOffset,
+   jobject writeBuffer, jint writeOffset, jint singleWriteBytes, jint multiWriteBytes, jint multiReadBytes)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
+    uint32    sizeOfRead = 0;
+    uint8 *   readBytes;
+    uint8 *   writeBytes;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT_StopInTask(ftHandle);
+    readBytes = GetDirectAddress(env, readBuffer);
+    if (readBytes == NULL) {
+        return 0;   // Exception thrown
+    }
+    writeBytes = GetDirectAddress(env, writeBuffer);
+    if (writeBytes == NULL) {
+        return 0;   // Exception thrown
+    }
 
-    if (ftStatus == FT_OK) {
-        return;
+    ftStatus = FT4222_SPIMaster_MultiReadWrite(ftHandle, readBytes + readOffset, writeBytes + writeOffset,
+            (uint8) singleWriteBytes, (uint16) multiWriteBytes, (uint16) multiReadBytes, &sizeOfRead);
+
+    if (ftStatus == FT4222_OK) {
+        return (jint) sizeOfRead;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_StopInTask");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_MultiReadWrite");
+        return 0;
     }
 }
 
 
 /*
- * Write data to the device.
+ * Switch the FT4222H SPI master to single, dual, or quad mode.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    write
- * Signature: (J[BI)I
+ * Method:    spiMasterSetLines
+ * Signature: (JI)V
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_write
-  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint buffLength)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSetLines
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint spiMode)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    DWORD     dwByteCount;
-    DWORD     dwBytesWritten;
-    jbyte *   writeBuffer;
 
-    dwByteCount = (DWORD) buffLength;
     ftHandle = (FT_HANDLE) handle;
-    writeBuffer = (jbyte *) malloc(buffLength * sizeof(jbyte));
-    (*env)->GetByteArrayRegion(env, buffer, 0, dwByteCount, writeBuffer);
-
-    ftStatus = FT_Write(ftHandle, writeBuffer, (DWORD) buffLength, &dwBytesWritten);
-
-    free(writeBuffer);
+    ftStatus = FT4222_SPIMaster_SetLines(ftHandle, spiMode);
 
-    if (ftStatus == FT_OK) {
-        return (jint) dwBytesWritten;
+    if (ftStatus == FT4222_OK) {
+        return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_Write");
-        return 0;
+        ThrowFTDIException(env, ftStatus, "FT4222_SpiMaster_SetLines");
+        return;
     }
-
 }
 
 
 /*
- * Write a value to an EEPROM location.
+ * Under SPI single mode, read data from an SPI slave. The data is copied
+ * into the Java array afterwards, the array is not pinned during the USB
+ * transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    writeEE
- * Signature: (JII)V
+ * Method:    spiMasterSingleRead
+ * Signature: (J[BIIZ)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_writeEE
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint offset, jint value)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleRead
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint bytesToRead, jboolean isEndTransaction)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    uint16         sizeOfRead = 0;
 
     ftHandle = (FT_HANDLE) handle;
+    if (!ArrayTransfer(env, &tb, buffer, offset, bytesToRead)) {
+        return 0;   // Exception thrown
+    }
 
-    ftStatus = FT_WriteEE(ftHandle, offset, value);
+    ftStatus = FT4222_SPIMaster_SingleRead(ftHandle, ChunkTarget(&tb, 0), (uint16) bytesToRead,
+            &sizeOfRead, (BOOL) isEndTransaction);
+    ChunkStore(env, &tb, 0, sizeOfRead);
 
-    if (ftStatus == FT_OK) {
-        return;
+    EndTransfer(&tb);
+
+    if (ftStatus == FT4222_OK) {
+        return sizeOfRead;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT_Write");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleRead");
+        return 0;
     }
-
 }
 
-//
-// *************** LibFT4222 Functions ***************************************
-//
 
 /*
- * Perform chip software reset.
+ * Under SPI single mode, read any amount of data from an SPI slave, split
+ * into chunks of at most chunkSize bytes. Each chunk is copied through a
+ * bounce buffer, the array is never pinned. Slave Select stays asserted
+ * between chunks.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    chipReset
- * Signature: (J)V
+ * Method:    spiMasterSingleReadChunked
+ * Signature: (J[BIIIZ)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_chipReset
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleReadChunked
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint length, jint chunkSize, jboolean isEndTransaction)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    jint           done;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_ChipReset(ftHandle);
+    if (!ArrayTransfer(env, &tb, buffer, offset, length < chunkSize ? length : chunkSize)) {
+        return 0;   // Exception thrown
+    }
+
+    ftStatus = SpiReadChunked(env, ftHandle, &tb, length, chunkSize, (BOOL) isEndTransaction, &done);
+
+    EndTransfer(&tb);
 
     if (ftStatus == FT4222_OK) {
-        return;
+        return done;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_ChipReset");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleRead");
+        return 0;
     }
 }
 
 
 /*
- * Get the current system clock rate.
+ * Under SPI single mode, read any amount of data from an SPI slave using a direct buffer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getClock
- * Signature: (J)I
+ * Method:    spiMasterSingleReadChunkedDirect
+ * Signature: (JLjava/nio/ByteBuffer;IIIZ)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getClock
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleReadChunkedDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jobject buffer, jint offset, jint length, jint chunkSize, jboolean isEndTransaction)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
-    FT4222_ClockRate clk;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    jint           done;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_GetClock(ftHandle, &clk);
+    if (!DirectTransfer(env, &tb, buffer, offset)) {
+        return 0;   // Exception thrown
+    }
+
+    ftStatus = SpiReadChunked(env, ftHandle, &tb, length, chunkSize, (BOOL) isEndTransaction, &done);
 
     if (ftStatus == FT4222_OK) {
-        return clk;
+        return done;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_GetClock");
-        return -1;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleRead");
+        return 0;
     }
 }
 
 
 /*
- * Gets the maximum packet size in a transaction (FT4222 only).
+ * Under SPI single mode, read data from an SPI slave into a direct buffer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getMaxTransferSize
- * Signature: (J)I
+ * Method:    spiMasterSingleReadDirect
+ * Signature: (JLjava/nio/ByteBuffer;IIZ)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_getMaxTransferSize
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleReadDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jobject buffer, jint offset, jint bytesToRead, jboolean isEndTransaction)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
-    uint16    maxSize;
+    uint16    sizeOfRead = 0;
+    uint8 *   readBuffer;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_GetMaxTransferSize(ftHandle, &maxSize);
+    readBuffer = GetDirectAddress(env, buffer);
+    if (readBuffer == NULL) {
+        return 0;   // Exception thrown
+    }
 
-    if (ftStatus == FT_OK) {
-        return maxSize;
+    ftStatus = FT4222_SPIMaster_SingleRead(ftHandle, readBuffer + offset, (uint16) bytesToRead,
+            &sizeOfRead, (BOOL) isEndTransaction);
+
+    if (ftStatus == FT4222_OK) {
+        return sizeOfRead;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_GetMaxTransferSize");
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleRead");
         return 0;
     }
 }
 
 
 /*
- * Get the versions of FT4222H and LibFT4222.
+ * Under SPI single mode, full-duplex write data to and read data from an
+ * SPI slave. Both directions are copied through malloc'd buffers, the
+ * arrays are not pinned during the USB transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    getVersion
- * Signature: (J)Lnet/sf/yad2xx/ft4222/Version
+ * Method:    spiMasterSingleReadWrite
+ * Signature: (J[BI[BIIZ)I
  */
-JNIEXPORT jobject JNICALL Java_net_sf_yad2xx_FTDIInterface_getVersion
-  (JNIEnv * env, jclass clsIFace, jlong handle)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleReadWrite
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray readBuffer, jint readOffset,
+   jbyteArray writeBuffer, jint writeOffset, jint bufferSize, jboolean isEndTransaction)
 {
     FT_HANDLE      ftHandle;
-    FT4222_STATUS  ftStatus;
-    FT4222_Version version;
+    FT_STATUS      ftStatus;
+    TransferBuffer rx;
+    TransferBuffer tx;
+    uint16         sizeTransferred = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_GetVersion(ftHandle, &version);
-
-    if (ftStatus != FT4222_OK) {
-        ThrowFTDIException(env, ftStatus, "FT4222_GetVersion");
-        return 0;
-    }
-
-    // Lookup Version class
-    jclass versionCls = (*env)->FindClass(env, "net/sf/yad2xx/ft4222/Version");
-    if (versionCls == NULL) {
-        return 0;  // Exception thrown
+    if (!ArrayTransfer(env, &rx, readBuffer, readOffset, bufferSize)) {
+        return 0;   // Exception thrown
     }
-
-    // Get the constructor for Version(long, long)
-    jmethodID cid = (*env)->GetMethodID(env, versionCls, "<init>", "(II)V");
-    if (cid == NULL) {
-        return 0;  // Exception thrown
+    if (!ArrayTransfer(env, &tx, writeBuffer, writeOffset, bufferSize)) {
+        EndTransfer(&rx);
+        return 0;   // Exception thrown
     }
 
-    jobject result = (*env)->NewObject(env, versionCls, cid, version.chipVersion, version.dllVersion);
+    ftStatus = FT4222_SPIMaster_SingleReadWrite(ftHandle, ChunkTarget(&rx, 0), ChunkLoad(env, &tx, 0, bufferSize),
+            (uint16) bufferSize, &sizeTransferred, (BOOL) isEndTransaction);
+    ChunkStore(env, &rx, 0, sizeTransferred);
 
-    (*env)->DeleteLocalRef(env, versionCls);
+    EndTransfer(&tx);
+    EndTransfer(&rx);
 
-    return result;
+    if (ftStatus == FT4222_OK) {
+        return sizeTransferred;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleReadWrite");
+        return 0;
+    }
 }
 
 
 /*
- * Initialize the FT4222H as an I2C master with the requested I2C speed.
+ * Under SPI single mode, full-duplex write data to and read data from an
+ * SPI slave using direct buffers.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    i2cMasterInit
- * Signature: (JI)V
+ * Method:    spiMasterSingleReadWriteDirect
+ * Signature: (JLjava/nio/ByteBuffer;ILjava/nio/ByteBuffer;IIZ)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterInit
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint kbps)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleReadWriteDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jobject readBuffer, jint readOffset,
+   jobject writeBuffer, jint writeOffset, jint bufferSize, jboolean isEndTransaction)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
+    uint16    sizeTransferred = 0;
+    uint8 *   readBytes;
+    uint8 *   writeBytes;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_I2CMaster_Init(ftHandle, kbps);
+    readBytes = GetDirectAddress(env, readBuffer);
+    if (readBytes == NULL) {
+        return 0;   // Exception thrown
+    }
+    writeBytes = GetDirectAddress(env, writeBuffer);
+    if (writeBytes == NULL) {
+        return 0;   // Exception thrown
+    }
+
+    ftStatus = FT4222_SPIMaster_SingleReadWrite(ftHandle, readBytes + readOffset, writeBytes + writeOffset,
+            (uint16) bufferSize, &sizeTransferred, (BOOL) isEndTransaction);
 
     if (ftStatus == FT4222_OK) {
-        return;
+        return sizeTransferred;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_Init");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleReadWrite");
+        return 0;
     }
 }
 
 
 /*
- * Read data from the specified I2C slave device with START and STOP
- * conditions.
+ * Under SPI single mode, write data to an SPI slave. The data is copied
+ * out of the Java array first, the array is not pinned during the USB
+ * transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    i2cMasterRead
- * Signature: (JI[BI)I
+ * Method:    spiMasterSingleWrite
+ * Signature: (J[BIIZ)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterRead
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jbyteArray buffer, jint bytesToRead)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleWrite
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint bytesToWrite, jboolean isEndTransaction)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
-    uint16_t  sizeTransferred;
-    jbyte *   readBuffer;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    uint16         sizeTransferred = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    readBuffer = (jbyte *) malloc(bytesToRead * sizeof(jbyte));
+    if (!ArrayTransfer(env, &tb, buffer, offset, bytesToWrite)) {
+        return 0;   // Exception thrown
+    }
 
-    ftStatus = FT4222_I2CMaster_Read(ftHandle, slaveAddress, (uint8_t *) readBuffer, bytesToRead, &sizeTransferred);
+    ftStatus = FT4222_SPIMaster_SingleWrite(ftHandle, ChunkLoad(env, &tb, 0, bytesToWrite), (uint16) bytesToWrite,
+            &sizeTransferred, (BOOL) isEndTransaction);
+
+    EndTransfer(&tb);
 
     if (ftStatus == FT4222_OK) {
-        (*env)->SetByteArrayRegion(env, buffer, 0, (jsize) sizeTransferred, readBuffer);
-        free(readBuffer);
         return sizeTransferred;
     } else {
-        free(readBuffer);
-        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_Read");
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleWrite");
         return 0;
     }
 }
 
 
 /*
- * Write data to the specified I2C slave device with START and STOP
- * conditions.
+ * Under SPI single mode, write any amount of data to an SPI slave, split
+ * into chunks of at most chunkSize bytes. Each chunk is copied through a
+ * bounce buffer, the array is never pinned. Slave Select stays asserted
+ * between chunks.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    i2cMasterWrite
- * Signature: (JI[BI)I
+ * Method:    spiMasterSingleWriteChunked
+ * Signature: (J[BIIIZ)I
  */
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_i2cMasterWrite
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint slaveAddress, jbyteArray buffer, jint bytesToWrite)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleWriteChunked
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint length, jint chunkSize, jboolean isEndTransaction)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
-    uint16_t  sizeTransferred;
-    jbyte *   writeBuffer;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    jint           done;
 
-    writeBuffer = (jbyte *) malloc(bytesToWrite * sizeof(jbyte));
-    (*env)->GetByteArrayRegion(env, buffer, 0, bytesToWrite, writeBuffer);
+    ftHandle = (FT_HANDLE) handle;
+    if (!ArrayTransfer(env, &tb, buffer, offset, length < chunkSize ? length : chunkSize)) {
+        return 0;   // Exception thrown
+    }
+
+    ftStatus = SpiWriteChunked(env, ftHandle, &tb, length, chunkSize, (BOOL) isEndTransaction, &done);
+
+    EndTransfer(&tb);
+
+    if (ftStatus == FT4222_OK) {
+        return done;
+    } else {
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleWrite");
+        return 0;
+    }
+}
+
+
+/*
+ * Under SPI single mode, write any amount of data to an SPI slave using a direct buffer.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    spiMasterSingleWriteChunkedDirect
+ * Signature: (JLjava/nio/ByteBuffer;IIIZ)I
+ */
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleWriteChunkedDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jobject buffer, jint offset, jint length, jint chunkSize, jboolean isEndTransaction)
+{
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    jint           done;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_I2CMaster_Write(ftHandle, slaveAddress, (uint8_t *) writeBuffer, bytesToWrite, &sizeTransferred);
+    if (!DirectTransfer(env, &tb, buffer, offset)) {
+        return 0;   // Exception thrown
+    }
 
-    free(writeBuffer);
+    ftStatus = SpiWriteChunked(env, ftHandle, &tb, length, chunkSize, (BOOL) isEndTransaction, &done);
 
     if (ftStatus == FT4222_OK) {
-        return sizeTransferred;
+        return done;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_I2CMaster_Write");
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleWrite");
         return 0;
     }
 }
 
 
 /*
- * Set the system clock rate.
+ * Under SPI single mode, write data to an SPI slave from a direct buffer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setClock
- * Signature: (JJ)V
+ * Method:    spiMasterSingleWriteDirect
+ * Signature: (JLjava/nio/ByteBuffer;IIZ)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setClock
-  (JNIEnv * env, jclass clsIFace, jlong handle, jlong rate)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleWriteDirect
+  (JNIEnv * env, jclass clsIFace, jlong handle, jobject buffer, jint offset, jint bytesToWrite, jboolean isEndTransaction)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
+    uint16    sizeTransferred = 0;
+    uint8 *   writeBuffer;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_SetClock(ftHandle, rate);
+    writeBuffer = GetDirectAddress(env, buffer);
+    if (writeBuffer == NULL) {
+        return 0;   // Exception thrown
+    }
+
+    ftStatus = FT4222_SPIMaster_SingleWrite(ftHandle, writeBuffer + offset, (uint16) bytesToWrite,
+            &sizeTransferred, (BOOL) isEndTransaction);
 
     if (ftStatus == FT4222_OK) {
-        return;
+        return sizeTransferred;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_SetClock");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPIMaster_SingleWrite");
+        return 0;
     }
 }
 
 
 /*
- * Set trigger condition for the pin wakeup/interrupt.
+ * Reset the SPI transaction.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setInterruptTrigger
+ * Method:    spiResetTransaction
  * Signature: (JI)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setInterruptTrigger
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint trigger)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_spiResetTransaction
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint spiIdx)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_SetInterruptTrigger(ftHandle, trigger);
+    ftStatus = FT4222_SPI_ResetTransaction(ftHandle, (uint8) spiIdx);
 
     if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_SetInterruptTrigger");
+        ThrowFTDIException(env, ftStatus, "FT4222_SpiResetTransaction");
         return;
     }
 }
 
 
 /*
- * Enable or disable, suspend out, which will emit a signal when FT4222H
- * enters suspend mode.
+ * Get the number of bytes waiting in the SPI slave receive buffer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setSuspendOut
- * Signature: (JZ)V
+ * Method:    spiSlaveGetRxStatus
+ * Signature: (J)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setSuspendOut
-  (JNIEnv * env, jclass clsIFace, jlong handle, jboolean enable)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiSlaveGetRxStatus
+  (JNIEnv * env, jclass clsIFace, jlong handle)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
+    uint16    rxSize = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_SetSuspendOut(ftHandle, enable);
+    ftStatus = FT4222_SPISlave_GetRxStatus(ftHandle, &rxSize);
 
     if (ftStatus == FT4222_OK) {
-        return;
+        return rxSize;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_SetSuspendOut");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPISlave_GetRxStatus");
+        return 0;
     }
 }
 
 
 /*
- * Enable or disable wakeup/interrupt.
+ * Initialize the FT4222H as an SPI slave using the given protocol option.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    setWakeUpInterrupt
- * Signature: (JZ)V
+ * Method:    spiSlaveInit
+ * Signature: (JI)V
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setWakeUpInterrupt
-  (JNIEnv * env, jclass clsIFace, jlong handle, jboolean enable)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_spiSlaveInit
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint protocolOpt)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_SetWakeUpInterrupt(ftHandle, enable);
+    ftStatus = FT4222_SPISlave_InitEx(ftHandle, (SPI_SlaveProtocol) protocolOpt);
 
     if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_SetWakeUpInterrupt");
+        ThrowFTDIException(env, ftStatus, "FT4222_SPISlave_InitEx");
         return;
     }
 }
 
 
 /*
- * Initialize the FT4222H as an SPI master.
+ * Read data received by the SPI slave. The data is copied into the Java
+ * array afterwards, the array is not pinned during the USB transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    spiMasterInit
- * Signature: (JIIIII)V
+ * Method:    spiSlaveRead
+ * Signature: (J[BII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterInit
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint ioLines, jint div, jint cpol, jint cpha, jint ssoMap)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiSlaveRead
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint bytesToRead)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    uint16         sizeOfRead = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_SPIMaster_Init(ftHandle, ioLines, div, cpol, cpha, ssoMap);
+    if (!ArrayTransfer(env, &tb, buffer, offset, bytesToRead)) {
+        return 0;   // Exception thrown
+    }
+
+    ftStatus = FT4222_SPISlave_Read(ftHandle, ChunkTarget(&tb, 0), (uint16) bytesToRead, &sizeOfRead);
+    ChunkStore(env, &tb, 0, sizeOfRead);
+
+    EndTransfer(&tb);
 
     if (ftStatus == FT4222_OK) {
-        return;
+        return sizeOfRead;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_SpiMaster_Init");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPISlave_Read");
+        return 0;
     }
 }
 
 
 /*
- * Switch the FT4222H SPI master to single, dual, or quad mode.
+ * Background reader step for an SPI slave receive ring. Waits on the event
+ * handle if nothing has been received, then reads up to space bytes into
+ * the direct ring buffer starting at offset, wrapping at the end of the
+ * buffer. Returns the number of bytes stored, 0 on timeout.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    spiMasterSetLines
- * Signature: (JI)V
+ * Method:    spiSlaveReadRing
+ * Signature: (JJLjava/nio/ByteBuffer;III)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSetLines
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint spiMode)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiSlaveReadRing
+  (JNIEnv * env, jclass clsIFace, jlong handle, jlong event, jobject ring, jint offset, jint space, jint timeout)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
+    uint16    rxSize = 0;
+    uint16    sizeOfRead;
+    uint8 *   base;
+    jint      capacity;
+    jint      done = 0;
+    jint      request;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_SPIMaster_SetLines(ftHandle, spiMode);
+    base = GetDirectAddress(env, ring);
+    if (base == NULL) {
+        return 0;   // Exception thrown
+    }
+    capacity = (jint) (*env)->GetDirectBufferCapacity(env, ring);
+
+    ftStatus = FT4222_SPISlave_GetRxStatus(ftHandle, &rxSize);
+    if (ftStatus == FT4222_OK && rxSize == 0) {
+        WaitForEvent((void *) (intptr_t) event, timeout);
+        ftStatus = FT4222_SPISlave_GetRxStatus(ftHandle, &rxSize);
+    }
+
+    while (ftStatus == FT4222_OK && rxSize > 0 && done < space) {
+        request = rxSize;
+        if (request > space - done) {
+            request = space - done;
+        }
+        if (request > capacity - offset) {
+            request = capacity - offset;
+        }
+
+        sizeOfRead = 0;
+        ftStatus = FT4222_SPISlave_Read(ftHandle, base + offset, (uint16) request, &sizeOfRead);
+        if (ftStatus != FT4222_OK || sizeOfRead == 0) {
+            break;
+        }
+        done += sizeOfRead;
+        offset = (offset + sizeOfRead) % capacity;
+        rxSize -= sizeOfRead;
+    }
 
     if (ftStatus == FT4222_OK) {
-        return;
+        return done;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_SpiMaster_SetLines");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPISlave_Read");
+        return 0;
     }
 }
 
 
 /*
- * Under SPI single mode, read data from an SPI slave.
+ * Set the SPI slave clock polarity and phase.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    spiMasterSingleRead
- * Signature: (J[BIZ)I
+ * Method:    spiSlaveSetMode
+ * Signature: (JII)V
  */
-/*
-JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiMasterSingleRead
-  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint bytesToRead, jboolean isEndTransaction)
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_spiSlaveSetMode
+  (JNIEnv * env, jclass clsIFace, jlong handle, jint cpol, jint cpha)
 {
     FT_HANDLE ftHandle;
     FT_STATUS ftStatus;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_SPIMaster_SetLines(ftHandle, spiMode);
+    ftStatus = FT4222_SPISlave_SetMode(ftHandle, (FT4222_SPICPOL) cpol, (FT4222_SPICPHA) cpha);
 
     if (ftStatus == FT4222_OK) {
         return;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_SpiMaster_SingleRead");
+        ThrowFTDIException(env, ftStatus, "FT4222_SPISlave_SetMode");
         return;
     }
 }
-*/
+
 
 /*
- * Reset the SPI transaction.
+ * Queue data for the SPI master to read. The data is copied out of the
+ * Java array first, the array is not pinned during the USB transfer.
  *
  * Class:     net_sf_yad2xx_FTDIInterface
- * Method:    spiResetTransaction
- * Signature: (JI)V
+ * Method:    spiSlaveWrite
+ * Signature: (J[BII)I
  */
-JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_spiResetTransaction
-  (JNIEnv * env, jclass clsIFace, jlong handle, jint spiIdx)
+JNIEXPORT jint JNICALL Java_net_sf_yad2xx_FTDIInterface_spiSlaveWrite
+  (JNIEnv * env, jclass clsIFace, jlong handle, jbyteArray buffer, jint offset, jint bytesToWrite)
 {
-    FT_HANDLE ftHandle;
-    FT_STATUS ftStatus;
+    FT_HANDLE      ftHandle;
+    FT_STATUS      ftStatus;
+    TransferBuffer tb;
+    uint16         sizeTransferred = 0;
 
     ftHandle = (FT_HANDLE) handle;
-    ftStatus = FT4222_SPI_ResetTransaction(ftHandle, (uint8) spiIdx);
+    if (!ArrayTransfer(env, &tb, buffer, offset, bytesToWrite)) {
+        return 0;   // Exception thrown
+    }
+
+    ftStatus = FT4222_SPISlave_Write(ftHandle, ChunkLoad(env, &tb, 0, bytesToWrite), (uint16) bytesToWrite,
+            &sizeTransferred);
+
+    EndTransfer(&tb);
 
     if (ftStatus == FT4222_OK) {
-        return;
+        return sizeTransferred;
     } else {
-        ThrowFTDIException(env, ftStatus, "FT4222_SpiResetTransaction");
-        return;
+        ThrowFTDIException(env, ftStatus, "FT4222_SPISlave_Write");
+        return 0;
     }
 }
 
@@ -1915,6 +4373,95 @@ JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_unInitialize
 }
 
 
+//
+// *************** Event Handle Functions ************************************
+//
+
+/*
+ * Allocate an event handle suitable for FT_SetEventNotification, a Win32
+ * auto-reset event or the EVENT_HANDLE substitute on other platforms.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    createEvent
+ * Signature: ()J
+ */
+JNIEXPORT jlong JNICALL Java_net_sf_yad2xx_FTDIInterface_createEvent
+  (JNIEnv * env, jclass clsIFace)
+{
+    void * event = CreateEventHandle();
+
+    if (event == NULL) {
+        jclass exceptionCls = (*env)->FindClass(env, "java/lang/OutOfMemoryError");
+        if (exceptionCls != NULL) {
+            (*env)->ThrowNew(env, exceptionCls, "Unable to create event handle");
+            (*env)->DeleteLocalRef(env, exceptionCls);
+        }
+        return 0;
+    }
+
+    return (jlong) (intptr_t) event;
+}
+
+
+/*
+ * Free an event handle. It must no longer be registered with a device.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    closeEvent
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_closeEvent
+  (JNIEnv * env, jclass clsIFace, jlong event)
+{
+#if defined (_WIN32)
+    CloseHandle((HANDLE) (intptr_t) event);
+#else
+    EVENT_HANDLE * eh = (EVENT_HANDLE *) (intptr_t) event;
+
+    pthread_cond_destroy(&eh->eCondVar);
+    pthread_mutex_destroy(&eh->eMutex);
+    free(eh);
+#endif
+}
+
+
+/*
+ * Signal an event handle, waking any thread in waitForEvent.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    setEvent
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_net_sf_yad2xx_FTDIInterface_setEvent
+  (JNIEnv * env, jclass clsIFace, jlong event)
+{
+#if defined (_WIN32)
+    SetEvent((HANDLE) (intptr_t) event);
+#else
+    EVENT_HANDLE * eh = (EVENT_HANDLE *) (intptr_t) event;
+
+    pthread_mutex_lock(&eh->eMutex);
+    eh->iVar = 1;
+    pthread_cond_signal(&eh->eCondVar);
+    pthread_mutex_unlock(&eh->eMutex);
+#endif
+}
+
+
+/*
+ * Block until the event handle is signalled or timeout milliseconds pass.
+ *
+ * Class:     net_sf_yad2xx_FTDIInterface
+ * Method:    waitForEvent
+ * Signature: (JI)Z
+ */
+JNIEXPORT jboolean JNICALL Java_net_sf_yad2xx_FTDIInterface_waitForEvent
+  (JNIEnv * env, jclass clsIFace, jlong event, jint timeout)
+{
+    return WaitForEvent((void *) (intptr_t) event, timeout) ? JNI_TRUE : JNI_FALSE;
+}
+
+
 #ifdef __cplusplus
 }
 #endif
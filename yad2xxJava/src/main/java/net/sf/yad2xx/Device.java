@@ -18,9 +18,12 @@
  */
 package net.sf.yad2xx;
 
+import static net.sf.yad2xx.FTDIConstants.FT_EVENT_RXCHAR;
 import static net.sf.yad2xx.FTDIConstants.FT_FLAGS_HISPEED;
 import static net.sf.yad2xx.FTDIConstants.FT_FLAGS_OPENED;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Represents an individual FTDI device channel attached to the computers
  * USB ports.
@@ -39,6 +42,12 @@ import static net.sf.yad2xx.FTDIConstants.FT_FLAGS_OPENED;
  */
 public class Device {
 
+    /**
+     * Interval between wake ups while {@link #close()} waits for threads
+     * blocked on the event handle, in ms.
+     */
+    private static final int WAIT_SLICE = 10;
+
     private int index;
     private int flags;
     private int type;
@@ -69,6 +78,28 @@ public class Device {
      */
     private long ftHandle;
 
+    /**
+     * Event handle signalled by D2XX, created on first use.
+     */
+    private long event;
+
+    /**
+     * Events currently signalling the event handle.
+     */
+    private int eventMask;
+
+    /**
+     * Threads inside a native wait on the event handle. {@link #close()}
+     * must not free the handle until they have left.
+     */
+    private int eventWaiters;
+
+    /**
+     * Incremented by {@link #signalEvent()} so a woken wait can tell an
+     * explicit wake up from a driver signal.
+     */
+    private int wakeups;
+
     /**
      * Constructor intended for internal library use only. Use 
      * {@link net.sf.yad2xx.FTDInterface#getDevices()}.
@@ -94,17 +125,86 @@ public class Device {
     }
     
     /**
-     * Close the device.
+     * Close the device. Threads blocked in {@link #awaitRx(int, long)},
+     * {@link #awaitEvent(long)} or {@link #transact(byte[], int, byte[], int,
+     * int)} are woken, and the event handle is only freed once they have
+     * returned.
      * 
      * @throws	FTDIException	D2XX API call failed, see exception fields for
      * 							details
      * @see						FTDIInterface#close(Device)
      * @since	0.1
      */
-    public void close() throws FTDIException {
+    public synchronized void close() throws FTDIException {
+        awaitEventWaiters();
         if (ftHandle != 0) {
             FTDIInterface.close(this);
         }
+        releaseEvent();
+    }
+
+    /**
+     * Blocks until one of the events selected by {@link #setEventMask(int)}
+     * occurs. Check {@link #getQueueStatus()} or {@link #getModemStatus()}
+     * afterwards to find out which.
+     *
+     * @param	timeout			longest wait in ms
+     * @return					an event occurred before the timeout
+     * @throws	IllegalStateException	no events selected
+     * @since	2.1
+     */
+    public boolean awaitEvent(long timeout) {
+        long handle;
+        synchronized (this) {
+            if (eventMask == 0) {
+                throw new IllegalStateException("No events selected");
+            }
+            handle = event;
+            eventWaiters++;
+        }
+        try {
+            return FTDIInterface.waitForEvent(handle, (int) Math.min(timeout, Integer.MAX_VALUE));
+        } finally {
+            leaveEventWait();
+        }
+    }
+
+    /**
+     * Blocks until at least minBytes are waiting in the receive queue. The
+     * calling thread sleeps on an event signalled by the driver rather than
+     * polling {@link #getQueueStatus()}, FT_EVENT_RXCHAR is added to the
+     * event mask on first use.
+     *
+     * @param	minBytes		number of bytes wanted
+     * @param	timeout			longest wait in ms
+     * @return					number of bytes in the receive queue, less
+     * 							than minBytes on timeout or when woken by
+     * 							{@link #close()}
+     * @throws	FTDIException	D2XX API call failed, see exception fields for
+     * 							details
+     * @see						FTDIInterface#awaitRx(long, long, int, int)
+     * @since	2.1
+     */
+    public int awaitRx(int minBytes, long timeout) throws FTDIException {
+        long handle;
+        int wakeup;
+        synchronized (this) {
+            handle = enterRxWait();
+            wakeup = wakeups;
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            for (;;) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                int queued = FTDIInterface.awaitRx(ftHandle, handle, minBytes,
+                        (int) Math.max(0, Math.min(remaining, Integer.MAX_VALUE)));
+                if (queued >= minBytes || remaining <= 0 || isWoken(wakeup)) {
+                    return queued;
+                }
+            }
+        } finally {
+            leaveEventWait();
+        }
     }
 
     /**
@@ -217,6 +317,17 @@ public class Device {
         return ftHandle;
     }
 
+    /**
+     * Physical USB location. Interfaces of one multi-channel device have
+     * consecutive values.
+     *
+     * @return					location id
+     * @since	2.1
+     */
+    public int getLocationId() {
+        return locationId;
+    }
+
     /**
      * Get the current value of the latency timer.
      * <p>
@@ -553,6 +664,29 @@ public class Device {
         }
     }
     
+    /**
+     * Selects the events that wake {@link #awaitEvent(long)} and
+     * {@link #awaitRx(int, long)}. The event handle is created on first use
+     * and released by {@link #close()}.
+     *
+     * @param	mask			combination of
+     * 							{@link FTDIConstants#FT_EVENT_RXCHAR},
+     * 							{@link FTDIConstants#FT_EVENT_MODEM_STATUS}
+     * 							and {@link FTDIConstants#FT_EVENT_LINE_STATUS}
+     * @throws	FTDIException	D2XX API call failed, see exception fields for
+     * 							details
+     * @see						FTDIInterface#setEventNotification(long, int,
+     * 								long)
+     * @since	2.1
+     */
+    public synchronized void setEventMask(int mask) throws FTDIException {
+        if (event == 0) {
+            event = FTDIInterface.createEvent();
+        }
+        FTDIInterface.setEventNotification(ftHandle, mask, event);
+        eventMask = mask;
+    }
+
     /**
      * Sets the flow control for the device.
      * 
@@ -716,6 +850,195 @@ public class Device {
         return result.toString();
     }
     
+    /**
+     * Writes a command and reads its response in a single native call,
+     * replacing a write, getQueueStatus and read sequence. The calling
+     * thread sleeps on the event used by {@link #awaitRx(int, long)} until
+     * rxLength bytes arrive or the timeout expires, so a short count means
+     * the device did not answer in time.
+     *
+     * @param	tx				bytes to write to device
+     * @param	txLength		number of bytes to write, may be 0
+     * @param	rx				where to store the response
+     * @param	rxLength		number of response bytes expected
+     * @param	timeoutMs		longest wait for the response in ms
+     * @return					number of response bytes received
+     * @throws	FTDIException	D2XX API call failed, see exception fields for
+     * 							details
+     * @see						FTDIInterface#transact(long, long, byte[], int, byte[], int, int)
+     * @since	2.1
+     */
+    public int transact(byte[] tx, int txLength, byte[] rx, int rxLength, int timeoutMs) throws FTDIException {
+        checkRange(tx, 0, txLength);
+        checkRange(rx, 0, rxLength);
+        long handle;
+        synchronized (this) {
+            handle = enterRxWait();
+        }
+        try {
+            return FTDIInterface.transact(ftHandle, handle, tx, txLength, rx, rxLength, timeoutMs);
+        } finally {
+            leaveEventWait();
+        }
+    }
+
+    /**
+     * No-throw variant of {@link #getQueueStatus()} for retry loops, where
+     * failures such as FT_IO_ERROR during hot-plug are expected. Use
+     * {@link FTStatus#byOrdinal(int)} to interpret the status.
+     *
+     * @param	status			receives the FT_STATUS in element 0, 0 is
+     * 							FT_OK
+     * @return					number of bytes available, 0 on failure
+     * @see						FTDIInterface#tryGetQueueStatus(long, int[])
+     * @since	2.1
+     */
+    public int tryGetQueueStatus(int[] status) {
+        checkStatusArray(status);
+        return FTDIInterface.tryGetQueueStatus(ftHandle, status);
+    }
+
+    /**
+     * No-throw variant of {@link #read(byte[])}. Blocks like read until
+     * length bytes arrive or the read timeout expires.
+     *
+     * @param	buffer			bytes read from device
+     * @param	offset			index of the first byte to fill
+     * @param	length			number of bytes to read
+     * @param	status			receives the FT_STATUS in element 0, 0 is
+     * 							FT_OK
+     * @return					number of bytes actually read, valid even on
+     * 							failure
+     * @see						FTDIInterface#tryRead(long, byte[], int, int, int[])
+     * @since	2.1
+     */
+    public int tryRead(byte[] buffer, int offset, int length, int[] status) {
+        checkRange(buffer, offset, length);
+        checkStatusArray(status);
+        return FTDIInterface.tryRead(ftHandle, buffer, offset, length, status);
+    }
+
+    /**
+     * No-throw variant of {@link #write(byte[], int)}.
+     *
+     * @param	buffer			bytes to write to device
+     * @param	offset			index of the first byte to write
+     * @param	length			number of bytes to write
+     * @param	status			receives the FT_STATUS in element 0, 0 is
+     * 							FT_OK
+     * @return					number of bytes actually written
+     * @see						FTDIInterface#tryWrite(long, byte[], int, int, int[])
+     * @since	2.1
+     */
+    public int tryWrite(byte[] buffer, int offset, int length, int[] status) {
+        checkRange(buffer, offset, length);
+        checkStatusArray(status);
+        return FTDIInterface.tryWrite(ftHandle, buffer, offset, length, status);
+    }
+
+    private static void checkRange(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > buffer.length - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", buffer "
+                    + buffer.length);
+        }
+    }
+
+    private static void checkStatusArray(int[] status) {
+        if (status.length < 1) {
+            throw new IllegalArgumentException("status array is empty");
+        }
+    }
+
+    /**
+     * Wakes any thread blocked in {@link #awaitRx(int, long)} or
+     * {@link #awaitEvent(long)} early.
+     */
+    synchronized void signalEvent() {
+        wakeups++;
+        if (event != 0) {
+            FTDIInterface.setEvent(event);
+        }
+    }
+
+    /**
+     * Takes the enumeration details of the same device from a later
+     * {@link FTDIInterface#getDevices()}. The index in particular changes
+     * as other devices come and go, and {@link #open()} depends on it. The
+     * open flag and handle are kept while this instance holds the device
+     * open.
+     *
+     * @param	latest			same device, freshly enumerated
+     */
+    synchronized void refresh(Device latest) {
+        index = latest.index;
+        type = latest.type;
+        id = latest.id;
+        locationId = latest.locationId;
+        if (latest.serialNumber != null && !latest.serialNumber.isEmpty()) {
+            serialNumber = latest.serialNumber;
+        }
+        if (latest.description != null && !latest.description.isEmpty()) {
+            description = latest.description;
+        }
+        if (ftHandle == 0) {
+            flags = latest.flags;
+        } else {
+            flags = latest.flags | FT_FLAGS_OPENED;
+        }
+    }
+
+    /**
+     * Wakes threads waiting on the event handle and blocks until they have
+     * returned from native code. Called with the monitor held, which
+     * wait() gives up while they leave.
+     */
+    private void awaitEventWaiters() {
+        boolean interrupted = false;
+        while (eventWaiters > 0) {
+            signalEvent();
+            try {
+                wait(WAIT_SLICE);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Registers the calling thread as an event waiter, adding
+     * FT_EVENT_RXCHAR to the event mask if needed. Called with the monitor
+     * held.
+     *
+     * @return					event handle to wait on
+     */
+    private long enterRxWait() throws FTDIException {
+        if ((eventMask & FT_EVENT_RXCHAR) == 0) {
+            setEventMask(eventMask | FT_EVENT_RXCHAR);
+        }
+        eventWaiters++;
+        return event;
+    }
+
+    private synchronized boolean isWoken(int wakeup) {
+        return wakeups != wakeup;
+    }
+
+    private synchronized void leaveEventWait() {
+        eventWaiters--;
+        notifyAll();
+    }
+
+    private synchronized void releaseEvent() {
+        if (event != 0) {
+            FTDIInterface.closeEvent(event);
+            event = 0;
+            eventMask = 0;
+        }
+    }
+
     /**
      * Writes a single byte to the device.
      * 
@@ -775,4 +1098,37 @@ public class Device {
         FTDIInterface.writeEE(ftHandle, offset, value);
     }
 
+    /**
+     * Writes a frame preceded by a BREAK and a MARK after break, as used by
+     * DMX512 and RDM. Unlike calling {@link #setBreak(boolean)} twice and
+     * then {@link #write(byte[])}, the whole sequence happens in one native
+     * call so the line timing is not stretched by the JVM.
+     * <p>
+     * The BREAK is not asserted until the driver transmit queue is empty and
+     * a further guard time has passed, so it never truncates the previous
+     * frame. The guard should cover the last character still in the UART,
+     * one character time or more.
+     *
+     * @param	buffer			frame, starting at index 0
+     * @param	length			number of bytes to write
+     * @param	guardMicros		wait in microseconds after the transmit
+     * 							queue empties
+     * @param	breakMicros		minimum BREAK duration in microseconds
+     * @param	mabMicros		minimum MARK after break in microseconds
+     * @return					number of bytes actually written
+     * @throws	FTDIException	D2XX API call failed, see exception fields for
+     * 							details
+     * @see						FTDIInterface#writeWithBreak(long, byte[], int,
+     * 								int, int, int)
+     * @since	2.1
+     */
+    public int writeWithBreak(byte[] buffer, int length, int guardMicros, int breakMicros, int mabMicros)
+            throws FTDIException {
+        checkRange(buffer, 0, length);
+        if (guardMicros < 0 || breakMicros < 0 || mabMicros < 0) {
+            throw new IllegalArgumentException("Negative delay");
+        }
+        return FTDIInterface.writeWithBreak(ftHandle, buffer, length, guardMicros, breakMicros, mabMicros);
+    }
+
 }
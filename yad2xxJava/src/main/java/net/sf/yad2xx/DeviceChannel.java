@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.spi.AbstractInterruptibleChannel;
+
+/**
+ * Adapts a {@link Device} to NIO so it can be used with
+ * {@link java.nio.channels.Channels}, {@link java.nio.channels.FileChannel#transferFrom}
+ * and other channel based code.
+ * <p>
+ * Direct buffers are passed straight to FT_Read and FT_Write, heap buffers
+ * use their backing array, so neither needs an intermediate copy in Java.
+ * <p>
+ * A read blocks until at least one byte is available. The wait is done with
+ * {@link Device#awaitRx(int, long)} in bounded slices and FT_Read is only
+ * asked for bytes already queued, so a reader never sits inside a blocking
+ * FT_Read. Closing the channel, or interrupting the reader, wakes it at
+ * once. As with other interruptible channels the device is closed when the
+ * channel is.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class DeviceChannel extends AbstractInterruptibleChannel implements ByteChannel {
+
+    /**
+     * Longest single wait for data, in milliseconds. Bounds how long a lost
+     * wake up can delay a reader.
+     */
+    static final int WAIT_SLICE = 250;
+
+    private final Device device;
+
+    /**
+     * Guards activeCalls. The device, and its event handle, must not be
+     * closed while a reader or writer is still inside a native call.
+     */
+    private final Object callLock = new Object();
+    private int activeCalls;
+
+    /**
+     * @param   device          open device
+     */
+    public DeviceChannel(Device device) {
+        if (device == null) {
+            throw new IllegalArgumentException("device must not be null");
+        }
+        this.device = device;
+    }
+
+    public Device getDevice() {
+        return device;
+    }
+
+    /**
+     * Reads at least one byte, blocking until data arrives.
+     *
+     * @param   dst             buffer to fill
+     * @return                  number of bytes read, never 0 unless dst is
+     *                          full
+     * @throws  ClosedChannelException  channel closed
+     * @throws  java.nio.channels.ClosedByInterruptException reader
+     *                          interrupted, the channel is now closed
+     * @throws  IOException     D2XX API call failed, cause is the
+     *                          {@link FTDIException}
+     * @throws  IllegalArgumentException    dst is read only
+     */
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+        if (dst.isReadOnly()) {
+            throw new IllegalArgumentException("Read-only buffer");
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+
+        int count = 0;
+        boolean completed = false;
+        try {
+            begin();
+            enter();
+            try {
+                int available = 0;
+                while (available == 0 && isOpen()) {
+                    available = device.awaitRx(1, WAIT_SLICE);
+                }
+                if (available > 0 && isOpen()) {
+                    count = readAvailable(dst, Math.min(available, dst.remaining()));
+                    completed = true;
+                }
+            } finally {
+                exit();
+            }
+        } catch (FTDIException e) {
+            throw new IOException(e);
+        } finally {
+            end(completed);
+        }
+        return count;
+    }
+
+    private int readAvailable(ByteBuffer dst, int length) throws FTDIException {
+        int position = dst.position();
+        int count;
+        if (dst.isDirect()) {
+            count = FTDIInterface.readDirect(device.getHandle(), dst, position, length);
+        } else {
+            int[] status = new int[1];
+            count = device.tryRead(dst.array(), dst.arrayOffset() + position, length, status);
+            checkStatus(status, "FT_Read");
+        }
+        dst.position(position + count);
+        return count;
+    }
+
+    /**
+     * Writes the remaining bytes of src, subject to the device write
+     * timeout.
+     *
+     * @param   src             bytes to write
+     * @return                  number of bytes written
+     * @throws  ClosedChannelException  channel closed
+     * @throws  IOException     D2XX API call failed, cause is the
+     *                          {@link FTDIException}
+     */
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+        if (!src.hasRemaining()) {
+            return 0;
+        }
+
+        int count = 0;
+        boolean completed = false;
+        try {
+            begin();
+            enter();
+            try {
+                count = writeRemaining(src);
+            } finally {
+                exit();
+            }
+            completed = true;
+        } catch (FTDIException e) {
+            throw new IOException(e);
+        } finally {
+            end(completed);
+        }
+        return count;
+    }
+
+    private int writeRemaining(ByteBuffer src) throws FTDIException {
+        int count;
+        int position = src.position();
+        int length = src.remaining();
+        if (src.isDirect()) {
+            count = FTDIInterface.writeDirect(device.getHandle(), src, position, length);
+        } else if (src.hasArray()) {
+            int[] status = new int[1];
+            count = device.tryWrite(src.array(), src.arrayOffset() + position, length, status);
+            checkStatus(status, "FT_Write");
+        } else {
+            // read-only heap buffer, the only case needing a copy
+            byte[] copy = new byte[length];
+            src.duplicate().get(copy);
+            int[] status = new int[1];
+            count = device.tryWrite(copy, 0, length, status);
+            checkStatus(status, "FT_Write");
+        }
+        src.position(position + count);
+        return count;
+    }
+
+    private void enter() {
+        synchronized (callLock) {
+            activeCalls++;
+        }
+    }
+
+    private void exit() {
+        synchronized (callLock) {
+            activeCalls--;
+            callLock.notifyAll();
+        }
+    }
+
+    private static void checkStatus(int[] status, String function) throws FTDIException {
+        if (FTStatus.byOrdinal(status[0]) != FTStatus.FT_OK) {
+            throw new FTDIException(FTStatus.byOrdinal(status[0]), function);
+        }
+    }
+
+    /**
+     * Wakes any blocked reader, waits for calls in progress to leave native
+     * code, then closes the device.
+     */
+    @Override
+    protected void implCloseChannel() throws IOException {
+        boolean interrupted = false;
+        synchronized (callLock) {
+            while (activeCalls > 0) {
+                device.signalEvent();
+                try {
+                    callLock.wait(WAIT_SLICE);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            device.close();
+        } catch (FTDIException e) {
+            throw new IOException(e);
+        }
+    }
+}
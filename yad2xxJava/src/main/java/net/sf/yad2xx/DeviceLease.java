@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Exclusive use of one {@link Device} from a {@link DevicePool}, until
+ * {@link #close()}. Intended for try-with-resources; the device must not be
+ * used through the lease, or kept, once it is closed.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public final class DeviceLease implements AutoCloseable {
+
+    private final DevicePool pool;
+    private final Device device;
+    private final long waitNanos;
+    private final long grantedAt;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile long holdNanos = -1;
+
+    DeviceLease(DevicePool pool, Device device, long waitNanos) {
+        this.pool = pool;
+        this.device = device;
+        this.waitNanos = waitNanos;
+        this.grantedAt = System.nanoTime();
+    }
+
+    /**
+     * @return  leased device
+     * @throws  IllegalStateException   lease already closed
+     */
+    public Device getDevice() {
+        if (closed.get()) {
+            throw new IllegalStateException("Lease closed");
+        }
+        return device;
+    }
+
+    /**
+     * @return  time held so far, or in total once closed
+     */
+    public long getHoldNanos() {
+        long held = holdNanos;
+        return held >= 0 ? held : System.nanoTime() - grantedAt;
+    }
+
+    /**
+     * @return  time spent waiting for the device
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Returns the device to the pool. Further calls do nothing.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            long held = System.nanoTime() - grantedAt;
+            holdNanos = held;
+            pool.release(device, held);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+/**
+ * Notified by a {@link DeviceRegistry} as devices come and go. Callbacks
+ * run on the thread that performed the rescan, after the registry indexes
+ * have been updated.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public interface DeviceListener {
+
+    /**
+     * @param   device          newly enumerated device, not open
+     */
+    void deviceAttached(Device device);
+
+    /**
+     * @param   device          device no longer enumerated, possibly still
+     *                          open; further calls on it will fail
+     */
+    void deviceDetached(Device device);
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares a fixed set of devices between threads by handing out exclusive
+ * {@link DeviceLease}s.
+ * <p>
+ * {@link Device} and the protocol classes built on it, {@link
+ * net.sf.yad2xx.mpsse.Mpsse} in particular, keep per-device state without
+ * synchronization, so two threads issuing commands to one adapter corrupt
+ * each other's streams. A lease gives one thread sole use of a device until
+ * it is closed, long enough for a whole batched transaction:
+ * <pre>
+ * try (DeviceLease lease = pool.acquire(100, TimeUnit.MILLISECONDS)) {
+ *     Device device = lease.getDevice();
+ *     device.write(command);
+ *     device.read(response);
+ * }
+ * </pre>
+ * Waiters queue by priority, higher first, and in arrival order within a
+ * priority, so with equal priorities the pool is strictly fair. A released
+ * device is handed directly to the first waiter that can use it; later
+ * arrivals cannot barge past. A waiter for one particular device does not
+ * hold up waiters behind it for other devices.
+ * <p>
+ * The pool does not open or close devices.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class DevicePool implements AutoCloseable {
+
+    public static final int DEFAULT_PRIORITY = 0;
+
+    /**
+     * A thread waiting for a device.
+     */
+    private static final class Waiter implements Comparable<Waiter> {
+        private final Device wanted;
+        private final int priority;
+        private final long sequence;
+        private final Condition condition;
+        private Device granted;
+
+        private Waiter(Device wanted, int priority, long sequence, Condition condition) {
+            this.wanted = wanted;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.condition = condition;
+        }
+
+        private boolean accepts(Device device) {
+            return wanted == null || wanted == device;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<Device> devices;
+    private final Deque<Device> idle = new ArrayDeque<>();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private long sequence;
+    private boolean closed;
+
+    private long leases;
+    private long timeouts;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long totalHoldNanos;
+    private long maxHoldNanos;
+    private long released;
+
+    /**
+     * @param   devices         devices to share, normally already open
+     */
+    public DevicePool(Collection<Device> devices) {
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("No devices");
+        }
+        this.devices = Collections.unmodifiableList(new ArrayList<>(devices));
+        idle.addAll(this.devices);
+    }
+
+    /**
+     * Leases any device at the default priority.
+     *
+     * @param   timeout         longest wait
+     * @param   unit            unit of timeout
+     * @return  lease, null on timeout
+     * @throws  InterruptedException    interrupted while waiting
+     */
+    public DeviceLease acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        return acquire(null, DEFAULT_PRIORITY, timeout, unit);
+    }
+
+    /**
+     * Leases a device.
+     *
+     * @param   device          device wanted, null for any
+     * @param   priority        higher values are served first
+     * @param   timeout         longest wait
+     * @param   unit            unit of timeout
+     * @return  lease, null on timeout
+     * @throws  InterruptedException    interrupted while waiting
+     * @throws  IllegalStateException   pool closed
+     */
+    public DeviceLease acquire(Device device, int priority, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (device != null && !devices.contains(device)) {
+            throw new IllegalArgumentException("Device not in pool: " + device.getSerialNumber());
+        }
+        long start = System.nanoTime();
+
+        lock.lockInterruptibly();
+        try {
+            checkOpen();
+            Device granted = takeIdle(device, priority);
+            if (granted != null) {
+                return grant(granted, start);
+            }
+
+            Waiter waiter = new Waiter(device, priority, sequence++, lock.newCondition());
+            waiters.add(waiter);
+            long remaining = unit.toNanos(timeout);
+            try {
+                while (waiter.granted == null && !closed && remaining > 0) {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted == null) {
+                    waiters.remove(waiter);
+                    throw e;
+                }
+                // granted just as we were interrupted, keep it
+                Thread.currentThread().interrupt();
+            }
+
+            if (waiter.granted != null) {
+                return grant(waiter.granted, start);
+            }
+            waiters.remove(waiter);
+            checkOpen();
+            timeouts++;
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Refuses further leases and wakes waiters, which fail. Leases already
+     * held stay valid until closed.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            for (Waiter waiter : waiters) {
+                waiter.condition.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Device> getDevices() {
+        return devices;
+    }
+
+    /**
+     * @return  snapshot of the pool counters
+     */
+    public Statistics getStatistics() {
+        lock.lock();
+        try {
+            return new Statistics(this);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called once per lease by {@link DeviceLease#close()}.
+     */
+    void release(Device device, long holdNanos) {
+        lock.lock();
+        try {
+            released++;
+            totalHoldNanos += holdNanos;
+            maxHoldNanos = Math.max(maxHoldNanos, holdNanos);
+
+            for (Waiter waiter : waitersInOrder()) {
+                if (waiter.accepts(device)) {
+                    waiters.remove(waiter);
+                    waiter.granted = device;
+                    waiter.condition.signal();
+                    return;
+                }
+            }
+            idle.add(device);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Pool closed");
+        }
+    }
+
+    private DeviceLease grant(Device device, long start) {
+        long waited = System.nanoTime() - start;
+        leases++;
+        totalWaitNanos += waited;
+        maxWaitNanos = Math.max(maxWaitNanos, waited);
+        return new DeviceLease(this, device, waited);
+    }
+
+    /**
+     * An idle device may only be taken if no waiter queued ahead of the
+     * caller could use it, otherwise a new arrival would barge.
+     */
+    private Device takeIdle(Device wanted, int priority) {
+        for (Iterator<Device> i = idle.iterator(); i.hasNext();) {
+            Device device = i.next();
+            if (wanted != null && wanted != device) {
+                continue;
+            }
+            boolean claimed = false;
+            for (Waiter waiter : waiters) {
+                if (waiter.priority >= priority && waiter.accepts(device)) {
+                    claimed = true;
+                    break;
+                }
+            }
+            if (!claimed) {
+                i.remove();
+                return device;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * PriorityQueue iterates in no particular order.
+     */
+    private List<Waiter> waitersInOrder() {
+        List<Waiter> ordered = new ArrayList<>(waiters);
+        Collections.sort(ordered);
+        return ordered;
+    }
+
+    /**
+     * Pool counters. Wait time runs from the call to acquire until the
+     * lease is granted, and covers only granted leases; hold time runs from
+     * grant until the lease is closed.
+     */
+    public static final class Statistics {
+
+        private final long leases;
+        private final long timeouts;
+        private final long released;
+        private final int waiting;
+        private final int idle;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long totalHoldNanos;
+        private final long maxHoldNanos;
+
+        private Statistics(DevicePool pool) {
+            leases = pool.leases;
+            timeouts = pool.timeouts;
+            released = pool.released;
+            waiting = pool.waiters.size();
+            idle = pool.idle.size();
+            totalWaitNanos = pool.totalWaitNanos;
+            maxWaitNanos = pool.maxWaitNanos;
+            totalHoldNanos = pool.totalHoldNanos;
+            maxHoldNanos = pool.maxHoldNanos;
+        }
+
+        /**
+         * @return  devices not leased
+         */
+        public int getIdleCount() {
+            return idle;
+        }
+
+        /**
+         * @return  leases granted
+         */
+        public long getLeaseCount() {
+            return leases;
+        }
+
+        public long getMaxHoldNanos() {
+            return maxHoldNanos;
+        }
+
+        public long getMaxWaitNanos() {
+            return maxWaitNanos;
+        }
+
+        /**
+         * @return  mean over closed leases, 0 if none
+         */
+        public double getMeanHoldNanos() {
+            return released == 0 ? 0.0 : (double) totalHoldNanos / released;
+        }
+
+        /**
+         * @return  mean over granted leases, 0 if none
+         */
+        public double getMeanWaitNanos() {
+            return leases == 0 ? 0.0 : (double) totalWaitNanos / leases;
+        }
+
+        /**
+         * @return  acquires that gave up
+         */
+        public long getTimeoutCount() {
+            return timeouts;
+        }
+
+        /**
+         * @return  threads currently waiting
+         */
+        public int getWaitingCount() {
+            return waiting;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("leases %d, timeouts %d, waiting %d, idle %d, wait mean %.1f us max %.1f us, "
+                    + "hold mean %.1f us max %.1f us", leases, timeouts, waiting, idle, getMeanWaitNanos() / 1000,
+                    maxWaitNanos / 1000.0, getMeanHoldNanos() / 1000, maxHoldNanos / 1000.0);
+        }
+    }
+}
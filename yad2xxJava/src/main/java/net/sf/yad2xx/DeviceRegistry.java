@@ -0,0 +1,286 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cached view of the attached devices with constant time lookup by serial
+ * number, location ID and description.
+ * <p>
+ * {@link FTDIInterface#getDevices()} enumerates the bus and builds new
+ * {@link Device} objects on every call. The registry calls it only on
+ * {@link #rescan()}, either from a background thread started with
+ * {@link #start(long, TimeUnit)} or from an external hot-plug trigger such
+ * as a udev monitor. Each rescan is matched against the previous one: a
+ * device still present keeps its {@code Device} instance, so handles held
+ * by the application stay valid, and only the differences are reported to
+ * {@link DeviceListener}s.
+ * <p>
+ * Lookups read an immutable snapshot of the indexes, replaced as a whole
+ * by each rescan, so they never block and never touch USB.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class DeviceRegistry implements AutoCloseable {
+
+    /**
+     * Source of device lists, {@link FTDIInterface#getDevices()} outside
+     * of tests.
+     */
+    @FunctionalInterface
+    interface Enumerator {
+        Device[] getDevices() throws FTDIException;
+    }
+
+    /**
+     * Indexes built from one enumeration.
+     */
+    private static final class Snapshot {
+        private final List<Device> devices;
+        private final Map<String, Device> bySerialNumber = new HashMap<>();
+        private final Map<Integer, Device> byLocationId = new HashMap<>();
+        private final Map<String, List<Device>> byDescription = new HashMap<>();
+
+        private Snapshot(List<Device> devices) {
+            this.devices = Collections.unmodifiableList(devices);
+            for (Device device : devices) {
+                if (!isEmpty(device.getSerialNumber())) {
+                    bySerialNumber.put(device.getSerialNumber(), device);
+                }
+                if (device.getLocationId() != 0) {
+                    byLocationId.put(device.getLocationId(), device);
+                }
+                if (!isEmpty(device.getDescription())) {
+                    byDescription.computeIfAbsent(device.getDescription(), d -> new ArrayList<>()).add(device);
+                }
+            }
+        }
+    }
+
+    private final Enumerator enumerator;
+    private final List<DeviceListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot = new Snapshot(new ArrayList<>());
+    private volatile FTDIException failure;
+    private volatile boolean running;
+    private Thread thread;
+
+    public DeviceRegistry() {
+        this(FTDIInterface::getDevices);
+    }
+
+    DeviceRegistry(Enumerator enumerator) {
+        this.enumerator = enumerator;
+    }
+
+    public void addListener(DeviceListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DeviceListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param   description     driver description, e.g. "FT232R USB UART"
+     * @return  matching devices, possibly none
+     */
+    public List<Device> findByDescription(String description) {
+        List<Device> devices = snapshot.byDescription.get(description);
+        return devices == null ? Collections.emptyList() : Collections.unmodifiableList(devices);
+    }
+
+    /**
+     * @param   locationId      USB location, encodes the port path
+     * @return  device, null if none
+     */
+    public Device findByLocationId(int locationId) {
+        return snapshot.byLocationId.get(locationId);
+    }
+
+    /**
+     * @param   serialNumber    serial number, including the channel letter
+     *                          for multi-channel parts
+     * @return  device, null if none
+     */
+    public Device findBySerialNumber(String serialNumber) {
+        return snapshot.bySerialNumber.get(serialNumber);
+    }
+
+    /**
+     * @return  devices found by the last rescan, in enumeration order
+     */
+    public List<Device> getDevices() {
+        return snapshot.devices;
+    }
+
+    /**
+     * @return  error from the last background rescan, null if it succeeded
+     */
+    public FTDIException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Enumerates the bus, updates the indexes and notifies listeners of
+     * devices attached and detached since the previous rescan.
+     *
+     * @throws  FTDIException   enumeration failed, the indexes are unchanged
+     */
+    public synchronized void rescan() throws FTDIException {
+        Device[] found = enumerator.getDevices();
+        Snapshot previous = snapshot;
+
+        Set<Device> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Device> devices = new ArrayList<>(found.length);
+        List<Device> attached = new ArrayList<>();
+
+        for (Device latest : found) {
+            Device existing = match(previous, latest);
+            if (existing != null && kept.add(existing)) {
+                existing.refresh(latest);
+                devices.add(existing);
+            } else {
+                devices.add(latest);
+                attached.add(latest);
+            }
+        }
+
+        List<Device> detached = new ArrayList<>();
+        for (Device device : previous.devices) {
+            if (!kept.contains(device)) {
+                detached.add(device);
+            }
+        }
+
+        snapshot = new Snapshot(devices);
+
+        for (Device device : detached) {
+            for (DeviceListener listener : listeners) {
+                listener.deviceDetached(device);
+            }
+        }
+        for (Device device : attached) {
+            for (DeviceListener listener : listeners) {
+                listener.deviceAttached(device);
+            }
+        }
+    }
+
+    /**
+     * Rescans now and then periodically on a daemon thread.
+     *
+     * @param   interval        time between rescans
+     * @param   unit            unit of interval
+     * @throws  FTDIException   first rescan failed, nothing was started
+     */
+    public synchronized void start(long interval, TimeUnit unit) throws FTDIException {
+        if (thread != null) {
+            throw new IllegalStateException("Already started");
+        }
+        long millis = Math.max(1, unit.toMillis(interval));
+        rescan();
+
+        running = true;
+        thread = new Thread(() -> poll(millis), "FTDI device registry");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops background rescans. Devices are left as they are.
+     */
+    @Override
+    public void close() {
+        Thread current;
+        synchronized (this) {
+            current = thread;
+            thread = null;
+            running = false;
+        }
+        if (current == null) {
+            return;
+        }
+
+        current.interrupt();
+        boolean interrupted = false;
+        while (current.isAlive()) {
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isEmpty(String s) {
+        return s == null || s.isEmpty();
+    }
+
+    /**
+     * Finds the previous instance of a device. The serial number is
+     * preferred; devices that report none, or that D2XX lists without
+     * details because another process has them open, fall back to the
+     * location ID.
+     */
+    private static Device match(Snapshot previous, Device latest) {
+        String serialNumber = latest.getSerialNumber();
+        if (!isEmpty(serialNumber)) {
+            Device existing = previous.bySerialNumber.get(serialNumber);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        if (latest.getLocationId() != 0) {
+            Device existing = previous.byLocationId.get(latest.getLocationId());
+            if (existing != null && (isEmpty(serialNumber) || isEmpty(existing.getSerialNumber()))) {
+                return existing;
+            }
+        }
+        return null;
+    }
+
+    private void poll(long millis) {
+        while (running) {
+            try {
+                Thread.sleep(millis);
+                rescan();
+                failure = null;
+            } catch (FTDIException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                // closing
+            }
+        }
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs periodic work for many devices on a small, fixed pool of threads.
+ * <p>
+ * Each {@link Device} gets at most one registration, holding a task and a
+ * period. Registrations wait in a single {@link DelayQueue} ordered by
+ * their next deadline, and whichever worker is free takes the earliest one
+ * that is due. A registration is only ever in the queue once, so work for
+ * one device never runs concurrently, while different devices proceed in
+ * parallel up to the pool size.
+ * <p>
+ * Deadlines are absolute, the first plus n periods, so a late start does
+ * not push later frames back. A registration that falls more than a period
+ * behind skips the missed slots. For each device the lateness of every
+ * start against its deadline is recorded, see {@link Statistics}.
+ * <p>
+ * Size the pool for the devices that may be inside a blocking call at the
+ * same time, not for the total. FT_Write returns once the data is queued on
+ * the chip, so a 513 byte DMX frame on a part with a small transmit buffer
+ * keeps a worker for most of the frame time.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class DeviceScheduler implements AutoCloseable {
+
+    /**
+     * Periodic work for one device.
+     */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * @param   device          device the task was registered for
+         * @throws  FTDIException   stops the registration, as does any
+         *                          runtime exception, see
+         *                          {@link Registration#getFailure()}
+         */
+        void run(Device device) throws FTDIException;
+    }
+
+    private final DelayQueue<Registration> queue = new DelayQueue<>();
+    private final Map<Device, Registration> registrations = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean closed;
+
+    /**
+     * @param   threads         number of worker threads
+     */
+    public DeviceScheduler(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid thread count: " + threads);
+        }
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, "FTDI scheduler " + i);
+            worker.setDaemon(true);
+            worker.setPriority(Thread.MAX_PRIORITY);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * @return  current registration for device, null if none
+     */
+    public Registration getRegistration(Device device) {
+        return registrations.get(device);
+    }
+
+    /**
+     * @return  snapshot of the registrations, in no particular order
+     */
+    public List<Registration> getRegistrations() {
+        return new ArrayList<>(registrations.values());
+    }
+
+    /**
+     * Runs task every period for device, starting now.
+     *
+     * @param   device          device to register, at most once
+     * @param   period          time between deadlines
+     * @param   unit            unit of period
+     * @param   task            work to do at each deadline
+     * @return  handle for statistics and cancellation
+     * @throws  IllegalStateException   device already registered, or
+     *                          scheduler closed
+     */
+    public Registration schedule(Device device, long period, TimeUnit unit, Task task) {
+        if (device == null || task == null) {
+            throw new IllegalArgumentException("device and task must not be null");
+        }
+        long periodNanos = unit.toNanos(period);
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("Invalid period: " + period);
+        }
+        if (closed) {
+            throw new IllegalStateException("Scheduler closed");
+        }
+
+        Registration registration = new Registration(device, periodNanos, task);
+        if (registrations.putIfAbsent(device, registration) != null) {
+            throw new IllegalStateException("Device already scheduled: " + device.getSerialNumber());
+        }
+        queue.add(registration);
+        return registration;
+    }
+
+    /**
+     * Cancels all registrations and stops the workers, waiting for tasks in
+     * progress to return. Devices are left open.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Registration registration : getRegistrations()) {
+            registration.cancel();
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work() {
+        while (!closed) {
+            Registration registration;
+            try {
+                registration = queue.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+
+            if (registration.runOnce()) {
+                queue.add(registration);
+            } else {
+                registrations.remove(registration.device, registration);
+            }
+        }
+    }
+
+    /**
+     * One device's place in the schedule.
+     */
+    public final class Registration implements Delayed {
+
+        private final Device device;
+        private final long periodNanos;
+        private final Task task;
+        private final Statistics statistics = new Statistics();
+        private volatile long deadline;
+        private volatile boolean cancelled;
+        private volatile Exception failure;
+
+        private Registration(Device device, long periodNanos, Task task) {
+            this.device = device;
+            this.periodNanos = periodNanos;
+            this.task = task;
+            this.deadline = System.nanoTime();
+        }
+
+        /**
+         * Stops further runs. A run in progress completes.
+         */
+        public void cancel() {
+            cancelled = true;
+            if (queue.remove(this)) {
+                registrations.remove(device, this);
+            }
+        }
+
+        public Device getDevice() {
+            return device;
+        }
+
+        /**
+         * @return  error that stopped the registration, null if none
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+
+        public long getPeriodNanos() {
+            return periodNanos;
+        }
+
+        /**
+         * @return  copy of the timing statistics so far
+         */
+        public Statistics getStatistics() {
+            synchronized (statistics) {
+                return statistics.copy();
+            }
+        }
+
+        public boolean isActive() {
+            return !cancelled && failure == null;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Registration) {
+                return Long.signum(deadline - ((Registration) other).deadline);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        /**
+         * Runs the task and advances the deadline.
+         *
+         * @return  true to requeue
+         */
+        private boolean runOnce() {
+            if (cancelled) {
+                return false;
+            }
+
+            long start = System.nanoTime();
+            try {
+                task.run(device);
+            } catch (FTDIException | RuntimeException e) {
+                failure = e;
+                return false;
+            }
+            long end = System.nanoTime();
+
+            long next = deadline + periodNanos;
+            long missed = 0;
+            if (end - next > periodNanos) {
+                missed = (end - next) / periodNanos;
+                next += missed * periodNanos;
+            }
+            synchronized (statistics) {
+                statistics.record(start - deadline, end - start, missed);
+            }
+            deadline = next;
+            return !cancelled;
+        }
+    }
+
+    /**
+     * Start lateness and run time of one registration, in nanoseconds.
+     * Lateness is measured from the deadline to the start of the task, and
+     * its standard deviation is the jitter.
+     */
+    public static final class Statistics {
+
+        private long count;
+        private long missed;
+        private long minLateness = Long.MAX_VALUE;
+        private long maxLateness;
+        private long maxRunTime;
+        private double mean;
+        private double sumSquares;
+
+        Statistics() {
+        }
+
+        /**
+         * @return  number of completed runs
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return  deadlines skipped because a run finished too late
+         */
+        public long getMissedDeadlines() {
+            return missed;
+        }
+
+        public long getMaxLatenessNanos() {
+            return maxLateness;
+        }
+
+        public long getMaxRunTimeNanos() {
+            return maxRunTime;
+        }
+
+        public double getMeanLatenessNanos() {
+            return mean;
+        }
+
+        /**
+         * @return  0 if there have been no runs
+         */
+        public long getMinLatenessNanos() {
+            return count == 0 ? 0 : minLateness;
+        }
+
+        /**
+         * @return  standard deviation of the start lateness
+         */
+        public double getJitterNanos() {
+            return count < 2 ? 0.0 : Math.sqrt(sumSquares / (count - 1));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("runs %d, missed %d, lateness mean %.1f us max %.1f us, jitter %.1f us", count,
+                    missed, mean / 1000, maxLateness / 1000.0, getJitterNanos() / 1000);
+        }
+
+        private Statistics copy() {
+            Statistics copy = new Statistics();
+            copy.count = count;
+            copy.missed = missed;
+            copy.minLateness = minLateness;
+            copy.maxLateness = maxLateness;
+            copy.maxRunTime = maxRunTime;
+            copy.mean = mean;
+            copy.sumSquares = sumSquares;
+            return copy;
+        }
+
+        /**
+         * Welford's running mean and variance.
+         */
+        private void record(long lateness, long runTime, long skipped) {
+            count++;
+            missed += skipped;
+            minLateness = Math.min(minLateness, lateness);
+            maxLateness = Math.max(maxLateness, lateness);
+            maxRunTime = Math.max(maxRunTime, runTime);
+            double delta = lateness - mean;
+            mean += delta / count;
+            sumSquares += delta * (lateness - mean);
+        }
+    }
+}
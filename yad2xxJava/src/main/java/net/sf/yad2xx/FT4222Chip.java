@@ -0,0 +1,310 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.yad2xx.ft4222.ChipMode;
+import net.sf.yad2xx.ft4222.InterfaceRole;
+
+/**
+ * All USB interfaces of one physical FT4222H.
+ * <p>
+ * D2XX reports each interface as a separate {@link FT4222Device}; depending
+ * on the chip mode there are one, two or four of them. {@link #group(Device[])}
+ * puts them back together so the whole chip can be opened at once and each
+ * interface found by its {@link InterfaceRole}.
+ * <p>
+ * Every interface has its own D2XX handle, so they can be driven in
+ * parallel, SPI on interface A while GPIO events are serviced on interface
+ * B for example. {@link #submit(int, Task)} runs work on a thread owned by
+ * the interface, which keeps each handle confined to one thread without any
+ * locking shared between interfaces.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public class FT4222Chip implements AutoCloseable {
+
+    /**
+     * Work to be done with one interface.
+     *
+     * @param <T>
+     *            result type
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T run(FT4222Device device) throws FTDIException;
+    }
+
+    private final List<FT4222Device> interfaces;
+    private final ExecutorService[] executors;
+    private ChipMode mode;
+
+    FT4222Chip(List<FT4222Device> interfaces, ChipMode mode) {
+        this.interfaces = Collections.unmodifiableList(new ArrayList<>(interfaces));
+        this.executors = new ExecutorService[interfaces.size()];
+        this.mode = mode;
+    }
+
+    /**
+     * Groups the FT4222H interfaces from {@link FTDIInterface#getDevices()}
+     * by chip. Interfaces of one chip have consecutive location ids and the
+     * same serial number apart from the trailing interface letter. Other
+     * device types are ignored.
+     *
+     * @param devices
+     *            devices as returned by D2XX
+     * @return one entry per chip, in location order
+     */
+    public static List<FT4222Chip> group(Device[] devices) {
+        List<FT4222Device> candidates = new ArrayList<>();
+        for (Device device : devices) {
+            if (device instanceof FT4222Device && ChipMode.byDeviceType(device.getType()) != null) {
+                candidates.add((FT4222Device) device);
+            }
+        }
+        candidates.sort(Comparator.comparingInt(Device::getLocationId));
+
+        List<FT4222Chip> chips = new ArrayList<>();
+        List<FT4222Device> current = new ArrayList<>();
+        ChipMode mode = null;
+        for (FT4222Device device : candidates) {
+            if (!current.isEmpty() && !belongs(current, mode, device)) {
+                chips.add(new FT4222Chip(current, mode));
+                current.clear();
+            }
+            if (current.isEmpty()) {
+                mode = ChipMode.byDeviceType(device.getType());
+            }
+            current.add(device);
+        }
+        if (!current.isEmpty()) {
+            chips.add(new FT4222Chip(current, mode));
+        }
+        return chips;
+    }
+
+    private static boolean belongs(List<FT4222Device> chip, ChipMode mode, FT4222Device device) {
+        FT4222Device last = chip.get(chip.size() - 1);
+        return chip.size() < mode.getInterfaceCount()
+                && device.getType() == last.getType()
+                && device.getLocationId() == last.getLocationId() + 1
+                && baseSerialNumber(device).equals(baseSerialNumber(last));
+    }
+
+    /**
+     * D2XX appends the interface letter to the EEPROM serial number.
+     */
+    static String baseSerialNumber(Device device) {
+        String serial = device.getSerialNumber();
+        if (serial == null || serial.isEmpty()) {
+            return "";
+        }
+        char letter = serial.charAt(serial.length() - 1);
+        return letter >= 'A' && letter <= 'D' ? serial.substring(0, serial.length() - 1) : serial;
+    }
+
+    public ChipMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Modes 1 and 2 cannot be told apart from the device type, use this to
+     * select mode 2 before using the roles.
+     *
+     * @param mode
+     *            mode set by the DCNF pins
+     * @throws IllegalArgumentException
+     *             mode has a different number of interfaces
+     */
+    public void setMode(ChipMode mode) {
+        if (mode.getInterfaceCount() != this.mode.getInterfaceCount()) {
+            throw new IllegalArgumentException(mode + " does not match " + this.mode);
+        }
+        this.mode = mode;
+    }
+
+    /**
+     * @return base serial number, without the interface letter
+     */
+    public String getSerialNumber() {
+        return baseSerialNumber(interfaces.get(0));
+    }
+
+    /**
+     * Number of interfaces found, less than the mode expects if D2XX did not
+     * report them all.
+     */
+    public int getInterfaceCount() {
+        return interfaces.size();
+    }
+
+    /**
+     * @param index
+     *            interface, 0 for A
+     */
+    public FT4222Device getInterface(int index) {
+        return interfaces.get(index);
+    }
+
+    public List<FT4222Device> getInterfaces() {
+        return interfaces;
+    }
+
+    /**
+     * @param role
+     *            wanted role
+     * @return interfaces with the role, in interface order
+     */
+    public List<FT4222Device> getInterfaces(InterfaceRole role) {
+        List<FT4222Device> result = new ArrayList<>();
+        for (int i = 0; i < interfaces.size(); i++) {
+            if (mode.getRole(i) == role) {
+                result.add(interfaces.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the first interface with the role
+     * @throws IllegalStateException
+     *             no interface has the role in this chip mode
+     */
+    public FT4222Device getInterface(InterfaceRole role) {
+        List<FT4222Device> matches = getInterfaces(role);
+        if (matches.isEmpty()) {
+            throw new IllegalStateException("No " + role + " interface in " + mode);
+        }
+        return matches.get(0);
+    }
+
+    /**
+     * Opens every interface. If one fails those already opened are closed
+     * again.
+     *
+     * @throws FTDIException
+     *             an interface could not be opened
+     */
+    public void open() throws FTDIException {
+        for (int i = 0; i < interfaces.size(); i++) {
+            try {
+                interfaces.get(i).open();
+            } catch (FTDIException | RuntimeException e) {
+                for (int j = 0; j < i; j++) {
+                    try {
+                        interfaces.get(j).close();
+                    } catch (FTDIException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Runs work on the thread owned by one interface. Tasks for the same
+     * interface run in submission order, tasks for different interfaces run
+     * in parallel.
+     *
+     * @param index
+     *            interface, 0 for A
+     * @param task
+     *            work to run
+     * @return result, or the FTDIException wrapped in an ExecutionException
+     */
+    public synchronized <T> Future<T> submit(int index, Task<T> task) {
+        FT4222Device device = interfaces.get(index);
+        if (executors[index] == null) {
+            String name = "FT4222 " + device.getSerialNumber();
+            executors[index] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executors[index].submit(() -> task.run(device));
+    }
+
+    /**
+     * Lets submitted work finish then closes every interface.
+     *
+     * @throws FTDIException
+     *             an interface failed to close, the others are still closed
+     */
+    @Override
+    public void close() throws FTDIException {
+        ExecutorService[] running;
+        synchronized (this) {
+            running = Arrays.copyOf(executors, executors.length);
+            Arrays.fill(executors, null);
+        }
+
+        boolean interrupted = false;
+        for (ExecutorService executor : running) {
+            if (executor == null) {
+                continue;
+            }
+            executor.shutdown();
+            while (!executor.isTerminated()) {
+                try {
+                    executor.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        FTDIException failure = null;
+        for (FT4222Device device : interfaces) {
+            try {
+                device.close();
+            } catch (FTDIException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FT4222Chip [" + getSerialNumber() + ", " + mode + ", " + interfaces.size() + " interfaces]";
+    }
+}
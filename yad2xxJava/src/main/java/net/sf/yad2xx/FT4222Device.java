@@ -19,12 +19,20 @@
 
 package net.sf.yad2xx;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 import net.sf.yad2xx.ft4222.ClockRate;
+import net.sf.yad2xx.ft4222.GpioDirection;
+import net.sf.yad2xx.ft4222.GpioPort;
 import net.sf.yad2xx.ft4222.GpioTrigger;
+import net.sf.yad2xx.ft4222.I2cMasterFlag;
 import net.sf.yad2xx.ft4222.SpiCPhase;
 import net.sf.yad2xx.ft4222.SpiCPolarity;
 import net.sf.yad2xx.ft4222.SpiClock;
 import net.sf.yad2xx.ft4222.SpiMode;
+import net.sf.yad2xx.ft4222.SpiSlaveProtocol;
 import net.sf.yad2xx.ft4222.Version;
 
 /**
@@ -36,6 +44,21 @@ import net.sf.yad2xx.ft4222.Version;
  */
 public class FT4222Device extends Device {
 
+    /**
+     * Largest length a single LibFT4222 transfer call accepts.
+     */
+    public static final int MAX_TRANSFER_LENGTH = 0xFFFF;
+
+    /**
+     * Largest single line command phase of a multi line transfer.
+     */
+    public static final int MAX_SINGLE_WRITE_BYTES = 15;
+
+    /**
+     * Max transfer size reported after the last init, 0 when unknown.
+     */
+    private int maxTransferSize;
+
     /**
      * Constructor intended for internal library use only. Use
      * {@link net.sf.yad2xx.FTDInterface#getDevices()}.
@@ -93,6 +116,9 @@ public class FT4222Device extends Device {
      * This function returns the maximum packet size in a transaction. It will
      * be affected by different bus speeds, chip modes, and functions. The
      * maximum transfer size is maximum size in writing path.
+     * <p>
+     * The value is cached after the first call and refreshed by each init
+     * method and {@link #spiMasterSetLines(SpiMode)}.
      * 
      * @return maximum packet size
      * @throws FTDIException
@@ -107,9 +133,12 @@ public class FT4222Device extends Device {
     public int getMaxTransferSize() throws FTDIException {
         if (!isOpen())
             throw new IllegalStateException("Device not open");
+        if (maxTransferSize > 0)
+            return maxTransferSize;
 
         try {
-            return FTDIInterface.getMaxTransferSize(getHandle());
+            maxTransferSize = FTDIInterface.getMaxTransferSize(getHandle());
+            return maxTransferSize;
         }
         catch (FTDIException e) {
             if (e.getStatus() == FTStatus.FT_DEVICE_NOT_OPENED) {
@@ -140,6 +169,155 @@ public class FT4222Device extends Device {
         return FTDIInterface.getVersion(getHandle());
     }
 
+    /**
+     * Get the number of trigger events queued for a GPIO input port.
+     *
+     * @param port
+     *            GPIO port
+     * @return number of queued events
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened before calling this method.
+     * @see FTDIInterface#gpioGetTriggerStatus(long, int)
+     * @since 2.1
+     */
+    public int gpioGetTriggerStatus(GpioPort port) throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+        return FTDIInterface.gpioGetTriggerStatus(getHandle(), port.ordinal());
+    }
+
+    /**
+     * Initialize the GPIO interface of the FT4222H. Only ports not claimed by
+     * the chip mode, or by suspend out and wake up/interrupt, can be used.
+     *
+     * @param port0
+     *            direction of GPIO0
+     * @param port1
+     *            direction of GPIO1
+     * @param port2
+     *            direction of GPIO2
+     * @param port3
+     *            direction of GPIO3
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened before calling this method.
+     * @see FTDIInterface#gpioInit(long, int[])
+     * @since 2.1
+     */
+    public void gpioInit(GpioDirection port0, GpioDirection port1, GpioDirection port2, GpioDirection port3)
+            throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+        FTDIInterface.gpioInit(getHandle(),
+                new int[] { port0.ordinal(), port1.ordinal(), port2.ordinal(), port3.ordinal() });
+    }
+
+    /**
+     * Read the value of a GPIO input port.
+     *
+     * @param port
+     *            GPIO port
+     * @return true if the port is high
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened before calling this method.
+     * @see FTDIInterface#gpioRead(long, int)
+     * @since 2.1
+     */
+    public boolean gpioRead(GpioPort port) throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+        return FTDIInterface.gpioRead(getHandle(), port.ordinal());
+    }
+
+    /**
+     * Read all trigger events currently queued for a GPIO input port. For
+     * notification as events occur use {@link GpioEventService}.
+     *
+     * @param port
+     *            GPIO port
+     * @return events in the order they occurred, empty if none
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened before calling this method.
+     * @see FTDIInterface#gpioReadTriggerQueue(long, int, int[])
+     * @since 2.1
+     */
+    public List<GpioTrigger> gpioReadTriggerQueue(GpioPort port) throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+
+        List<GpioTrigger> result = new ArrayList<>();
+        int queued = FTDIInterface.gpioGetTriggerStatus(getHandle(), port.ordinal());
+        while (queued > 0) {
+            int[] events = new int[queued];
+            int count = FTDIInterface.gpioReadTriggerQueue(getHandle(), port.ordinal(), events);
+            if (count == 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                result.add(GpioTrigger.byValue(events[i]));
+            }
+            queued -= count;
+        }
+        return result;
+    }
+
+    /**
+     * Set the conditions recorded in the trigger queue of a GPIO input port.
+     *
+     * @param port
+     *            GPIO port
+     * @param triggers
+     *            conditions to record, none to disable
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened before calling this method.
+     * @see FTDIInterface#gpioSetInputTrigger(long, int, int)
+     * @since 2.1
+     */
+    public void gpioSetInputTrigger(GpioPort port, GpioTrigger... triggers) throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+        int mask = 0;
+        for (GpioTrigger trigger : triggers) {
+            mask |= trigger.getValue();
+        }
+        FTDIInterface.gpioSetInputTrigger(getHandle(), port.ordinal(), mask);
+    }
+
+    /**
+     * Set the value of a GPIO output port.
+     *
+     * @param port
+     *            GPIO port
+     * @param value
+     *            true to drive high
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened before calling this method.
+     * @see FTDIInterface#gpioWrite(long, int, boolean)
+     * @since 2.1
+     */
+    public void gpioWrite(GpioPort port, boolean value) throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+        FTDIInterface.gpioWrite(getHandle(), port.ordinal(), value);
+    }
+
     /**
      * Initialize the FT4222H as an I2C master with the requested I2C speed.
      *
@@ -157,6 +335,7 @@ public class FT4222Device extends Device {
      */
     public void i2cMasterInit(int kbps) throws FTDIException {
         FTDIInterface.i2cMasterInit(getHandle(), kbps);
+        refreshMaxTransferSize();
     }
 
     /**
@@ -180,6 +359,106 @@ public class FT4222Device extends Device {
         return FTDIInterface.i2cMasterRead(getHandle(), slaveAddress, buffer, bytesToRead);
     }
 
+    /**
+     * Read any amount of data from the specified I2C slave device as one
+     * START...STOP transaction. The transfer is split into
+     * {@link #getMaxTransferSize()} chunks in native code, each copied
+     * through a bounce buffer, so however long the transfer it costs one
+     * JNI call and never holds off the garbage collector.
+     *
+     * @param slaveAddress
+     *            address of the target i2c slave
+     * @param buffer
+     *            array to receive data into
+     * @param offset
+     *            index of the first byte to fill
+     * @param length
+     *            number of bytes to read
+     * @return number of bytes actually read
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened and initialized before calling this method.
+     * @see FTDIInterface#i2cMasterReadChunked(long, int, byte[], int, int, int)
+     * @since 2.1
+     */
+    public int i2cMasterReadFully(int slaveAddress, byte[] buffer, int offset, int length) throws FTDIException {
+        checkBounds(buffer.length, offset, length);
+        return FTDIInterface.i2cMasterReadChunked(getHandle(), slaveAddress, buffer, offset, length,
+                getMaxTransferSize());
+    }
+
+    /**
+     * Read buffer.remaining() bytes from the specified I2C slave device as
+     * one START...STOP transaction, see
+     * {@link #i2cMasterReadFully(int, byte[], int, int)}. Direct buffers are
+     * filled without copying. The buffer position is advanced by the number
+     * of bytes read.
+     *
+     * @param slaveAddress
+     *            address of the target i2c slave
+     * @param buffer
+     *            buffer to receive data into
+     * @return number of bytes actually read
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened and initialized before calling this method.
+     * @throws IllegalArgumentException
+     *             buffer is read only
+     * @see FTDIInterface#i2cMasterReadChunkedDirect(long, int, ByteBuffer, int, int, int)
+     * @since 2.1
+     */
+    public int i2cMasterReadFully(int slaveAddress, ByteBuffer buffer) throws FTDIException {
+        if (buffer.isReadOnly()) {
+            throw new IllegalArgumentException("buffer is read only");
+        }
+        int length = buffer.remaining();
+        int count;
+
+        if (buffer.isDirect()) {
+            count = FTDIInterface.i2cMasterReadChunkedDirect(getHandle(), slaveAddress, buffer, buffer.position(),
+                    length, getMaxTransferSize());
+        } else {
+            count = i2cMasterReadFully(slaveAddress, buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    length);
+        }
+
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    /**
+     * Read data from the specified I2C slave device with the requested START,
+     * Repeated START and STOP conditions. For example a large read can be
+     * split across calls using START, NONE, ..., STOP.
+     * The data is copied into the array once the transfer is done.
+     *
+     * @param slaveAddress
+     *            address of the target i2c slave
+     * @param flag
+     *            bus conditions to generate around the transfer
+     * @param buffer
+     *            array to receive data into
+     * @param offset
+     *            index of the first byte
+     * @param length
+     *            number of bytes to read, at most 65535
+     * @return number of bytes actually transferred
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cMasterReadEx(long, int, int, byte[], int, int)
+     * @since 2.1
+     */
+    public int i2cMasterReadEx(int slaveAddress, I2cMasterFlag flag, byte[] buffer, int offset, int length)
+            throws FTDIException {
+        checkTransfer(buffer.length, offset, length);
+        return FTDIInterface.i2cMasterReadEx(getHandle(), slaveAddress, flag.getValue(), buffer, offset, length);
+    }
+
     /**
      * Write data to the specified I2C slave device with START and STOP
      * conditions.
@@ -202,125 +481,371 @@ public class FT4222Device extends Device {
     }
 
     /**
-     * Set the system clock rate. The FT4222H supports 4 clock rates: 80MHz, 60MHz,
-     * 48MHz, or 24MHz. By default, the FT4222H runs at 60MHz clock rate.
+     * Write any amount of data to the specified I2C slave device as one
+     * START...STOP transaction. The transfer is split into
+     * {@link #getMaxTransferSize()} chunks in native code, each copied
+     * through a bounce buffer, so however long the transfer it costs one
+     * JNI call and never holds off the garbage collector.
      *
-     * @param rate
-     *            FT4222 system clock rate
+     * @param slaveAddress
+     *            address of the target i2c slave
+     * @param buffer
+     *            data to be written to the device
+     * @param offset
+     *            index of the first byte to write
+     * @param length
+     *            number of bytes to write
+     * @return number of bytes actually transferred
      * @throws FTDIException
-     *            API call failed, see exception fields for details. More
-     *            information can be found in AN_329.
-     * @see FTDIInterface#setClock(long, long)
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened and initialized before calling this method.
+     * @see FTDIInterface#i2cMasterWriteChunked(long, int, byte[], int, int, int)
      * @since 2.1
      */
-    public void setClock(ClockRate rate) throws FTDIException {
-        FTDIInterface.setClock(getHandle(), rate.ordinal());
+    public int i2cMasterWriteFully(int slaveAddress, byte[] buffer, int offset, int length) throws FTDIException {
+        checkBounds(buffer.length, offset, length);
+        return FTDIInterface.i2cMasterWriteChunked(getHandle(), slaveAddress, buffer, offset, length,
+                getMaxTransferSize());
     }
 
     /**
-     * Set trigger condition for the pin wakeup/interrupt. By default, the trigger
-     * condition is GPIO_TRIGGER_RISING.
-     * <p>
-     * This function configures trigger condition for wakeup/interrupt.
-     * <p>
-     * When GPIO3 acts as wakeup pin. It means that ft4222H device has the
-     * capability to wake up the host. Only GPIO_TRIGGER_RISING and
-     * GPIO_TRIGGER_FALLING are valid when GPIO3 act as a wakeup pin. It is not
-     * necessary to call FT4222_GPIO_Init to set up wake-up function.
-     * <p>
-     * When GPIO3 acts as interrupt pin. All trigger condition can be set. The
-     * result of trigger status can be inquired by FT4222_GPIO_ReadTriggerQueue or
-     * FT4222_GPIO_Read. This is because the trigger status is provided by the GPIO
-     * pipe. Therefore it is necessary to call FT4222_GPIO_Init to set up interrupt
-     * function.
-     * <p>
-     * For GPIO triggering conditions, GPIO_TRIGGER_LEVEL_HIGH and
-     * GPIO_TRIGGER_LEVEL_LOW, that can be configured when GPIO3 behaves as an
-     * interrupt pin, when the system enters suspend mode, these two configurations
-     * will act as GPIO_TRIGGER_RISING and GPIO_FALLING respectively.
+     * Write buffer.remaining() bytes to the specified I2C slave device as
+     * one START...STOP transaction, see
+     * {@link #i2cMasterWriteFully(int, byte[], int, int)}. Direct buffers are
+     * written without copying. The buffer position is advanced by the number
+     * of bytes written.
      *
-     * @param trigger
-     *            trigger condition
+     * @param slaveAddress
+     *            address of the target i2c slave
+     * @param buffer
+     *            data to be written to the device
+     * @return number of bytes actually transferred
      * @throws FTDIException
-     *            API call failed, see exception fields for details. More
-     *            information can be found in AN_329.
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
      * @throws IllegalStateException
-     *            Device must be opened before calling this method.
-     * @see FTDIInterface#setInterruptTrigger(long, int)
+     *             Device must be opened and initialized before calling this method.
+     * @see FTDIInterface#i2cMasterWriteChunkedDirect(long, int, ByteBuffer, int, int, int)
+     * @since 2.1
      */
-    public void setInterruptTrigger(GpioTrigger trigger) throws FTDIException {
-        if (!isOpen())
-            throw new IllegalStateException("Device not open");
-        FTDIInterface.setInterruptTrigger(getHandle(), trigger.getValue());
+    public int i2cMasterWriteFully(int slaveAddress, ByteBuffer buffer) throws FTDIException {
+        int length = buffer.remaining();
+        int count;
+
+        if (buffer.isDirect()) {
+            count = FTDIInterface.i2cMasterWriteChunkedDirect(getHandle(), slaveAddress, buffer, buffer.position(),
+                    length, getMaxTransferSize());
+        } else if (buffer.hasArray()) {
+            count = i2cMasterWriteFully(slaveAddress, buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    length);
+        } else {
+            count = i2cMasterWriteFully(slaveAddress, toArray(buffer, length), 0, length);
+        }
+
+        buffer.position(buffer.position() + count);
+        return count;
     }
 
     /**
-     * Enable or disable, suspend out, which will emit a signal when FT4222H enters
-     * suspend mode. Please note that the suspend-out pin is not available under
-     * mode 2. By default, suspend-out function is on.
-     * <p>
-     * When suspend-out function is on, suspend-out pin emits signal according to
-     * suspend-out polarity. The default value of suspend-out polarity is active
-     * high. It means suspend-out pin output low in normal mode and output high in
-     * suspend mode. Suspend-out polarity only can be adjusted by FT_PROG.
+     * Write data to the specified I2C slave device with the requested START,
+     * Repeated START and STOP conditions.
+     * The data is copied out of the array before the transfer.
      *
-     * @param enable
-     *            TRUE to enable suspend out and configure GPIO2 as an output pin
-     *            for emitting a signal when suspended. FALSE to switch back to
-     *            GPIO2.
+     * @param slaveAddress
+     *            address of the target i2c slave
+     * @param flag
+     *            bus conditions to generate around the transfer
+     * @param buffer
+     *            data to be written to the device
+     * @param offset
+     *            index of the first byte
+     * @param length
+     *            number of bytes to write, at most 65535
+     * @return number of bytes actually transferred
      * @throws FTDIException
-     *            API call failed, see exception fields for details. More
-     *            information can be found in AN_329.
-     * @throws IllegalStateException
-     *            Device must be opened before calling this method.
-     * @see FTDIInterface#setSuspendOut(long, boolean)
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cMasterWriteEx(long, int, int, byte[], int, int)
      * @since 2.1
      */
-    public void setSuspendOut(boolean enable) throws FTDIException {
-        if (!isOpen())
-            throw new IllegalStateException("Device not open");
-        FTDIInterface.setSuspendOut(getHandle(), enable);
+    public int i2cMasterWriteEx(int slaveAddress, I2cMasterFlag flag, byte[] buffer, int offset, int length)
+            throws FTDIException {
+        checkTransfer(buffer.length, offset, length);
+        return FTDIInterface.i2cMasterWriteEx(getHandle(), slaveAddress, flag.getValue(), buffer, offset, length);
     }
 
     /**
-     * Enable or disable wakeup/interrupt. By default, wake-up/interrupt function is
-     * on.
-     * <p>
-     * When Wake up/Interrupt function is on, GPIO3 pin acts as an input pin for
-     * wakeup/interrupt.
-     * <p>
-     * While system is in normal mode, GPIO3 acts as an interrupt pin. While system
-     * is in suspend mode, GPIO3 acts as a wakeup pin.
+     * Write to the specified I2C slave device then read back without
+     * releasing the bus: START, write, Repeated START, read, STOP. This is
+     * the register read sequence most devices expect, and both phases are
+     * issued with a single JNI call.
      *
-     * @param enable
-     *            TRUE to configure GPIO3 as an input pin for wakeup/interrupt.
-     *            FALSE to switch back to GPIO3.
+     * @param slaveAddress
+     *            address of the target i2c slave
+     * @param writeBuffer
+     *            data to be written, typically a register address. Array
+     *            length implies number of bytes to write
+     * @param readBuffer
+     *            array to receive data into. Array length implies number
+     *            of bytes to read
+     * @return number of bytes actually read
      * @throws FTDIException
-     *            API call failed, see exception fields for details. More
-     *            information can be found in AN_329.
-     * @throws IllegalStateException
-     *            Device must be opened before calling this method.
-     * @see FTDIInterface#setWakeUpInterrupt(long, boolean)
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cMasterWriteThenRead(long, int, byte[], int, int, byte[], int, int)
      * @since 2.1
      */
-    public void setWakeUpInterrupt(boolean enable) throws FTDIException {
-        if (!isOpen())
-            throw new IllegalStateException("Device not open");
-        FTDIInterface.setWakeUpInterrupt(getHandle(), enable);
+    public int i2cMasterWriteThenRead(int slaveAddress, byte[] writeBuffer, byte[] readBuffer)
+            throws FTDIException {
+        checkTransfer(writeBuffer.length, 0, writeBuffer.length);
+        checkTransfer(readBuffer.length, 0, readBuffer.length);
+        return FTDIInterface.i2cMasterWriteThenRead(getHandle(), slaveAddress, writeBuffer, 0, writeBuffer.length,
+                readBuffer, 0, readBuffer.length);
     }
 
     /**
-     * Initialize the FT4222H as an SPI master.
-     * <p>
-     * In order to support various types of SPI slave devices, the FT4222H SPI
-     * master is configurable using the following parameters:
-     * <ul>
-     * <li>IO lines: SPI transmission lines. The FT4222H SPI supports single, dual,
-     * or quad transmission mode. An application may override this initial selection
-     * dynamically using FT4222_SPIMaster_SetLines. For example, commands might be
-     * sent in single mode but data transferred in dual or quad mode.
-     * <li>Clock divider: SPI clock rate is subject to system clock. The FT4222H SPI
-     * clock could be 1/2, 1/4, 1/8, 1/16, 1/32, 1/64, 1/128, 1/256, or 1/512 system
+     * Get the number of bytes received from the I2C master.
+     *
+     * @return bytes received and not yet read
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cSlaveGetRxStatus(long)
+     * @since 2.1
+     */
+    public int i2cSlaveGetRxStatus() throws FTDIException {
+        return FTDIInterface.i2cSlaveGetRxStatus(getHandle());
+    }
+
+    /**
+     * Initialize the FT4222H as an I2C slave.
+     *
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cSlaveInit(long)
+     * @since 2.1
+     */
+    public void i2cSlaveInit() throws FTDIException {
+        FTDIInterface.i2cSlaveInit(getHandle());
+        refreshMaxTransferSize();
+    }
+
+    /**
+     * Read data received from the I2C master. Returns immediately with what
+     * has been received, up to length bytes.
+     *
+     * @param buffer
+     *            receives the data
+     * @param offset
+     *            index of the first byte to fill
+     * @param length
+     *            most bytes to read, at most 65535
+     * @return number of bytes read
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cSlaveRead(long, byte[], int, int)
+     * @since 2.1
+     */
+    public int i2cSlaveRead(byte[] buffer, int offset, int length) throws FTDIException {
+        checkTransfer(buffer.length, offset, length);
+        return FTDIInterface.i2cSlaveRead(getHandle(), buffer, offset, length);
+    }
+
+    /**
+     * Reset the I2C slave. Clears received and queued data but keeps the
+     * slave settings.
+     *
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cSlaveReset(long)
+     * @since 2.1
+     */
+    public void i2cSlaveReset() throws FTDIException {
+        FTDIInterface.i2cSlaveReset(getHandle());
+    }
+
+    /**
+     * Set the address the I2C slave responds to.
+     *
+     * @param address
+     *            7 bit slave address
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cSlaveSetAddress(long, int)
+     * @since 2.1
+     */
+    public void i2cSlaveSetAddress(int address) throws FTDIException {
+        if (address < 0 || address > 0x7F) {
+            throw new IllegalArgumentException("Invalid 7 bit address: " + address);
+        }
+        FTDIInterface.i2cSlaveSetAddress(getHandle(), address);
+    }
+
+    /**
+     * Enable or disable I2C slave clock stretching, off by default. While
+     * enabled the slave holds SCL low when the master reads and no data is
+     * queued, until {@link #i2cSlaveWrite(byte[], int, int)} supplies some.
+     *
+     * @param enable
+     *            true to stretch
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cSlaveSetClockStretch(long, boolean)
+     * @since 2.1
+     */
+    public void i2cSlaveSetClockStretch(boolean enable) throws FTDIException {
+        FTDIInterface.i2cSlaveSetClockStretch(getHandle(), enable);
+    }
+
+    /**
+     * Queue data for the I2C master to read. For register based devices see
+     * {@link I2cSlaveRegisterFile}.
+     *
+     * @param buffer
+     *            data to send
+     * @param offset
+     *            index of the first byte to send
+     * @param length
+     *            number of bytes to send, at most 65535
+     * @return number of bytes queued
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#i2cSlaveWrite(long, byte[], int, int)
+     * @since 2.1
+     */
+    public int i2cSlaveWrite(byte[] buffer, int offset, int length) throws FTDIException {
+        checkTransfer(buffer.length, offset, length);
+        return FTDIInterface.i2cSlaveWrite(getHandle(), buffer, offset, length);
+    }
+
+    /**
+     * Set the system clock rate. The FT4222H supports 4 clock rates: 80MHz, 60MHz,
+     * 48MHz, or 24MHz. By default, the FT4222H runs at 60MHz clock rate.
+     *
+     * @param rate
+     *            FT4222 system clock rate
+     * @throws FTDIException
+     *            API call failed, see exception fields for details. More
+     *            information can be found in AN_329.
+     * @see FTDIInterface#setClock(long, long)
+     * @since 2.1
+     */
+    public void setClock(ClockRate rate) throws FTDIException {
+        FTDIInterface.setClock(getHandle(), rate.ordinal());
+    }
+
+    /**
+     * Set trigger condition for the pin wakeup/interrupt. By default, the trigger
+     * condition is GPIO_TRIGGER_RISING.
+     * <p>
+     * This function configures trigger condition for wakeup/interrupt.
+     * <p>
+     * When GPIO3 acts as wakeup pin. It means that ft4222H device has the
+     * capability to wake up the host. Only GPIO_TRIGGER_RISING and
+     * GPIO_TRIGGER_FALLING are valid when GPIO3 act as a wakeup pin. It is not
+     * necessary to call FT4222_GPIO_Init to set up wake-up function.
+     * <p>
+     * When GPIO3 acts as interrupt pin. All trigger condition can be set. The
+     * result of trigger status can be inquired by FT4222_GPIO_ReadTriggerQueue or
+     * FT4222_GPIO_Read. This is because the trigger status is provided by the GPIO
+     * pipe. Therefore it is necessary to call FT4222_GPIO_Init to set up interrupt
+     * function.
+     * <p>
+     * For GPIO triggering conditions, GPIO_TRIGGER_LEVEL_HIGH and
+     * GPIO_TRIGGER_LEVEL_LOW, that can be configured when GPIO3 behaves as an
+     * interrupt pin, when the system enters suspend mode, these two configurations
+     * will act as GPIO_TRIGGER_RISING and GPIO_FALLING respectively.
+     *
+     * @param trigger
+     *            trigger condition
+     * @throws FTDIException
+     *            API call failed, see exception fields for details. More
+     *            information can be found in AN_329.
+     * @throws IllegalStateException
+     *            Device must be opened before calling this method.
+     * @see FTDIInterface#setInterruptTrigger(long, int)
+     */
+    public void setInterruptTrigger(GpioTrigger trigger) throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+        FTDIInterface.setInterruptTrigger(getHandle(), trigger.getValue());
+    }
+
+    /**
+     * Enable or disable, suspend out, which will emit a signal when FT4222H enters
+     * suspend mode. Please note that the suspend-out pin is not available under
+     * mode 2. By default, suspend-out function is on.
+     * <p>
+     * When suspend-out function is on, suspend-out pin emits signal according to
+     * suspend-out polarity. The default value of suspend-out polarity is active
+     * high. It means suspend-out pin output low in normal mode and output high in
+     * suspend mode. Suspend-out polarity only can be adjusted by FT_PROG.
+     *
+     * @param enable
+     *            TRUE to enable suspend out and configure GPIO2 as an output pin
+     *            for emitting a signal when suspended. FALSE to switch back to
+     *            GPIO2.
+     * @throws FTDIException
+     *            API call failed, see exception fields for details. More
+     *            information can be found in AN_329.
+     * @throws IllegalStateException
+     *            Device must be opened before calling this method.
+     * @see FTDIInterface#setSuspendOut(long, boolean)
+     * @since 2.1
+     */
+    public void setSuspendOut(boolean enable) throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+        FTDIInterface.setSuspendOut(getHandle(), enable);
+    }
+
+    /**
+     * Enable or disable wakeup/interrupt. By default, wake-up/interrupt function is
+     * on.
+     * <p>
+     * When Wake up/Interrupt function is on, GPIO3 pin acts as an input pin for
+     * wakeup/interrupt.
+     * <p>
+     * While system is in normal mode, GPIO3 acts as an interrupt pin. While system
+     * is in suspend mode, GPIO3 acts as a wakeup pin.
+     *
+     * @param enable
+     *            TRUE to configure GPIO3 as an input pin for wakeup/interrupt.
+     *            FALSE to switch back to GPIO3.
+     * @throws FTDIException
+     *            API call failed, see exception fields for details. More
+     *            information can be found in AN_329.
+     * @throws IllegalStateException
+     *            Device must be opened before calling this method.
+     * @see FTDIInterface#setWakeUpInterrupt(long, boolean)
+     * @since 2.1
+     */
+    public void setWakeUpInterrupt(boolean enable) throws FTDIException {
+        if (!isOpen())
+            throw new IllegalStateException("Device not open");
+        FTDIInterface.setWakeUpInterrupt(getHandle(), enable);
+    }
+
+    /**
+     * Initialize the FT4222H as an SPI master.
+     * <p>
+     * In order to support various types of SPI slave devices, the FT4222H SPI
+     * master is configurable using the following parameters:
+     * <ul>
+     * <li>IO lines: SPI transmission lines. The FT4222H SPI supports single, dual,
+     * or quad transmission mode. An application may override this initial selection
+     * dynamically using FT4222_SPIMaster_SetLines. For example, commands might be
+     * sent in single mode but data transferred in dual or quad mode.
+     * <li>Clock divider: SPI clock rate is subject to system clock. The FT4222H SPI
+     * clock could be 1/2, 1/4, 1/8, 1/16, 1/32, 1/64, 1/128, 1/256, or 1/512 system
      * clock rate.
      * <li>Clock polarity: Active high or active low.
      * <li>Clock phase: Data is sampled on the leading (first) or trailing (second)
@@ -368,6 +893,98 @@ public class FT4222Device extends Device {
             throws FTDIException {
         FTDIInterface.spiMasterInit(getHandle(), ioLine.getValue(), div.ordinal(), cpol.ordinal(), cpha.ordinal(),
                 ssoMap);
+        refreshMaxTransferSize();
+    }
+
+    /**
+     * Under SPI dual or quad mode, perform a multi line transfer. The command
+     * phase, e.g. opcode, address and dummy bytes, is written on a single line,
+     * then the data phase is written and/or read on two or four lines. Use
+     * {@link #spiMasterSetLines(SpiMode)} to select the number of lines.
+     * The arrays are copied, not pinned, around the USB transfer.
+     *
+     * @param readBuffer
+     *            buffer that receives the multi line read data
+     * @param readOffset
+     *            index of the first byte to fill
+     * @param writeBuffer
+     *            single line bytes followed by multi line bytes
+     * @param writeOffset
+     *            index of the first byte to write
+     * @param singleWriteBytes
+     *            number of bytes written on a single line, 0 to 15
+     * @param multiWriteBytes
+     *            number of bytes written on multiple lines, at most 65535
+     * @param multiReadBytes
+     *            number of bytes read on multiple lines, at most 65535
+     * @return number of bytes read from the device
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiMasterMultiReadWrite(long, byte[], int, byte[], int, int, int, int)
+     * @since 2.1
+     */
+    public int spiMasterMultiReadWrite(byte[] readBuffer, int readOffset, byte[] writeBuffer, int writeOffset,
+            int singleWriteBytes, int multiWriteBytes, int multiReadBytes) throws FTDIException {
+        checkMultiTransfer(singleWriteBytes, multiWriteBytes);
+        checkTransfer(readBuffer.length, readOffset, multiReadBytes);
+        checkTransfer(writeBuffer.length, writeOffset, singleWriteBytes + multiWriteBytes);
+        return FTDIInterface.spiMasterMultiReadWrite(getHandle(), readBuffer, readOffset, writeBuffer, writeOffset,
+                singleWriteBytes, multiWriteBytes, multiReadBytes);
+    }
+
+    /**
+     * Under SPI dual or quad mode, perform a multi line transfer, see
+     * {@link #spiMasterMultiReadWrite(byte[], int, byte[], int, int, int, int)}.
+     * All of writeBuffer.remaining() is written, the first singleWriteBytes on
+     * a single line. readBuffer.remaining() bytes are read. Both buffer
+     * positions are advanced. Direct buffers are used without any copying.
+     *
+     * @param readBuffer
+     *            buffer that receives the multi line read data
+     * @param writeBuffer
+     *            single line bytes followed by multi line bytes
+     * @param singleWriteBytes
+     *            number of bytes written on a single line, 0 to 15
+     * @return number of bytes read from the device
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiMasterMultiReadWriteDirect(long, ByteBuffer, int, ByteBuffer, int, int, int, int)
+     * @since 2.1
+     */
+    public int spiMasterMultiReadWrite(ByteBuffer readBuffer, ByteBuffer writeBuffer, int singleWriteBytes)
+            throws FTDIException {
+        int writeLength = writeBuffer.remaining();
+        int readLength = readBuffer.remaining();
+        checkMultiTransfer(singleWriteBytes, writeLength - singleWriteBytes);
+        checkTransfer(readBuffer, readLength);
+        checkTransfer(writeBuffer, writeLength);
+        if (readBuffer.isReadOnly()) {
+            throw new IllegalArgumentException("readBuffer is read only");
+        }
+        int count;
+
+        if (readBuffer.isDirect() && writeBuffer.isDirect()) {
+            count = FTDIInterface.spiMasterMultiReadWriteDirect(getHandle(), readBuffer, readBuffer.position(),
+                    writeBuffer, writeBuffer.position(), singleWriteBytes, writeLength - singleWriteBytes,
+                    readLength);
+        } else {
+            byte[] read = readBuffer.hasArray() ? readBuffer.array() : new byte[readLength];
+            int readOffset = readBuffer.hasArray() ? readBuffer.arrayOffset() + readBuffer.position() : 0;
+            byte[] write = writeBuffer.hasArray() ? writeBuffer.array() : toArray(writeBuffer, writeLength);
+            int writeOffset = writeBuffer.hasArray() ? writeBuffer.arrayOffset() + writeBuffer.position() : 0;
+
+            count = FTDIInterface.spiMasterMultiReadWrite(getHandle(), read, readOffset, write, writeOffset,
+                    singleWriteBytes, writeLength - singleWriteBytes, readLength);
+            if (!readBuffer.hasArray()) {
+                readBuffer.duplicate().put(read, 0, count);
+            }
+        }
+
+        readBuffer.position(readBuffer.position() + count);
+        writeBuffer.position(writeBuffer.position() + writeLength);
+        return count;
     }
 
     /**
@@ -386,6 +1003,7 @@ public class FT4222Device extends Device {
      */
     public void spiMasterSetLines(SpiMode spiMode) throws FTDIException {
         FTDIInterface.spiMasterSetLines(getHandle(), spiMode.getValue());
+        refreshMaxTransferSize();
     }
 
     /**
@@ -401,11 +1019,354 @@ public class FT4222Device extends Device {
      * @throws FTDIException
      *             API call failed, see exception fields for details.
      *             More information can be found in AN_329.
-     * @see FTDIInterface#spiMasterSingleRead(long, byte[], int, boolean)
+     * @see FTDIInterface#spiMasterSingleRead(long, byte[], int, int, boolean)
      * @since 2.1
      */
     public int spiMasterSingleRead(byte[] buffer, int bytesToRead, boolean isEndTransaction) throws FTDIException {
-        return FTDIInterface.spiMasterSingleRead(getHandle(), buffer, bytesToRead, isEndTransaction);
+        return spiMasterSingleRead(buffer, 0, bytesToRead, isEndTransaction);
+    }
+
+    /**
+     * Under SPI single mode, read data from an SPI slave into part of an
+     * array. The data is copied into the array once the transfer is done.
+     *
+     * @param buffer
+     *            buffer that receives the data from the device
+     * @param offset
+     *            index of the first byte to fill
+     * @param bytesToRead
+     *            number of bytes to read from the device, at most 65535
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised at the end of the read 
+     * @return number of bytes read from the device
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiMasterSingleRead(long, byte[], int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleRead(byte[] buffer, int offset, int bytesToRead, boolean isEndTransaction)
+            throws FTDIException {
+        checkTransfer(buffer.length, offset, bytesToRead);
+        return FTDIInterface.spiMasterSingleRead(getHandle(), buffer, offset, bytesToRead, isEndTransaction);
+    }
+
+    /**
+     * Under SPI single mode, read buffer.remaining() bytes from an SPI slave.
+     * Direct buffers are filled by the device without any copying. The buffer
+     * position is advanced by the number of bytes read.
+     *
+     * @param buffer
+     *            buffer that receives the data from the device
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised at the end of the read 
+     * @return number of bytes read from the device
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiMasterSingleReadDirect(long, ByteBuffer, int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleRead(ByteBuffer buffer, boolean isEndTransaction) throws FTDIException {
+        int length = buffer.remaining();
+        checkTransfer(buffer, length);
+        if (buffer.isReadOnly()) {
+            throw new IllegalArgumentException("buffer is read only");
+        }
+        int count;
+
+        if (buffer.isDirect()) {
+            count = FTDIInterface.spiMasterSingleReadDirect(getHandle(), buffer, buffer.position(), length,
+                    isEndTransaction);
+        } else {
+            count = spiMasterSingleRead(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    isEndTransaction);
+        }
+
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    /**
+     * Under SPI single mode, read any amount of data from an SPI slave. The
+     * transfer is split into {@link #getMaxTransferSize()} chunks in native
+     * code with Slave Select held between them, each copied through a bounce
+     * buffer, so however long the transfer it costs one JNI call and never
+     * holds off the garbage collector.
+     *
+     * @param buffer
+     *            buffer that receives the data from the device
+     * @param offset
+     *            index of the first byte
+     * @param length
+     *            number of bytes to read
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised after the final chunk
+     * @return number of bytes transferred
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened and initialized before calling this method.
+     * @see FTDIInterface#spiMasterSingleReadChunked(long, byte[], int, int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleReadFully(byte[] buffer, int offset, int length, boolean isEndTransaction)
+            throws FTDIException {
+        checkBounds(buffer.length, offset, length);
+        return FTDIInterface.spiMasterSingleReadChunked(getHandle(), buffer, offset, length, getMaxTransferSize(),
+                isEndTransaction);
+    }
+
+    /**
+     * Under SPI single mode, read buffer.remaining() bytes, see
+     * {@link #spiMasterSingleReadFully(byte[], int, int, boolean)}. Direct
+     * buffers are used without copying. The buffer position is advanced by
+     * the number of bytes transferred.
+     *
+     * @param buffer
+     *            buffer that receives the data from the device
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised after the final chunk
+     * @return number of bytes transferred
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened and initialized before calling this method.
+     * @throws IllegalArgumentException
+     *             buffer is read only
+     * @see FTDIInterface#spiMasterSingleReadChunkedDirect(long, ByteBuffer, int, int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleReadFully(ByteBuffer buffer, boolean isEndTransaction) throws FTDIException {
+        if (buffer.isReadOnly()) {
+            throw new IllegalArgumentException("buffer is read only");
+        }
+        int length = buffer.remaining();
+        int count;
+
+        if (buffer.isDirect()) {
+            count = FTDIInterface.spiMasterSingleReadChunkedDirect(getHandle(), buffer, buffer.position(), length,
+                    getMaxTransferSize(), isEndTransaction);
+        } else {
+            count = spiMasterSingleReadFully(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    isEndTransaction);
+        }
+
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    /**
+     * Under SPI single mode, full-duplex write data to and read data from an
+     * SPI slave. Both directions are copied in native code, the arrays are
+     * not pinned during the transfer.
+     *
+     * @param readBuffer
+     *            buffer that receives the data from the device
+     * @param readOffset
+     *            index of the first byte to fill
+     * @param writeBuffer
+     *            buffer that contains the data to be written
+     * @param writeOffset
+     *            index of the first byte to write
+     * @param length
+     *            number of bytes to transfer in each direction, at most 65535
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised at the end of the transfer 
+     * @return number of bytes transferred
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiMasterSingleReadWrite(long, byte[], int, byte[], int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleReadWrite(byte[] readBuffer, int readOffset, byte[] writeBuffer, int writeOffset,
+            int length, boolean isEndTransaction) throws FTDIException {
+        checkTransfer(readBuffer.length, readOffset, length);
+        checkTransfer(writeBuffer.length, writeOffset, length);
+        return FTDIInterface.spiMasterSingleReadWrite(getHandle(), readBuffer, readOffset, writeBuffer, writeOffset,
+                length, isEndTransaction);
+    }
+
+    /**
+     * Under SPI single mode, full-duplex transfer of writeBuffer.remaining()
+     * bytes. Both buffer positions are advanced by the number of bytes
+     * transferred. Direct buffers are used without any copying.
+     *
+     * @param readBuffer
+     *            buffer that receives the data from the device, must have at
+     *            least as many bytes remaining as writeBuffer
+     * @param writeBuffer
+     *            buffer that contains the data to be written
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised at the end of the transfer 
+     * @return number of bytes transferred
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalArgumentException
+     *             readBuffer is read only or has too few bytes remaining
+     * @see FTDIInterface#spiMasterSingleReadWriteDirect(long, ByteBuffer, int, ByteBuffer, int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleReadWrite(ByteBuffer readBuffer, ByteBuffer writeBuffer, boolean isEndTransaction)
+            throws FTDIException {
+        int length = writeBuffer.remaining();
+        checkTransfer(readBuffer, length);
+        checkTransfer(writeBuffer, length);
+        if (readBuffer.isReadOnly()) {
+            throw new IllegalArgumentException("readBuffer is read only");
+        }
+        int count;
+
+        if (readBuffer.isDirect() && writeBuffer.isDirect()) {
+            count = FTDIInterface.spiMasterSingleReadWriteDirect(getHandle(), readBuffer, readBuffer.position(),
+                    writeBuffer, writeBuffer.position(), length, isEndTransaction);
+        } else {
+            byte[] read = readBuffer.hasArray() ? readBuffer.array() : new byte[length];
+            int readOffset = readBuffer.hasArray() ? readBuffer.arrayOffset() + readBuffer.position() : 0;
+            byte[] write = writeBuffer.hasArray() ? writeBuffer.array() : toArray(writeBuffer, length);
+            int writeOffset = writeBuffer.hasArray() ? writeBuffer.arrayOffset() + writeBuffer.position() : 0;
+
+            count = spiMasterSingleReadWrite(read, readOffset, write, writeOffset, length, isEndTransaction);
+            if (!readBuffer.hasArray()) {
+                readBuffer.duplicate().put(read, 0, count);
+            }
+        }
+
+        readBuffer.position(readBuffer.position() + count);
+        writeBuffer.position(writeBuffer.position() + count);
+        return count;
+    }
+
+    /**
+     * Under SPI single mode, write data to an SPI slave. The data is copied
+     * out of the array before the transfer.
+     *
+     * @param buffer
+     *            buffer that contains the data to be written
+     * @param offset
+     *            index of the first byte to write
+     * @param bytesToWrite
+     *            number of bytes to write to the device, at most 65535
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised at the end of the write 
+     * @return number of bytes written to the device
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiMasterSingleWrite(long, byte[], int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleWrite(byte[] buffer, int offset, int bytesToWrite, boolean isEndTransaction)
+            throws FTDIException {
+        checkTransfer(buffer.length, offset, bytesToWrite);
+        return FTDIInterface.spiMasterSingleWrite(getHandle(), buffer, offset, bytesToWrite, isEndTransaction);
+    }
+
+    /**
+     * Under SPI single mode, write buffer.remaining() bytes to an SPI slave.
+     * Direct buffers are read by the device without any copying. The buffer
+     * position is advanced by the number of bytes written.
+     *
+     * @param buffer
+     *            buffer that contains the data to be written
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised at the end of the write 
+     * @return number of bytes written to the device
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiMasterSingleWriteDirect(long, ByteBuffer, int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleWrite(ByteBuffer buffer, boolean isEndTransaction) throws FTDIException {
+        int length = buffer.remaining();
+        checkTransfer(buffer, length);
+        int count;
+
+        if (buffer.isDirect()) {
+            count = FTDIInterface.spiMasterSingleWriteDirect(getHandle(), buffer, buffer.position(), length,
+                    isEndTransaction);
+        } else if (buffer.hasArray()) {
+            count = spiMasterSingleWrite(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    isEndTransaction);
+        } else {
+            count = spiMasterSingleWrite(toArray(buffer, length), 0, length, isEndTransaction);
+        }
+
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    /**
+     * Under SPI single mode, write any amount of data to an SPI slave. The
+     * transfer is split into {@link #getMaxTransferSize()} chunks in native
+     * code with Slave Select held between them, each copied through a bounce
+     * buffer, so however long the transfer it costs one JNI call and never
+     * holds off the garbage collector.
+     *
+     * @param buffer
+     *            data to be written to the device
+     * @param offset
+     *            index of the first byte
+     * @param length
+     *            number of bytes to write
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised after the final chunk
+     * @return number of bytes transferred
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened and initialized before calling this method.
+     * @see FTDIInterface#spiMasterSingleWriteChunked(long, byte[], int, int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleWriteFully(byte[] buffer, int offset, int length, boolean isEndTransaction)
+            throws FTDIException {
+        checkBounds(buffer.length, offset, length);
+        return FTDIInterface.spiMasterSingleWriteChunked(getHandle(), buffer, offset, length, getMaxTransferSize(),
+                isEndTransaction);
+    }
+
+    /**
+     * Under SPI single mode, write buffer.remaining() bytes, see
+     * {@link #spiMasterSingleWriteFully(byte[], int, int, boolean)}. Direct
+     * buffers are used without copying. The buffer position is advanced by
+     * the number of bytes transferred.
+     *
+     * @param buffer
+     *            data to be written to the device
+     * @param isEndTransaction
+     *            If TRUE the Slave Select pin will be raised after the final chunk
+     * @return number of bytes transferred
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @throws IllegalStateException
+     *             Device must be opened and initialized before calling this method.
+     * @see FTDIInterface#spiMasterSingleWriteChunkedDirect(long, ByteBuffer, int, int, int, boolean)
+     * @since 2.1
+     */
+    public int spiMasterSingleWriteFully(ByteBuffer buffer, boolean isEndTransaction) throws FTDIException {
+        int length = buffer.remaining();
+        int count;
+
+        if (buffer.isDirect()) {
+            count = FTDIInterface.spiMasterSingleWriteChunkedDirect(getHandle(), buffer, buffer.position(), length,
+                    getMaxTransferSize(), isEndTransaction);
+        } else if (buffer.hasArray()) {
+            count = spiMasterSingleWriteFully(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    isEndTransaction);
+        } else {
+            count = spiMasterSingleWriteFully(toArray(buffer, length), 0, length, isEndTransaction);
+        }
+
+        buffer.position(buffer.position() + count);
+        return count;
     }
 
     /**
@@ -430,6 +1391,114 @@ public class FT4222Device extends Device {
         FTDIInterface.spiResetTransaction(getHandle(), spiIdx);
     }
 
+    /**
+     * Get the number of bytes waiting in the SPI slave receive buffer.
+     *
+     * @return bytes received and not yet read
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiSlaveGetRxStatus(long)
+     * @since 2.1
+     */
+    public int spiSlaveGetRxStatus() throws FTDIException {
+        return FTDIInterface.spiSlaveGetRxStatus(getHandle());
+    }
+
+    /**
+     * Initialize the FT4222H as an SPI slave using the FT4222 framing
+     * protocol.
+     *
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see #spiSlaveInit(SpiSlaveProtocol)
+     * @since 2.1
+     */
+    public void spiSlaveInit() throws FTDIException {
+        spiSlaveInit(SpiSlaveProtocol.SPI_SLAVE_WITH_PROTOCOL);
+    }
+
+    /**
+     * Initialize the FT4222H as an SPI slave. Use
+     * {@link SpiSlaveProtocol#SPI_SLAVE_NO_PROTOCOL} to receive raw data
+     * from a master that knows nothing of the FT4222 framing, e.g. when
+     * sniffing a stream from an SoC.
+     *
+     * @param protocol
+     *            framing used on the bus
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiSlaveInit(long, int)
+     * @since 2.1
+     */
+    public void spiSlaveInit(SpiSlaveProtocol protocol) throws FTDIException {
+        FTDIInterface.spiSlaveInit(getHandle(), protocol.ordinal());
+        refreshMaxTransferSize();
+    }
+
+    /**
+     * Read data received by the SPI slave. Returns immediately with what
+     * has been received, up to length bytes. For continuous reception use
+     * {@link SpiSlaveReceiver}.
+     *
+     * @param buffer
+     *            receives the data
+     * @param offset
+     *            index of the first byte to fill
+     * @param length
+     *            most bytes to read, at most 65535
+     * @return number of bytes read
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiSlaveRead(long, byte[], int, int)
+     * @since 2.1
+     */
+    public int spiSlaveRead(byte[] buffer, int offset, int length) throws FTDIException {
+        checkTransfer(buffer.length, offset, length);
+        return FTDIInterface.spiSlaveRead(getHandle(), buffer, offset, length);
+    }
+
+    /**
+     * Set the SPI slave clock polarity and phase.
+     *
+     * @param cpol
+     *            clock idle polarity
+     * @param cpha
+     *            selects clock edge to sample
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiSlaveSetMode(long, int, int)
+     * @since 2.1
+     */
+    public void spiSlaveSetMode(SpiCPolarity cpol, SpiCPhase cpha) throws FTDIException {
+        FTDIInterface.spiSlaveSetMode(getHandle(), cpol.ordinal(), cpha.ordinal());
+    }
+
+    /**
+     * Queue data for the SPI master to read.
+     *
+     * @param buffer
+     *            data to send
+     * @param offset
+     *            index of the first byte to send
+     * @param length
+     *            number of bytes to send, at most 65535
+     * @return number of bytes queued
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     *             More information can be found in AN_329.
+     * @see FTDIInterface#spiSlaveWrite(long, byte[], int, int)
+     * @since 2.1
+     */
+    public int spiSlaveWrite(byte[] buffer, int offset, int length) throws FTDIException {
+        checkTransfer(buffer.length, offset, length);
+        return FTDIInterface.spiSlaveWrite(getHandle(), buffer, offset, length);
+    }
+
     /**
      * Release allocated resources. Should be called before calling close().
      *
@@ -441,5 +1510,63 @@ public class FT4222Device extends Device {
      */
     public void unInitialize() throws FTDIException {
         FTDIInterface.unInitialize(getHandle());
+        maxTransferSize = 0;
+    }
+
+    /**
+     * Native transfers work on raw pointers so bounds must be checked here.
+     */
+    private static void checkBounds(int capacity, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > capacity - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", capacity " + capacity);
+        }
+    }
+
+    /**
+     * As checkBounds, and LibFT4222 transfer lengths are 16 bit.
+     */
+    private static void checkTransfer(int capacity, int offset, int length) {
+        checkBounds(capacity, offset, length);
+        if (length > MAX_TRANSFER_LENGTH) {
+            throw new IllegalArgumentException("Transfer too long: " + length);
+        }
+    }
+
+    /**
+     * As checkTransfer for length bytes from the buffer position. Natives
+     * only see the position, so the limit must be enforced here.
+     */
+    private static void checkTransfer(ByteBuffer buffer, int length) {
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Buffer has " + buffer.remaining() + " bytes remaining, " + length
+                    + " needed");
+        }
+        checkTransfer(buffer.capacity(), buffer.position(), length);
+    }
+
+    private static void checkMultiTransfer(int singleWriteBytes, int multiWriteBytes) {
+        if (singleWriteBytes < 0 || singleWriteBytes > MAX_SINGLE_WRITE_BYTES) {
+            throw new IllegalArgumentException("singleWriteBytes out of range: " + singleWriteBytes);
+        }
+        if (multiWriteBytes < 0 || multiWriteBytes > MAX_TRANSFER_LENGTH) {
+            throw new IllegalArgumentException("multiWriteBytes out of range: " + multiWriteBytes);
+        }
+    }
+
+    /**
+     * Called after each init, the max transfer size depends on mode and clock.
+     */
+    private void refreshMaxTransferSize() throws FTDIException {
+        maxTransferSize = FTDIInterface.getMaxTransferSize(getHandle());
+    }
+
+    /**
+     * Copies the remaining bytes of a read only heap buffer without moving
+     * its position.
+     */
+    private static byte[] toArray(ByteBuffer buffer, int length) {
+        byte[] result = new byte[length];
+        buffer.duplicate().get(result);
+        return result;
     }
 }
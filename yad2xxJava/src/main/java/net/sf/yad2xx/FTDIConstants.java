@@ -87,4 +87,17 @@ public interface FTDIConstants {
     //
     int FT_PURGE_RX = 1;
     int FT_PURGE_TX = 2;
+
+    //
+    // Events
+    //
+    int FT_EVENT_RXCHAR = 1;
+    int FT_EVENT_MODEM_STATUS = 2;
+    int FT_EVENT_LINE_STATUS = 4;
+
+    /**
+     * LibFT4222 event, from libft4222.h. Signalled when data is received or,
+     * with GPIO triggers enabled, when trigger events are queued.
+     */
+    int FT4222_EVENT_RXCHAR = 8;
 }
@@ -18,10 +18,17 @@
  */
 package net.sf.yad2xx;
 
+import java.nio.ByteBuffer;
+
+import net.sf.yad2xx.ft4222.GpioDirection;
+import net.sf.yad2xx.ft4222.GpioPort;
+import net.sf.yad2xx.ft4222.GpioTrigger;
+import net.sf.yad2xx.ft4222.I2cMasterFlag;
 import net.sf.yad2xx.ft4222.SpiCPhase;
 import net.sf.yad2xx.ft4222.SpiCPolarity;
 import net.sf.yad2xx.ft4222.SpiClock;
 import net.sf.yad2xx.ft4222.SpiMode;
+import net.sf.yad2xx.ft4222.SpiSlaveProtocol;
 import net.sf.yad2xx.ft4222.Version;
 
 /**
@@ -183,6 +190,26 @@ public class FTDIInterface {
      */
     public static native void setVidPid(int vid, int pid) throws FTDIException;
 
+    /**
+     * Blocks until at least minBytes are in the receive queue, the event
+     * handle is signalled or the timeout expires. Returns after at most one
+     * wake up, or on POSIX a 10 ms slice; the caller loops for the rest of
+     * its timeout.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	event			handle registered for FT_EVENT_RXCHAR with
+     * 							{@link #setEventNotification(long, int, long)}
+     * @param	minBytes		number of bytes wanted
+     * @param	timeout			longest wait in ms
+     * @return					number of bytes in the receive queue, less
+     * 							than minBytes on timeout or wake up
+     * @throws	FTDIException	FT_GetQueueStatus returned a non-zero status
+     * 							code
+     * @see						Device#awaitRx(int, long)
+     * @since	2.1
+     */
+    static native int awaitRx(long ftHandle, long event, int minBytes, int timeout) throws FTDIException;
+
     /**
      * Software reset for device. (FT4222 only)
      * <p>
@@ -207,6 +234,15 @@ public class FTDIInterface {
      */
     static native void close(Device device) throws FTDIException;
 
+    /**
+     * Free an event handle created by {@link #createEvent()}. It must no
+     * longer be registered with a device.
+     *
+     * @param   event           event handle
+     * @since   2.1
+     */
+    static native void closeEvent(long event);
+
     /**
      * Clears the Data Terminal Ready (DTR) control signal.
      * 
@@ -227,6 +263,15 @@ public class FTDIInterface {
      */
     static native void clrRts(long ftHandle) throws FTDIException;
     
+    /**
+     * Allocate an event handle suitable for passing to the D2XX and
+     * LibFT4222 event notification functions.
+     *
+     * @return                  event handle, free with {@link #closeEvent(long)}
+     * @since   2.1
+     */
+    static native long createEvent();
+
     /**
      * Sends a cycle command to the USB port.
      * <p>
@@ -413,6 +458,106 @@ public class FTDIInterface {
      */
     static native long getVidPidRaw() throws FTDIException;
 
+    /**
+     * Get the size of the trigger event queue for a GPIO port.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   portNum         GPIO_Port value
+     * @return                  number of queued events
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#gpioGetTriggerStatus(GpioPort)
+     * @since   2.1
+     */
+    static native int gpioGetTriggerStatus(long ftHandle, int portNum) throws FTDIException;
+
+    /**
+     * Initialize the GPIO interface.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   directions      GPIO_Dir value for each of the four ports
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#gpioInit(GpioDirection, GpioDirection, GpioDirection, GpioDirection)
+     * @since   2.1
+     */
+    static native void gpioInit(long ftHandle, int[] directions) throws FTDIException;
+
+    /**
+     * Read the value of a GPIO input port.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   portNum         GPIO_Port value
+     * @return                  true if the port is high
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#gpioRead(GpioPort)
+     * @since   2.1
+     */
+    static native boolean gpioRead(long ftHandle, int portNum) throws FTDIException;
+
+    /**
+     * Read queued trigger events of a GPIO port.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   portNum         GPIO_Port value
+     * @param   events          receives GPIO_Trigger values, its length is
+     *                          the maximum number read
+     * @return                  number of events read
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#gpioReadTriggerQueue(GpioPort)
+     * @since   2.1
+     */
+    static native int gpioReadTriggerQueue(long ftHandle, int portNum, int[] events) throws FTDIException;
+
+    /**
+     * Set the trigger conditions queued for a GPIO input port.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   portNum         GPIO_Port value
+     * @param   trigger         bitmask of GPIO_Trigger values, 0 to disable
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#gpioSetInputTrigger(GpioPort, GpioTrigger...)
+     * @since   2.1
+     */
+    static native void gpioSetInputTrigger(long ftHandle, int portNum, int trigger) throws FTDIException;
+
+    /**
+     * Block until trigger events are queued on any port in portMask, or the
+     * timeout expires, or the event handle is signalled by
+     * {@link #setEvent(long)}, then drain those queues. Each entry written
+     * to events is (port &lt;&lt; 8) | trigger.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   event           event handle registered with
+     *                          {@link #setFT4222EventNotification(long, int, long)}
+     * @param   portMask        bit n set to drain port n
+     * @param   timeout         maximum wait in milliseconds
+     * @param   events          receives the events
+     * @return                  number of events, 0 on timeout or signal
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     GpioEventService
+     * @since   2.1
+     */
+    static native int gpioWaitTriggerQueues(long ftHandle, long event, int portMask, int timeout, int[] events)
+            throws FTDIException;
+
+    /**
+     * Set the value of a GPIO output port.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   portNum         GPIO_Port value
+     * @param   value           true to drive high
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#gpioWrite(GpioPort, boolean)
+     * @since   2.1
+     */
+    static native void gpioWrite(long ftHandle, int portNum, boolean value) throws FTDIException;
+
     /**
      * Initialize the FT4222H as an I2C master with the requested I2C speed.
      *
@@ -442,6 +587,64 @@ public class FTDIInterface {
      */
     static native int i2cMasterRead(long ftHandle, int slaveAddress, byte[] buffer, int bytesToRead) throws FTDIException;
 
+    /**
+     * Read any amount of data from an I2C slave device as one START...STOP
+     * transaction. The transfer is split into chunks in native code, each
+     * copied through a bounce buffer, so only one JNI call is made.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   slaveAddress    address of the target i2c slave
+     * @param   buffer          buffer that receives the data
+     * @param   offset          index of the first byte
+     * @param   length          total number of bytes, not limited to 16 bits
+     * @param   chunkSize       largest length passed to each LibFT4222 call
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cMasterReadFully(int, byte[], int, int)
+     * @since   2.1
+     */
+    static native int i2cMasterReadChunked(long ftHandle, int slaveAddress, byte[] buffer, int offset,
+            int length, int chunkSize) throws FTDIException;
+
+    /**
+     * Read any amount of data from an I2C slave device into a direct buffer
+     * as one START...STOP transaction.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   slaveAddress    address of the target i2c slave
+     * @param   buffer          direct buffer that receives the data
+     * @param   offset          index of the first byte
+     * @param   length          total number of bytes, not limited to 16 bits
+     * @param   chunkSize       largest length passed to each LibFT4222 call
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cMasterReadFully(int, ByteBuffer)
+     * @since   2.1
+     */
+    static native int i2cMasterReadChunkedDirect(long ftHandle, int slaveAddress, ByteBuffer buffer, int offset,
+            int length, int chunkSize) throws FTDIException;
+
+    /**
+     * Read data from the specified I2C slave device with the requested START,
+     * Repeated START and STOP conditions.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   slaveAddress    address of the target i2c slave
+     * @param   flag            I2C_MasterFlag value, see {@link I2cMasterFlag}
+     * @param   buffer          where to store the results
+     * @param   offset          index of the first byte
+     * @param   length          number of bytes to read
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cMasterReadEx(int, I2cMasterFlag, byte[], int, int)
+     * @since   2.1
+     */
+    static native int i2cMasterReadEx(long ftHandle, int slaveAddress, int flag, byte[] buffer, int offset,
+            int length) throws FTDIException;
+
     /**
      * Write data to the specified I2C slave device with START and STOP
      * conditions.
@@ -460,6 +663,201 @@ public class FTDIInterface {
      */
     static native int i2cMasterWrite(long ftHandle, int slaveAddress, byte[] buffer, int bytesToWrite) throws FTDIException;
 
+    /**
+     * Write any amount of data to an I2C slave device as one START...STOP
+     * transaction. The transfer is split into chunks in native code, each
+     * copied through a bounce buffer, so only one JNI call is made.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   slaveAddress    address of the target i2c slave
+     * @param   buffer          buffer holding the data
+     * @param   offset          index of the first byte
+     * @param   length          total number of bytes, not limited to 16 bits
+     * @param   chunkSize       largest length passed to each LibFT4222 call
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cMasterWriteFully(int, byte[], int, int)
+     * @since   2.1
+     */
+    static native int i2cMasterWriteChunked(long ftHandle, int slaveAddress, byte[] buffer, int offset,
+            int length, int chunkSize) throws FTDIException;
+
+    /**
+     * Write any amount of data from a direct buffer to an I2C slave device
+     * as one START...STOP transaction.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   slaveAddress    address of the target i2c slave
+     * @param   buffer          direct buffer holding the data
+     * @param   offset          index of the first byte
+     * @param   length          total number of bytes, not limited to 16 bits
+     * @param   chunkSize       largest length passed to each LibFT4222 call
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cMasterWriteFully(int, ByteBuffer)
+     * @since   2.1
+     */
+    static native int i2cMasterWriteChunkedDirect(long ftHandle, int slaveAddress, ByteBuffer buffer, int offset,
+            int length, int chunkSize) throws FTDIException;
+
+    /**
+     * Write data to the specified I2C slave device with the requested START,
+     * Repeated START and STOP conditions.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   slaveAddress    address of the target i2c slave
+     * @param   flag            I2C_MasterFlag value, see {@link I2cMasterFlag}
+     * @param   buffer          data to be written to the device
+     * @param   offset          index of the first byte
+     * @param   length          number of bytes to write
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cMasterWriteEx(int, I2cMasterFlag, byte[], int, int)
+     * @since   2.1
+     */
+    static native int i2cMasterWriteEx(long ftHandle, int slaveAddress, int flag, byte[] buffer, int offset,
+            int length) throws FTDIException;
+
+    /**
+     * Write to the specified I2C slave device with a START condition, then
+     * read from it with a Repeated START and STOP. Both phases run within
+     * one native call.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   slaveAddress    address of the target i2c slave
+     * @param   writeBuffer     data to be written, e.g. register address
+     * @param   writeOffset     index of the first byte to write
+     * @param   bytesToWrite    number of bytes to write
+     * @param   readBuffer      where to store the results
+     * @param   readOffset      index of the first byte to fill
+     * @param   bytesToRead     number of bytes to read
+     * @return                  number of bytes actually read
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cMasterWriteThenRead(int, byte[], byte[])
+     * @since   2.1
+     */
+    static native int i2cMasterWriteThenRead(long ftHandle, int slaveAddress, byte[] writeBuffer, int writeOffset,
+            int bytesToWrite, byte[] readBuffer, int readOffset, int bytesToRead) throws FTDIException;
+
+    /**
+     * Get the number of bytes received from the I2C master.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @return                  bytes received
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cSlaveGetRxStatus()
+     * @since   2.1
+     */
+    static native int i2cSlaveGetRxStatus(long ftHandle) throws FTDIException;
+
+    /**
+     * Initialize the FT4222H as an I2C slave.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cSlaveInit()
+     * @since   2.1
+     */
+    static native void i2cSlaveInit(long ftHandle) throws FTDIException;
+
+    /**
+     * Read data received from the I2C master. The data is copied into the
+     * array after the USB transfer.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   buffer          receives the data
+     * @param   offset          index of the first byte to fill
+     * @param   bytesToRead     most bytes to read
+     * @return                  number of bytes read
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cSlaveRead(byte[], int, int)
+     * @since   2.1
+     */
+    static native int i2cSlaveRead(long ftHandle, byte[] buffer, int offset, int bytesToRead) throws FTDIException;
+
+    /**
+     * Reset the I2C slave, clearing its caches but keeping its settings.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cSlaveReset()
+     * @since   2.1
+     */
+    static native void i2cSlaveReset(long ftHandle) throws FTDIException;
+
+    /**
+     * Set the 7 bit address the I2C slave responds to.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   addr            slave address
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cSlaveSetAddress(int)
+     * @since   2.1
+     */
+    static native void i2cSlaveSetAddress(long ftHandle, int addr) throws FTDIException;
+
+    /**
+     * Enable or disable clock stretching. While enabled the slave holds SCL
+     * low when the master reads and nothing is queued.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   enable          true to stretch
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cSlaveSetClockStretch(boolean)
+     * @since   2.1
+     */
+    static native void i2cSlaveSetClockStretch(long ftHandle, boolean enable) throws FTDIException;
+
+    /**
+     * Register file emulation, applies everything the master has written
+     * and clears the slave caches in one call. The received burst is a
+     * register pointer followed by data bytes. After a pointer only write
+     * the read response is staged, after a data write nothing is.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   registers       register file, updated in place
+     * @param   writeMask       writable bits of each register, null if
+     *                          all are writable
+     * @param   state           [0] register pointer, updated. [1] and [2]
+     *                          receive the first register written and the
+     *                          number of data bytes
+     * @param   stageLength     number of bytes to stage after a pointer
+     *                          only write, wrapping
+     * @return                  bytes received, 0 if none
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     I2cSlaveRegisterFile
+     * @since   2.1
+     */
+    static native int i2cSlaveUpdateRegisters(long ftHandle, byte[] registers, byte[] writeMask, int[] state,
+            int stageLength) throws FTDIException;
+
+    /**
+     * Queue data for the I2C master to read. The data is copied out of the
+     * array before the USB transfer.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   buffer          data to send
+     * @param   offset          index of the first byte to send
+     * @param   bytesToWrite    number of bytes to send
+     * @return                  number of bytes queued
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#i2cSlaveWrite(byte[], int, int)
+     * @since   2.1
+     */
+    static native int i2cSlaveWrite(long ftHandle, byte[] buffer, int offset, int bytesToWrite) throws FTDIException;
+
     /**
      * Opens the device. D2XX handle is recorded in the device.
      * 
@@ -499,6 +897,21 @@ public class FTDIInterface {
      */
     static native int read(long ftHandle, byte[] buffer, int bufferLength) throws FTDIException;
     
+    /**
+     * Reads data from the device straight into a direct buffer. Blocks like
+     * {@link #read(long, byte[], int)}.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	buffer			direct buffer, position and limit are ignored
+     * @param	offset			index of the first byte to fill
+     * @param	length			number of bytes to read
+     * @return					number of bytes actually read
+     * @throws	FTDIException	FT_Read returned a non-zero status code
+     * @see						DeviceChannel#read(ByteBuffer)
+     * @since	2.1
+     */
+    static native int readDirect(long ftHandle, ByteBuffer buffer, int offset, int length) throws FTDIException;
+
     /**
      * Reads a 16-bit value from an EEPROM location.
      * 
@@ -668,6 +1081,42 @@ public class FTDIInterface {
      */
     static native void setDtr(long ftHandle) throws FTDIException;
     
+    /**
+     * Signal an event handle, waking a thread blocked on it.
+     *
+     * @param   event           event handle
+     * @since   2.1
+     */
+    static native void setEvent(long event);
+
+    /**
+     * Sets the events that signal an event handle.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	mask			combination of FT_EVENT_RXCHAR,
+     * 							FT_EVENT_MODEM_STATUS and FT_EVENT_LINE_STATUS
+     * @param	event			handle from {@link #createEvent()}
+     * @throws	FTDIException	FT_SetEventNotification returned a non-zero
+     * 							status code
+     * @see						Device#setEventMask(int)
+     * @since	2.1
+     */
+    static native void setEventNotification(long ftHandle, int mask, long event) throws FTDIException;
+
+    /**
+     * Register an event handle to be signalled on the conditions in mask
+     * (FT4222 only). Calls FT4222_SetEventNotification.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   mask            event mask, e.g. FT4222_EVENT_RXCHAR
+     * @param   event           event handle from {@link #createEvent()}
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     GpioEventService
+     * @since   2.1
+     */
+    static native void setFT4222EventNotification(long ftHandle, int mask, long event) throws FTDIException;
+
     /**
      * Sets the flow control for the device.
      * 
@@ -826,6 +1275,50 @@ public class FTDIInterface {
     static native void spiMasterInit(long ftHandle, int ioLine, int div, int cpol, int cpha, int ssoMap)
             throws FTDIException;
 
+    /**
+     * Under SPI dual or quad mode, write the single line command phase then
+     * the multi line data phase, and read the multi line response. Both
+     * directions are copied, the arrays are never pinned.
+     *
+     * @param ftHandle          FT4222 device handle
+     * @param readBuffer        buffer that receives the multi line read data
+     * @param readOffset        index of the first byte to fill
+     * @param writeBuffer       single line bytes followed by multi line bytes
+     * @param writeOffset       index of the first byte to write
+     * @param singleWriteBytes  number of bytes written on a single line, 0 to 15
+     * @param multiWriteBytes   number of bytes written on multiple lines
+     * @param multiReadBytes    number of bytes read on multiple lines
+     * @return                  number of bytes read from the device
+     * @throws FTDIException    API call failed, see exception fields for details. More
+     *                          information can be found in AN_329.
+     * @see                     FT4222Device#spiMasterMultiReadWrite(byte[], int, byte[], int, int, int, int)
+     * @since   2.1
+     */
+    static native int spiMasterMultiReadWrite(long ftHandle, byte[] readBuffer, int readOffset,
+            byte[] writeBuffer, int writeOffset, int singleWriteBytes, int multiWriteBytes, int multiReadBytes)
+            throws FTDIException;
+
+    /**
+     * Under SPI dual or quad mode, multi line transfer using direct buffers.
+     *
+     * @param ftHandle          FT4222 device handle
+     * @param readBuffer        direct buffer that receives the multi line read data
+     * @param readOffset        index of the first byte to fill
+     * @param writeBuffer       direct buffer, single line bytes followed by multi line bytes
+     * @param writeOffset       index of the first byte to write
+     * @param singleWriteBytes  number of bytes written on a single line, 0 to 15
+     * @param multiWriteBytes   number of bytes written on multiple lines
+     * @param multiReadBytes    number of bytes read on multiple lines
+     * @return                  number of bytes read from the device
+     * @throws FTDIException    API call failed, see exception fields for details. More
+     *                          information can be found in AN_329.
+     * @see                     FT4222Device#spiMasterMultiReadWrite(ByteBuffer, ByteBuffer, int)
+     * @since   2.1
+     */
+    static native int spiMasterMultiReadWriteDirect(long ftHandle, ByteBuffer readBuffer, int readOffset,
+            ByteBuffer writeBuffer, int writeOffset, int singleWriteBytes, int multiWriteBytes, int multiReadBytes)
+            throws FTDIException;
+
     /**
      * Switch the FT4222H SPI master to single, dual, or quad mode.
      *
@@ -842,10 +1335,12 @@ public class FTDIInterface {
             throws FTDIException;
 
     /**
-     * Under SPI single mode, read data from an SPI slave.
+     * Under SPI single mode, read data from an SPI slave. The data is copied
+     * into the array after the transfer, the array is never pinned.
      *
      * @param ftHandle          FT4222 device handle
      * @param buffer            buffer that receives the data from the device
+     * @param offset            index of the first byte to fill
      * @param bytesToRead       number of bytes to read from the device
      * @param isEndTransaction  If TRUE the Slave Select pin will be raised at the end of the read 
      * @return                  number of bytes read from the device
@@ -853,11 +1348,182 @@ public class FTDIInterface {
      *                          information can be found in AN_329.
      * @throws IllegalStateException
      *                          Device must be opened before calling this method.
-     * @see                     FT4222Device#spiMasterSingleRead(byte[], int, boolean)
+     * @see                     FT4222Device#spiMasterSingleRead(byte[], int, int, boolean)
      * @since   2.1
      */
-    static native int spiMasterSingleRead(long ftHandle, byte[] buffer, int bytesToRead, boolean isEndTransaction)
-            throws FTDIException;
+    static native int spiMasterSingleRead(long ftHandle, byte[] buffer, int offset, int bytesToRead,
+            boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, read any amount of data from an SPI slave. The
+     * transfer is split into chunks in native code, with Slave Select held
+     * between them, each chunk copied through a bounce buffer.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   buffer          buffer that receives the data
+     * @param   offset          index of the first byte
+     * @param   length          total number of bytes, not limited to 16 bits
+     * @param   chunkSize       largest length passed to each LibFT4222 call
+     * @param   isEndTransaction    raise Slave Select after the final chunk
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiMasterSingleReadFully(byte[], int, int, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleReadChunked(long ftHandle, byte[] buffer, int offset,
+            int length, int chunkSize, boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, read any amount of data from an SPI slave into
+     * a direct buffer.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   buffer          direct buffer that receives the data
+     * @param   offset          index of the first byte
+     * @param   length          total number of bytes, not limited to 16 bits
+     * @param   chunkSize       largest length passed to each LibFT4222 call
+     * @param   isEndTransaction    raise Slave Select after the final chunk
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiMasterSingleReadFully(ByteBuffer, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleReadChunkedDirect(long ftHandle, ByteBuffer buffer, int offset,
+            int length, int chunkSize, boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, read data from an SPI slave into a direct buffer.
+     *
+     * @param ftHandle          FT4222 device handle
+     * @param buffer            direct buffer that receives the data from the device
+     * @param offset            index of the first byte to fill
+     * @param bytesToRead       number of bytes to read from the device
+     * @param isEndTransaction  If TRUE the Slave Select pin will be raised at the end of the read 
+     * @return                  number of bytes read from the device
+     * @throws FTDIException    API call failed, see exception fields for details. More
+     *                          information can be found in AN_329.
+     * @see                     FT4222Device#spiMasterSingleRead(ByteBuffer, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleReadDirect(long ftHandle, ByteBuffer buffer, int offset, int bytesToRead,
+            boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, full-duplex write data to and read data from an
+     * SPI slave. Both directions are copied, the arrays are never pinned
+     * during the transfer.
+     *
+     * @param ftHandle          FT4222 device handle
+     * @param readBuffer        buffer that receives the data from the device
+     * @param readOffset        index of the first byte to fill
+     * @param writeBuffer       buffer that contains the data to be written
+     * @param writeOffset       index of the first byte to write
+     * @param bufferSize        number of bytes to transfer in each direction
+     * @param isEndTransaction  If TRUE the Slave Select pin will be raised at the end of the transfer 
+     * @return                  number of bytes transferred
+     * @throws FTDIException    API call failed, see exception fields for details. More
+     *                          information can be found in AN_329.
+     * @see                     FT4222Device#spiMasterSingleReadWrite(byte[], int, byte[], int, int, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleReadWrite(long ftHandle, byte[] readBuffer, int readOffset,
+            byte[] writeBuffer, int writeOffset, int bufferSize, boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, full-duplex write data to and read data from an
+     * SPI slave using direct buffers.
+     *
+     * @param ftHandle          FT4222 device handle
+     * @param readBuffer        direct buffer that receives the data from the device
+     * @param readOffset        index of the first byte to fill
+     * @param writeBuffer       direct buffer that contains the data to be written
+     * @param writeOffset       index of the first byte to write
+     * @param bufferSize        number of bytes to transfer in each direction
+     * @param isEndTransaction  If TRUE the Slave Select pin will be raised at the end of the transfer 
+     * @return                  number of bytes transferred
+     * @throws FTDIException    API call failed, see exception fields for details. More
+     *                          information can be found in AN_329.
+     * @see                     FT4222Device#spiMasterSingleReadWrite(ByteBuffer, ByteBuffer, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleReadWriteDirect(long ftHandle, ByteBuffer readBuffer, int readOffset,
+            ByteBuffer writeBuffer, int writeOffset, int bufferSize, boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, write data to an SPI slave. The data is copied
+     * out of the array first, the array is never pinned.
+     *
+     * @param ftHandle          FT4222 device handle
+     * @param buffer            buffer that contains the data to be written
+     * @param offset            index of the first byte to write
+     * @param bytesToWrite      number of bytes to write to the device
+     * @param isEndTransaction  If TRUE the Slave Select pin will be raised at the end of the write 
+     * @return                  number of bytes written to the device
+     * @throws FTDIException    API call failed, see exception fields for details. More
+     *                          information can be found in AN_329.
+     * @see                     FT4222Device#spiMasterSingleWrite(byte[], int, int, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleWrite(long ftHandle, byte[] buffer, int offset, int bytesToWrite,
+            boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, write any amount of data to an SPI slave. The
+     * transfer is split into chunks in native code, with Slave Select held
+     * between them, each chunk copied through a bounce buffer.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   buffer          buffer holding the data
+     * @param   offset          index of the first byte
+     * @param   length          total number of bytes, not limited to 16 bits
+     * @param   chunkSize       largest length passed to each LibFT4222 call
+     * @param   isEndTransaction    raise Slave Select after the final chunk
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiMasterSingleWriteFully(byte[], int, int, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleWriteChunked(long ftHandle, byte[] buffer, int offset,
+            int length, int chunkSize, boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, write any amount of data from a direct buffer
+     * to an SPI slave.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   buffer          direct buffer holding the data
+     * @param   offset          index of the first byte
+     * @param   length          total number of bytes, not limited to 16 bits
+     * @param   chunkSize       largest length passed to each LibFT4222 call
+     * @param   isEndTransaction    raise Slave Select after the final chunk
+     * @return                  number of bytes actually transferred
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiMasterSingleWriteFully(ByteBuffer, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleWriteChunkedDirect(long ftHandle, ByteBuffer buffer, int offset,
+            int length, int chunkSize, boolean isEndTransaction) throws FTDIException;
+
+    /**
+     * Under SPI single mode, write data to an SPI slave from a direct buffer.
+     *
+     * @param ftHandle          FT4222 device handle
+     * @param buffer            direct buffer that contains the data to be written
+     * @param offset            index of the first byte to write
+     * @param bytesToWrite      number of bytes to write to the device
+     * @param isEndTransaction  If TRUE the Slave Select pin will be raised at the end of the write 
+     * @return                  number of bytes written to the device
+     * @throws FTDIException    API call failed, see exception fields for details. More
+     *                          information can be found in AN_329.
+     * @see                     FT4222Device#spiMasterSingleWrite(ByteBuffer, boolean)
+     * @since   2.1
+     */
+    static native int spiMasterSingleWriteDirect(long ftHandle, ByteBuffer buffer, int offset, int bytesToWrite,
+            boolean isEndTransaction) throws FTDIException;
 
     /**
      * Reset the SPI transaction (FT4222 only).
@@ -887,6 +1553,159 @@ public class FTDIInterface {
      */
     static native void stopInTask(long ftHandle) throws FTDIException;
 
+    /**
+     * Get the number of bytes waiting in the SPI slave receive buffer.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @return                  bytes received
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiSlaveGetRxStatus()
+     * @since   2.1
+     */
+    static native int spiSlaveGetRxStatus(long ftHandle) throws FTDIException;
+
+    /**
+     * Initialize the FT4222H as an SPI slave. Calls FT4222_SPISlave_InitEx.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   protocolOpt     SPI_SlaveProtocol value
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiSlaveInit(SpiSlaveProtocol)
+     * @since   2.1
+     */
+    static native void spiSlaveInit(long ftHandle, int protocolOpt) throws FTDIException;
+
+    /**
+     * Read data received by the SPI slave. The data is copied into the array
+     * after the USB transfer.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   buffer          receives the data
+     * @param   offset          index of the first byte to fill
+     * @param   bytesToRead     most bytes to read
+     * @return                  number of bytes read
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiSlaveRead(byte[], int, int)
+     * @since   2.1
+     */
+    static native int spiSlaveRead(long ftHandle, byte[] buffer, int offset, int bytesToRead) throws FTDIException;
+
+    /**
+     * Background reader step for an SPI slave receive ring. Waits on the
+     * event handle if nothing has been received, then reads up to space
+     * bytes into ring at offset, wrapping at its capacity.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   event           event handle registered for FT4222_EVENT_RXCHAR
+     * @param   ring            direct ring buffer
+     * @param   offset          index in ring of the first byte to fill
+     * @param   space           most bytes to store
+     * @param   timeout         longest wait in milliseconds
+     * @return                  number of bytes stored, 0 on timeout
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     SpiSlaveReceiver
+     * @since   2.1
+     */
+    static native int spiSlaveReadRing(long ftHandle, long event, ByteBuffer ring, int offset, int space,
+            int timeout) throws FTDIException;
+
+    /**
+     * Set the SPI slave clock polarity and phase.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   cpol            FT4222_SPICPOL value
+     * @param   cpha            FT4222_SPICPHA value
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiSlaveSetMode(SpiCPolarity, SpiCPhase)
+     * @since   2.1
+     */
+    static native void spiSlaveSetMode(long ftHandle, int cpol, int cpha) throws FTDIException;
+
+    /**
+     * Queue data for the SPI master to read. The data is copied out of the
+     * array before the USB transfer.
+     *
+     * @param   ftHandle        FT4222 device handle
+     * @param   buffer          data to send
+     * @param   offset          index of the first byte to send
+     * @param   bytesToWrite    number of bytes to send
+     * @return                  number of bytes queued
+     * @throws  FTDIException   API call failed, see exception fields for
+     *                          details
+     * @see                     FT4222Device#spiSlaveWrite(byte[], int, int)
+     * @since   2.1
+     */
+    static native int spiSlaveWrite(long ftHandle, byte[] buffer, int offset, int bytesToWrite) throws FTDIException;
+
+    /**
+     * Writes a command and reads its response in one native call, sleeping
+     * on the event handle while the receive queue is empty.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	event			handle registered for FT_EVENT_RXCHAR with
+     * 							{@link #setEventNotification(long, int, long)}
+     * @param	tx				bytes to write to device
+     * @param	txLength		number of bytes to write, may be 0
+     * @param	rx				where to store the response
+     * @param	rxLength		number of response bytes expected
+     * @param	timeout			longest wait for the response in ms
+     * @return					number of response bytes received
+     * @throws	FTDIException	FT_Write, FT_GetQueueStatus or FT_Read
+     * 							returned a non-zero status code, or
+     * 							FT_Write wrote fewer than txLength bytes
+     * @see						Device#transact(byte[], int, byte[], int, int)
+     * @since	2.1
+     */
+    static native int transact(long ftHandle, long event, byte[] tx, int txLength, byte[] rx, int rxLength,
+            int timeout) throws FTDIException;
+
+    /**
+     * Returns the number of bytes available in the receive queue, reporting
+     * failure through a status code instead of an exception.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	status			receives the FT_STATUS in element 0
+     * @return					number of bytes available, 0 on failure
+     * @see						Device#tryGetQueueStatus(int[])
+     * @since	2.1
+     */
+    static native int tryGetQueueStatus(long ftHandle, int[] status);
+
+    /**
+     * Reads data from the device, reporting failure through a status code
+     * instead of an exception.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	buffer			where to store the results
+     * @param	offset			index of the first byte to fill
+     * @param	length			number of bytes to read
+     * @param	status			receives the FT_STATUS in element 0
+     * @return					number of bytes actually read
+     * @see						Device#tryRead(byte[], int, int, int[])
+     * @since	2.1
+     */
+    static native int tryRead(long ftHandle, byte[] buffer, int offset, int length, int[] status);
+
+    /**
+     * Writes data to the device, reporting failure through a status code
+     * instead of an exception.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	buffer			bytes to write to device
+     * @param	offset			index of the first byte to write
+     * @param	length			number of bytes to write
+     * @param	status			receives the FT_STATUS in element 0
+     * @return					number of bytes actually written
+     * @see						Device#tryWrite(byte[], int, int, int[])
+     * @since	2.1
+     */
+    static native int tryWrite(long ftHandle, byte[] buffer, int offset, int length, int[] status);
+
     /**
      * Release allocated resources.
      *  
@@ -897,6 +1716,16 @@ public class FTDIInterface {
      */
     static native void unInitialize(long ftHandle) throws FTDIException;
 
+    /**
+     * Block until an event handle is signalled or the timeout expires.
+     *
+     * @param   event           event handle
+     * @param   timeout         maximum wait in milliseconds
+     * @return                  true if signalled
+     * @since   2.1
+     */
+    static native boolean waitForEvent(long event, int timeout);
+
     /**
      * Write data to the device.
      *
@@ -912,6 +1741,20 @@ public class FTDIInterface {
      */
     static native int write(long ftHandle, byte[] buffer, int numBytesToWrite) throws FTDIException;
 
+    /**
+     * Writes data to the device straight from a direct buffer.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	buffer			direct buffer, position and limit are ignored
+     * @param	offset			index of the first byte to write
+     * @param	length			number of bytes to write
+     * @return					number of bytes actually written
+     * @throws	FTDIException	FT_Write returned a non-zero status code
+     * @see						DeviceChannel#write(ByteBuffer)
+     * @since	2.1
+     */
+    static native int writeDirect(long ftHandle, ByteBuffer buffer, int offset, int length) throws FTDIException;
+
     /**
      * Write a 16-bit value to an EEPROM location.
      *
@@ -923,4 +1766,27 @@ public class FTDIInterface {
      */
     static native void writeEE(long ftHandle, int wordOffset, int value) throws FTDIException;
 
+    /**
+     * Waits for the transmit queue to empty, asserts BREAK, waits, releases
+     * it, waits for the MARK after break and then writes a frame, all in one
+     * native call. Delays are minimums since each break transition is a USB
+     * control transfer.
+     *
+     * @param	ftHandle		D2XX device handle
+     * @param	buffer			frame to write, starting at index 0
+     * @param	length			number of bytes to write
+     * @param	guardMicros		wait after the transmit queue empties, long
+     * 							enough for the UART to send its last character
+     * @param	breakMicros		minimum BREAK duration in microseconds
+     * @param	mabMicros		minimum MARK after break in microseconds
+     * @return					number of bytes actually written
+     * @throws	FTDIException	FT_GetStatus, FT_SetBreakOn, FT_SetBreakOff or
+     * 							FT_Write returned a non-zero status code, or
+     * 							the transmit queue did not empty within a
+     * 							second (FT_IO_ERROR)
+     * @since	2.1
+     */
+    static native int writeWithBreak(long ftHandle, byte[] buffer, int length, int guardMicros, int breakMicros,
+            int mabMicros) throws FTDIException;
+
 }
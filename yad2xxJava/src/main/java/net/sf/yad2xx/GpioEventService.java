@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx;
+
+import static net.sf.yad2xx.FTDIConstants.FT4222_EVENT_RXCHAR;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.sf.yad2xx.ft4222.GpioEvent;
+import net.sf.yad2xx.ft4222.GpioListener;
+import net.sf.yad2xx.ft4222.GpioPort;
+import net.sf.yad2xx.ft4222.GpioTrigger;
+
+/**
+ * Delivers FT4222H GPIO trigger events to listeners as they occur, without
+ * polling.
+ * <p>
+ * The service thread blocks in native code on an event handle registered
+ * with FT4222_SetEventNotification, so it uses no CPU while the inputs are
+ * quiet. When LibFT4222 signals the handle, every queued event on the
+ * watched ports is drained in the same native call and handed to the
+ * listeners as one batch. The wait is bounded so that a lost notification
+ * delays an event by at most the timeout.
+ * <p>
+ * Configure the ports first with
+ * {@link FT4222Device#gpioInit(net.sf.yad2xx.ft4222.GpioDirection, net.sf.yad2xx.ft4222.GpioDirection,
+ * net.sf.yad2xx.ft4222.GpioDirection, net.sf.yad2xx.ft4222.GpioDirection)}
+ * and {@link FT4222Device#gpioSetInputTrigger(GpioPort, GpioTrigger...)}.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public class GpioEventService implements AutoCloseable {
+
+    /**
+     * Longest wait, in milliseconds, before the queues are checked again
+     * without a notification.
+     */
+    public static final int DEFAULT_TIMEOUT = 100;
+
+    /**
+     * Most events drained per wake up, the remainder are left for the next.
+     */
+    private static final int MAX_BATCH = 256;
+
+    private final FT4222Device device;
+    private final List<GpioListener> listeners = new CopyOnWriteArrayList<>();
+    private int timeout = DEFAULT_TIMEOUT;
+    private int portMask;
+    private long event;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param device
+     *            open FT4222H with GPIO initialized
+     */
+    public GpioEventService(FT4222Device device) {
+        if (device == null) {
+            throw new IllegalArgumentException("device must not be null");
+        }
+        this.device = device;
+    }
+
+    public void addListener(GpioListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GpioListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @param timeout
+     *            longest wait in milliseconds, takes effect on the next start
+     */
+    public void setTimeout(int timeout) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Starts delivering events from the given ports.
+     *
+     * @param ports
+     *            input ports to watch
+     * @throws FTDIException
+     *             event notification could not be registered
+     * @throws IllegalStateException
+     *             device not open or service already running
+     */
+    public synchronized void start(GpioPort... ports) throws FTDIException {
+        if (ports.length == 0) {
+            throw new IllegalArgumentException("No ports to watch");
+        }
+        if (!device.isOpen()) {
+            throw new IllegalStateException("Device not open");
+        }
+        if (thread != null) {
+            throw new IllegalStateException("Already running");
+        }
+
+        portMask = 0;
+        for (GpioPort port : ports) {
+            portMask |= 1 << port.ordinal();
+        }
+
+        event = FTDIInterface.createEvent();
+        try {
+            FTDIInterface.setFT4222EventNotification(device.getHandle(), FT4222_EVENT_RXCHAR, event);
+        } catch (FTDIException e) {
+            FTDIInterface.closeEvent(event);
+            event = 0;
+            throw e;
+        }
+
+        running = true;
+        thread = new Thread(this::run, "FT4222 GPIO events " + device.getSerialNumber());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the service thread and releases the event handle. Events still
+     * queued on the device are left there.
+     *
+     * @throws FTDIException
+     *             event notification could not be cancelled
+     */
+    @Override
+    public synchronized void close() throws FTDIException {
+        if (thread == null) {
+            return;
+        }
+
+        running = false;
+        FTDIInterface.setEvent(event);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+
+        try {
+            if (device.isOpen()) {
+                FTDIInterface.setFT4222EventNotification(device.getHandle(), 0, 0);
+            }
+        } finally {
+            FTDIInterface.closeEvent(event);
+            event = 0;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        int[] buffer = new int[MAX_BATCH];
+
+        try {
+            while (running) {
+                int count = FTDIInterface.gpioWaitTriggerQueues(device.getHandle(), event, portMask, timeout, buffer);
+                if (count > 0 && running) {
+                    dispatch(decode(buffer, count, System.nanoTime()));
+                }
+            }
+        } catch (FTDIException e) {
+            running = false;
+            for (GpioListener listener : listeners) {
+                listener.failed(e);
+            }
+        }
+    }
+
+    private void dispatch(List<GpioEvent> events) {
+        for (GpioListener listener : listeners) {
+            listener.triggered(events);
+        }
+    }
+
+    /**
+     * Unpacks the (port &lt;&lt; 8) | trigger entries written by the native
+     * wait.
+     */
+    static List<GpioEvent> decode(int[] buffer, int count, long timestamp) {
+        List<GpioEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new GpioEvent(GpioPort.byOrdinal(buffer[i] >>> 8), GpioTrigger.byValue(buffer[i] & 0xFF),
+                    timestamp));
+        }
+        return events;
+    }
+}
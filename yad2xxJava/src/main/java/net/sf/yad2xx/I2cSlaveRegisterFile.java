@@ -0,0 +1,299 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx;
+
+import static net.sf.yad2xx.FTDIConstants.FT4222_EVENT_RXCHAR;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.sf.yad2xx.ft4222.I2cRegisterListener;
+
+/**
+ * Emulates a register based I2C peripheral, such as a sensor or EEPROM, on
+ * an FT4222H configured as an I2C slave.
+ * <p>
+ * The master writes a register pointer optionally followed by data, which
+ * is stored from the pointer onwards. A master read returns registers from
+ * the pointer onwards. LibFT4222 has no read request callback, so the
+ * emulator runs with clock stretching enabled and keeps the slave transmit
+ * buffer empty until it knows what to send. Each time the master writes,
+ * one native call applies the write and clears the slave buffers. If the
+ * write was a pointer alone, the first half of a register read, it then
+ * stages registers from the new pointer. The read phase, after a repeated
+ * start or a separate transaction, is stretched until that response
+ * arrives, so the usual combined write/read works.
+ * <p>
+ * The emulator works on its own copy of the register file, the arrays
+ * passed to the constructor are not referenced afterwards. Use {@link
+ * #setRegisters(int, byte[], int, int)} to change values once created.
+ * <p>
+ * Limitations: the pointer does not advance after a read, and the master
+ * should not read more than the staging length in one transaction. Every
+ * read must follow a pointer write; a current address read, or a second
+ * read of the same response, finds nothing queued and is stretched until
+ * the master gives up. A read shorter than the staging length leaves
+ * bytes queued, which are cleared when the master next writes.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public class I2cSlaveRegisterFile implements AutoCloseable {
+
+    /**
+     * Longest wait, in milliseconds, before the receive buffer is checked
+     * again without a notification.
+     */
+    public static final int DEFAULT_TIMEOUT = 100;
+
+    /**
+     * Bytes staged for a read when not configured.
+     */
+    public static final int DEFAULT_STAGE_LENGTH = 32;
+
+    /**
+     * Largest register file, limited by the 8 bit register pointer.
+     */
+    public static final int MAX_REGISTERS = 256;
+
+    private final FT4222Device device;
+    private final byte[] registers;
+    private final byte[] writeMask;
+    private final int stageLength;
+    private final int[] state = new int[3];
+    private final List<I2cRegisterListener> listeners = new CopyOnWriteArrayList<>();
+    private long event;
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param device
+     *            open FT4222H initialized as an I2C slave
+     * @param size
+     *            number of registers, initially zero
+     */
+    public I2cSlaveRegisterFile(FT4222Device device, int size) {
+        this(device, new byte[checkSize(size)], null, Math.min(size, DEFAULT_STAGE_LENGTH));
+    }
+
+    /**
+     * @param device
+     *            open FT4222H initialized as an I2C slave
+     * @param registers
+     *            initial register values, copied. Later changes to the
+     *            array are not seen by the emulator
+     * @param writeMask
+     *            bits the master may change in each register, null if all
+     *            are writable. Copied, as registers
+     * @param stageLength
+     *            bytes staged for each master read, 1 to the number of
+     *            registers
+     */
+    public I2cSlaveRegisterFile(FT4222Device device, byte[] registers, byte[] writeMask, int stageLength) {
+        if (device == null) {
+            throw new IllegalArgumentException("device must not be null");
+        }
+        checkSize(registers.length);
+        if (writeMask != null && writeMask.length != registers.length) {
+            throw new IllegalArgumentException("writeMask must match the register file size");
+        }
+        if (stageLength < 1 || stageLength > registers.length) {
+            throw new IllegalArgumentException("Invalid stage length: " + stageLength);
+        }
+        this.device = device;
+        this.registers = registers.clone();
+        this.writeMask = writeMask == null ? null : writeMask.clone();
+        this.stageLength = stageLength;
+    }
+
+    private static int checkSize(int size) {
+        if (size < 1 || size > MAX_REGISTERS) {
+            throw new IllegalArgumentException("Invalid register file size: " + size);
+        }
+        return size;
+    }
+
+    public void addListener(I2cRegisterListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(I2cRegisterListener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int size() {
+        return registers.length;
+    }
+
+    /**
+     * @return register the next master read starts from
+     */
+    public synchronized int getPointer() {
+        return state[0];
+    }
+
+    public synchronized int getRegister(int index) {
+        return registers[index] & 0xFF;
+    }
+
+    /**
+     * Copies the register file.
+     */
+    public synchronized byte[] getRegisters() {
+        return registers.clone();
+    }
+
+    /**
+     * Sets a register from the application side, ignoring the write mask.
+     * A read response already staged is not changed.
+     */
+    public void setRegister(int index, int value) {
+        setRegisters(index, new byte[] { (byte) value }, 0, 1);
+    }
+
+    /**
+     * Sets consecutive registers from the application side, ignoring the
+     * write mask. Use this to update multi byte values so the master never
+     * reads a half updated value.
+     */
+    public synchronized void setRegisters(int index, byte[] values, int offset, int length) {
+        if (index < 0 || length < 0 || index + length > registers.length) {
+            throw new IndexOutOfBoundsException("Register range outside file");
+        }
+        System.arraycopy(values, offset, registers, index, length);
+    }
+
+    /**
+     * Starts answering the master, with the register pointer at zero.
+     * Enables clock stretching and clears the slave buffers.
+     *
+     * @throws FTDIException
+     *             event notification or clock stretching could not be
+     *             set up
+     * @throws IllegalStateException
+     *             device not open or emulator already running
+     */
+    public synchronized void start() throws FTDIException {
+        if (!device.isOpen()) {
+            throw new IllegalStateException("Device not open");
+        }
+        if (thread != null) {
+            throw new IllegalStateException("Already running");
+        }
+
+        event = FTDIInterface.createEvent();
+        try {
+            FTDIInterface.setFT4222EventNotification(device.getHandle(), FT4222_EVENT_RXCHAR, event);
+            FTDIInterface.i2cSlaveSetClockStretch(device.getHandle(), true);
+            FTDIInterface.i2cSlaveReset(device.getHandle());
+            state[0] = 0;
+        } catch (FTDIException e) {
+            FTDIInterface.closeEvent(event);
+            event = 0;
+            throw e;
+        }
+
+        running = true;
+        thread = new Thread(this::run, "FT4222 I2C registers " + device.getSerialNumber());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the emulator thread, disables clock stretching so an unanswered
+     * read no longer holds the bus, and releases the event handle. Data
+     * staged on the device is left there.
+     *
+     * @throws FTDIException
+     *             event notification or clock stretching could not be
+     *             cancelled
+     */
+    @Override
+    public void close() throws FTDIException {
+        Thread stopping;
+        synchronized (this) {
+            if (thread == null) {
+                return;
+            }
+            running = false;
+            FTDIInterface.setEvent(event);
+            stopping = thread;
+        }
+
+        // joined outside the lock, the emulator thread needs it to finish
+        boolean interrupted = false;
+        while (stopping.isAlive()) {
+            try {
+                stopping.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        synchronized (this) {
+            thread = null;
+            try {
+                if (device.isOpen()) {
+                    FTDIInterface.setFT4222EventNotification(device.getHandle(), 0, 0);
+                    FTDIInterface.i2cSlaveSetClockStretch(device.getHandle(), false);
+                }
+            } finally {
+                FTDIInterface.closeEvent(event);
+                event = 0;
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                int received;
+                int first;
+                int count;
+                synchronized (this) {
+                    received = FTDIInterface.i2cSlaveUpdateRegisters(device.getHandle(), registers, writeMask, state,
+                            stageLength);
+                    first = state[1];
+                    count = state[2];
+                }
+                if (received == 0) {
+                    FTDIInterface.waitForEvent(event, DEFAULT_TIMEOUT);
+                } else if (count > 0) {
+                    for (I2cRegisterListener listener : listeners) {
+                        listener.registersWritten(first, count);
+                    }
+                }
+            }
+        } catch (FTDIException e) {
+            running = false;
+            for (I2cRegisterListener listener : listeners) {
+                listener.failed(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single producer, single consumer byte ring held in a direct (off-heap)
+ * buffer so that native code can fill it without copying.
+ * <p>
+ * The producer, normally a background reader thread, writes at
+ * {@link #writeOffset()} directly into {@link #buffer()} and then publishes
+ * the bytes with {@link #commit(int)}. The consumer reads with
+ * {@link #read(ByteBuffer)}, or inspects data in place with {@link #peek()}
+ * and releases it with {@link #consume(int)}. Indexes are free running
+ * counters, so full and empty are never ambiguous. No locks are taken
+ * unless one side is waiting for the other.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public class RingBuffer {
+
+    private final ByteBuffer buffer;
+    private final int mask;
+    private final Object lock = new Object();
+
+    /**
+     * Total bytes committed by the producer.
+     */
+    private volatile long head;
+
+    /**
+     * Total bytes consumed.
+     */
+    private volatile long tail;
+
+    private volatile int waiters;
+    private volatile boolean closed;
+
+    /**
+     * @param capacity
+     *            minimum capacity in bytes, rounded up to a power of two
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = ByteBuffer.allocateDirect(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return number of bytes waiting to be consumed
+     */
+    public int available() {
+        return (int) (head - tail);
+    }
+
+    /**
+     * Waits until data is available or the ring is closed.
+     *
+     * @param timeout
+     *            longest wait
+     * @param unit
+     *            unit of timeout
+     * @return true if data is available
+     * @throws InterruptedException
+     *             interrupted while waiting
+     */
+    public boolean awaitData(long timeout, TimeUnit unit) throws InterruptedException {
+        return await(true, timeout, unit);
+    }
+
+    /**
+     * Waits until space is free or the ring is closed. Producer side.
+     *
+     * @param timeout
+     *            longest wait
+     * @param unit
+     *            unit of timeout
+     * @return true if space is free
+     * @throws InterruptedException
+     *             interrupted while waiting
+     */
+    public boolean awaitSpace(long timeout, TimeUnit unit) throws InterruptedException {
+        return await(false, timeout, unit);
+    }
+
+    /**
+     * The backing store, for the producer to write into at
+     * {@link #writeOffset()}. Do not change its position or limit.
+     *
+     * @return direct buffer of {@link #capacity()} bytes
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Marks the ring closed, waking both sides. Data already committed can
+     * still be consumed.
+     */
+    public void close() {
+        closed = true;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Publishes bytes written by the producer. Producer side.
+     *
+     * @param count
+     *            bytes written at {@link #writeOffset()}, wrapping at capacity
+     */
+    public void commit(int count) {
+        if (count < 0 || count > writable()) {
+            throw new IllegalArgumentException("Invalid commit: " + count);
+        }
+        head += count;
+        signal();
+    }
+
+    /**
+     * Releases bytes returned by {@link #peek()}.
+     *
+     * @param count
+     *            bytes to release
+     */
+    public void consume(int count) {
+        if (count < 0 || count > available()) {
+            throw new IllegalArgumentException("Invalid consume: " + count);
+        }
+        tail += count;
+        signal();
+    }
+
+    /**
+     * Returns a read only view of the contiguous data at the read position,
+     * without copying. Less than {@link #available()} bytes are returned
+     * when the data wraps. Call {@link #consume(int)} when done.
+     *
+     * @return view of readable data, possibly empty
+     */
+    public ByteBuffer peek() {
+        int offset = (int) (tail & mask);
+        int length = Math.min(available(), capacity() - offset);
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + length).position(offset);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies as much data as fits into dst, without waiting.
+     *
+     * @param dst
+     *            destination
+     * @return bytes copied
+     */
+    public int read(ByteBuffer dst) {
+        int total = 0;
+        while (dst.hasRemaining()) {
+            ByteBuffer src = peek();
+            if (!src.hasRemaining()) {
+                break;
+            }
+            if (src.remaining() > dst.remaining()) {
+                src.limit(dst.remaining());
+            }
+            int count = src.remaining();
+            dst.put(src);
+            consume(count);
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Copies up to length bytes into an array, without waiting.
+     *
+     * @param b
+     *            destination
+     * @param offset
+     *            index of first byte to fill
+     * @param length
+     *            most bytes to copy
+     * @return bytes copied
+     */
+    public int read(byte[] b, int offset, int length) {
+        return read(ByteBuffer.wrap(b, offset, length));
+    }
+
+    /**
+     * @return bytes the producer may write before the ring is full
+     */
+    public int writable() {
+        return capacity() - available();
+    }
+
+    /**
+     * @return number of contiguous bytes the producer may write at
+     *         {@link #writeOffset()} before wrapping
+     */
+    public int writableContiguous() {
+        return Math.min(writable(), capacity() - writeOffset());
+    }
+
+    /**
+     * @return offset in {@link #buffer()} of the next byte to write
+     */
+    public int writeOffset() {
+        return (int) (head & mask);
+    }
+
+    private boolean await(boolean data, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (lock) {
+            waiters++;
+            try {
+                while ((data ? available() == 0 : writable() == 0) && !closed) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    lock.wait(remaining);
+                }
+            } finally {
+                waiters--;
+            }
+        }
+        return data ? available() > 0 : writable() > 0;
+    }
+
+    /**
+     * Index updates are volatile, so a waiter either sees the new index or
+     * is seen here.
+     */
+    private void signal() {
+        if (waiters > 0) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+}
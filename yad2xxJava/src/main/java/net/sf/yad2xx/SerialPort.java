@@ -0,0 +1,314 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static net.sf.yad2xx.FTDIConstants.FT_EVENT_LINE_STATUS;
+import static net.sf.yad2xx.FTDIConstants.FT_EVENT_RXCHAR;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UART facade over a {@link Device} with a background reader.
+ * <p>
+ * A dedicated daemon thread drains the chip as soon as data arrives,
+ * sleeping on a D2XX event in between, and reads straight into an off-heap
+ * single producer, single consumer {@link RingBuffer}. The chip FIFO (256
+ * bytes to 1 KB depending on the part) is therefore emptied at USB rate
+ * whatever the consumer is doing, and a bursty consumer only has to keep
+ * up on average. Consumers use {@link #poll()} and {@link #take()}, or
+ * {@link #getRing()} for zero copy access.
+ * <p>
+ * {@link #getOverrunCount()} counts the times the ring was found full,
+ * {@link #getHighWaterMark()} the most bytes ever waiting in it, and
+ * {@link #getLineOverrunCount()} the chip overrun errors seen in the line
+ * status. Size the ring so the first stays at zero.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class SerialPort implements AutoCloseable {
+
+    /**
+     * Ring capacity used by {@link #SerialPort(Device)}.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /**
+     * Longest wait, in milliseconds, before the receive queue is checked
+     * again without a notification.
+     */
+    public static final int DEFAULT_TIMEOUT = 100;
+
+    private final Device device;
+    private final RingBuffer ring;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile long received;
+    private volatile long overruns;
+    private volatile long lineOverruns;
+    private volatile int highWaterMark;
+    private volatile FTDIException failure;
+
+    /**
+     * @param   device          open UART capable device
+     */
+    public SerialPort(Device device) {
+        this(device, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param   device          open UART capable device
+     * @param   capacity        ring size in bytes, rounded up to a power of
+     *                          two
+     */
+    public SerialPort(Device device, int capacity) {
+        if (device == null) {
+            throw new IllegalArgumentException("device must not be null");
+        }
+        this.device = device;
+        this.ring = new RingBuffer(capacity);
+    }
+
+    /**
+     * Sets the line parameters. Call before {@link #start()}.
+     *
+     * @param   baudRate        bits per second, up to 12 Mbaud on hi-speed
+     *                          parts
+     * @param   wordLength      {@link FTDIConstants#FT_BITS_8} or
+     *                          {@link FTDIConstants#FT_BITS_7}
+     * @param   stopBits        {@link FTDIConstants#FT_STOP_BITS_1} or
+     *                          {@link FTDIConstants#FT_STOP_BITS_2}
+     * @param   parity          one of the FT_PARITY values
+     * @param   flowControl     one of the FT_FLOW values, XON/XOFF uses
+     *                          DC1 and DC3
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public void configure(int baudRate, byte wordLength, byte stopBits, byte parity, short flowControl)
+            throws FTDIException {
+        device.setBaudRate(baudRate);
+        device.setDataCharacteristics(wordLength, stopBits, parity);
+        device.setFlowControl(flowControl, (char) 0x11, (char) 0x13);
+    }
+
+    public Device getDevice() {
+        return device;
+    }
+
+    /**
+     * @return  error that stopped the reader, null if none
+     */
+    public FTDIException getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return  most bytes waiting in the ring at any one time
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * @return  number of overrun errors reported in the chip line status,
+     *          sampled each time the reader wakes
+     */
+    public long getLineOverrunCount() {
+        return lineOverruns;
+    }
+
+    /**
+     * @return  number of times the reader found the ring full
+     */
+    public long getOverrunCount() {
+        return overruns;
+    }
+
+    /**
+     * @return  total bytes received since start
+     */
+    public long getReceivedCount() {
+        return received;
+    }
+
+    /**
+     * @return  ring the received data is delivered to
+     */
+    public RingBuffer getRing() {
+        return ring;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Takes one byte if available, without waiting.
+     *
+     * @return  byte value 0 to 255, -1 if none is waiting
+     */
+    public int poll() {
+        byte[] b = new byte[1];
+        return ring.read(b, 0, 1) == 1 ? b[0] & 0xFF : -1;
+    }
+
+    /**
+     * Copies waiting bytes, without waiting.
+     *
+     * @return  number of bytes copied, possibly 0
+     */
+    public int poll(byte[] b, int offset, int length) {
+        return ring.read(b, offset, length);
+    }
+
+    /**
+     * Takes one byte, waiting for it if necessary.
+     *
+     * @return  byte value 0 to 255, -1 if the port was closed
+     * @throws  InterruptedException    interrupted while waiting
+     */
+    public int take() throws InterruptedException {
+        byte[] b = new byte[1];
+        return take(b, 0, 1) == 1 ? b[0] & 0xFF : -1;
+    }
+
+    /**
+     * Copies at least one byte, waiting if none are available.
+     *
+     * @return  number of bytes copied, -1 if the port was closed and the
+     *          ring is empty
+     * @throws  InterruptedException    interrupted while waiting
+     */
+    public int take(byte[] b, int offset, int length) throws InterruptedException {
+        while (ring.available() == 0) {
+            if (ring.isClosed()) {
+                return -1;
+            }
+            ring.awaitData(DEFAULT_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+        return ring.read(b, offset, length);
+    }
+
+    /**
+     * Writes to the port, subject to the device write timeout.
+     *
+     * @return  number of bytes written
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public int write(byte[] b, int offset, int length) throws FTDIException {
+        int[] status = new int[1];
+        int count = device.tryWrite(b, offset, length, status);
+        if (FTStatus.byOrdinal(status[0]) != FTStatus.FT_OK) {
+            throw new FTDIException(FTStatus.byOrdinal(status[0]), "FT_Write");
+        }
+        return count;
+    }
+
+    /**
+     * Starts the background reader.
+     *
+     * @throws  FTDIException   event notification could not be registered
+     * @throws  IllegalStateException   device not open, or port already
+     *                          started
+     */
+    public synchronized void start() throws FTDIException {
+        if (!device.isOpen()) {
+            throw new IllegalStateException("Device not open");
+        }
+        if (thread != null || ring.isClosed()) {
+            throw new IllegalStateException("Already started");
+        }
+
+        device.setEventMask(FT_EVENT_RXCHAR | FT_EVENT_LINE_STATUS);
+
+        running = true;
+        thread = new Thread(this::run, "FTDI serial " + device.getSerialNumber());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the reader and closes the ring. Data already in the ring can
+     * still be read. The device is left open.
+     */
+    @Override
+    public synchronized void close() {
+        ring.close();
+        if (thread == null) {
+            return;
+        }
+
+        running = false;
+        device.signalEvent();
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                int space = ring.writableContiguous();
+                if (space == 0) {
+                    overruns++;
+                    ring.awaitSpace(DEFAULT_TIMEOUT, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+
+                int queued = device.awaitRx(1, DEFAULT_TIMEOUT);
+                if (device.getModemStatus().hasOverrunError()) {
+                    lineOverruns++;
+                }
+                if (queued == 0 || !running) {
+                    continue;
+                }
+
+                int count = FTDIInterface.readDirect(device.getHandle(), ring.buffer(), ring.writeOffset(),
+                        Math.min(queued, space));
+                if (count > 0) {
+                    ring.commit(count);
+                    received += count;
+                    int waiting = ring.available();
+                    if (waiting > highWaterMark) {
+                        highWaterMark = waiting;
+                    }
+                }
+            }
+        } catch (FTDIException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            // closing
+        } finally {
+            running = false;
+            ring.close();
+        }
+    }
+}
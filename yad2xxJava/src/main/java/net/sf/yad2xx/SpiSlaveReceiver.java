@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx;
+
+import static net.sf.yad2xx.FTDIConstants.FT4222_EVENT_RXCHAR;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Continuously drains the FT4222H SPI slave receive buffer into an
+ * off-heap {@link RingBuffer}, so a high rate stream from an SPI master is
+ * not lost between application reads.
+ * <p>
+ * A daemon thread blocks in native code on FT4222_SetEventNotification.
+ * When data arrives it is read straight into the ring's direct buffer,
+ * wrapping as needed, and published to the consumer. The consumer reads
+ * from {@link #getRing()}, either copying or viewing the data in place.
+ * If the consumer falls behind and the ring fills, the reader waits for
+ * space and {@link #getOverrunCount()} is incremented. Data then backs
+ * up in the chip and may be lost there.
+ * <p>
+ * The FT4222H must already be initialized with
+ * {@link FT4222Device#spiSlaveInit(net.sf.yad2xx.ft4222.SpiSlaveProtocol)}.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public class SpiSlaveReceiver implements AutoCloseable {
+
+    /**
+     * Ring capacity used by {@link #SpiSlaveReceiver(FT4222Device)}.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /**
+     * Longest wait, in milliseconds, before the receive buffer is checked
+     * again without a notification.
+     */
+    public static final int DEFAULT_TIMEOUT = 100;
+
+    private final FT4222Device device;
+    private final RingBuffer ring;
+    private long event;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile long received;
+    private volatile long overruns;
+    private volatile FTDIException failure;
+
+    /**
+     * @param device
+     *            open FT4222H initialized as SPI slave
+     */
+    public SpiSlaveReceiver(FT4222Device device) {
+        this(device, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param device
+     *            open FT4222H initialized as SPI slave
+     * @param capacity
+     *            ring size in bytes, rounded up to a power of two
+     */
+    public SpiSlaveReceiver(FT4222Device device, int capacity) {
+        if (device == null) {
+            throw new IllegalArgumentException("device must not be null");
+        }
+        this.device = device;
+        this.ring = new RingBuffer(capacity);
+    }
+
+    /**
+     * @return error that stopped the reader, null if none
+     */
+    public FTDIException getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return number of times the reader found the ring full
+     */
+    public long getOverrunCount() {
+        return overruns;
+    }
+
+    /**
+     * @return total bytes received since start
+     */
+    public long getReceivedCount() {
+        return received;
+    }
+
+    /**
+     * @return ring the received data is delivered to
+     */
+    public RingBuffer getRing() {
+        return ring;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts the background reader.
+     *
+     * @throws FTDIException
+     *             event notification could not be registered
+     * @throws IllegalStateException
+     *             device not open, or receiver already started
+     */
+    public synchronized void start() throws FTDIException {
+        if (!device.isOpen()) {
+            throw new IllegalStateException("Device not open");
+        }
+        if (thread != null || ring.isClosed()) {
+            throw new IllegalStateException("Already started");
+        }
+
+        event = FTDIInterface.createEvent();
+        try {
+            FTDIInterface.setFT4222EventNotification(device.getHandle(), FT4222_EVENT_RXCHAR, event);
+        } catch (FTDIException e) {
+            FTDIInterface.closeEvent(event);
+            event = 0;
+            throw e;
+        }
+
+        running = true;
+        thread = new Thread(this::run, "FT4222 SPI slave " + device.getSerialNumber());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the reader and closes the ring. Data already in the ring can
+     * still be read.
+     *
+     * @throws FTDIException
+     *             event notification could not be cancelled
+     */
+    @Override
+    public synchronized void close() throws FTDIException {
+        if (thread == null) {
+            ring.close();
+            return;
+        }
+
+        running = false;
+        ring.close();
+        FTDIInterface.setEvent(event);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+
+        try {
+            if (device.isOpen()) {
+                FTDIInterface.setFT4222EventNotification(device.getHandle(), 0, 0);
+            }
+        } finally {
+            FTDIInterface.closeEvent(event);
+            event = 0;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                int space = ring.writable();
+                if (space == 0) {
+                    overruns++;
+                    ring.awaitSpace(DEFAULT_TIMEOUT, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+
+                int count = FTDIInterface.spiSlaveReadRing(device.getHandle(), event, ring.buffer(),
+                        ring.writeOffset(), space, DEFAULT_TIMEOUT);
+                if (count > 0) {
+                    ring.commit(count);
+                    received += count;
+                }
+            }
+        } catch (FTDIException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            // closing
+        } finally {
+            running = false;
+            ring.close();
+        }
+    }
+}
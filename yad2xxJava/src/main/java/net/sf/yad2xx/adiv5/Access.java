@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.adiv5;
+
+import net.sf.yad2xx.jtag.ScanResult;
+
+/**
+ * A single queued DPACC or APACC transaction. Read results are filled in
+ * when the queue is executed.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+final class Access {
+
+    final int ir;
+    final int address;
+    final boolean read;
+    final int apsel;
+
+    /**
+     * Memory address a DRW access transfers, -1 for other registers. Needed
+     * to restore TAR if the access has to be replayed.
+     */
+    final int memoryAddress;
+
+    int value;
+    ScanResult scan;
+
+    Access(int ir, int address, boolean read, int value, int apsel, int memoryAddress) {
+        this.ir = ir;
+        this.address = address;
+        this.read = read;
+        this.value = value;
+        this.apsel = apsel;
+        this.memoryAddress = memoryAddress;
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.adiv5;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.yad2xx.FTDIException;
+import net.sf.yad2xx.jtag.Jtag;
+
+/**
+ * ARM ADIv5 JTAG Debug Port. Provides DPACC and APACC transactions over a
+ * {@link Jtag} interface.
+ * <p>
+ * Transactions are queued and sent to the MPSSE as a single block, see
+ * {@link #execute()}. JTAG-DP reads are posted, the result of a read is
+ * returned by the following scan. Each block is therefore terminated with a
+ * read of RDBUFF to collect the last result, preceded by a read of CTRL/STAT
+ * to check for sticky errors.
+ * <p>
+ * Overrun detection is enabled by {@link #powerUp()}. If the target
+ * responds WAIT the DP ignores all further transactions until STICKYORUN is
+ * cleared, so the block is replayed from the first unacknowledged
+ * transaction. Idle cycles between AP accesses are increased each time this
+ * happens to reduce the chance of it happening again. Without overrun
+ * detection the transactions following a WAIT are still accepted and cannot
+ * be replayed, the block is aborted instead.
+ * <p>
+ * The last value written to CTRL/STAT, by {@link #powerUp()} or
+ * {@link #writeDp(int, int)}, is kept so clearing a sticky flag leaves the
+ * power up requests and ORUNDETECT unchanged.
+ * <p>
+ * Other TAPs in the chain are placed in BYPASS. TAPs between the DP and TDO
+ * are "pre", those between TDI and the DP are "post".
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class JtagDp {
+
+    public static final int IR_LENGTH = 4;
+
+    public static final int IR_ABORT  = 0x8;
+    public static final int IR_DPACC  = 0xA;
+    public static final int IR_APACC  = 0xB;
+    public static final int IR_IDCODE = 0xE;
+    public static final int IR_BYPASS = 0xF;
+
+    public static final int DR_LENGTH = 35;
+    public static final int IDCODE_LENGTH = 32;
+
+    public static final int ACK_OK_FAULT = 0x2;
+    public static final int ACK_WAIT = 0x1;
+
+    public static final int DP_CTRL_STAT = 0x4;
+    public static final int DP_SELECT = 0x8;
+    public static final int DP_RDBUFF = 0xC;
+
+    public static final int CSYSPWRUPACK = 1 << 31;
+    public static final int CSYSPWRUPREQ = 1 << 30;
+    public static final int CDBGPWRUPACK = 1 << 29;
+    public static final int CDBGPWRUPREQ = 1 << 28;
+    public static final int STICKYERR = 1 << 5;
+    public static final int STICKYCMP = 1 << 4;
+    public static final int STICKYORUN = 1 << 1;
+    public static final int ORUNDETECT = 1;
+
+    /**
+     * Write-one-to-clear bits of CTRL/STAT.
+     */
+    public static final int STICKY_FLAGS = STICKYERR | STICKYCMP | STICKYORUN;
+
+    public static final int DEFAULT_MAX_RETRIES = 100;
+
+    /**
+     * Upper limit for the adaptive idle cycle count.
+     */
+    public static final int MAX_IDLE_CYCLES = 64;
+
+    private static final int POWER_UP_POLLS = 100;
+
+    private final Jtag jtag;
+    private final int irPre;
+    private final int irPost;
+    private final int drPre;
+    private final int drPost;
+
+    private final List<Access> queue;
+
+    private int currentIr;
+    private int select;
+    private int ctrlStat;
+    private int idleCycles;
+    private int maxRetries;
+    private long waitCount;
+
+    /**
+     * Debug port that is the only TAP in the chain.
+     *
+     * @param   jtag            opened JTAG interface
+     */
+    public JtagDp(Jtag jtag) {
+        this(jtag, 0, 0, 0, 0);
+    }
+
+    /**
+     * Debug port sharing a chain with other TAPs.
+     *
+     * @param   jtag            opened JTAG interface
+     * @param   irPre           total IR length of the TAPs between the DP
+     *                          and TDO
+     * @param   irPost          total IR length of the TAPs between TDI and
+     *                          the DP
+     * @param   drPre           number of TAPs between the DP and TDO
+     * @param   drPost          number of TAPs between TDI and the DP
+     */
+    public JtagDp(Jtag jtag, int irPre, int irPost, int drPre, int drPost) {
+        this.jtag = jtag;
+        this.irPre = irPre;
+        this.irPost = irPost;
+        this.drPre = drPre;
+        this.drPost = drPost;
+        this.queue = new ArrayList<>();
+        this.currentIr = -1;
+        this.select = -1;
+        this.maxRetries = DEFAULT_MAX_RETRIES;
+    }
+
+    /**
+     * Aborts the current AP transaction, used to recover from a target that
+     * responds WAIT indefinitely.
+     *
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public void abort() throws FTDIException {
+        queue.clear();
+        selectIr(IR_ABORT);
+        jtag.scanDR(drPre + DR_LENGTH + drPost, packDr(false, 0, 1));
+        select = -1;
+    }
+
+    /**
+     * Sends all queued transactions to the target and collects the results.
+     *
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  DapException    target reported an error or stayed busy
+     */
+    public void execute() throws FTDIException, DapException {
+        List<Access> batch = new ArrayList<>(queue);
+        queue.clear();
+        int retries = 0;
+
+        while (true) {
+            int size = batch.size();
+            Access status = new Access(IR_DPACC, DP_CTRL_STAT, true, 0, -1, -1);
+            batch.add(status);
+            batch.add(new Access(IR_DPACC, DP_RDBUFF, true, 0, -1, -1));
+
+            int wait = issue(batch);
+            if (wait < 0) {
+                if ((status.value & STICKYERR) != 0) {
+                    clearSticky(STICKYERR);
+                    throw new DapException(String.format("Sticky error, CTRL/STAT 0x%08X", status.value));
+                }
+                return;
+            }
+
+            waitCount++;
+            if ((ctrlStat & ORUNDETECT) == 0) {
+                abort();
+                throw new DapException("Target busy, overrun detection disabled");
+            }
+            if (++retries > maxRetries) {
+                abort();
+                throw new DapException("Target busy, no response after " + maxRetries + " retries");
+            }
+            idleCycles = Math.min(MAX_IDLE_CYCLES, Math.max(1, idleCycles * 2));
+            clearSticky(STICKYORUN);
+
+            // the result of a read preceding the WAIT was never captured
+            int start = wait;
+            if (wait > 0 && batch.get(wait - 1).read) {
+                start = wait - 1;
+            }
+            batch = replay(batch.subList(Math.min(start, size), size));
+        }
+    }
+
+    /**
+     * @return                  idle TCK cycles inserted after each AP access
+     */
+    public int getIdleCycles() {
+        return idleCycles;
+    }
+
+    /**
+     * @return                  total number of WAIT responses seen
+     */
+    public long getWaitCount() {
+        return waitCount;
+    }
+
+    /**
+     * Requests debug and system power up and enables overrun detection.
+     * Sticky flags are cleared.
+     *
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  DapException    power up not acknowledged
+     */
+    public void powerUp() throws FTDIException, DapException {
+        writeDp(DP_CTRL_STAT, CSYSPWRUPREQ | CDBGPWRUPREQ | ORUNDETECT | STICKY_FLAGS);
+
+        int acks = CSYSPWRUPACK | CDBGPWRUPACK;
+        for (int i = 0; i < POWER_UP_POLLS; i++) {
+            if ((readDp(DP_CTRL_STAT) & acks) == acks) {
+                return;
+            }
+        }
+        throw new DapException("Debug power up not acknowledged");
+    }
+
+    public int readAp(int apsel, int address) throws FTDIException, DapException {
+        Access access = queueApRead(apsel, address, -1);
+        execute();
+        return access.value;
+    }
+
+    public int readDp(int address) throws FTDIException, DapException {
+        Access access = queueDpRead(address);
+        execute();
+        return access.value;
+    }
+
+    /**
+     * Reads the DP IDCODE register. Any queued transactions are discarded.
+     *
+     * @return                  IDCODE
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public int readIdCode() throws FTDIException {
+        queue.clear();
+        selectIr(IR_IDCODE);
+        byte[] data = jtag.scanDR(drPre + IDCODE_LENGTH + drPost);
+        return (int) getBits(data, drPre, IDCODE_LENGTH);
+    }
+
+    /**
+     * Sets the number of idle TCK cycles inserted after each AP access.
+     * Slow targets or fast TCK rates need more.
+     *
+     * @param   idleCycles      0 to {@link #MAX_IDLE_CYCLES}
+     */
+    public void setIdleCycles(int idleCycles) {
+        if (idleCycles < 0 || idleCycles > MAX_IDLE_CYCLES) {
+            throw new IllegalArgumentException("idleCycles out of range: " + idleCycles);
+        }
+        this.idleCycles = idleCycles;
+    }
+
+    /**
+     * @param   maxRetries      number of times a block is replayed after a
+     *                          WAIT response before giving up
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public void writeAp(int apsel, int address, int value) throws FTDIException, DapException {
+        queueApWrite(apsel, address, value, -1);
+        execute();
+    }
+
+    public void writeDp(int address, int value) throws FTDIException, DapException {
+        queueDpWrite(address, value);
+        execute();
+    }
+
+    Access queueApRead(int apsel, int address, int memoryAddress) {
+        selectAp(apsel, address);
+        return enqueue(new Access(IR_APACC, address, true, 0, apsel, memoryAddress));
+    }
+
+    Access queueApWrite(int apsel, int address, int value, int memoryAddress) {
+        selectAp(apsel, address);
+        return enqueue(new Access(IR_APACC, address, false, value, apsel, memoryAddress));
+    }
+
+    Access queueDpRead(int address) {
+        return enqueue(new Access(IR_DPACC, address, true, 0, -1, -1));
+    }
+
+    Access queueDpWrite(int address, int value) {
+        if (address == DP_CTRL_STAT) {
+            ctrlStat = value & ~(CSYSPWRUPACK | CDBGPWRUPACK | STICKY_FLAGS);
+        }
+        return enqueue(new Access(IR_DPACC, address, false, value, -1, -1));
+    }
+
+    /**
+     * Packs a DPACC/APACC request, RnW in bit 0, A[3:2] in bits 2:1 and data
+     * in bits 34:3, LSB first.
+     */
+    static byte[] packRequest(boolean read, int address, int value) {
+        byte[] data = new byte[(DR_LENGTH + 7) / 8];
+        long request = (read ? 1 : 0) | ((address >> 1) & 0x6) | ((value & 0xFFFFFFFFL) << 3);
+        setBits(data, 0, request, DR_LENGTH);
+        return data;
+    }
+
+    static long getBits(byte[] data, int offset, int count) {
+        long result = 0;
+        for (int i = 0; i < count; i++) {
+            int bit = offset + i;
+            if ((data[bit / 8] & (1 << (bit % 8))) != 0) {
+                result |= 1L << i;
+            }
+        }
+        return result;
+    }
+
+    static void setBits(byte[] data, int offset, long value, int count) {
+        for (int i = 0; i < count; i++) {
+            if ((value & (1L << i)) != 0) {
+                int bit = offset + i;
+                data[bit / 8] |= 1 << (bit % 8);
+            }
+        }
+    }
+
+    private void clearSticky(int flags) throws FTDIException, DapException {
+        List<Access> batch = new ArrayList<>();
+        for (int i = 0; i <= maxRetries; i++) {
+            batch.clear();
+            batch.add(new Access(IR_DPACC, DP_CTRL_STAT, false, ctrlStat | flags, -1, -1));
+            if (issue(batch) < 0) {
+                return;
+            }
+        }
+        throw new DapException("Unable to clear sticky flags");
+    }
+
+    private Access enqueue(Access access) {
+        queue.add(access);
+        return access;
+    }
+
+    /**
+     * Scans a block of transactions.
+     *
+     * @return                  index of the first transaction that was
+     *                          answered WAIT, -1 if all were accepted
+     */
+    private int issue(List<Access> batch) throws FTDIException, DapException {
+        int length = drPre + DR_LENGTH + drPost;
+
+        for (Access access : batch) {
+            selectIr(access.ir);
+            access.scan = jtag.queueScanDR(length, packDr(access.read, access.address, access.value));
+            if (access.ir == IR_APACC && idleCycles > 0) {
+                jtag.queueIdle(idleCycles);
+            }
+        }
+        jtag.flush();
+
+        for (int i = 0; i < batch.size(); i++) {
+            long response = getBits(batch.get(i).scan.getData(), drPre, DR_LENGTH);
+            int ack = (int) (response & 0x7);
+
+            if (ack == ACK_WAIT) {
+                return i;
+            }
+            if (ack != ACK_OK_FAULT) {
+                throw new DapException("Invalid ACK " + ack + ", check target connection");
+            }
+            if (i > 0 && batch.get(i - 1).read) {
+                batch.get(i - 1).value = (int) (response >>> 3);
+            }
+        }
+        return -1;
+    }
+
+    private byte[] packDr(boolean read, int address, int value) {
+        if (drPre == 0 && drPost == 0) {
+            return packRequest(read, address, value);
+        }
+        byte[] data = new byte[(drPre + DR_LENGTH + drPost + 7) / 8];
+        setBits(data, drPre, getBits(packRequest(read, address, value), 0, DR_LENGTH), DR_LENGTH);
+        return data;
+    }
+
+    /**
+     * Rebuilds the unacknowledged part of a block. TAR has been advanced by
+     * an unknown number of DRW accesses so it is rewritten before the first
+     * DRW access to each AP.
+     */
+    private List<Access> replay(List<Access> remaining) {
+        List<Access> result = new ArrayList<>(remaining.size() + 4);
+        Set<Integer> restored = new HashSet<>();
+
+        for (Access access : remaining) {
+            if (access.memoryAddress != -1 && restored.add(access.apsel)) {
+                result.add(new Access(IR_APACC, MemAp.TAR, false, access.memoryAddress, access.apsel, -1));
+            }
+            access.scan = null;
+            result.add(access);
+        }
+        return result;
+    }
+
+    private void selectAp(int apsel, int address) {
+        int value = (apsel << 24) | (address & 0xF0);
+        if (value != select) {
+            queueDpWrite(DP_SELECT, value);
+            select = value;
+        }
+    }
+
+    private void selectIr(int ir) throws FTDIException {
+        if (ir == currentIr) {
+            return;
+        }
+
+        int length = irPre + IR_LENGTH + irPost;
+        byte[] data = new byte[(length + 7) / 8];
+        for (int bit = 0; bit < length; bit++) {
+            int index = bit - irPre;
+            boolean bypass = index < 0 || index >= IR_LENGTH;
+            if (bypass || (ir & (1 << index)) != 0) {           // others in BYPASS
+                data[bit / 8] |= 1 << (bit % 8);
+            }
+        }
+        jtag.queueScanIR(length, data);
+        currentIr = ir;
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.adiv5;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * ARM ADIv5 Memory Access Port. Provides word and block access to target
+ * memory through a {@link JtagDp}.
+ * <p>
+ * Block transfers use TAR auto-increment and are sent in large batches, so
+ * a transfer costs one USB round trip per {@link #getBatchSize()} words
+ * rather than one per word. Auto-increment is only guaranteed within a
+ * 1KB block so TAR is rewritten at each 1KB boundary.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class MemAp {
+
+    public static final int CSW = 0x00;
+    public static final int TAR = 0x04;
+    public static final int DRW = 0x0C;
+    public static final int BASE = 0xF8;
+    public static final int IDR = 0xFC;
+
+    public static final int CSW_SIZE_8 = 0x0;
+    public static final int CSW_SIZE_32 = 0x2;
+    public static final int CSW_ADDRINC_OFF = 0x00;
+    public static final int CSW_ADDRINC_SINGLE = 0x10;
+
+    /**
+     * Privileged data access, master type debug. Suits Cortex-M AHB-APs.
+     */
+    public static final int DEFAULT_CSW_BASE = 0x23000000;
+
+    public static final int TAR_WRAP = 1024;
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final JtagDp dp;
+    private final int apsel;
+
+    private int cswBase;
+    private int csw;
+    private int batchSize;
+
+    /**
+     * @param   dp              powered up debug port
+     * @param   apsel           access port number
+     */
+    public MemAp(JtagDp dp, int apsel) {
+        this.dp = dp;
+        this.apsel = apsel;
+        this.cswBase = DEFAULT_CSW_BASE;
+        this.csw = -1;
+        this.batchSize = DEFAULT_BATCH_SIZE;
+    }
+
+    public int getApsel() {
+        return apsel;
+    }
+
+    /**
+     * @return                  maximum number of words per USB round trip
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return                  AP identification register
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  DapException    target reported an error
+     */
+    public int getIdr() throws FTDIException, DapException {
+        return dp.readAp(apsel, IDR);
+    }
+
+    /**
+     * Reads bytes from target memory. Any unaligned head or tail is read a
+     * byte at a time, the remainder in blocks of words.
+     *
+     * @param   address         target address
+     * @param   dest            receives the data
+     * @param   offset          index of first byte in dest
+     * @param   length          number of bytes
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  DapException    target reported an error
+     */
+    public void read(int address, byte[] dest, int offset, int length) throws FTDIException, DapException {
+        while (length > 0 && (address & 3) != 0) {
+            dest[offset++] = readByte(address++);
+            length--;
+        }
+
+        int words = length / 4;
+        if (words > 0) {
+            int[] buffer = new int[words];
+            readBlock(address, buffer, 0, words);
+            for (int i = 0; i < words; i++) {
+                int value = buffer[i];
+                dest[offset++] = (byte) value;
+                dest[offset++] = (byte) (value >> 8);
+                dest[offset++] = (byte) (value >> 16);
+                dest[offset++] = (byte) (value >> 24);
+            }
+            address += words * 4;
+            length -= words * 4;
+        }
+
+        while (length > 0) {
+            dest[offset++] = readByte(address++);
+            length--;
+        }
+    }
+
+    /**
+     * Reads consecutive words from target memory.
+     *
+     * @param   address         word aligned target address
+     * @param   dest            receives the data
+     * @param   offset          index of first word in dest
+     * @param   count           number of words
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  DapException    target reported an error
+     */
+    public void readBlock(int address, int[] dest, int offset, int count) throws FTDIException, DapException {
+        checkAligned(address);
+        List<Access> reads = new ArrayList<>(Math.min(count, batchSize));
+
+        while (count > 0) {
+            int words = Math.min(count, batchSize);
+            setCsw(CSW_SIZE_32 | CSW_ADDRINC_SINGLE);
+            queueBlock(address, words, true, null, 0, reads);
+            execute();
+
+            for (Access access : reads) {
+                dest[offset++] = access.value;
+            }
+            reads.clear();
+            address += words * 4;
+            count -= words;
+        }
+    }
+
+    public int readWord(int address) throws FTDIException, DapException {
+        checkAligned(address);
+        setCsw(CSW_SIZE_32 | CSW_ADDRINC_OFF);
+        dp.queueApWrite(apsel, TAR, address, -1);
+        Access access = dp.queueApRead(apsel, DRW, address);
+        execute();
+        return access.value;
+    }
+
+    /**
+     * @param   batchSize       maximum number of words per USB round trip
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the CSW bits other than size and address increment, e.g. HPROT.
+     *
+     * @param   cswBase         CSW value with size and increment fields 0
+     */
+    public void setCswBase(int cswBase) {
+        this.cswBase = cswBase;
+        this.csw = -1;
+    }
+
+    /**
+     * Writes bytes to target memory, see {@link #read(int, byte[], int, int)}.
+     *
+     * @param   address         target address
+     * @param   src             data to write
+     * @param   offset          index of first byte in src
+     * @param   length          number of bytes
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  DapException    target reported an error
+     */
+    public void write(int address, byte[] src, int offset, int length) throws FTDIException, DapException {
+        while (length > 0 && (address & 3) != 0) {
+            writeByte(address++, src[offset++]);
+            length--;
+        }
+
+        int words = length / 4;
+        if (words > 0) {
+            int[] buffer = new int[words];
+            for (int i = 0; i < words; i++) {
+                buffer[i] = (src[offset++] & 0xff)
+                        | (src[offset++] & 0xff) << 8
+                        | (src[offset++] & 0xff) << 16
+                        | (src[offset++] & 0xff) << 24;
+            }
+            writeBlock(address, buffer, 0, words);
+            address += words * 4;
+            length -= words * 4;
+        }
+
+        while (length > 0) {
+            writeByte(address++, src[offset++]);
+            length--;
+        }
+    }
+
+    /**
+     * Writes consecutive words to target memory.
+     *
+     * @param   address         word aligned target address
+     * @param   src             data to write
+     * @param   offset          index of first word in src
+     * @param   count           number of words
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  DapException    target reported an error
+     */
+    public void writeBlock(int address, int[] src, int offset, int count) throws FTDIException, DapException {
+        checkAligned(address);
+
+        while (count > 0) {
+            int words = Math.min(count, batchSize);
+            setCsw(CSW_SIZE_32 | CSW_ADDRINC_SINGLE);
+            queueBlock(address, words, false, src, offset, null);
+            execute();
+
+            address += words * 4;
+            offset += words;
+            count -= words;
+        }
+    }
+
+    public void writeWord(int address, int value) throws FTDIException, DapException {
+        checkAligned(address);
+        setCsw(CSW_SIZE_32 | CSW_ADDRINC_OFF);
+        dp.queueApWrite(apsel, TAR, address, -1);
+        dp.queueApWrite(apsel, DRW, value, address);
+        execute();
+    }
+
+    /**
+     * Splits a transfer at the points where TAR auto-increment may wrap.
+     *
+     * @param   address         start address
+     * @param   length          transfer length in bytes
+     * @return                  length of the first chunk in bytes
+     */
+    static int chunkLength(int address, int length) {
+        int remaining = TAR_WRAP - (address & (TAR_WRAP - 1));
+        return Math.min(remaining, length);
+    }
+
+    private void checkAligned(int address) {
+        if ((address & 3) != 0) {
+            throw new IllegalArgumentException(String.format("Address 0x%08X not word aligned", address));
+        }
+    }
+
+    private void queueBlock(int address, int words, boolean read, int[] src, int offset, List<Access> reads) {
+        int end = address + words * 4;
+
+        while (address != end) {
+            int chunk = chunkLength(address, end - address);
+            dp.queueApWrite(apsel, TAR, address, -1);
+
+            for (int i = 0; i < chunk; i += 4) {
+                if (read) {
+                    reads.add(dp.queueApRead(apsel, DRW, address + i));
+                } else {
+                    dp.queueApWrite(apsel, DRW, src[offset++], address + i);
+                }
+            }
+            address += chunk;
+        }
+    }
+
+    /**
+     * Runs the queued transactions. A failed block leaves CSW in an unknown
+     * state so it is rewritten next time.
+     */
+    private void execute() throws FTDIException, DapException {
+        try {
+            dp.execute();
+        } catch (DapException e) {
+            csw = -1;
+            throw e;
+        }
+    }
+
+    private byte readByte(int address) throws FTDIException, DapException {
+        setCsw(CSW_SIZE_8 | CSW_ADDRINC_OFF);
+        dp.queueApWrite(apsel, TAR, address, -1);
+        Access access = dp.queueApRead(apsel, DRW, address);
+        execute();
+
+        // byte lanes follow the address
+        return (byte) (access.value >>> ((address & 3) * 8));
+    }
+
+    private void setCsw(int flags) {
+        int value = cswBase | flags;
+        if (value != csw) {
+            dp.queueApWrite(apsel, CSW, value, -1);
+            csw = value;
+        }
+    }
+
+    private void writeByte(int address, byte value) throws FTDIException, DapException {
+        setCsw(CSW_SIZE_8 | CSW_ADDRINC_OFF);
+        dp.queueApWrite(apsel, TAR, address, -1);
+        dp.queueApWrite(apsel, DRW, (value & 0xff) << ((address & 3) * 8), address);
+        execute();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.bitbang;
+
+import static net.sf.yad2xx.FTDIConstants.FT_PURGE_RX;
+import static net.sf.yad2xx.FTDIConstants.FT_PURGE_TX;
+
+import net.sf.yad2xx.Device;
+import net.sf.yad2xx.FTDIBitMode;
+import net.sf.yad2xx.FTDIException;
+import net.sf.yad2xx.FTStatus;
+
+/**
+ * Plays sample arrays, or compiled {@link Waveform}s, on the eight data
+ * pins of a UART or FIFO device in synchronous bit-bang mode, capturing
+ * the pins at the same rate.
+ * <p>
+ * In synchronous mode the chip reads the pins just before driving each
+ * byte it is sent and returns the reading, so the capture is exactly as
+ * long as the output and sample n shows the pins as they were before
+ * output sample n took effect. The chip stops clocking when its receive
+ * buffer is full, so output and capture are streamed together: up to two
+ * transfers of {@link #setTransferSize(int)} bytes are kept in flight and
+ * reading overlaps the next write. If the host falls behind, the waveform
+ * stretches rather than losing samples.
+ * <p>
+ * The sample clock is {@link #CLOCK_MULTIPLIER} times the baud rate, see
+ * {@link #configure(int)}.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class BitBang {
+
+    /**
+     * Bit-bang sample clock as a multiple of the baud rate.
+     */
+    public static final int CLOCK_MULTIPLIER = 16;
+
+    /**
+     * USB transfer size used unless {@link #setTransferSize(int)} is called.
+     */
+    public static final int DEFAULT_TRANSFER_SIZE = 4096;
+
+    /**
+     * Longest wait, in milliseconds, for captured samples.
+     */
+    public static final int DEFAULT_TIMEOUT = 1000;
+
+    private final Device device;
+    private final int outputMask;
+    private int transferSize = DEFAULT_TRANSFER_SIZE;
+    private int sampleRate;
+
+    /**
+     * @param   device          open device with bit-bang support
+     * @param   outputMask      bit set for each pin driven, the others are
+     *                          inputs
+     */
+    public BitBang(Device device, int outputMask) {
+        if (device == null) {
+            throw new IllegalArgumentException("device must not be null");
+        }
+        if ((outputMask & ~0xFF) != 0) {
+            throw new IllegalArgumentException("Invalid output mask: " + outputMask);
+        }
+        this.device = device;
+        this.outputMask = outputMask;
+    }
+
+    /**
+     * Selects synchronous bit-bang, sets the clock and the USB transfer
+     * size, and discards anything buffered.
+     *
+     * @param   sampleRate      wanted samples per second, rounded down to a
+     *                          multiple of {@link #CLOCK_MULTIPLIER}
+     * @return  samples per second actually selected
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public int configure(int sampleRate) throws FTDIException {
+        if (sampleRate < CLOCK_MULTIPLIER) {
+            throw new IllegalArgumentException("Invalid sample rate: " + sampleRate);
+        }
+        int baudRate = sampleRate / CLOCK_MULTIPLIER;
+
+        device.setBitMode((byte) 0, FTDIBitMode.FT_BITMODE_RESET);
+        device.setBitMode((byte) outputMask, FTDIBitMode.FT_BITMODE_SYNC_BITBANG);
+        device.setBaudRate(baudRate);
+        device.setUSBParameters(transferSize, transferSize);
+        device.purge(FT_PURGE_RX | FT_PURGE_TX);
+
+        this.sampleRate = baudRate * CLOCK_MULTIPLIER;
+        return this.sampleRate;
+    }
+
+    public Device getDevice() {
+        return device;
+    }
+
+    public int getOutputMask() {
+        return outputMask;
+    }
+
+    /**
+     * @return  samples per second, 0 until configured
+     */
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getTransferSize() {
+        return transferSize;
+    }
+
+    /**
+     * Compiles and plays a waveform.
+     *
+     * @param   waveform        pin levels to drive
+     * @return  pins captured, one byte per sample
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public byte[] play(Waveform waveform) throws FTDIException {
+        checkConfigured();
+        if ((waveform.getPinMask() & ~outputMask) != 0) {
+            throw new IllegalArgumentException("Waveform drives input pins: "
+                    + Integer.toHexString(waveform.getPinMask() & ~outputMask));
+        }
+        return transfer(waveform.compile(sampleRate));
+    }
+
+    /**
+     * Sets the USB transfer size and streaming chunk. Call before
+     * {@link #configure(int)}.
+     *
+     * @param   transferSize    64 to 65536, a multiple of 64
+     */
+    public void setTransferSize(int transferSize) {
+        if (transferSize < 64 || transferSize > 65536 || transferSize % 64 != 0) {
+            throw new IllegalArgumentException("Invalid transfer size: " + transferSize);
+        }
+        this.transferSize = transferSize;
+    }
+
+    /**
+     * Drives samples on the pins and captures the pins at the same time.
+     *
+     * @param   samples         output pin levels, one byte per sample
+     * @return  pins captured, one byte per sample
+     * @throws  FTDIException   D2XX API call failed, or the chip stopped
+     *                          returning samples
+     */
+    public byte[] transfer(byte[] samples) throws FTDIException {
+        checkConfigured();
+        byte[] capture = new byte[samples.length];
+        int[] status = new int[1];
+        int written = 0;
+        int read = 0;
+
+        while (read < samples.length) {
+            if (written < samples.length && written - read < 2 * transferSize) {
+                int count = device.tryWrite(samples, written, Math.min(transferSize, samples.length - written),
+                        status);
+                check(status, "FT_Write");
+                written += count;
+                continue;
+            }
+
+            int queued = device.awaitRx(1, DEFAULT_TIMEOUT);
+            if (queued == 0) {
+                throw new FTDIException(FTStatus.FT_IO_ERROR, "FT_Read");
+            }
+            int count = device.tryRead(capture, read, Math.min(queued, written - read), status);
+            check(status, "FT_Read");
+            read += count;
+        }
+        return capture;
+    }
+
+    private static void check(int[] status, String function) throws FTDIException {
+        FTStatus result = FTStatus.byOrdinal(status[0]);
+        if (result != FTStatus.FT_OK) {
+            throw new FTDIException(result, function);
+        }
+    }
+
+    private void checkConfigured() {
+        if (sampleRate == 0) {
+            throw new IllegalStateException("Not configured");
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.bitbang;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pin level description of up to eight bit-bang pins over a fixed length of
+ * time, compiled by {@link #compile(int)} into one byte per sample.
+ * <p>
+ * Each pin starts at its initial level and changes only at its edges.
+ * Edges are given in nanoseconds and rounded to the nearest sample when
+ * compiled, so one waveform can be replayed at any sample rate. Where
+ * edges on a pin fall at the same time the one added last wins. Helpers
+ * add the edges for pulses, PWM and hobby servos.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class Waveform {
+
+    public static final int PIN_COUNT = 8;
+
+    /**
+     * Standard hobby servo frame.
+     */
+    public static final long SERVO_PERIOD_NANOS = 20000000L;
+
+    /**
+     * Servo pulse width at position 0, position 1 is twice this.
+     */
+    public static final long SERVO_MIN_PULSE_NANOS = 1000000L;
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private static final class Edge {
+        private final long time;
+        private final boolean high;
+
+        private Edge(long time, boolean high) {
+            this.time = time;
+            this.high = high;
+        }
+    }
+
+    private final long lengthNanos;
+    private final List<List<Edge>> edges = new ArrayList<>(PIN_COUNT);
+    private int initialLevels;
+    private int pinMask;
+
+    /**
+     * @param   lengthNanos     duration of the waveform
+     */
+    public Waveform(long lengthNanos) {
+        if (lengthNanos <= 0) {
+            throw new IllegalArgumentException("Invalid length: " + lengthNanos);
+        }
+        this.lengthNanos = lengthNanos;
+        for (int pin = 0; pin < PIN_COUNT; pin++) {
+            edges.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Adds a level change.
+     *
+     * @param   pin             0 to 7
+     * @param   timeNanos       time of the change, within the waveform
+     * @param   high            level from then on
+     * @return  this waveform
+     */
+    public Waveform edge(int pin, long timeNanos, boolean high) {
+        checkPin(pin);
+        if (timeNanos < 0 || timeNanos > lengthNanos) {
+            throw new IllegalArgumentException("Edge at " + timeNanos + " outside waveform");
+        }
+        edges.get(pin).add(new Edge(timeNanos, high));
+        pinMask |= 1 << pin;
+        return this;
+    }
+
+    /**
+     * @return  duration in nanoseconds
+     */
+    public long getLengthNanos() {
+        return lengthNanos;
+    }
+
+    /**
+     * @return  bit set for each pin with an edge or a high initial level
+     */
+    public int getPinMask() {
+        return pinMask;
+    }
+
+    /**
+     * Adds a high pulse.
+     *
+     * @param   pin             0 to 7
+     * @param   startNanos      rising edge
+     * @param   widthNanos      time high
+     * @return  this waveform
+     */
+    public Waveform pulse(int pin, long startNanos, long widthNanos) {
+        edge(pin, startNanos, true);
+        return edge(pin, Math.min(lengthNanos, startNanos + widthNanos), false);
+    }
+
+    /**
+     * Adds a PWM signal, high at the start of each period, for the whole
+     * waveform.
+     *
+     * @param   pin             0 to 7
+     * @param   periodNanos     PWM period
+     * @param   dutyCycle       fraction of each period spent high, 0 to 1
+     * @return  this waveform
+     */
+    public Waveform pwm(int pin, long periodNanos, double dutyCycle) {
+        if (periodNanos <= 0 || !(dutyCycle >= 0 && dutyCycle <= 1)) {
+            throw new IllegalArgumentException("Invalid PWM: period " + periodNanos + ", duty " + dutyCycle);
+        }
+        long high = Math.round(periodNanos * dutyCycle);
+        for (long start = 0; start < lengthNanos; start += periodNanos) {
+            edge(pin, start, high > 0);
+            if (high > 0 && high < periodNanos) {
+                edge(pin, Math.min(lengthNanos, start + high), false);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a hobby servo drive signal, 1 to 2 ms pulses every 20 ms.
+     *
+     * @param   pin             0 to 7
+     * @param   position        0 to 1, 0.5 is centre
+     * @return  this waveform
+     */
+    public Waveform servo(int pin, double position) {
+        if (!(position >= 0 && position <= 1)) {
+            throw new IllegalArgumentException("Invalid servo position: " + position);
+        }
+        long width = SERVO_MIN_PULSE_NANOS + Math.round(SERVO_MIN_PULSE_NANOS * position);
+        return pwm(pin, SERVO_PERIOD_NANOS, (double) width / SERVO_PERIOD_NANOS);
+    }
+
+    /**
+     * @param   pin             0 to 7
+     * @param   high            level before the first edge
+     * @return  this waveform
+     */
+    public Waveform setInitialLevel(int pin, boolean high) {
+        checkPin(pin);
+        if (high) {
+            initialLevels |= 1 << pin;
+            pinMask |= 1 << pin;
+        } else {
+            initialLevels &= ~(1 << pin);
+        }
+        return this;
+    }
+
+    /**
+     * @param   sampleRate      samples per second
+     * @return  number of samples the waveform compiles to
+     */
+    public int getSampleCount(int sampleRate) {
+        long count = (long) Math.ceil(lengthNanos * (double) sampleRate / NANOS_PER_SECOND);
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Waveform too long for " + sampleRate + " samples/s");
+        }
+        return (int) count;
+    }
+
+    /**
+     * Renders the waveform, bit n of each sample is the level of pin n.
+     *
+     * @param   sampleRate      samples per second
+     * @return  samples, {@link #getSampleCount(int)} long
+     */
+    public byte[] compile(int sampleRate) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Invalid sample rate: " + sampleRate);
+        }
+        byte[] samples = new byte[getSampleCount(sampleRate)];
+
+        for (int pin = 0; pin < PIN_COUNT; pin++) {
+            if ((pinMask & (1 << pin)) == 0) {
+                continue;
+            }
+            List<Edge> pinEdges = new ArrayList<>(edges.get(pin));
+            pinEdges.sort(Comparator.comparingLong(e -> e.time));
+
+            boolean high = (initialLevels & (1 << pin)) != 0;
+            int from = 0;
+            for (Edge edge : pinEdges) {
+                int to = (int) Math.min(samples.length,
+                        Math.round(edge.time * (double) sampleRate / NANOS_PER_SECOND));
+                fill(samples, from, to, pin, high);
+                from = Math.max(from, to);
+                high = edge.high;
+            }
+            fill(samples, from, samples.length, pin, high);
+        }
+        return samples;
+    }
+
+    private static void checkPin(int pin) {
+        if (pin < 0 || pin >= PIN_COUNT) {
+            throw new IllegalArgumentException("Invalid pin: " + pin);
+        }
+    }
+
+    private static void fill(byte[] samples, int from, int to, int pin, boolean high) {
+        if (high) {
+            byte bit = (byte) (1 << pin);
+            for (int i = from; i < to; i++) {
+                samples[i] |= bit;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import java.util.Arrays;
+
+import net.sf.yad2xx.FTDIException;
+import net.sf.yad2xx.bitbang.BitBang;
+
+/**
+ * Samples eight pins at the synchronous bit-bang clock. The chip only
+ * samples while it is sent data, so each block is clocked by writing the
+ * output levels given to the constructor; pins configured as inputs are
+ * unaffected. Within a block samples are evenly spaced, between blocks
+ * there may be a short gap while the host turns around.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class BitBangSampleSource implements SampleSource {
+
+    /**
+     * Samples clocked per transfer unless given.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 65536;
+
+    private final BitBang bitBang;
+    private final byte[] clock;
+
+    /**
+     * @param   bitBang         configured engine
+     * @param   outputLevels    levels held on output pins while capturing
+     */
+    public BitBangSampleSource(BitBang bitBang, int outputLevels) {
+        this(bitBang, outputLevels, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param   bitBang         configured engine
+     * @param   outputLevels    levels held on output pins while capturing
+     * @param   blockSize       samples clocked per transfer
+     */
+    public BitBangSampleSource(BitBang bitBang, int outputLevels, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+        this.bitBang = bitBang;
+        this.clock = new byte[blockSize];
+        Arrays.fill(clock, (byte) outputLevels);
+    }
+
+    @Override
+    public int getWidth() {
+        return 8;
+    }
+
+    @Override
+    public long getSampleRate() {
+        return bitBang.getSampleRate();
+    }
+
+    @Override
+    public int read(int[] samples, int offset, int length) throws FTDIException {
+        int count = Math.min(length, clock.length);
+        byte[] captured = bitBang.transfer(count == clock.length ? clock : Arrays.copyOf(clock, count));
+        for (int i = 0; i < count; i++) {
+            samples[offset + i] = captured[i] & 0xFF;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+
+/**
+ * Run-length encoded logic capture held in a memory-mapped file.
+ * <p>
+ * Each record is a 16 bit sample value followed by a 32 bit unsigned
+ * repeat count, so a quiet bus costs six bytes however long it stays
+ * quiet. Records are written straight into mapped regions of the file,
+ * which are added as the capture grows, and a 64 byte header records the
+ * pin count, sample rate, totals and trigger position. The header is only
+ * brought up to date by {@link #flush()} and {@link #close()}.
+ * <p>
+ * Consecutive records may hold the same value, for example either side of
+ * a flush, and readers must allow for it.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class CaptureFile implements Closeable {
+
+    /**
+     * Receives the runs of a capture in order.
+     */
+    @FunctionalInterface
+    public interface RunVisitor {
+
+        /**
+         * @param   value           sample value
+         * @param   start           index of the first sample of the run
+         * @param   count           number of samples in the run
+         * @throws  IOException     stops the visit
+         */
+        void run(int value, long start, long count) throws IOException;
+    }
+
+    /**
+     * "YLA1".
+     */
+    public static final int MAGIC = 0x594C4131;
+
+    public static final int HEADER_SIZE = 64;
+
+    public static final int RECORD_SIZE = 6;
+
+    /**
+     * Longest run one record can hold.
+     */
+    public static final long MAX_RUN = 0xFFFFFFFFL;
+
+    private static final short VERSION = 1;
+
+    private static final int REGION_RECORDS = 1 << 17;
+
+    private static final long REGION_SIZE = (long) REGION_RECORDS * RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final boolean writable;
+    private final int width;
+    private long sampleRate;
+    private long sampleCount;
+    private long runCount;
+    private long triggerSample = -1;
+    private MappedByteBuffer region;
+    private int runValue;
+    private long runLength;
+
+    private CaptureFile(FileChannel channel, boolean writable, int width, long sampleRate) {
+        this.channel = channel;
+        this.writable = writable;
+        this.width = width;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Creates a capture file, replacing any existing file.
+     *
+     * @param   path            file to write
+     * @param   width           pins per sample, 1 to 16
+     * @param   sampleRate      samples per second, may be set later
+     * @return  open file ready for {@link #append(int)}
+     * @throws  IOException     file could not be created
+     */
+    public static CaptureFile create(Path path, int width, long sampleRate) throws IOException {
+        if (width < 1 || width > 16) {
+            throw new IllegalArgumentException("Invalid width: " + width);
+        }
+        FileChannel channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+        CaptureFile file = new CaptureFile(channel, true, width, sampleRate);
+        file.writeHeader();
+        return file;
+    }
+
+    /**
+     * Opens a finished capture for reading.
+     *
+     * @param   path            file written by {@link #create(Path, int, long)}
+     * @return  read only capture
+     * @throws  IOException     file could not be read or is not a capture
+     */
+    public static CaptureFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // read whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getShort() != VERSION) {
+                throw new IOException("Not a capture file: " + path);
+            }
+            CaptureFile file = new CaptureFile(channel, false, header.getShort(), header.getLong());
+            file.sampleCount = header.getLong();
+            file.runCount = header.getLong();
+            file.triggerSample = header.getLong();
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds one sample.
+     *
+     * @param   sample          pin levels
+     * @throws  IOException     file could not be extended
+     */
+    public void append(int sample) throws IOException {
+        checkWritable();
+        if (runLength > 0 && sample == runValue && runLength < MAX_RUN) {
+            runLength++;
+        } else {
+            endRun();
+            runValue = sample;
+            runLength = 1;
+        }
+        sampleCount++;
+    }
+
+    /**
+     * Adds consecutive samples.
+     *
+     * @param   samples         pin levels
+     * @param   offset          index of the first sample
+     * @param   length          number of samples
+     * @throws  IOException     file could not be extended
+     */
+    public void append(int[] samples, int offset, int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            append(samples[i]);
+        }
+    }
+
+    /**
+     * Writes the run in progress and the header, making everything appended
+     * so far visible to {@link #open(Path)}.
+     *
+     * @throws  IOException     file could not be written
+     */
+    public void flush() throws IOException {
+        checkWritable();
+        endRun();
+        writeHeader();
+    }
+
+    /**
+     * Visits every run, including one still in progress.
+     *
+     * @param   visitor         receives each run in order
+     * @throws  IOException     file could not be read, or thrown by visitor
+     */
+    public void forEachRun(RunVisitor visitor) throws IOException {
+        long start = 0;
+        for (long first = 0; first < runCount; first += REGION_RECORDS) {
+            long records = Math.min(REGION_RECORDS, runCount - first);
+            ByteBuffer buffer = channel.map(MapMode.READ_ONLY, HEADER_SIZE + first * RECORD_SIZE,
+                    records * RECORD_SIZE);
+            for (long r = 0; r < records; r++) {
+                int value = buffer.getShort() & 0xFFFF;
+                long count = buffer.getInt() & MAX_RUN;
+                visitor.run(value, start, count);
+                start += count;
+            }
+        }
+        if (runLength > 0) {
+            visitor.run(runValue, start, runLength);
+        }
+    }
+
+    /**
+     * @return  number of records written, not counting a run in progress
+     */
+    public long getRunCount() {
+        return runCount;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public long getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return  index of the sample that fired the trigger, -1 if none
+     */
+    public long getTriggerSample() {
+        return triggerSample;
+    }
+
+    /**
+     * @return  pins per sample
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public void setSampleRate(long sampleRate) {
+        checkWritable();
+        this.sampleRate = sampleRate;
+    }
+
+    public void setTriggerSample(long triggerSample) {
+        checkWritable();
+        this.triggerSample = triggerSample;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (writable && channel.isOpen()) {
+                flush();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void checkWritable() {
+        if (!writable) {
+            throw new IllegalStateException("Capture is read only");
+        }
+    }
+
+    private void endRun() throws IOException {
+        if (runLength == 0) {
+            return;
+        }
+        if (region == null || region.remaining() < RECORD_SIZE) {
+            long regionIndex = runCount / REGION_RECORDS;
+            region = channel.map(MapMode.READ_WRITE, HEADER_SIZE + regionIndex * REGION_SIZE, REGION_SIZE);
+        }
+        region.putShort((short) runValue);
+        region.putInt((int) runLength);
+        runCount++;
+        runLength = 0;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) width);
+        header.putLong(sampleRate);
+        header.putLong(sampleCount);
+        header.putLong(runCount);
+        header.putLong(triggerSample);
+        header.clear();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * Logic analyser built on a {@link SampleSource}: waits for a
+ * {@link Trigger}, then records into a run-length encoded
+ * {@link CaptureFile}, keeping a window of samples from before the trigger.
+ * <p>
+ * The pre-trigger window is a plain ring of raw samples, which is cheap to
+ * maintain while waiting; once triggered it is written to the file ahead
+ * of the trigger sample. Captures run on the calling thread and can be
+ * ended early from another with {@link #stop()}.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class LogicCapture {
+
+    /**
+     * Samples requested from the source per read.
+     */
+    public static final int BLOCK_SIZE = 65536;
+
+    private final SampleSource source;
+    private volatile boolean stopped;
+
+    /**
+     * @param   source          pins to sample
+     */
+    public LogicCapture(SampleSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("source must not be null");
+        }
+        this.source = source;
+    }
+
+    /**
+     * Records samples immediately.
+     *
+     * @param   path            capture file to create
+     * @param   sampleCount     samples to record
+     * @return  finished capture, open for reading
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  IOException     capture file could not be written
+     */
+    public CaptureFile capture(Path path, long sampleCount) throws FTDIException, IOException {
+        return capture(path, null, 0, sampleCount);
+    }
+
+    /**
+     * Waits for a trigger and records around it. The file holds up to
+     * preTrigger samples before the trigger sample, then the trigger sample
+     * and the ones after it, postTrigger in all.
+     *
+     * @param   path            capture file to create
+     * @param   trigger         start condition, null to start at once
+     * @param   preTrigger      samples kept from before the trigger
+     * @param   postTrigger     samples recorded from the trigger on
+     * @return  capture, flushed and still open; ends early if stopped
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  IOException     capture file could not be written
+     */
+    public CaptureFile capture(Path path, Trigger trigger, int preTrigger, long postTrigger)
+            throws FTDIException, IOException {
+        if (preTrigger < 0 || postTrigger < 0) {
+            throw new IllegalArgumentException("Invalid sample counts");
+        }
+        stopped = false;
+
+        CaptureFile file = CaptureFile.create(path, source.getWidth(), source.getSampleRate());
+        try {
+            int[] block = new int[BLOCK_SIZE];
+            int[] history = new int[preTrigger];
+            long waited = 0;
+            int previous = 0;
+            boolean triggered = trigger == null;
+            long remaining = postTrigger;
+            if (triggered) {
+                file.setTriggerSample(0);
+            }
+
+            while (remaining > 0 && !stopped) {
+                int count = source.read(block, 0, BLOCK_SIZE);
+                int start = 0;
+
+                if (!triggered) {
+                    for (; start < count; start++) {
+                        int current = block[start];
+                        if (trigger.test(waited == 0 ? current : previous, current)) {
+                            triggered = true;
+                            writeHistory(file, history, waited);
+                            file.setTriggerSample(file.getSampleCount());
+                            break;
+                        }
+                        if (preTrigger > 0) {
+                            history[(int) (waited % preTrigger)] = current;
+                        }
+                        previous = current;
+                        waited++;
+                    }
+                    if (!triggered) {
+                        continue;
+                    }
+                }
+
+                int length = (int) Math.min(count - start, remaining);
+                file.append(block, start, length);
+                remaining -= length;
+            }
+
+            file.setSampleRate(source.getSampleRate());
+            file.flush();
+            return file;
+        } catch (FTDIException | IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ends a capture in progress after the current read.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Writes the ring oldest first.
+     */
+    private static void writeHistory(CaptureFile file, int[] history, long waited) throws IOException {
+        int kept = (int) Math.min(history.length, waited);
+        int first = (int) ((waited - kept) % Math.max(1, history.length));
+        for (int i = 0; i < kept; i++) {
+            file.append(history[(first + i) % history.length]);
+        }
+    }
+}
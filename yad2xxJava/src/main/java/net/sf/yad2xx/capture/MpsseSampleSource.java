@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import static net.sf.yad2xx.mpsse.Command.READ_DATA_BITS_HIGH;
+import static net.sf.yad2xx.mpsse.Command.READ_DATA_BITS_LOW;
+
+import net.sf.yad2xx.FTDIException;
+import net.sf.yad2xx.mpsse.Mpsse;
+
+/**
+ * Samples the sixteen MPSSE GPIO pins, ADBUS in the low byte and ACBUS in
+ * the high byte, by sending batches of READ_DATA_BITS_LOW/HIGH pairs
+ * ending in SEND_IMMEDIATE. Each batch is one USB round trip.
+ * <p>
+ * The MPSSE has no sample clock of its own: samples within a batch follow
+ * the command rate and batches are separated by the round trip, so the
+ * rate reported by {@link #getSampleRate()} is an average measured over
+ * the capture so far.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class MpsseSampleSource implements SampleSource {
+
+    /**
+     * Samples per batch, two command bytes each, within the default MPSSE
+     * buffer.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 16384;
+
+    private final Mpsse mpsse;
+    private final int batchSize;
+    private long sampleCount;
+    private long elapsedNanos;
+
+    /**
+     * @param   mpsse           open MPSSE
+     */
+    public MpsseSampleSource(Mpsse mpsse) {
+        this(mpsse, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param   mpsse           open MPSSE
+     * @param   batchSize       samples per USB round trip
+     */
+    public MpsseSampleSource(Mpsse mpsse, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        this.mpsse = mpsse;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int getWidth() {
+        return 16;
+    }
+
+    @Override
+    public long getSampleRate() {
+        return elapsedNanos == 0 ? 0 : Math.round(sampleCount * 1e9 / elapsedNanos);
+    }
+
+    @Override
+    public int read(int[] samples, int offset, int length) throws FTDIException {
+        int count = Math.min(length, batchSize);
+        for (int i = 0; i < count; i++) {
+            mpsse.enqueue(READ_DATA_BITS_LOW.getValue());
+            mpsse.enqueue(READ_DATA_BITS_HIGH.getValue());
+        }
+        mpsse.sendImmediate();
+
+        long start = System.nanoTime();
+        byte[] response = mpsse.transact(count * 2);
+        elapsedNanos += System.nanoTime() - start;
+        sampleCount += count;
+
+        for (int i = 0; i < count; i++) {
+            samples[offset + i] = (response[2 * i] & 0xFF) | (response[2 * i + 1] & 0xFF) << 8;
+        }
+        return count;
+    }
+}
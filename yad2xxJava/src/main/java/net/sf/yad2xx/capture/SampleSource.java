@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * Supplies pin samples to a {@link LogicCapture}. Bit n of each sample is
+ * the level of pin n.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public interface SampleSource {
+
+    /**
+     * @return  number of pins in each sample, 8 or 16
+     */
+    int getWidth();
+
+    /**
+     * @return  samples per second, measured if the source has no fixed
+     *          clock
+     */
+    long getSampleRate();
+
+    /**
+     * Reads the next samples, waiting for at least one.
+     *
+     * @param   samples         destination
+     * @param   offset          index of the first sample to fill
+     * @param   length          most samples to read
+     * @return  number of samples read
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    int read(int[] samples, int offset, int length) throws FTDIException;
+}
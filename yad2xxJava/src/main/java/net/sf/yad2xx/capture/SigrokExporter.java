@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a {@link CaptureFile} as a sigrok session (.sr), which opens in
+ * PulseView and sigrok-cli with all their protocol decoders. A session is a
+ * zip archive holding a version, the metadata and the raw samples, one or
+ * two little endian bytes each, so unlike the capture file it grows with
+ * the capture length.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public final class SigrokExporter {
+
+    private static final int CHUNK_SIZE = 65536;
+
+    private SigrokExporter() {
+    }
+
+    /**
+     * @param   capture         capture with a known sample rate
+     * @param   out             destination, finished but not closed
+     * @param   names           pin names, null or short for D0, D1...
+     * @throws  IOException     capture could not be read or out written
+     */
+    public static void export(CaptureFile capture, OutputStream out, String[] names) throws IOException {
+        if (capture.getSampleRate() <= 0) {
+            throw new IllegalStateException("Sample rate unknown");
+        }
+        int width = capture.getWidth();
+        int unitSize = width > 8 ? 2 : 1;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+
+        zip.putNextEntry(new ZipEntry("version"));
+        zip.write("2".getBytes(StandardCharsets.US_ASCII));
+        zip.closeEntry();
+
+        StringBuilder metadata = new StringBuilder();
+        metadata.append("[global]\n");
+        metadata.append("sigrok version=0.5.1\n\n");
+        metadata.append("[device 1]\n");
+        metadata.append("capturefile=logic-1\n");
+        metadata.append("total probes=").append(width).append('\n');
+        metadata.append("samplerate=").append(capture.getSampleRate()).append('\n');
+        metadata.append("total analog=0\n");
+        for (int pin = 0; pin < width; pin++) {
+            String name = names != null && pin < names.length ? names[pin] : "D" + pin;
+            metadata.append("probe").append(pin + 1).append('=').append(name).append('\n');
+        }
+        metadata.append("unitsize=").append(unitSize).append('\n');
+        zip.putNextEntry(new ZipEntry("metadata"));
+        zip.write(metadata.toString().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry("logic-1-1"));
+        byte[] chunk = new byte[CHUNK_SIZE * unitSize];
+        int[] used = { 0 };
+        capture.forEachRun((value, start, count) -> {
+            for (long i = 0; i < count; i++) {
+                if (used[0] == chunk.length) {
+                    zip.write(chunk, 0, used[0]);
+                    used[0] = 0;
+                }
+                chunk[used[0]++] = (byte) value;
+                if (unitSize == 2) {
+                    chunk[used[0]++] = (byte) (value >> 8);
+                }
+            }
+        });
+        zip.write(chunk, 0, used[0]);
+        zip.closeEntry();
+        zip.finish();
+    }
+}
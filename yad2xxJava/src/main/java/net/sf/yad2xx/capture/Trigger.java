@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+/**
+ * Start condition for a {@link LogicCapture}, tested against each sample
+ * and the one before it. For the first sample both are the same, so edge
+ * triggers cannot fire on it.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+@FunctionalInterface
+public interface Trigger {
+
+    /**
+     * @param   previous        sample before current
+     * @param   current         sample being tested
+     * @return  true to start recording at current
+     */
+    boolean test(int previous, int current);
+
+    /**
+     * @return  trigger firing when both this and other do
+     */
+    default Trigger and(Trigger other) {
+        return (previous, current) -> test(previous, current) && other.test(previous, current);
+    }
+
+    /**
+     * @return  trigger firing when either this or other does
+     */
+    default Trigger or(Trigger other) {
+        return (previous, current) -> test(previous, current) || other.test(previous, current);
+    }
+
+    /**
+     * @param   pin             pin number
+     * @return  trigger on any change of pin
+     */
+    static Trigger edge(int pin) {
+        int bit = 1 << pin;
+        return (previous, current) -> ((previous ^ current) & bit) != 0;
+    }
+
+    /**
+     * @param   pin             pin number
+     * @return  trigger on a high to low transition of pin
+     */
+    static Trigger falling(int pin) {
+        int bit = 1 << pin;
+        return (previous, current) -> (previous & bit) != 0 && (current & bit) == 0;
+    }
+
+    /**
+     * @param   mask            pins compared
+     * @param   value           wanted levels of the masked pins
+     * @return  trigger on the first sample matching the pattern
+     */
+    static Trigger pattern(int mask, int value) {
+        int expected = value & mask;
+        return (previous, current) -> (current & mask) == expected;
+    }
+
+    /**
+     * @param   pin             pin number
+     * @return  trigger on a low to high transition of pin
+     */
+    static Trigger rising(int pin) {
+        int bit = 1 << pin;
+        return (previous, current) -> (previous & bit) == 0 && (current & bit) != 0;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a {@link CaptureFile} as an IEEE 1364 value change dump, readable
+ * by GTKWave, PulseView and most simulators. Runs map directly onto value
+ * changes, so the output stays proportional to the number of edges.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public final class VcdExporter {
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private VcdExporter() {
+    }
+
+    /**
+     * @param   capture         capture with a known sample rate
+     * @param   out             destination, not closed
+     * @param   names           pin names, null or short for D0, D1...
+     * @throws  IOException     capture could not be read or out written
+     */
+    public static void export(CaptureFile capture, Writer out, String[] names) throws IOException {
+        long rate = capture.getSampleRate();
+        if (rate <= 0) {
+            throw new IllegalStateException("Sample rate unknown");
+        }
+        int width = capture.getWidth();
+
+        if (capture.getTriggerSample() >= 0) {
+            out.write("$comment trigger at sample " + capture.getTriggerSample() + " $end\n");
+        }
+        out.write("$timescale 1 ns $end\n");
+        out.write("$scope module yad2xx $end\n");
+        for (int pin = 0; pin < width; pin++) {
+            String name = names != null && pin < names.length ? names[pin] : "D" + pin;
+            out.write("$var wire 1 " + identifier(pin) + " " + name + " $end\n");
+        }
+        out.write("$upscope $end\n");
+        out.write("$enddefinitions $end\n");
+
+        int[] last = { -1 };
+        capture.forEachRun((value, start, count) -> {
+            if (last[0] == value) {
+                return;
+            }
+            out.write("#" + toNanos(start, rate) + "\n");
+            if (last[0] < 0) {
+                out.write("$dumpvars\n");
+            }
+            for (int pin = 0; pin < width; pin++) {
+                int bit = 1 << pin;
+                if (last[0] < 0 || ((last[0] ^ value) & bit) != 0) {
+                    out.write(((value & bit) != 0 ? '1' : '0') + identifier(pin) + "\n");
+                }
+            }
+            if (last[0] < 0) {
+                out.write("$end\n");
+            }
+            last[0] = value;
+        });
+        out.write("#" + toNanos(capture.getSampleCount(), rate) + "\n");
+        out.flush();
+    }
+
+    /**
+     * One printable character per pin, starting at '!'.
+     */
+    private static String identifier(int pin) {
+        return String.valueOf((char) ('!' + pin));
+    }
+
+    /**
+     * Exact for any sample count, where sample * 1e9 alone would overflow.
+     */
+    private static long toNanos(long sample, long rate) {
+        return sample / rate * NANOS_PER_SECOND + sample % rate * NANOS_PER_SECOND / rate;
+    }
+}
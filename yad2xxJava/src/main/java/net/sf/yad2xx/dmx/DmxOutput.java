@@ -0,0 +1,483 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.dmx;
+
+import static net.sf.yad2xx.FTDIConstants.FT_BITS_8;
+import static net.sf.yad2xx.FTDIConstants.FT_FLOW_NONE;
+import static net.sf.yad2xx.FTDIConstants.FT_PARITY_NONE;
+import static net.sf.yad2xx.FTDIConstants.FT_PURGE_TX;
+import static net.sf.yad2xx.FTDIConstants.FT_STOP_BITS_2;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+import net.sf.yad2xx.Device;
+import net.sf.yad2xx.DeviceScheduler;
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * DMX512 transmitter for one universe on a UART capable {@link Device}
+ * wired to an RS-485 transceiver.
+ * <p>
+ * The universe is double buffered. Application threads write channels into
+ * a shared back buffer without taking locks, and each frame the sender
+ * copies it to a private front buffer which is then transmitted. A copy is
+ * only taken when no update is in progress, so a multi-channel
+ * {@link #setChannels(int, byte[], int, int)} (a 16 bit pan, an RGB
+ * triple) never goes out half applied; if writers are busy the previous
+ * front buffer is simply sent again. The back buffer is an
+ * {@link AtomicIntegerArray} so the copy cannot be reordered past the
+ * version check that validates it, which Java 8 offers no plain fence for.
+ * <p>
+ * Frames go out at a fixed rate from a daemon thread started by
+ * {@link #start()}, never faster than a frame of the current channel count
+ * takes to send. Deadlines are absolute, start time plus n periods, so
+ * sleep overshoot is corrected on the next frame instead of accumulating.
+ * A sender that falls more than a period behind skips the missed slots and
+ * counts them in {@link #getSkippedFrames()}. Applications driving many
+ * universes should instead share a few threads between them with
+ * {@link #schedule(DeviceScheduler)}.
+ * <p>
+ * BREAK, MARK after break and the data are produced by a single native
+ * call, see {@link Device#writeWithBreak(byte[], int, int, int, int)},
+ * which first waits for the previous frame to finish. RDM and
+ * other alternate start code packets can be slotted in between universe
+ * frames with {@link #queuePacket(byte[])}; receiving responses is left to
+ * the caller.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class DmxOutput implements AutoCloseable {
+
+    /**
+     * DMX512 line rate.
+     */
+    public static final int BAUD_RATE = 250000;
+
+    /**
+     * Start code plus 512 channels.
+     */
+    public static final int UNIVERSE_SIZE = 513;
+
+    /**
+     * Fewest channels per frame allowed by ANSI E1.11 without padding.
+     */
+    public static final int MIN_CHANNELS = 24;
+
+    /**
+     * Time to send one slot, 11 bits at 4 microseconds.
+     */
+    public static final int SLOT_MICROS = 44;
+
+    /**
+     * Fastest refresh rate accepted. A full universe takes about 22.8 ms to
+     * send with the default timing, so it only runs this fast with fewer
+     * channels, see {@link #getPeriodNanos()}.
+     */
+    public static final double MAX_REFRESH_RATE = 44.0;
+
+    public static final double DEFAULT_REFRESH_RATE = 40.0;
+
+    /**
+     * Recommended transmitted BREAK, the minimum is 92 microseconds.
+     */
+    public static final int DEFAULT_BREAK_MICROS = 176;
+
+    /**
+     * Recommended transmitted MARK after break, the minimum is 12
+     * microseconds.
+     */
+    public static final int DEFAULT_MAB_MICROS = 16;
+
+    public static final int NULL_START_CODE = 0x00;
+
+    /**
+     * Final part of each wait that is spun rather than parked, since
+     * parking can overshoot by a scheduler tick.
+     */
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+    /**
+     * Copy attempts per frame before the previous frame is resent.
+     */
+    private static final int COPY_ATTEMPTS = 3;
+
+    private final Device device;
+    private final AtomicIntegerArray back = new AtomicIntegerArray(UNIVERSE_SIZE);
+    private final byte[] front = new byte[UNIVERSE_SIZE];
+    private final byte[] scratch = new byte[UNIVERSE_SIZE];
+    private final AtomicInteger writers = new AtomicInteger();
+    private final AtomicInteger version = new AtomicInteger();
+    private final Queue<byte[]> packets = new ConcurrentLinkedQueue<>();
+    private int sentVersion = -1;
+    private volatile int channelCount = UNIVERSE_SIZE - 1;
+    private volatile int startCode = NULL_START_CODE;
+    private volatile int breakMicros = DEFAULT_BREAK_MICROS;
+    private volatile int mabMicros = DEFAULT_MAB_MICROS;
+    private volatile long periodNanos;
+    private volatile long frames;
+    private volatile long skipped;
+    private volatile long deferred;
+    private volatile FTDIException failure;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * @param   device          open UART capable device
+     */
+    public DmxOutput(Device device) {
+        if (device == null) {
+            throw new IllegalArgumentException("device must not be null");
+        }
+        this.device = device;
+        setRefreshRate(DEFAULT_REFRESH_RATE);
+    }
+
+    /**
+     * Sets 250 kbaud, 8 data bits, 2 stop bits, no parity and no flow
+     * control, and discards anything still queued for transmission.
+     *
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public void configure() throws FTDIException {
+        device.setBaudRate(BAUD_RATE);
+        device.setDataCharacteristics(FT_BITS_8, FT_STOP_BITS_2, FT_PARITY_NONE);
+        device.setFlowControl(FT_FLOW_NONE, (char) 0, (char) 0);
+        device.purge(FT_PURGE_TX);
+    }
+
+    /**
+     * @param   channel         1 to 512
+     * @return  last value written to the back buffer, 0 to 255
+     */
+    public int getChannel(int channel) {
+        checkChannels(channel, 1);
+        return back.get(channel) & 0xFF;
+    }
+
+    public int getChannelCount() {
+        return channelCount;
+    }
+
+    public Device getDevice() {
+        return device;
+    }
+
+    /**
+     * @return  error that stopped the sender, null if none
+     */
+    public FTDIException getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return  frames sent, including queued packets
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * @return  frames that resent stale data because writers were active
+     */
+    public long getDeferredCount() {
+        return deferred;
+    }
+
+    /**
+     * @return  frame period in nanoseconds, the refresh rate period or the
+     *          time a frame of the current channel count and break timing
+     *          takes on the line, whichever is longer
+     */
+    public long getPeriodNanos() {
+        long frameMicros = breakMicros + mabMicros + (long) (channelCount + 1) * SLOT_MICROS;
+        return Math.max(periodNanos, TimeUnit.MICROSECONDS.toNanos(frameMicros));
+    }
+
+    /**
+     * @return  frame slots missed because the sender was late
+     */
+    public long getSkippedFrames() {
+        return skipped;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Queues a complete packet, start code first, to be sent once in place
+     * of the next universe frame.
+     *
+     * @param   packet          start code and data, at most 513 bytes
+     */
+    public void queuePacket(byte[] packet) {
+        if (packet.length == 0 || packet.length > UNIVERSE_SIZE) {
+            throw new IllegalArgumentException("Invalid packet length: " + packet.length);
+        }
+        packets.add(packet.clone());
+    }
+
+    /**
+     * Sets the line timing of each frame.
+     *
+     * @param   breakMicros     BREAK duration, at least 92
+     * @param   mabMicros       MARK after break, at least 12
+     */
+    public void setBreakTiming(int breakMicros, int mabMicros) {
+        if (breakMicros < 92 || mabMicros < 12) {
+            throw new IllegalArgumentException("BREAK " + breakMicros + " or MAB " + mabMicros + " too short");
+        }
+        this.breakMicros = breakMicros;
+        this.mabMicros = mabMicros;
+    }
+
+    /**
+     * Writes one channel. Never blocks.
+     *
+     * @param   channel         1 to 512
+     * @param   value           0 to 255
+     */
+    public void setChannel(int channel, int value) {
+        checkChannels(channel, 1);
+        writers.incrementAndGet();
+        back.set(channel, (byte) value);
+        version.incrementAndGet();
+        writers.decrementAndGet();
+    }
+
+    /**
+     * Writes consecutive channels. The values appear in the same frame.
+     * Never blocks.
+     *
+     * @param   first           first channel, 1 to 512
+     * @param   values          channel values
+     * @param   offset          index of the first value
+     * @param   length          number of channels
+     */
+    public void setChannels(int first, byte[] values, int offset, int length) {
+        checkChannels(first, length);
+        if (offset < 0 || offset > values.length - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length);
+        }
+        writers.incrementAndGet();
+        for (int i = 0; i < length; i++) {
+            back.set(first + i, values[offset + i]);
+        }
+        version.incrementAndGet();
+        writers.decrementAndGet();
+    }
+
+    /**
+     * Sets the number of channels sent per frame. Fewer channels allow
+     * shorter frames and so faster refresh rates.
+     *
+     * @param   count           24 to 512
+     */
+    public void setChannelCount(int count) {
+        if (count < MIN_CHANNELS || count > UNIVERSE_SIZE - 1) {
+            throw new IllegalArgumentException("Invalid channel count: " + count);
+        }
+        channelCount = count;
+    }
+
+    /**
+     * @param   hz              frames per second, above 0 and at most
+     *                          {@link #MAX_REFRESH_RATE}
+     */
+    public void setRefreshRate(double hz) {
+        if (!(hz > 0 && hz <= MAX_REFRESH_RATE)) {
+            throw new IllegalArgumentException("Invalid refresh rate: " + hz);
+        }
+        periodNanos = Math.round(1e9 / hz);
+    }
+
+    /**
+     * @param   startCode       start code of universe frames, 0 for
+     *                          dimmer data
+     */
+    public void setStartCode(int startCode) {
+        if (startCode < 0 || startCode > 0xFF) {
+            throw new IllegalArgumentException("Invalid start code: " + startCode);
+        }
+        this.startCode = startCode;
+    }
+
+    /**
+     * Sends frames at the refresh rate from a shared scheduler, instead of
+     * {@link #start()}. Later changes to the refresh rate do not affect an
+     * existing registration.
+     *
+     * @param   scheduler       scheduler to register the device with
+     * @return  registration, for jitter statistics and cancellation
+     */
+    public synchronized DeviceScheduler.Registration schedule(DeviceScheduler scheduler) {
+        if (thread != null) {
+            throw new IllegalStateException("Already started");
+        }
+        return scheduler.schedule(device, getPeriodNanos(), TimeUnit.NANOSECONDS, d -> sendFrame());
+    }
+
+    /**
+     * Sends one frame now: a queued packet if there is one, otherwise the
+     * universe. Only one thread at a time may call this, {@link #start()}
+     * and {@link #schedule(DeviceScheduler)} ensure that.
+     *
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public void sendFrame() throws FTDIException {
+        byte[] packet = packets.poll();
+        if (packet != null) {
+            device.writeWithBreak(packet, packet.length, SLOT_MICROS, breakMicros, mabMicros);
+        } else {
+            int length = channelCount + 1;
+            if (!swap()) {
+                deferred++;
+            }
+            front[0] = (byte) startCode;
+            device.writeWithBreak(front, length, SLOT_MICROS, breakMicros, mabMicros);
+        }
+        frames++;
+    }
+
+    /**
+     * Starts sending frames at the refresh rate.
+     *
+     * @throws  IllegalStateException   device not open, or already started
+     */
+    public synchronized void start() {
+        if (!device.isOpen()) {
+            throw new IllegalStateException("Device not open");
+        }
+        if (thread != null) {
+            throw new IllegalStateException("Already started");
+        }
+
+        running = true;
+        thread = new Thread(this::run, "DMX " + device.getSerialNumber());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stops the sender after the frame in progress. The device is left open.
+     */
+    @Override
+    public synchronized void close() {
+        if (thread == null) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        thread = null;
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkChannels(int first, int count) {
+        if (first < 1 || count < 0 || first > UNIVERSE_SIZE - count) {
+            throw new IndexOutOfBoundsException("channel " + first + ", count " + count);
+        }
+    }
+
+    private void run() {
+        long deadline = System.nanoTime();
+        try {
+            while (running) {
+                sendFrame();
+
+                long period = getPeriodNanos();
+                deadline += period;
+                long late = System.nanoTime() - deadline;
+                if (late > period) {
+                    long missed = late / period;
+                    skipped += missed;
+                    deadline += missed * period;
+                }
+                sleepUntil(deadline);
+            }
+        } catch (FTDIException e) {
+            failure = e;
+        } finally {
+            running = false;
+        }
+    }
+
+    private void sleepUntil(long deadline) {
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Copies the back buffer to the front if it changed and no writer is
+     * part way through an update. The version is read before and after the
+     * copy, seqlock fashion, so a writer that came and went is also caught.
+     * Each element is a volatile read, so none can drift past the second
+     * check. The copy goes to a scratch buffer first, front is only
+     * overwritten once the copy is known to be consistent.
+     *
+     * @return  false if the front buffer had to be left stale
+     */
+    private boolean swap() {
+        for (int attempt = 0; attempt < COPY_ATTEMPTS; attempt++) {
+            int before = version.get();
+            if (before == sentVersion) {
+                return true;
+            }
+            if (writers.get() != 0) {
+                continue;
+            }
+            for (int i = 1; i < UNIVERSE_SIZE; i++) {
+                scratch[i] = (byte) back.get(i);
+            }
+            if (writers.get() == 0 && version.get() == before) {
+                System.arraycopy(scratch, 1, front, 1, UNIVERSE_SIZE - 1);
+                sentVersion = before;
+                return true;
+            }
+        }
+        return false;
+    }
+}
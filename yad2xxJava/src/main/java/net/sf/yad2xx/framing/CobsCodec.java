@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Consistent Overhead Byte Stuffing. The payload is encoded without zero
+ * bytes, in blocks of up to 254 bytes each led by a code byte, and each
+ * frame ends with a single 0x00. Overhead is at most one byte in 254.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class CobsCodec implements FrameCodec {
+
+    private static final byte DELIMITER = 0;
+    private static final int MAX_CODE = 0xFF;
+
+    @Override
+    public ByteBuffer decode(ByteBuffer in) throws MalformedFrameException {
+        for (;;) {
+            int start = in.position();
+            int end = Delimiters.indexOf(in, start, in.limit(), DELIMITER);
+            if (end < 0) {
+                return null;
+            }
+            in.position(end + 1);
+            if (end == start) {
+                continue;   // stray delimiter
+            }
+
+            // decode in place, the write index is always behind the read index
+            int r = start;
+            int w = start;
+            while (r < end) {
+                int code = in.get(r++) & 0xFF;
+                if (r + code - 1 > end) {
+                    throw new MalformedFrameException("COBS block overruns frame");
+                }
+                for (int i = 1; i < code; i++) {
+                    in.put(w++, in.get(r++));
+                }
+                if (code < MAX_CODE && r < end) {
+                    in.put(w++, (byte) 0);
+                }
+            }
+            return Delimiters.slice(in, start, w);
+        }
+    }
+
+    @Override
+    public void encode(ByteBuffer frame, ByteBuffer out) {
+        int codeIndex = out.position();
+        int code = 1;
+        out.put((byte) 0);
+
+        while (frame.hasRemaining()) {
+            byte b = frame.get();
+            if (b != 0) {
+                out.put(b);
+                code++;
+            }
+            if (b == 0 || code == MAX_CODE) {
+                out.put(codeIndex, (byte) code);
+                codeIndex = out.position();
+                code = 1;
+                out.put((byte) 0);
+            }
+        }
+        out.put(codeIndex, (byte) code);
+        out.put(DELIMITER);
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return length + length / (MAX_CODE - 1) + 2;
+    }
+}
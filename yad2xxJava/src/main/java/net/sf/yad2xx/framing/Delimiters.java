@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Delimiter search shared by the delimited codecs.
+ * <p>
+ * Bytes are tested eight at a time with the SWAR (SIMD within a register)
+ * zero byte test, so the JIT works on whole longs instead of single bytes.
+ * Frames are usually far longer than eight bytes, so most of a scan never
+ * touches individual bytes.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+final class Delimiters {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private Delimiters() {
+    }
+
+    /**
+     * Absolute index of the first occurrence of value in buffer, from
+     * inclusive, to exclusive. Position and limit are not used.
+     *
+     * @return                  index, -1 if not found
+     */
+    static int indexOf(ByteBuffer buffer, int from, int to, byte value) {
+        long pattern = (value & 0xFFL) * ONES;
+        int i = from;
+
+        // a hit may be a false positive above a real match, so the
+        // byte loop below confirms it
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long word = buffer.getLong(i) ^ pattern;
+            if (((word - ONES) & ~word & HIGHS) != 0) {
+                break;
+            }
+        }
+        for (; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the frame in [start, end) of buffer as a slice.
+     */
+    static ByteBuffer slice(ByteBuffer buffer, int start, int end) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(end).position(start);
+        return view.slice();
+    }
+}
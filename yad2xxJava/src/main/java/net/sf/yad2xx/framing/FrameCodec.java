@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes one framing scheme. Implementations are stateless
+ * and may be shared between threads.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public interface FrameCodec {
+
+    /**
+     * Extracts the next frame from the bytes between the position and limit
+     * of in. On success the position is moved past the frame. Codecs that
+     * escape their payload decode it in place, so the returned buffer is
+     * always a slice of in and is only valid until in is next modified.
+     *
+     * @param   in              received bytes
+     * @return                  decoded frame, null if in does not yet hold
+     *                          a complete frame
+     * @throws  MalformedFrameException the frame was invalid. It has been
+     *                          consumed, decoding can continue
+     */
+    ByteBuffer decode(ByteBuffer in) throws MalformedFrameException;
+
+    /**
+     * Appends one encoded frame to out, consuming frame.
+     *
+     * @param   frame           payload
+     * @param   out             destination, with at least
+     *                          {@link #maxEncodedLength(int)} bytes free
+     */
+    void encode(ByteBuffer frame, ByteBuffer out);
+
+    /**
+     * @param   length          payload length
+     * @return                  largest possible encoded length
+     */
+    int maxEncodedLength(int length);
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Splits a byte stream into frames.
+ * <p>
+ * Data is read from the source in large chunks into one direct buffer and
+ * frames are decoded in place, so {@link #next()} returns a slice of that
+ * buffer rather than a copy. For a device use a
+ * {@link net.sf.yad2xx.DeviceChannel}, which reads everything the chip has
+ * queued in a single call.
+ * <p>
+ * If the buffer fills without a complete frame its contents are discarded
+ * and counted by {@link #getDiscardedBytes()}, delimited codecs then
+ * resynchronise at the next delimiter. Not thread safe.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class FrameDecoder {
+
+    /**
+     * Buffer size used by {@link #FrameDecoder(ReadableByteChannel, FrameCodec)},
+     * the longest encoded frame that can be received.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel source;
+    private final FrameCodec codec;
+
+    /**
+     * Unread bytes are between position and limit.
+     */
+    private final ByteBuffer buffer;
+
+    private long frameCount;
+    private long malformedCount;
+    private long discardedBytes;
+
+    public FrameDecoder(ReadableByteChannel source, FrameCodec codec) {
+        this(source, codec, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param   source          stream to decode
+     * @param   codec           framing scheme
+     * @param   bufferSize      longest encoded frame that can be received
+     */
+    public FrameDecoder(ReadableByteChannel source, FrameCodec codec, int bufferSize) {
+        if (source == null || codec == null) {
+            throw new IllegalArgumentException("source and codec must not be null");
+        }
+        this.source = source;
+        this.codec = codec;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Returns the next frame, reading from the source as needed. Malformed
+     * frames are skipped and counted.
+     *
+     * @return                  frame, valid until the next call. null at
+     *                          the end of the stream
+     * @throws  IOException     source failed
+     */
+    public ByteBuffer next() throws IOException {
+        for (;;) {
+            try {
+                ByteBuffer frame = codec.decode(buffer);
+                if (frame != null) {
+                    frameCount++;
+                    return frame;
+                }
+            } catch (MalformedFrameException e) {
+                malformedCount++;
+                continue;
+            }
+
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                discardedBytes += buffer.remaining();
+                buffer.clear();
+            } else {
+                buffer.compact();
+            }
+            int count = source.read(buffer);
+            buffer.flip();
+            if (count < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return                  bytes thrown away because no frame fitted
+     *                          the buffer
+     */
+    public long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    /**
+     * @return                  frames returned so far
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return                  invalid frames skipped so far
+     */
+    public long getMalformedCount() {
+        return malformedCount;
+    }
+}
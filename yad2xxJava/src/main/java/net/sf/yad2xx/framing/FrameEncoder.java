@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encodes frames into one direct buffer and writes them in batches, so
+ * many small frames cost one write to the sink, and with a
+ * {@link net.sf.yad2xx.DeviceChannel} one FT_Write. The buffer is flushed
+ * automatically when the next frame would not fit. Not thread safe.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class FrameEncoder implements Flushable {
+
+    /**
+     * Buffer size used by {@link #FrameEncoder(WritableByteChannel, FrameCodec)}.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel sink;
+    private final FrameCodec codec;
+    private final ByteBuffer buffer;
+    private int pendingFrames;
+
+    public FrameEncoder(WritableByteChannel sink, FrameCodec codec) {
+        this(sink, codec, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param   sink            destination
+     * @param   codec           framing scheme
+     * @param   bufferSize      batch size in bytes, also the longest
+     *                          encoded frame
+     */
+    public FrameEncoder(WritableByteChannel sink, FrameCodec codec, int bufferSize) {
+        if (sink == null || codec == null) {
+            throw new IllegalArgumentException("sink and codec must not be null");
+        }
+        this.sink = sink;
+        this.codec = codec;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Encodes a frame into the batch, consuming it.
+     *
+     * @param   frame           payload
+     * @throws  IOException     an automatic flush failed
+     * @throws  IllegalArgumentException    frame can never fit the buffer
+     */
+    public void add(ByteBuffer frame) throws IOException {
+        int needed = codec.maxEncodedLength(frame.remaining());
+        if (needed > buffer.capacity()) {
+            throw new IllegalArgumentException("Frame too large for buffer: " + frame.remaining());
+        }
+        if (needed > buffer.remaining()) {
+            flush();
+        }
+        codec.encode(frame, buffer);
+        pendingFrames++;
+    }
+
+    public void add(byte[] frame, int offset, int length) throws IOException {
+        add(ByteBuffer.wrap(frame, offset, length));
+    }
+
+    /**
+     * @return                  frames encoded but not yet written
+     */
+    public int getPendingFrames() {
+        return pendingFrames;
+    }
+
+    /**
+     * Writes every pending frame.
+     *
+     * @throws  IOException     sink failed, unwritten bytes are kept
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                sink.write(buffer);
+            }
+            pendingFrames = 0;
+        } finally {
+            buffer.compact();
+        }
+    }
+}
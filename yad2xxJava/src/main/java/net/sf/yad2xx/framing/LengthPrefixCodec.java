@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frames led by a big endian length of 1, 2 or 4 bytes. The payload is not
+ * escaped, so decoded frames are plain slices of the input.
+ * <p>
+ * A length above the configured maximum means the stream is out of step.
+ * Only the header is skipped, the stream cannot be resynchronised by this
+ * codec.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class LengthPrefixCodec implements FrameCodec {
+
+    private final int headerBytes;
+    private final int maxLength;
+
+    /**
+     * @param   headerBytes     size of the length field, 1, 2 or 4
+     * @param   maxLength       longest payload accepted
+     */
+    public LengthPrefixCodec(int headerBytes, int maxLength) {
+        if (headerBytes != 1 && headerBytes != 2 && headerBytes != 4) {
+            throw new IllegalArgumentException("Invalid header size: " + headerBytes);
+        }
+        long fieldMax = headerBytes == 4 ? Integer.MAX_VALUE : (1L << (8 * headerBytes)) - 1;
+        if (maxLength < 0 || maxLength > fieldMax) {
+            throw new IllegalArgumentException("Invalid maximum length: " + maxLength);
+        }
+        this.headerBytes = headerBytes;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public ByteBuffer decode(ByteBuffer in) throws MalformedFrameException {
+        int start = in.position();
+        if (in.limit() - start < headerBytes) {
+            return null;
+        }
+
+        // byte by byte, so the buffer's byte order does not matter
+        int length = 0;
+        for (int i = 0; i < headerBytes; i++) {
+            length = (length << 8) | (in.get(start + i) & 0xFF);
+        }
+
+        if (length < 0 || length > maxLength) {
+            in.position(start + headerBytes);
+            throw new MalformedFrameException("Frame length " + length + " exceeds " + maxLength);
+        }
+
+        int end = start + headerBytes + length;
+        if (end > in.limit()) {
+            return null;
+        }
+        in.position(end);
+        return Delimiters.slice(in, start + headerBytes, end);
+    }
+
+    @Override
+    public void encode(ByteBuffer frame, ByteBuffer out) {
+        int length = frame.remaining();
+        if (length > maxLength) {
+            throw new IllegalArgumentException("Frame length " + length + " exceeds " + maxLength);
+        }
+        for (int i = headerBytes - 1; i >= 0; i--) {
+            out.put((byte) (length >>> (8 * i)));
+        }
+        out.put(frame);
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return headerBytes + length;
+    }
+}
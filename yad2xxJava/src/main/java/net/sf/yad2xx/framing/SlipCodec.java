@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Serial Line Internet Protocol framing, RFC 1055. Frames end with END
+ * (0xC0), END and ESC (0xDB) in the payload are escaped. Encoded frames
+ * also start with END to flush any line noise, which the decoder skips as
+ * an empty frame.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class SlipCodec implements FrameCodec {
+
+    public static final byte END = (byte) 0xC0;
+    public static final byte ESC = (byte) 0xDB;
+    public static final byte ESC_END = (byte) 0xDC;
+    public static final byte ESC_ESC = (byte) 0xDD;
+
+    @Override
+    public ByteBuffer decode(ByteBuffer in) throws MalformedFrameException {
+        for (;;) {
+            int start = in.position();
+            int end = Delimiters.indexOf(in, start, in.limit(), END);
+            if (end < 0) {
+                return null;
+            }
+            in.position(end + 1);
+            if (end == start) {
+                continue;   // empty frame between two ENDs
+            }
+
+            // unescape in place, the write index never passes the read index
+            int w = start;
+            for (int r = start; r < end; r++) {
+                byte b = in.get(r);
+                if (b == ESC) {
+                    if (++r == end) {
+                        throw new MalformedFrameException("SLIP frame ends in ESC");
+                    }
+                    b = in.get(r);
+                    if (b == ESC_END) {
+                        b = END;
+                    } else if (b == ESC_ESC) {
+                        b = ESC;
+                    } else {
+                        throw new MalformedFrameException("Invalid SLIP escape");
+                    }
+                }
+                in.put(w++, b);
+            }
+            return Delimiters.slice(in, start, w);
+        }
+    }
+
+    @Override
+    public void encode(ByteBuffer frame, ByteBuffer out) {
+        out.put(END);
+        while (frame.hasRemaining()) {
+            byte b = frame.get();
+            if (b == END) {
+                out.put(ESC).put(ESC_END);
+            } else if (b == ESC) {
+                out.put(ESC).put(ESC_ESC);
+            } else {
+                out.put(b);
+            }
+        }
+        out.put(END);
+    }
+
+    @Override
+    public int maxEncodedLength(int length) {
+        return 2 * length + 2;
+    }
+}
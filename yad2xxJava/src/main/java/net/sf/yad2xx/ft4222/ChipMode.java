@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx.ft4222;
+
+import static net.sf.yad2xx.ft4222.InterfaceRole.DATA;
+import static net.sf.yad2xx.ft4222.InterfaceRole.GPIO;
+import static net.sf.yad2xx.ft4222.InterfaceRole.SPI_MASTER;
+
+import net.sf.yad2xx.DeviceType;
+
+/**
+ * FT4222H chip modes, selected by the DCNF0 and DCNF1 pins. The mode sets how
+ * many USB interfaces the chip exposes and what each can do, see the FT4222H
+ * datasheet.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public enum ChipMode {
+
+    MODE_0(DATA, GPIO),
+    MODE_1(SPI_MASTER, SPI_MASTER, SPI_MASTER, GPIO),
+    MODE_2(SPI_MASTER, SPI_MASTER, SPI_MASTER, SPI_MASTER),
+    MODE_3(DATA);
+
+    private final InterfaceRole[] roles;
+
+    private ChipMode(InterfaceRole... roles) {
+        this.roles = roles;
+    }
+
+    public int getInterfaceCount() {
+        return roles.length;
+    }
+
+    /**
+     * @param index
+     *            interface, 0 for A
+     * @return role of the interface
+     */
+    public InterfaceRole getRole(int index) {
+        return roles[index];
+    }
+
+    /**
+     * Modes 1 and 2 report the same device type. Mode 1 is assumed, as it
+     * is the only one of the two with GPIO.
+     *
+     * @param type
+     *            type reported by D2XX
+     * @return likely chip mode, null if type is not an FT4222H interface
+     */
+    public static ChipMode byDeviceType(DeviceType type) {
+        switch (type) {
+        case FT_DEVICE_4222H_0:
+            return MODE_0;
+        case FT_DEVICE_4222H_1_2:
+            return MODE_1;
+        case FT_DEVICE_4222H_3:
+            return MODE_3;
+        default:
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx.ft4222;
+
+/**
+ * A trigger condition recorded on an FT4222H GPIO input.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public class GpioEvent {
+
+    private final GpioPort port;
+    private final GpioTrigger trigger;
+    private final long timestamp;
+
+    /**
+     * @param port
+     *            port the condition occurred on
+     * @param trigger
+     *            condition recorded
+     * @param timestamp
+     *            System.nanoTime() when the event reached the host
+     */
+    public GpioEvent(GpioPort port, GpioTrigger trigger, long timestamp) {
+        this.port = port;
+        this.trigger = trigger;
+        this.timestamp = timestamp;
+    }
+
+    public GpioPort getPort() {
+        return port;
+    }
+
+    public GpioTrigger getTrigger() {
+        return trigger;
+    }
+
+    /**
+     * The chip does not timestamp events, so all events delivered in the
+     * same batch share the time they were read from the device.
+     *
+     * @return System.nanoTime() when the event reached the host
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return port + " " + trigger;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx.ft4222;
+
+import java.util.List;
+
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * Receives batches of GPIO trigger events from a
+ * {@link net.sf.yad2xx.GpioEventService}. Called on the service thread,
+ * implementations should return quickly.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public interface GpioListener {
+
+    /**
+     * @param events
+     *            events drained from the device queues, in queue order
+     *            for each port
+     */
+    void triggered(List<GpioEvent> events);
+
+    /**
+     * Called once if the service stops because the device failed.
+     *
+     * @param e
+     *            cause
+     */
+    default void failed(FTDIException e) {
+    }
+}
@@ -47,4 +47,22 @@ public enum GpioTrigger {
     public int getValue() {
         return value;
     }
+
+    /**
+     * Convert API value to its Java enum equivalent.
+     *
+     * @param value
+     *            single trigger bit returned by C api
+     * @return matching Java enum value
+     * @throws IllegalArgumentException
+     *             value is not a single trigger
+     */
+    public static GpioTrigger byValue(int value) {
+        for (GpioTrigger trigger : values()) {
+            if (trigger.value == value) {
+                return trigger;
+            }
+        }
+        throw new IllegalArgumentException("Unknown GPIO trigger: " + value);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx.ft4222;
+
+/**
+ * Enum values taken from libft4222.h. Originally I2C_MasterFlag. Selects
+ * the bus conditions generated around an extended I2C master transfer.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public enum I2cMasterFlag {
+
+    /**
+     * No START or STOP, continues the current transaction.
+     */
+    NONE(0x80),
+
+    /**
+     * START condition before the transfer.
+     */
+    START(0x02),
+
+    /**
+     * Repeated START, the bus is held between two transfers. Does not send
+     * the master code in HS mode.
+     */
+    REPEATED_START(0x03),
+
+    /**
+     * STOP condition after the transfer.
+     */
+    STOP(0x04),
+
+    /**
+     * START condition, transfer, then STOP condition.
+     */
+    START_AND_STOP(0x06),
+
+    /**
+     * Repeated START, transfer, then STOP. The usual second half of a
+     * register read.
+     */
+    REPEATED_START_AND_STOP(0x07);
+
+    /**
+     * Flag value.
+     */
+    private final int value;
+
+    I2cMasterFlag(int value) {
+        this.value = value;
+    }
+
+    /**
+     * @return flag value
+     */
+    public int getValue() {
+        return value;
+    }
+}
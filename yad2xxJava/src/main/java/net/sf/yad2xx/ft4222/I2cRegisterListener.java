@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx.ft4222;
+
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * Told when the I2C master writes to an emulated register file. Called on
+ * the emulator thread after the registers have been updated, implementations
+ * should return quickly.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public interface I2cRegisterListener {
+
+    /**
+     * @param first
+     *            index of the first register written
+     * @param count
+     *            number of registers written, the range wraps at the end
+     *            of the file
+     */
+    void registersWritten(int first, int count);
+
+    /**
+     * Called once if the emulator stops because the device failed.
+     *
+     * @param e
+     *            cause
+     */
+    default void failed(FTDIException e) {
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx.ft4222;
+
+/**
+ * What an FT4222H USB interface can be used for.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public enum InterfaceRole {
+
+    /**
+     * SPI master, SPI slave, I2C master or I2C slave.
+     */
+    DATA,
+
+    /**
+     * SPI master only, one slave select each.
+     */
+    SPI_MASTER,
+
+    /**
+     * GPIO ports 0 to 3.
+     */
+    GPIO;
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package net.sf.yad2xx.ft4222;
+
+import java.nio.ByteBuffer;
+
+import net.sf.yad2xx.FT4222Device;
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * Reads a serial NOR flash through the FT4222H SPI master using the fast
+ * read command family. In dual and quad mode the opcode, address and dummy
+ * byte are sent on a single line and the data phase uses two or four lines
+ * (1-1-2 and 1-1-4 transfers), via
+ * {@link FT4222Device#spiMasterMultiReadWrite(ByteBuffer, ByteBuffer, int)}.
+ * <p>
+ * Regions of any size are read in chunks of
+ * {@link FT4222Device#getMaxTransferSize()} bytes straight into the caller's
+ * buffer. When the buffer is direct no intermediate copy is made.
+ * <p>
+ * Quad output reads require the flash's Quad Enable (QE) status bit to be
+ * set. This class does not set it because the bit location varies between
+ * manufacturers.
+ * <p>
+ * The FT4222H must already have been initialised with
+ * {@link FT4222Device#spiMasterInit(SpiMode, SpiClock, SpiCPolarity, SpiCPhase, int)}.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public class QuadSpiFlash {
+
+    /**
+     * Fast read, 1-1-1, 3 byte address.
+     */
+    public static final int FAST_READ = 0x0B;
+
+    /**
+     * Fast read, 1-1-1, 4 byte address.
+     */
+    public static final int FAST_READ_4B = 0x0C;
+
+    /**
+     * Dual output fast read, 1-1-2, 3 byte address.
+     */
+    public static final int DUAL_OUTPUT_READ = 0x3B;
+
+    /**
+     * Dual output fast read, 1-1-2, 4 byte address.
+     */
+    public static final int DUAL_OUTPUT_READ_4B = 0x3C;
+
+    /**
+     * Quad output fast read, 1-1-4, 3 byte address.
+     */
+    public static final int QUAD_OUTPUT_READ = 0x6B;
+
+    /**
+     * Quad output fast read, 1-1-4, 4 byte address.
+     */
+    public static final int QUAD_OUTPUT_READ_4B = 0x6C;
+
+    /**
+     * All fast read variants above use eight dummy clocks.
+     */
+    private static final int DUMMY_BYTES = 1;
+
+    private final FT4222Device device;
+    private final SpiMode lines;
+    private final int addressBytes;
+    private final int opcode;
+    private final ByteBuffer command;
+
+    /**
+     * @param device
+     *            FT4222H initialised as SPI master
+     * @param lines
+     *            data phase width, SPI_IO_SINGLE, SPI_IO_DUAL or SPI_IO_QUAD
+     * @param fourByteAddress
+     *            true to use the 4 byte address commands needed above 16MB
+     */
+    public QuadSpiFlash(FT4222Device device, SpiMode lines, boolean fourByteAddress) {
+        if (device == null) {
+            throw new IllegalArgumentException("device must not be null");
+        }
+        this.device = device;
+        this.lines = lines;
+        this.addressBytes = fourByteAddress ? 4 : 3;
+
+        switch (lines) {
+        case SPI_IO_SINGLE:
+            opcode = fourByteAddress ? FAST_READ_4B : FAST_READ;
+            break;
+        case SPI_IO_DUAL:
+            opcode = fourByteAddress ? DUAL_OUTPUT_READ_4B : DUAL_OUTPUT_READ;
+            break;
+        case SPI_IO_QUAD:
+            opcode = fourByteAddress ? QUAD_OUTPUT_READ_4B : QUAD_OUTPUT_READ;
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported line mode: " + lines);
+        }
+
+        this.command = ByteBuffer.allocateDirect(1 + addressBytes + DUMMY_BYTES);
+    }
+
+    public SpiMode getLines() {
+        return lines;
+    }
+
+    /**
+     * @return read command opcode in use
+     */
+    public int getOpcode() {
+        return opcode;
+    }
+
+    /**
+     * Fills the remaining space in dest with flash contents starting at
+     * address. The buffer position is advanced by the number of bytes read.
+     *
+     * @param address
+     *            flash byte address
+     * @param dest
+     *            buffer to fill, direct buffers avoid a copy
+     * @return number of bytes read
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     */
+    public int read(long address, ByteBuffer dest) throws FTDIException {
+        int length = dest.remaining();
+        long limit = 1L << (8 * addressBytes);
+        if (address < 0 || address + length > limit) {
+            throw new IllegalArgumentException("Region beyond " + addressBytes + " byte address range");
+        }
+        if (dest.isReadOnly()) {
+            throw new IllegalArgumentException("dest is read only");
+        }
+
+        device.spiMasterSetLines(lines);
+        int chunk = Math.min(device.getMaxTransferSize(), FT4222Device.MAX_TRANSFER_LENGTH);
+
+        while (dest.hasRemaining()) {
+            ByteBuffer slice = dest.duplicate();
+            slice.limit(slice.position() + Math.min(chunk, dest.remaining()));
+            int count = readChunk(address, slice);
+            dest.position(dest.position() + count);
+            address += count;
+        }
+
+        return length;
+    }
+
+    /**
+     * Reads len bytes of flash contents starting at address.
+     *
+     * @param address
+     *            flash byte address
+     * @param buffer
+     *            destination
+     * @param offset
+     *            index of first byte to fill
+     * @param length
+     *            number of bytes to read
+     * @return number of bytes read
+     * @throws FTDIException
+     *             API call failed, see exception fields for details.
+     */
+    public int read(long address, byte[] buffer, int offset, int length) throws FTDIException {
+        return read(address, ByteBuffer.wrap(buffer, offset, length));
+    }
+
+    private int readChunk(long address, ByteBuffer slice) throws FTDIException {
+        int length = slice.remaining();
+
+        command.clear();
+        command.put((byte) opcode);
+        for (int i = addressBytes - 1; i >= 0; i--) {
+            command.put((byte) (address >>> (8 * i)));
+        }
+        for (int i = 0; i < DUMMY_BYTES; i++) {
+            command.put((byte) 0);
+        }
+        command.flip();
+
+        if (lines == SpiMode.SPI_IO_SINGLE) {
+            device.spiMasterSingleWrite(command, false);
+            device.spiMasterSingleRead(slice, true);
+        } else {
+            device.spiMasterMultiReadWrite(slice, command, command.remaining());
+        }
+
+        if (slice.hasRemaining()) {
+            throw new IllegalStateException("Short read at address 0x" + Long.toHexString(address));
+        }
+        return length;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+/**
+ * One cell of a boundary scan register, as described by the BSDL
+ * BOUNDARY_REGISTER attribute:
+ * <pre>
+ * num (cell, port, function, safe [, ccell, disval, rslt])
+ * </pre>
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class BoundaryCell {
+
+    /**
+     * Cell functions defined by IEEE 1149.1.
+     */
+    public enum Function {
+        INPUT,
+        CLOCK,
+        OUTPUT2,
+        OUTPUT3,
+        CONTROL,
+        CONTROLR,
+        INTERNAL,
+        BIDIR,
+        OBSERVE_ONLY;
+
+        /**
+         * @return                  true if the cell captures the value on
+         *                          its pin
+         */
+        public boolean isCapture() {
+            return this == INPUT || this == CLOCK || this == BIDIR || this == OBSERVE_ONLY;
+        }
+    }
+
+    private final int number;
+    private final String cellType;
+    private final String port;
+    private final Function function;
+    private final char safe;
+    private final int controlCell;
+    private final int disableValue;
+
+    BoundaryCell(int number, String cellType, String port, Function function, char safe,
+            int controlCell, int disableValue) {
+        this.number = number;
+        this.cellType = cellType;
+        this.port = port;
+        this.function = function;
+        this.safe = safe;
+        this.controlCell = controlCell;
+        this.disableValue = disableValue;
+    }
+
+    /**
+     * @return                  cell number, 0 being nearest TDO
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * @return                  cell type, e.g. BC_1
+     */
+    public String getCellType() {
+        return cellType;
+    }
+
+    /**
+     * @return                  port name, "*" for internal cells
+     */
+    public String getPort() {
+        return port;
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    /**
+     * @return                  safe value '0', '1' or 'X'
+     */
+    public char getSafe() {
+        return safe;
+    }
+
+    /**
+     * @return                  number of the cell controlling this outputs
+     *                          driver, -1 if none
+     */
+    public int getControlCell() {
+        return controlCell;
+    }
+
+    /**
+     * @return                  value of the control cell that disables the
+     *                          driver, -1 if none
+     */
+    public int getDisableValue() {
+        return disableValue;
+    }
+
+    @Override
+    public String toString() {
+        return number + " (" + cellType + ", " + port + ", " + function + ", " + safe + ")";
+    }
+}
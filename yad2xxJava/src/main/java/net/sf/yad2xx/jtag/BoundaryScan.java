@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * Continuously samples the boundary register of a single device JTAG chain.
+ * <p>
+ * Scans are queued in batches and sent to the MPSSE as a single block so the
+ * sample rate is limited by TCK and USB bandwidth rather than by a USB round
+ * trip per sample. Typical usage:
+ * <pre>
+ * BoundaryScan scan = new BoundaryScan(jtag, Bsdl.parse(in));
+ * scan.sample(1000, snapshot -&gt; System.out.println(snapshot.get("PA0")));
+ * </pre>
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class BoundaryScan {
+
+    public enum Mode {
+        /**
+         * Observe pins without disturbing normal operation.
+         */
+        SAMPLE,
+
+        /**
+         * Drive output pins from the boundary register. The device is
+         * disconnected from its pins while in this mode.
+         */
+        EXTEST
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final Jtag jtag;
+    private final Bsdl bsdl;
+
+    /**
+     * Pattern shifted into the boundary register on each scan.
+     */
+    private final byte[] drive;
+
+    private int batchSize;
+    private volatile boolean running;
+    private volatile double samplesPerSecond;
+
+    /**
+     * Boundary scan over an already opened JTAG interface. The drive pattern
+     * is initialised to the BSDL safe values.
+     *
+     * @param   jtag            opened JTAG interface
+     * @param   bsdl            description of the only device in the chain
+     */
+    public BoundaryScan(Jtag jtag, Bsdl bsdl) {
+        this.jtag = jtag;
+        this.bsdl = bsdl;
+        this.drive = new byte[(bsdl.getBoundaryLength() + 7) / 8];
+        this.batchSize = DEFAULT_BATCH_SIZE;
+
+        for (BoundaryCell cell : bsdl.getCells()) {
+            if (cell.getSafe() == '1') {
+                setCell(cell.getNumber(), true);
+            }
+        }
+    }
+
+    /**
+     * @return                  number of samples per USB transfer
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return                  capture rate measured over the last batch
+     */
+    public double getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    /**
+     * @return                  true while {@link #run(Mode, long, BoundaryScanListener)}
+     *                          is capturing
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Captures samples, delivering each to the listener, until count samples
+     * have been taken or {@link #stop()} is called. Blocks the caller.
+     *
+     * @param   mode            SAMPLE or EXTEST
+     * @param   count           number of samples, negative for unlimited
+     * @param   listener        receives each sample
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public void run(Mode mode, long count, BoundaryScanListener listener) throws FTDIException {
+        int length = bsdl.getBoundaryLength();
+
+        // set before setup so a stop() during setup is not lost
+        running = true;
+        try {
+            // PRELOAD shares its opcode with SAMPLE on most parts
+            jtag.scanIR(bsdl.getInstructionLength(), bsdl.getOpcode("SAMPLE"));
+            if (mode == Mode.EXTEST) {
+                jtag.scanDR(length, drive);
+                jtag.scanIR(bsdl.getInstructionLength(), bsdl.getOpcode("EXTEST"));
+            }
+            if (!running) {
+                return;
+            }
+
+            ScanResult[] batch = new ScanResult[batchSize];
+            long sequence = 0;
+            long last = System.nanoTime();
+
+            while (running && (count < 0 || sequence < count)) {
+                int n = count < 0 ? batchSize : (int) Math.min(batchSize, count - sequence);
+
+                for (int i = 0; i < n; i++) {
+                    batch[i] = jtag.queueScanDR(length, drive);
+                }
+                jtag.flush();
+
+                long now = System.nanoTime();
+                samplesPerSecond = n * 1e9 / Math.max(1, now - last);
+                last = now;
+
+                for (int i = 0; i < n; i++) {
+                    listener.sampled(new BoundarySnapshot(bsdl, sequence++, now,
+                            batch[i].getData(), samplesPerSecond));
+                    batch[i] = null;
+                }
+            }
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Shorthand for {@link #run(Mode, long, BoundaryScanListener)} in SAMPLE
+     * mode.
+     *
+     * @param   count           number of samples, negative for unlimited
+     * @param   listener        receives each sample
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public void sample(long count, BoundaryScanListener listener) throws FTDIException {
+        run(Mode.SAMPLE, count, listener);
+    }
+
+    /**
+     * Larger batches give higher throughput at the cost of latency.
+     *
+     * @param   batchSize       number of samples per USB transfer
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the value shifted into a boundary register cell. Takes effect on
+     * the next batch. Call between runs or from the listener.
+     *
+     * @param   cell            cell number
+     * @param   value           new value
+     */
+    public void setCell(int cell, boolean value) {
+        if (cell < 0 || cell >= bsdl.getBoundaryLength()) {
+            throw new IndexOutOfBoundsException("Cell " + cell);
+        }
+        if (value) {
+            drive[cell / 8] |= 1 << (cell % 8);
+        } else {
+            drive[cell / 8] &= ~(1 << (cell % 8));
+        }
+    }
+
+    /**
+     * Requests a running capture to finish at the end of the current batch.
+     * May be called from any thread.
+     */
+    public void stop() {
+        running = false;
+    }
+}
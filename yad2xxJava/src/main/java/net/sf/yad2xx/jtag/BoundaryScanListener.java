@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+/**
+ * Receives boundary register samples from a {@link BoundaryScan}. Called on
+ * the scanning thread, once per sample, in capture order. Implementations
+ * should return quickly as the next batch is not started until all samples
+ * in the current batch have been delivered.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public interface BoundaryScanListener {
+
+    /**
+     * @param   snapshot        captured boundary register
+     */
+    void sampled(BoundarySnapshot snapshot);
+}
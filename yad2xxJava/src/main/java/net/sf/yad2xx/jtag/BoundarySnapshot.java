@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+/**
+ * One capture of a devices boundary register.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class BoundarySnapshot {
+
+    private final Bsdl bsdl;
+    private final long sequence;
+    private final long timestamp;
+    private final byte[] data;
+    private final double samplesPerSecond;
+
+    BoundarySnapshot(Bsdl bsdl, long sequence, long timestamp, byte[] data, double samplesPerSecond) {
+        this.bsdl = bsdl;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.data = data;
+        this.samplesPerSecond = samplesPerSecond;
+    }
+
+    /**
+     * Value of a single boundary register cell.
+     *
+     * @param   cell            cell number
+     * @return                  captured value
+     */
+    public boolean get(int cell) {
+        if (cell < 0 || cell >= bsdl.getBoundaryLength()) {
+            throw new IndexOutOfBoundsException("Cell " + cell);
+        }
+        return (data[cell / 8] & (1 << (cell % 8))) != 0;
+    }
+
+    /**
+     * Value of a named pin, see {@link Bsdl#getCell(String)}.
+     *
+     * @param   port            port name, case insensitive
+     * @return                  captured value
+     * @throws  IllegalArgumentException    unknown port
+     */
+    public boolean get(String port) {
+        BoundaryCell cell = bsdl.getCell(port);
+        if (cell == null) {
+            throw new IllegalArgumentException("Unknown port " + port);
+        }
+        return get(cell.getNumber());
+    }
+
+    /**
+     * @return                  raw boundary register, cell 0 is bit 0 of
+     *                          byte 0
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Capture rate measured over the batch containing this sample.
+     *
+     * @return                  samples per second
+     */
+    public double getSamplesPerSecond() {
+        return samplesPerSecond;
+    }
+
+    /**
+     * @return                  sample number, starting at 0 for each run
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return                  {@link System#nanoTime()} at which the batch
+     *                          containing this sample was read back
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
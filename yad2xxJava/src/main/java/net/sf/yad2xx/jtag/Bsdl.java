@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The subset of a BSDL (IEEE 1149.1 Boundary Scan Description Language)
+ * file needed to drive a boundary scan: instruction register length and
+ * opcodes, plus the boundary register layout. Package and pin map
+ * attributes are ignored.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class Bsdl {
+
+    private static final Pattern ENTITY =
+            Pattern.compile("\\bentity\\s+(\\w+)\\s+is\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ATTRIBUTE =
+            Pattern.compile("\\battribute\\s+(\\w+)\\s+of\\s+\\w+\\s*:\\s*entity\\s+is\\s+([^;]*);",
+                    Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern STRING = Pattern.compile("\"([^\"]*)\"");
+
+    private static final Pattern OPCODE = Pattern.compile("(\\w+)\\s*\\(([^)]*)\\)");
+
+    private final String entity;
+    private final int instructionLength;
+    private final Map<String, List<String>> opcodes;
+    private final List<BoundaryCell> cells;
+    private final Map<String, BoundaryCell> captureCells;
+
+    private Bsdl(String entity, int instructionLength, Map<String, List<String>> opcodes,
+            List<BoundaryCell> cells) {
+        this.entity = entity;
+        this.instructionLength = instructionLength;
+        this.opcodes = opcodes;
+        this.cells = cells;
+        this.captureCells = new HashMap<>();
+
+        for (BoundaryCell cell : cells) {
+            if (cell.getFunction().isCapture()) {
+                captureCells.put(cell.getPort().toUpperCase(), cell);
+            }
+        }
+        // output only ports report the value being driven
+        for (BoundaryCell cell : cells) {
+            if (!"*".equals(cell.getPort())) {
+                captureCells.putIfAbsent(cell.getPort().toUpperCase(), cell);
+            }
+        }
+    }
+
+    /**
+     * Parses a BSDL file.
+     *
+     * @param   in              BSDL source, assumed to be ASCII
+     * @return                  parsed description
+     * @throws  IOException     error reading source
+     * @throws  IllegalArgumentException    source is missing a required
+     *                          attribute or is malformed
+     */
+    public static Bsdl parse(InputStream in) throws IOException {
+        return parse(new InputStreamReader(in, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Parses a BSDL file.
+     *
+     * @param   in              BSDL source
+     * @return                  parsed description
+     * @throws  IOException     error reading source
+     * @throws  IllegalArgumentException    source is missing a required
+     *                          attribute or is malformed
+     */
+    public static Bsdl parse(Reader in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[4096];
+        int count;
+        while ((count = in.read(buf)) > 0) {
+            sb.append(buf, 0, count);
+        }
+        return parse(sb.toString());
+    }
+
+    /**
+     * Parses BSDL source text.
+     *
+     * @param   source          BSDL source
+     * @return                  parsed description
+     * @throws  IllegalArgumentException    source is missing a required
+     *                          attribute or is malformed
+     */
+    public static Bsdl parse(String source) {
+        String text = stripComments(source);
+
+        Matcher m = ENTITY.matcher(text);
+        String entity = m.find() ? m.group(1) : null;
+
+        Map<String, String> attributes = new HashMap<>();
+        m = ATTRIBUTE.matcher(text);
+        while (m.find()) {
+            attributes.put(m.group(1).toUpperCase(), m.group(2).trim());
+        }
+
+        int irLength = Integer.parseInt(required(attributes, "INSTRUCTION_LENGTH"));
+
+        Map<String, List<String>> opcodes = new HashMap<>();
+        m = OPCODE.matcher(concatenate(required(attributes, "INSTRUCTION_OPCODE")));
+        while (m.find()) {
+            List<String> values = new ArrayList<>();
+            for (String value : m.group(2).split(",")) {
+                value = value.trim();
+                if (value.length() != irLength) {
+                    throw new IllegalArgumentException("Opcode " + m.group(1) + " is not "
+                            + irLength + " bits");
+                }
+                values.add(value);
+            }
+            opcodes.put(m.group(1).toUpperCase(), values);
+        }
+
+        int boundaryLength = Integer.parseInt(required(attributes, "BOUNDARY_LENGTH"));
+        BoundaryCell[] cells = new BoundaryCell[boundaryLength];
+        for (BoundaryCell cell : parseCells(concatenate(required(attributes, "BOUNDARY_REGISTER")))) {
+            if (cell.getNumber() >= boundaryLength) {
+                throw new IllegalArgumentException("Cell " + cell.getNumber() + " beyond BOUNDARY_LENGTH");
+            }
+            cells[cell.getNumber()] = cell;
+        }
+        for (int i = 0; i < boundaryLength; i++) {
+            if (cells[i] == null) {
+                throw new IllegalArgumentException("Cell " + i + " not described");
+            }
+        }
+
+        List<BoundaryCell> list = new ArrayList<>(boundaryLength);
+        Collections.addAll(list, cells);
+
+        return new Bsdl(entity, irLength, Collections.unmodifiableMap(opcodes),
+                Collections.unmodifiableList(list));
+    }
+
+    /**
+     * @return                  boundary register length in bits
+     */
+    public int getBoundaryLength() {
+        return cells.size();
+    }
+
+    /**
+     * Finds the cell that best reflects the state of a pin, the capture cell
+     * for inputs and bidirectionals, otherwise the output cell.
+     *
+     * @param   port            port name, case insensitive
+     * @return                  cell or null if the port is unknown
+     */
+    public BoundaryCell getCell(String port) {
+        return captureCells.get(port.toUpperCase());
+    }
+
+    /**
+     * @return                  cells indexed by cell number
+     */
+    public List<BoundaryCell> getCells() {
+        return cells;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public int getInstructionLength() {
+        return instructionLength;
+    }
+
+    /**
+     * Returns the first opcode for the named instruction as the bits to be
+     * shifted into the instruction register, LSB first.
+     *
+     * @param   instruction     name e.g. SAMPLE, EXTEST, case insensitive
+     * @return                  opcode packed LSB first
+     * @throws  IllegalArgumentException    instruction not supported by the
+     *                          device
+     */
+    public byte[] getOpcode(String instruction) {
+        List<String> values = opcodes.get(instruction.toUpperCase());
+        if (values == null) {
+            throw new IllegalArgumentException(entity + " does not support " + instruction);
+        }
+
+        // BSDL opcodes are written MSB first
+        String bits = values.get(0);
+        byte[] result = new byte[(instructionLength + 7) / 8];
+        for (int i = 0; i < instructionLength; i++) {
+            if (bits.charAt(instructionLength - 1 - i) == '1') {
+                result[i / 8] |= 1 << (i % 8);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param   instruction     name, case insensitive
+     * @return                  true if the device implements the instruction
+     */
+    public boolean hasInstruction(String instruction) {
+        return opcodes.containsKey(instruction.toUpperCase());
+    }
+
+    /**
+     * Joins the quoted fragments of a VHDL string expression ("a" &amp; "b").
+     */
+    private static String concatenate(String expression) {
+        StringBuilder sb = new StringBuilder();
+        Matcher m = STRING.matcher(expression);
+        while (m.find()) {
+            sb.append(m.group(1));
+        }
+        return sb.toString();
+    }
+
+    private static List<BoundaryCell> parseCells(String register) {
+        List<BoundaryCell> result = new ArrayList<>();
+        int i = 0;
+        int length = register.length();
+
+        while (i < length) {
+            int open = register.indexOf('(', i);
+            if (open < 0) {
+                break;
+            }
+            int number = Integer.parseInt(register.substring(i, open).replace(",", " ").trim());
+
+            // port names may themselves contain brackets, e.g. D(3)
+            List<String> fields = new ArrayList<>();
+            int depth = 0;
+            int start = open + 1;
+            int j = start;
+            for (; j < length; j++) {
+                char c = register.charAt(j);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    if (depth == 0) {
+                        break;
+                    }
+                    depth--;
+                } else if (c == ',' && depth == 0) {
+                    fields.add(register.substring(start, j).trim());
+                    start = j + 1;
+                }
+            }
+            if (j == length) {
+                throw new IllegalArgumentException("Unterminated cell " + number);
+            }
+            fields.add(register.substring(start, j).trim());
+            i = j + 1;
+
+            if (fields.size() != 4 && fields.size() != 7) {
+                throw new IllegalArgumentException("Malformed cell " + number);
+            }
+
+            BoundaryCell.Function function =
+                    BoundaryCell.Function.valueOf(fields.get(2).toUpperCase());
+            char safe = Character.toUpperCase(fields.get(3).charAt(0));
+            int controlCell = -1;
+            int disableValue = -1;
+            if (fields.size() == 7) {
+                controlCell = Integer.parseInt(fields.get(4));
+                disableValue = Integer.parseInt(fields.get(5));
+            }
+
+            result.add(new BoundaryCell(number, fields.get(0).toUpperCase(), fields.get(1),
+                    function, safe, controlCell, disableValue));
+        }
+
+        return result;
+    }
+
+    private static String required(Map<String, String> attributes, String name) {
+        String value = attributes.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing attribute " + name);
+        }
+        return value;
+    }
+
+    private static String stripComments(String source) {
+        StringBuilder sb = new StringBuilder(source.length());
+        for (String line : source.split("\r?\n")) {
+            int comment = line.indexOf("--");
+            sb.append(comment < 0 ? line : line.substring(0, comment)).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manufacturer and part names for JTAG IDCODEs. The default database is
+ * loaded once from the idcodes.txt resource in this package; see that file
+ * for the format.
+ * <p>
+ * Parts are indexed by manufacturer (JEP106 bank and code) and part number,
+ * the version field is ignored. Resolved IDCODEs are cached, so repeated
+ * inventory of the same boards costs a single map lookup per device.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class DeviceDatabase {
+
+    public static final String RESOURCE = "idcodes.txt";
+
+    private static DeviceDatabase defaultDatabase;
+
+    private final Map<Integer, String> manufacturers;
+
+    /**
+     * Keyed by manufacturer id &lt;&lt; 16 | part number.
+     */
+    private final Map<Integer, Part> parts;
+
+    private final Map<Integer, IdCode> cache;
+
+    private DeviceDatabase() {
+        this.manufacturers = new HashMap<>();
+        this.parts = new HashMap<>();
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return                  database loaded from the built in resource
+     * @throws  IllegalStateException   resource missing or malformed
+     */
+    public static synchronized DeviceDatabase getDefault() {
+        if (defaultDatabase == null) {
+            try (InputStream in = DeviceDatabase.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing resource " + RESOURCE);
+                }
+                defaultDatabase = load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read " + RESOURCE, e);
+            }
+        }
+        return defaultDatabase;
+    }
+
+    /**
+     * Loads a database in idcodes.txt format.
+     *
+     * @param   in              database source
+     * @return                  loaded database
+     * @throws  IOException     error reading source
+     * @throws  IllegalArgumentException    malformed line
+     */
+    public static DeviceDatabase load(InputStream in) throws IOException {
+        DeviceDatabase db = new DeviceDatabase();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        String line;
+        int lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            try {
+                String[] fields = line.split("\\s+", line.startsWith("P") ? 5 : 3);
+                int manufacturer = Integer.parseInt(fields[1], 16);
+
+                if (fields[0].equals("M") && fields.length == 3) {
+                    db.manufacturers.put(manufacturer, fields[2]);
+                } else if (fields[0].equals("P") && fields.length == 5) {
+                    int part = Integer.parseInt(fields[2], 16);
+                    db.parts.put(manufacturer << 16 | part, new Part(fields[4], Integer.parseInt(fields[3])));
+                } else {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": " + line);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + line, e);
+            }
+        }
+
+        return db;
+    }
+
+    /**
+     * @param   manufacturerId  IDCODE bits 11:1
+     * @return                  manufacturer name or null if unknown
+     */
+    public String getManufacturer(int manufacturerId) {
+        return manufacturers.get(manufacturerId);
+    }
+
+    /**
+     * Decodes an IDCODE and resolves its manufacturer and part.
+     *
+     * @param   idcode          IDCODE read from the device, bit 0 set
+     * @return                  resolved IDCODE, unknown names are null
+     */
+    public IdCode identify(int idcode) {
+        return cache.computeIfAbsent(idcode, value -> {
+            int manufacturer = IdCode.manufacturerId(value);
+            Part part = parts.get(manufacturer << 16 | IdCode.partNumber(value));
+
+            return new IdCode(value, manufacturers.get(manufacturer),
+                    part == null ? null : part.name, part == null ? 0 : part.irLength);
+        });
+    }
+
+    private static final class Part {
+        final String name;
+        final int irLength;
+
+        Part(String name, int irLength) {
+            this.name = name;
+            this.irLength = irLength;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+/**
+ * A device found in a JTAG chain, with the fields of its IDCODE decoded and
+ * resolved against a {@link DeviceDatabase}. Devices that power up with
+ * BYPASS selected have no IDCODE, see {@link #isBypass()}.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public final class IdCode {
+
+    /**
+     * Placeholder for a device without an IDCODE register.
+     */
+    public static final IdCode BYPASS = new IdCode(0, null, null, 0);
+
+    private final int value;
+    private final String manufacturerName;
+    private final String partName;
+    private final int irLength;
+
+    IdCode(int value, String manufacturerName, String partName, int irLength) {
+        this.value = value;
+        this.manufacturerName = manufacturerName;
+        this.partName = partName;
+        this.irLength = irLength;
+    }
+
+    /**
+     * @return                  instruction register length, 0 if unknown
+     */
+    public int getIrLength() {
+        return irLength;
+    }
+
+    /**
+     * @return                  JEP106 bank, 1 based
+     */
+    public int getJep106Bank() {
+        return ((getManufacturerId() >> 7) & 0xf) + 1;
+    }
+
+    /**
+     * @return                  JEP106 identity code within its bank, without
+     *                          parity
+     */
+    public int getJep106Code() {
+        return getManufacturerId() & 0x7f;
+    }
+
+    /**
+     * @return                  IDCODE bits 11:1
+     */
+    public int getManufacturerId() {
+        return manufacturerId(value);
+    }
+
+    /**
+     * @return                  manufacturer name or null if unknown
+     */
+    public String getManufacturerName() {
+        return manufacturerName;
+    }
+
+    /**
+     * @return                  part name or null if unknown
+     */
+    public String getPartName() {
+        return partName;
+    }
+
+    /**
+     * @return                  IDCODE bits 27:12
+     */
+    public int getPartNumber() {
+        return partNumber(value);
+    }
+
+    /**
+     * @return                  raw IDCODE, 0 for BYPASS
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * @return                  IDCODE bits 31:28
+     */
+    public int getVersion() {
+        return (value >>> 28) & 0xf;
+    }
+
+    public boolean isBypass() {
+        return value == 0;
+    }
+
+    @Override
+    public String toString() {
+        if (isBypass()) {
+            return "BYPASS";
+        }
+
+        StringBuilder sb = new StringBuilder(String.format("0x%08X", value));
+        sb.append(' ').append(manufacturerName == null
+                ? String.format("mfr 0x%03X", getManufacturerId()) : manufacturerName);
+        sb.append(' ').append(partName == null
+                ? String.format("part 0x%04X", getPartNumber()) : partName);
+        sb.append(" rev ").append(getVersion());
+        return sb.toString();
+    }
+
+    static int manufacturerId(int idcode) {
+        return (idcode >>> 1) & 0x7ff;
+    }
+
+    static int partNumber(int idcode) {
+        return (idcode >>> 12) & 0xffff;
+    }
+}
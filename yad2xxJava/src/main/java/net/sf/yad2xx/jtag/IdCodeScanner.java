@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.yad2xx.FTDIException;
+
+/**
+ * Enumerates the devices in a JTAG chain.
+ * <p>
+ * Test-Logic-Reset selects IDCODE, or BYPASS for devices without one, so a
+ * single DR scan from reset shifts every IDCODE out of TDO, nearest TDO
+ * first. An IDCODE always has bit 0 set, a BYPASS register captures 0.
+ * TDI is held high so the end of the chain shows up as an all ones word,
+ * which is not a valid IDCODE. The whole chain is read in one USB round
+ * trip.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class IdCodeScanner {
+
+    public static final int DEFAULT_MAX_DEVICES = 32;
+
+    private static final int IDCODE_LENGTH = 32;
+
+    private final Jtag jtag;
+    private final DeviceDatabase database;
+    private final int maxDevices;
+
+    /**
+     * Scanner using the default device database.
+     *
+     * @param   jtag            opened JTAG interface
+     */
+    public IdCodeScanner(Jtag jtag) {
+        this(jtag, DeviceDatabase.getDefault(), DEFAULT_MAX_DEVICES);
+    }
+
+    /**
+     * @param   jtag            opened JTAG interface
+     * @param   database        used to name the devices found
+     * @param   maxDevices      longest chain to look for
+     */
+    public IdCodeScanner(Jtag jtag, DeviceDatabase database, int maxDevices) {
+        this.jtag = jtag;
+        this.database = database;
+        this.maxDevices = maxDevices;
+    }
+
+    /**
+     * Resets the chain and reads every device's IDCODE.
+     *
+     * @return                  devices, nearest TDO first
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  IllegalStateException   no end of chain found, TDO stuck or
+     *                          more than maxDevices devices
+     */
+    public List<IdCode> scan() throws FTDIException {
+        int bitCount = (maxDevices + 1) * IDCODE_LENGTH;
+        byte[] ones = new byte[(bitCount + 7) / 8];
+        Arrays.fill(ones, (byte) 0xff);
+
+        jtag.reset();
+        byte[] data = jtag.scanDR(bitCount, ones);
+
+        List<IdCode> result = new ArrayList<>();
+        for (int value : parseChain(data, bitCount)) {
+            result.add(value == 0 ? IdCode.BYPASS : database.identify(value));
+        }
+        return result;
+    }
+
+    /**
+     * Splits the DR captured from reset into IDCODEs.
+     *
+     * @param   data            captured bits, LSB first
+     * @param   bitCount        number of bits captured
+     * @return                  IDCODEs nearest TDO first, 0 for a device in
+     *                          BYPASS
+     * @throws  IllegalStateException   no end of chain found
+     */
+    static int[] parseChain(byte[] data, int bitCount) {
+        int[] result = new int[bitCount];
+        int count = 0;
+        int bit = 0;
+
+        while (bit + IDCODE_LENGTH <= bitCount) {
+            if (!getBit(data, bit)) {
+                result[count++] = 0;
+                bit++;
+                continue;
+            }
+
+            int value = 0;
+            for (int i = 0; i < IDCODE_LENGTH; i++) {
+                if (getBit(data, bit + i)) {
+                    value |= 1 << i;
+                }
+            }
+            if (value == -1) {
+                return Arrays.copyOf(result, count);
+            }
+            result[count++] = value;
+            bit += IDCODE_LENGTH;
+        }
+
+        throw new IllegalStateException("End of JTAG chain not found, check TDO");
+    }
+
+    private static boolean getBit(byte[] data, int bit) {
+        return (data[bit / 8] & (1 << (bit % 8))) != 0;
+    }
+}
@@ -25,6 +25,14 @@ import net.sf.yad2xx.FTDIException;
 import net.sf.yad2xx.mpsse.Mpsse;
 
 import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A layer over an MPSSE capable FTDI device that contains knowledge
@@ -37,6 +45,11 @@ import java.io.Closeable;
  * <li>xDBUS2 - TDO</li>
  * <li>xDBUS3 - TMS</li>
  * </ul>
+ * <p>
+ * Scans can either be performed one at a time ({@link #scanDR(int, byte[])},
+ * {@link #scanIR(int, byte[])}) or queued ({@link #queueScanDR(int, byte[])},
+ * {@link #queueScanIR(int, byte[])}) and sent to the MPSSE as a single block
+ * by {@link #flush()}. Queuing avoids a USB round trip per scan.
  * 
  * @author  Stephen Davies
  * @since   14 April 2016
@@ -52,38 +65,109 @@ public class Jtag implements Closeable {
     public static final byte JTAG_OUTPUT_PIN_MASK =
             (byte) (JTAG_TMS_MASK | JTAG_TDI_MASK | JTAG_TCK_MASK);
     
+    public static final int DEFAULT_TCK_FREQUENCY = 100000;
+
+    /**
+     * Candidate TCK rates tried by {@link TckMode#AUTO_TUNE}, slowest first.
+     */
+    private static final int[] AUTO_TUNE_STEPS = {
+            100000, 250000, 500000, 1000000, 2000000, 3000000,
+            6000000, 10000000, 15000000, 30000000 };
+
+    /**
+     * IDCODE reads per auto-tune step, all must match the reference.
+     */
+    private static final int AUTO_TUNE_READS = 16;
+
+    private static final int IDCODE_LENGTH = 32;
+
+    /**
+     * Bytes per MPSSE command when streaming long registers.
+     */
+    public static final int STREAM_CHUNK = 32768;
+
+    /**
+     * Largest data block a single MPSSE byte shift command can carry.
+     */
+    private static final int MAX_SHIFT_BYTES = 65536;
+
+    /**
+     * Worst case command overhead for a single scan: TMS navigation in and
+     * out of the shift state, byte, bit and TMS shift command headers, plus a
+     * trailing SEND_IMMEDIATE.
+     */
+    private static final int SCAN_OVERHEAD = 16;
+
     private Mpsse mpsse;
+
+    private final TckMode tckMode;
+    private int tckFrequency;
     
     private TapState currentState;
     private TapState endIr;
     private TapState endDr;
     
     /**
-     * Layer over an existing FTDI device.
+     * Scans that have been enqueued but whose results have not yet been read.
+     */
+    private final List<ScanResult> pending;
+
+    /**
+     * Number of bytes the MPSSE will return for the pending scans.
+     */
+    private int pendingResponseBytes;
+
+    /**
+     * Layer over an existing FTDI device. TCK is fixed at the default
+     * frequency.
      * 
      * @param   device          device to wrapper
      */
     public Jtag(Device device) {
+        this(device, TckMode.FIXED, DEFAULT_TCK_FREQUENCY);
+    }
+
+    /**
+     * Layer over an existing FTDI device.
+     *
+     * @param   device                      device to wrapper
+     * @param   tckMode                     TCK clocking policy
+     * @param   tckFrequency                TCK frequency in hertz, the upper
+     *                                      limit for ADAPTIVE and AUTO_TUNE
+     * @throws  IllegalArgumentException    ADAPTIVE requested on a device
+     *                                      without adaptive clocking
+     */
+    public Jtag(Device device, TckMode tckMode, int tckFrequency) {
+        if (tckMode == TckMode.ADAPTIVE && !device.getType().isMpsseEnhanced()) {
+            throw new IllegalArgumentException("Adaptive clocking not supported by " + device.getType());
+        }
+        if (tckFrequency <= 0) {
+            throw new IllegalArgumentException("tckFrequency must be positive");
+        }
+
         this.mpsse = new Mpsse(device);
+        this.tckMode = tckMode;
+        this.tckFrequency = tckFrequency;
         this.endDr =  TapState.IDLE;
         this.endIr =  TapState.IDLE;
+        this.pending = new ArrayList<>();
     }
     
     /**
      * Drives the TAP state machine through count cycles with value being
-     * applied to the TMS pin, LSB first.
+     * applied to the TMS pin, LSB first. The command is sent immediately
+     * unless queued scans are outstanding, in which case it is sent by the
+     * next {@link #flush()}.
      * 
      * @param   count           number of TCK cycles
      * @param   value           to be shifted out TMS
      */
     public void alterTms(int count, int value) {
-        mpsse.enqueue(TMS_BIT_OUT_NEG_EDGE.getValue());
-        // Number of clock pulses = count + 1 
-        mpsse.enqueue((byte) (count - 1));
-        // Data is shifted LSB first
-        mpsse.enqueue((byte) value);
+        enqueueTms(count, value);
 
-        mpsse.execute();
+        if (pending.isEmpty()) {
+            mpsse.execute();
+        }
     }
 
     /**
@@ -93,6 +177,58 @@ public class Jtag implements Closeable {
     public void close() {
         mpsse.close();
     }
+
+    /**
+     * Sends all queued commands to the MPSSE and reads back the data
+     * captured by any queued scans. On return every {@link ScanResult}
+     * handed out since the last flush is complete.
+     *
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public void flush() throws FTDIException {
+        if (pending.isEmpty()) {
+            mpsse.execute();
+            return;
+        }
+
+        mpsse.sendImmediate();
+        byte[] response = mpsse.transact(pendingResponseBytes);
+        for (ScanResult result : pending) {
+            result.complete(response);
+        }
+
+        pending.clear();
+        pendingResponseBytes = 0;
+    }
+
+    /**
+     * @return                  the TAP state the controller is left in after
+     *                          a DR scan
+     */
+    public TapState getEndDr() {
+        return endDr;
+    }
+
+    /**
+     * @return                  the TAP state the controller is left in after
+     *                          an IR scan
+     */
+    public TapState getEndIr() {
+        return endIr;
+    }
+
+    /**
+     * @return                  actual TCK frequency in hertz once opened,
+     *                          for ADAPTIVE this is the upper limit
+     */
+    public int getTckFrequency() {
+        return tckFrequency;
+    }
+
+    public TckMode getTckMode() {
+        return tckMode;
+    }
     
     /**
      * Initialise MPSSE specifically for JTAG.
@@ -104,7 +240,11 @@ public class Jtag implements Closeable {
         mpsse.open();
         
         mpsse.disableClockDivider();
-        mpsse.disableAdaptiveClock();
+        if (tckMode == TckMode.ADAPTIVE) {
+            mpsse.enableAdaptiveClock();
+        } else {
+            mpsse.disableAdaptiveClock();
+        }
         mpsse.disableThreePhaseClock();
         mpsse.execute();
         
@@ -132,7 +272,11 @@ public class Jtag implements Closeable {
         // ACBUS7 GPIOH7    input   0                       0
         mpsse.setDataBitsHigh((byte) 0, (byte) 0);
         
-        mpsse.configureClock(100000);
+        int initialFrequency = tckFrequency;
+        if (tckMode == TckMode.AUTO_TUNE) {
+            initialFrequency = Math.min(AUTO_TUNE_STEPS[0], tckFrequency);
+        }
+        mpsse.configureClock(initialFrequency);
         mpsse.execute();
         mpsse.delay(20);
         
@@ -145,6 +289,65 @@ public class Jtag implements Closeable {
         if (mpsse.getQueueStatus() != 0) {
             throw new IllegalStateException();
         }
+
+        if (tckMode == TckMode.AUTO_TUNE) {
+            autoTune();
+        }
+        tckFrequency = mpsse.getClockFrequency();
+    }
+
+    /**
+     * Queues idle TCK cycles. The TAP must be in, or be left by the previous
+     * scan in, the IDLE state. Used to give a target time to complete an
+     * operation between back to back scans.
+     *
+     * @param   cycles          number of TCK cycles with TMS low
+     * @throws  FTDIException   D2XX API call failed while making room in the
+     *                          command buffer
+     */
+    public void queueIdle(int cycles) throws FTDIException {
+        if (currentState != TapState.IDLE) {
+            throw new IllegalStateException("TAP not in IDLE: " + currentState);
+        }
+
+        int needed = (cycles + 6) / 7 * 3;
+        if (mpsse.getBufferRemaining() < needed + SCAN_OVERHEAD) {
+            flush();
+        }
+
+        while (cycles > 0) {
+            int count = Math.min(cycles, 7);
+            enqueueTms(count, 0);
+            cycles -= count;
+        }
+    }
+
+    /**
+     * Queues a DR scan. The TAP is navigated to DRSHIFT, bitCount bits are
+     * shifted and the TAP is left in the end DR state. Nothing is sent to the
+     * device until {@link #flush()} is called, or the command buffer fills.
+     *
+     * @param   bitCount        number of bits to shift
+     * @param   outData         TDI data, LSB first
+     * @return                  holder for the captured TDO data
+     * @throws  FTDIException   D2XX API call failed while making room in the
+     *                          command buffer
+     */
+    public ScanResult queueScanDR(int bitCount, byte[] outData) throws FTDIException {
+        return queueScan(TapState.DRSHIFT, TapState.DREXIT1, endDr, bitCount, outData);
+    }
+
+    /**
+     * Queues an IR scan. See {@link #queueScanDR(int, byte[])}.
+     *
+     * @param   bitCount        number of bits to shift
+     * @param   outData         TDI data, LSB first
+     * @return                  holder for the captured TDO data
+     * @throws  FTDIException   D2XX API call failed while making room in the
+     *                          command buffer
+     */
+    public ScanResult queueScanIR(int bitCount, byte[] outData) throws FTDIException {
+        return queueScan(TapState.IRSHIFT, TapState.IREXIT1, endIr, bitCount, outData);
     }
 
     public void reset() {
@@ -162,33 +365,240 @@ public class Jtag implements Closeable {
     }
     
     public byte[] scanDR(int bitCount, byte[] outData) throws FTDIException {
+        ScanResult result = queueScanDR(bitCount, outData);
+        flush();
         
-        transitionTo(TapState.DRSHIFT);
-        
-        byte[] result = shiftBits(bitCount, outData);
-        currentState = TapState.DREXIT1;
+        return result.getData();
+    }
         
-        transitionTo(endDr);
+    /**
+     * Shifts a DR of any length, e.g. an FPGA configuration bitstream. TDI
+     * data is taken from the stream a chunk at a time so the register never
+     * has to be held in memory. Queued scans are flushed first.
+     *
+     * @param   bitCount        number of bits to shift
+     * @param   in              TDI data, LSB first
+     * @param   out             receives TDO data, LSB first, or null if TDO
+     *                          is not needed (faster)
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  IOException     error reading or writing the streams, or in
+     *                          ended before bitCount bits were read
+     */
+    public void scanDR(long bitCount, InputStream in, OutputStream out) throws FTDIException, IOException {
+        streamScan(TapState.DRSHIFT, TapState.DREXIT1, endDr, bitCount,
+                (chunk, length) -> {
+                    int offset = 0;
+                    while (offset < length) {
+                        int count = in.read(chunk, offset, length - offset);
+                        if (count < 0) {
+                            throw new EOFException("TDI data ended early");
+                        }
+                        offset += count;
+                    }
+                },
+                out == null ? null : (chunk, length) -> out.write(chunk, 0, length));
+    }
         
-        return result;
+    /**
+     * Shifts a DR of any length, see {@link #scanDR(long, InputStream, OutputStream)}.
+     * Buffer positions are advanced by the number of bytes transferred.
+     *
+     * @param   bitCount        number of bits to shift
+     * @param   in              TDI data, LSB first
+     * @param   out             receives TDO data, LSB first, or null if TDO
+     *                          is not needed (faster)
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     * @throws  BufferUnderflowException    too little data in in
+     * @throws  java.nio.BufferOverflowException    too little space in out
+     */
+    public void scanDR(long bitCount, ByteBuffer in, ByteBuffer out) throws FTDIException {
+        try {
+            streamScan(TapState.DRSHIFT, TapState.DREXIT1, endDr, bitCount,
+                    (chunk, length) -> in.get(chunk, 0, length),
+                    out == null ? null : (chunk, length) -> out.put(chunk, 0, length));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);     // buffers don't throw IOException
+        }
     }
     
     public byte[] scanIR(int bitCount, byte[] outData) throws FTDIException {
+        ScanResult result = queueScanIR(bitCount, outData);
+        flush();
+        
+        return result.getData();
+    }
+
+    /**
+     * Sets the stable state the TAP is left in after each DR scan.
+     *
+     * @param   endDr           IDLE, DRPAUSE or RESET
+     */
+    public void setEndDr(TapState endDr) {
+        this.endDr = endDr;
+    }
+
+    /**
+     * Sets the stable state the TAP is left in after each IR scan.
+     *
+     * @param   endIr           IDLE, IRPAUSE or RESET
+     */
+    public void setEndIr(TapState endIr) {
+        this.endIr = endIr;
+    }
+
+    /**
+     * Changes the TCK frequency of an open interface. Queued scans are
+     * flushed first.
+     *
+     * @param   frequency       TCK frequency in hertz
+     * @return                  actual frequency in hertz
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public int setTckFrequency(int frequency) throws FTDIException {
+        flush();
+        mpsse.configureClock(frequency);
+        mpsse.execute();
+        tckFrequency = mpsse.getClockFrequency();
+        return tckFrequency;
+    }
+
+    /**
+     * Shifts bitCount bits through the currently selected register. The TAP
+     * must already be in one of the SHIFT states and is left in the matching
+     * EXIT1 state.
+     *
+     * @param   bitCount        number of bits to shift
+     * @param   outData         TDI data, LSB first
+     * @return                  TDO data, LSB first
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details
+     */
+    public byte[] shiftBits(int bitCount, byte[] outData) throws FTDIException {
+        ScanResult result = new ScanResult(bitCount, pendingResponseBytes);
+        pendingResponseBytes += enqueueShift(bitCount, outData);
+        pending.add(result);
+        flush();
         
-        transitionTo(TapState.IRSHIFT);
+        return result.getData();
+    }
+    
+    /**
+     * Moves the TAP to state to by the shortest path. Like
+     * {@link #alterTms(int, int)} the command is sent immediately unless
+     * queued scans are outstanding.
+     *
+     * @param   to              target state
+     */
+    public void transitionTo(TapState to) {
+        enqueueTransition(to);
 
-        byte[] result = shiftBits(bitCount, outData);
-        currentState = TapState.IREXIT1;
+        if (pending.isEmpty()) {
+            mpsse.execute();
+        }
+    }
+
+    /**
+     * Queues the TMS sequence for {@link #transitionTo(TapState)} without
+     * sending it.
+     */
+    private void enqueueTransition(TapState to) {
+        int[] transitions = currentState.svfPathTo(to);
+        byte result = 0;
         
-        transitionTo(endIr);
+        for (int i = transitions.length - 1; i >= 0; i--) {
+            result <<= 1;
+            if (transitions[i] == 1) {
+                result |= 1;
+            }
+        }
         
-        return result;
+        if (transitions.length > 0) {
+            enqueueTms(transitions.length, result);
+        }
+        currentState = to;
     }
 
-    public byte[] shiftBits(int bitCount, byte[] outData) throws FTDIException {
+    /**
+     * Raises TCK through {@link #AUTO_TUNE_STEPS} while repeated IDCODE reads
+     * match the one read at the safe starting rate. Leaves TCK at the last
+     * rate that passed. If no valid IDCODE can be read at the starting rate
+     * there is nothing to compare against and the rate is left unchanged.
+     */
+    private void autoTune() throws FTDIException {
+        int reference = readFirstDr();
+        if (reference == 0 || reference == -1) {
+            return;
+        }
+
+        int good = mpsse.getClockFrequency();
+        for (int step : AUTO_TUNE_STEPS) {
+            if (step <= good || step > tckFrequency) {
+                continue;
+            }
+
+            setTckFrequency(step);
+            if (!readsMatch(reference)) {
+                break;
+            }
+            good = mpsse.getClockFrequency();
+        }
+
+        setTckFrequency(good);
+        reset();
+    }
+
+    /**
+     * Unpacks the MPSSE response to a shift generated by
+     * {@link #enqueueShift(int, byte[])}.
+     * <p>
+     * Whole bytes arrive as is. The MPSSE shifts partial bytes in from the
+     * top so they need to be right justified. The final bit, captured by the
+     * TMS command, arrives in bit 7.
+     *
+     * @param   bitCount        number of bits shifted
+     * @param   response        raw data read from the MPSSE
+     * @param   offset          index of the first response byte for the shift
+     * @param   result          receives the TDO bits, LSB first
+     */
+    static void decodeShift(int bitCount, byte[] response, int offset, byte[] result) {
         int byteCount = bitCount / 8;
         int extraBits = bitCount % 8;
         
+        if (extraBits == 0) {
+            byteCount--;
+            extraBits = 8;
+        }
+
+        System.arraycopy(response, offset, result, 0, byteCount);
+        int index = offset + byteCount;
+
+        int value = 0;
+        if (extraBits > 1) {
+            value = (response[index++] & 0xff) >>> (8 - (extraBits - 1));
+        }
+        if ((response[index] & 0x80) != 0) {
+            value |= 1 << (extraBits - 1);
+        }
+        result[byteCount] = (byte) value;
+    }
+
+    /**
+     * Enqueues the MPSSE commands needed to shift bitCount bits. The last bit
+     * is shifted using a TMS command so the TAP leaves the SHIFT state as it
+     * is clocked.
+     *
+     * @param   bitCount        number of bits to shift
+     * @param   outData         TDI data, LSB first
+     * @return                  number of bytes the MPSSE will return
+     */
+    private int enqueueShift(int bitCount, byte[] outData) {
+        int byteCount = bitCount / 8;
+        int extraBits = bitCount % 8;
+        int responseBytes = 1;                              // TMS command
+
         // if whole # of bytes then fragment the last byte
         // so that last bit TMS navigation works.
         if (extraBits == 0) {
@@ -203,13 +613,17 @@ public class Jtag implements Closeable {
             mpsse.enqueue((byte) (count & 0xff));           // LSB
             mpsse.enqueue((byte) ((count >> 8) & 0xff));    // MSB
             mpsse.enqueue(outData, 0, byteCount);
+            responseBytes += byteCount;
         }
         
+        int last = outData[byteCount];
+
         if (extraBits > 1) {
             int count = extraBits - 2;                      // 0 indicates a single bit
             mpsse.enqueue(LSB_FIRST_BIT_INOUT_POSNEG_EDGE.getValue());
             mpsse.enqueue((byte) count);
-            mpsse.enqueue(outData[outData.length - 1]);
+            mpsse.enqueue((byte) last);
+            responseBytes++;
         }
         
         // now shift last bit, moving TAP to EXIT-? as we do
@@ -217,35 +631,143 @@ public class Jtag implements Closeable {
         mpsse.enqueue((byte) 0);                    // one bit only
         // need to combine TMS bit with last data bit,
         // data bit needs to be bit 7, TMS bit is 0
-        int value = outData[outData.length - 1];
+        int value = last;
         value <<= (8 - extraBits);                  // move last bit to bit 7
         value &= 0x80;                              // only bit 7 survives
         value |= 1;                                 // TMS bit is 1 to exit SHIFT state
         mpsse.enqueue((byte) value);
-        mpsse.execute();
-        
-        if (extraBits > 0) {
-            byteCount++;
+
+        return responseBytes;
+    }
+
+    private void enqueueTms(int count, int value) {
+        mpsse.enqueue(TMS_BIT_OUT_NEG_EDGE.getValue());
+        // Number of clock pulses = count + 1
+        mpsse.enqueue((byte) (count - 1));
+        // Data is shifted LSB first
+        mpsse.enqueue((byte) value);
+    }
+
+    private ScanResult queueScan(TapState shift, TapState exit, TapState end, int bitCount, byte[] outData)
+            throws FTDIException {
+
+        if (bitCount <= 0) {
+            throw new IllegalArgumentException("bitCount must be positive");
         }
-        
-        byte[] result = mpsse.read(byteCount + 1);
-        System.out.println(mpsse.getQueueStatus());
-        
+        if (outData.length * 8 < bitCount) {
+            throw new IllegalArgumentException("outData too short for " + bitCount + " bits");
+        }
+
+        int needed = bitCount / 8 + SCAN_OVERHEAD;
+        if (bitCount / 8 > MAX_SHIFT_BYTES || needed > Mpsse.DEFAULT_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Scan too long to queue, " + bitCount + " bits. Use a streamed scan");
+        }
+        if (mpsse.getBufferRemaining() < needed) {
+            flush();
+        }
+
+        enqueueTransition(shift);
+
+        ScanResult result = new ScanResult(bitCount, pendingResponseBytes);
+        pendingResponseBytes += enqueueShift(bitCount, outData);
+        pending.add(result);
+        currentState = exit;
+
+        enqueueTransition(end);
+
         return result;
     }
     
-    public void transitionTo(TapState to) {
-        int[] transitions = currentState.svfPathTo(to);
-        byte result = 0;
-        
-        for (int i = transitions.length - 1; i >= 0; i--) {
-            result <<= 1;
-            if (transitions[i] == 1) {
-                result |= 1;
+    private void streamScan(TapState shift, TapState exit, TapState end, long bitCount,
+            ChunkSource source, ChunkSink sink) throws FTDIException, IOException {
+
+        if (bitCount <= 0) {
+            throw new IllegalArgumentException("bitCount must be positive");
+        }
+
+        flush();
+        enqueueTransition(shift);
+
+        byte command = (sink == null) ? LSB_FIRST_BYTE_OUT_NEG_EDGE.getValue()
+                : LSB_FIRST_BYTE_INOUT_POSNEG_EDGE.getValue();
+        byte[] chunk = new byte[STREAM_CHUNK];
+        long remaining = bitCount;
+
+        // whole chunks, the final chunk is left for enqueueShift so it can
+        // leave the SHIFT state on the last bit
+        while (remaining > STREAM_CHUNK * 8L) {
+            source.read(chunk, STREAM_CHUNK);
+
+            int count = STREAM_CHUNK - 1;
+            mpsse.enqueue(command);
+            mpsse.enqueue((byte) (count & 0xff));
+            mpsse.enqueue((byte) ((count >> 8) & 0xff));
+            mpsse.enqueue(chunk);
+
+            if (sink == null) {
+                mpsse.execute();
+            } else {
+                mpsse.sendImmediate();
+                sink.write(mpsse.transact(STREAM_CHUNK), STREAM_CHUNK);
             }
+            remaining -= STREAM_CHUNK * 8L;
         }
         
-        alterTms(transitions.length, result);
-        currentState = to;
+        int finalBits = (int) remaining;
+        int finalBytes = (finalBits + 7) / 8;
+        source.read(chunk, finalBytes);
+
+        ScanResult result = new ScanResult(finalBits, 0);
+        pendingResponseBytes = enqueueShift(finalBits, chunk);
+        pending.add(result);
+        currentState = exit;
+        enqueueTransition(end);
+        flush();
+
+        if (sink != null) {
+            sink.write(result.getData(), finalBytes);
+        }
+    }
+
+    /**
+     * Supplies TDI data to a streamed scan.
+     */
+    private interface ChunkSource {
+        void read(byte[] chunk, int length) throws IOException;
+    }
+
+    /**
+     * Consumes TDO data from a streamed scan.
+     */
+    private interface ChunkSink {
+        void write(byte[] chunk, int length) throws IOException;
+    }
+
+    /**
+     * @return                  first 32 bits of DR after Test-Logic-Reset,
+     *                          the IDCODE of the device nearest TDO
+     */
+    private int readFirstDr() throws FTDIException {
+        reset();
+        byte[] data = scanDR(IDCODE_LENGTH);
+        return (data[0] & 0xff) | (data[1] & 0xff) << 8 | (data[2] & 0xff) << 16 | (data[3] & 0xff) << 24;
+    }
+
+    private boolean readsMatch(int reference) throws FTDIException {
+        ScanResult[] results = new ScanResult[AUTO_TUNE_READS];
+        for (int i = 0; i < results.length; i++) {
+            reset();
+            results[i] = queueScanDR(IDCODE_LENGTH, new byte[IDCODE_LENGTH / 8]);
+        }
+        flush();
+
+        for (ScanResult result : results) {
+            byte[] data = result.getData();
+            int value = (data[0] & 0xff) | (data[1] & 0xff) << 8 | (data[2] & 0xff) << 16 | (data[3] & 0xff) << 24;
+            if (value != reference) {
+                return false;
+            }
+        }
+        return true;
     }
 }
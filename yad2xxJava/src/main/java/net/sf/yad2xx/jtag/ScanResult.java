@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+/**
+ * Holds the TDO data captured by a queued IR or DR scan. Instances are
+ * returned by {@link Jtag#queueScanDR(int, byte[])} and
+ * {@link Jtag#queueScanIR(int, byte[])} and are filled in when the queue is
+ * flushed.
+ * <p>
+ * Captured bits are packed LSB first, i.e. the first bit shifted out of TDO
+ * is bit 0 of byte 0.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public class ScanResult {
+
+    private final int bitCount;
+
+    /**
+     * Offset of this scans data within the MPSSE response block.
+     */
+    private final int responseOffset;
+
+    private byte[] data;
+
+    ScanResult(int bitCount, int responseOffset) {
+        this.bitCount = bitCount;
+        this.responseOffset = responseOffset;
+    }
+
+    /**
+     * @return                  number of bits shifted by the scan
+     */
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Returns the captured TDO data.
+     *
+     * @return                  captured bits, LSB first
+     * @throws  IllegalStateException   if the queue has not been flushed
+     */
+    public byte[] getData() {
+        if (data == null) {
+            throw new IllegalStateException("Scan not yet executed");
+        }
+        return data;
+    }
+
+    /**
+     * @return                  true once the queue containing this scan has
+     *                          been flushed
+     */
+    public boolean isComplete() {
+        return data != null;
+    }
+
+    int getResponseOffset() {
+        return responseOffset;
+    }
+
+    void complete(byte[] response) {
+        byte[] result = new byte[(bitCount + 7) / 8];
+        Jtag.decodeShift(bitCount, response, responseOffset, result);
+        this.data = result;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+/**
+ * TCK clocking policy used by {@link Jtag#open()}.
+ *
+ * @author      Stephen Davies
+ * @since       October 2026
+ * @since       2.1
+ */
+public enum TckMode {
+
+    /**
+     * TCK runs at the requested frequency, or the nearest lower frequency
+     * the MPSSE can generate.
+     */
+    FIXED,
+
+    /**
+     * TCK waits for RTCK, fed back on GPIOL3, before each edge. For ARM
+     * targets that provide RTCK. The requested frequency is the upper limit.
+     * Requires an FT2232H, FT4232H or FT232H.
+     */
+    ADAPTIVE,
+
+    /**
+     * TCK is raised step by step from a safe rate until the IDCODE read from
+     * Test-Logic-Reset no longer matches, then set to the fastest rate that
+     * passed. The requested frequency is the upper limit.
+     */
+    AUTO_TUNE
+}
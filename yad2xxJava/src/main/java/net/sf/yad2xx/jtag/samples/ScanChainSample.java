@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag.samples;
+
+import java.io.PrintStream;
+
+import net.sf.yad2xx.Device;
+import net.sf.yad2xx.FTDIInterface;
+import net.sf.yad2xx.jtag.IdCode;
+import net.sf.yad2xx.jtag.IdCodeScanner;
+import net.sf.yad2xx.jtag.Jtag;
+import net.sf.yad2xx.samples.AbstractSample;
+
+/**
+ * Sample program that lists every device in a JTAG chain.
+ *
+ * @author Stephen Davies
+ * @since October 2026
+ * @since 2.1
+ */
+public class ScanChainSample extends AbstractSample {
+
+    public static void main(String[] args) {
+        ScanChainSample sample = new ScanChainSample();
+
+        try {
+            if (sample.processOptions(args)) {
+                sample.run();
+            } else {
+                sample.displayUsage();
+            }
+        }
+        catch (Exception e) {
+            System.err.println(e.getMessage());
+            sample.displayUsage();
+        }
+    }
+
+    private void displayUsage() {
+        displayUsage("net.sf.yad2xx.jtag.samples.ScanChainSample [-h] [-p hex]");
+    }
+
+    private void run() {
+        PrintStream out = System.out;
+
+        try {
+
+            out.println("Jtag Scan Chain Example");
+            out.println("-----------------------");
+            printProlog(out);
+
+            Device[] devices = FTDIInterface.getDevices();
+
+            if (devices.length == 0) {
+                out.println("*** No FTDI devices found. Possible VID/PID or driver problem. ***");
+                return;
+            }
+
+            Device device = devices[0];
+            Jtag jtag = new Jtag(device);
+            jtag.open();
+
+            int position = 0;
+            for (IdCode id : new IdCodeScanner(jtag).scan()) {
+                out.println(position++ + ": " + id);
+            }
+
+            jtag.close();
+        }
+        catch (Exception e) {
+            e.printStackTrace(System.err);
+        }
+    }
+}
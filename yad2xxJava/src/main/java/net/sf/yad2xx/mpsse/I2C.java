@@ -200,9 +200,8 @@ public class I2C implements Closeable {
         }
         
         mpsse.enqueue(SEND_IMMEDIATE.getValue());
-        mpsse.execute();
         
-        byte[] data = mpsse.read(1);
+        byte[] data = mpsse.transact(1);
         
         return data[0];
     }
@@ -407,9 +406,8 @@ public class I2C implements Closeable {
         mpsse.enqueue((byte) 0);        // 0 for a single bit
         
         mpsse.enqueue(SEND_IMMEDIATE.getValue());
-        mpsse.execute();
 
-        byte[] buff = mpsse.read(1);
+        byte[] buff = mpsse.transact(1);
 
         return (buff[0] & 1) == 0;
     }
@@ -25,6 +25,7 @@ import java.io.Closeable;
 import net.sf.yad2xx.Device;
 import net.sf.yad2xx.FTDIBitMode;
 import net.sf.yad2xx.FTDIException;
+import net.sf.yad2xx.FTStatus;
 
 /**
  * A wrapper for all MPSSE based protocols. Code here uses commands as
@@ -40,6 +41,10 @@ import net.sf.yad2xx.FTDIException;
  * <p>
  * If the submitted command stream captures data the call to {@link #execute()}
  * should be followed by a call to {@link #read(int)}.
+ * <p>
+ * Not thread safe. Threads sharing an adapter should each hold a
+ * {@link net.sf.yad2xx.DeviceLease} for the whole enqueue, execute and read
+ * sequence.
  * 
  * @author      Stephen Davies
  * @since       14 April 2016
@@ -57,12 +62,20 @@ public class Mpsse implements Closeable {
     // one or more commands. I'm sure at some point this little hack will come
     // back to bite me.
     public static final int DEFAULT_BUFFER_SIZE = 70000;
+
+    // Matches the D2XX read timeout set by configure()
+    private static final int RESPONSE_TIMEOUT = 3000;
     
     private Device device;
     
     private byte[] buffer;
     private int buffIdx;
 
+    /**
+     * Clock frequency selected by the last call to configureClock.
+     */
+    private int clockFrequency;
+
     /**
      * Wrapper an FTDI device for MPSSE operations. The default buffer
      * size is used.
@@ -131,7 +144,7 @@ public class Mpsse implements Closeable {
         device.setChars((char) 0, false, (char) 0, false);
             
         // Set the read & write timeouts in milliseconds
-        device.setTimeouts(3000, 3000);
+        device.setTimeouts(RESPONSE_TIMEOUT, RESPONSE_TIMEOUT);
             
         // Set the latency timer (default is 16ms)
         device.setLatencyTimer((byte) 1);
@@ -185,7 +198,10 @@ public class Mpsse implements Closeable {
         enqueue(SET_CLOCK_DIVISOR.getValue());
         enqueue((byte) (divisor & 0xff));
         enqueue((byte) ((divisor >> 8) & 0xff));
-        
+
+        int masterClock = (supportsHighFreq && (desiredFrequency > TWELVE_MHZ)) ? SIXTY_MHZ : TWELVE_MHZ;
+        clockFrequency = masterClock / ((1 + divisor) * 2);
+
         return divisor;
     }
     
@@ -340,9 +356,13 @@ public class Mpsse implements Closeable {
     }
 
     /**
-     * Sends the buffer contents to the MPSSE for execution.
+     * Sends the buffer contents to the MPSSE for execution. Does nothing if
+     * the buffer is empty.
      */
     public void execute() {
+        if (buffIdx == 0) {
+            return;
+        }
         try {
             device.write(buffer, buffIdx);
             buffIdx = 0;
@@ -352,6 +372,16 @@ public class Mpsse implements Closeable {
         }       
     }
     
+    /**
+     * Frequency actually achieved by the last {@link #configureClock(int)}.
+     *
+     * @return                  clock frequency in hertz, 0 if the clock has
+     *                          not been configured
+     */
+    public int getClockFrequency() {
+        return clockFrequency;
+    }
+
     /**
      * Allow client access to the device buffer status. Clients need to
      * check if there is data in the buffer for synchronisation purposes.
@@ -364,6 +394,17 @@ public class Mpsse implements Closeable {
         return device.getQueueStatus();
     }
 
+    /**
+     * Number of bytes that can still be enqueued before the buffer is full.
+     * Clients batching many commands should call {@link #execute()} before
+     * this drops below the size of their next command.
+     *
+     * @return                  free space in the command buffer
+     */
+    public int getBufferRemaining() {
+        return buffer.length - buffIdx;
+    }
+
     /**
      * All MPSSE implementations must be initialized before use.
      */
@@ -399,18 +440,44 @@ public class Mpsse implements Closeable {
     
     public byte readDataBitsHigh() throws FTDIException {
         enqueue(READ_DATA_BITS_HIGH.getValue());
-        execute();
-        byte[] data = read(1);
-        return data[0];
+        return transact(1)[0];
     }
     
     public byte readDataBitsLow() throws FTDIException {
         enqueue(READ_DATA_BITS_LOW.getValue());
-        execute();
-        byte[] data = read(1);
-        return data[0];
+        return transact(1)[0];
     }
     
+    /**
+     * Sends the buffer contents to the MPSSE and reads the response in a
+     * single native call. Equivalent to {@link #execute()} followed by
+     * {@link #read(int)} but with one JNI crossing instead of two.
+     *
+     * @param   byteCount       number of response bytes expected
+     * @return                  response
+     * @throws  FTDIException   D2XX API call failed, see exception fields for
+     *                          details, or FT_IO_ERROR if fewer than
+     *                          byteCount bytes arrived in time
+     */
+    public byte[] transact(int byteCount) throws FTDIException {
+        byte[] response = new byte[byteCount];
+        int received = device.transact(buffer, buffIdx, response, byteCount, RESPONSE_TIMEOUT);
+        buffIdx = 0;
+        if (received < byteCount) {
+            throw new FTDIException(FTStatus.FT_IO_ERROR, "FT_Read");
+        }
+        return response;
+    }
+
+    /**
+     * Enqueues a SEND_IMMEDIATE command. This forces the MPSSE to flush its
+     * read buffer back to the host rather than waiting for the latency timer
+     * to expire. Use at the end of a batch that captures data.
+     */
+    public void sendImmediate() {
+        enqueue(SEND_IMMEDIATE.getValue());
+    }
+
     /**
      * This will setup the direction of the high 8 lines and force a value on
      * the bits that are set as output. A 1 in the direction byte will make
@@ -455,12 +522,8 @@ public class Mpsse implements Closeable {
         
         device.write(buffer, buffer.length);
     
-        // Get the number of bytes in the device input buffer
-        int inputCount = 0;
-        do {
-            inputCount = device.getQueueStatus();
-        }
-        while (inputCount == 0) ;
+        // Wait, without spinning, for the two byte response
+        int inputCount = device.awaitRx(2, RESPONSE_TIMEOUT);
         
         // Check if Bad command and echo command receive
         buffer = new byte[inputCount];
@@ -199,13 +199,11 @@ public class Spi implements Closeable {
             mpsse.enqueue((byte) count);                    // Length
         }
         
-        execute();
-        
         if (extraBits > 0) {
             byteCount++;
         }
         
-        return mpsse.read(byteCount);
+        return mpsse.transact(byteCount);
     }
     
     /**
@@ -241,13 +239,11 @@ public class Spi implements Closeable {
             mpsse.enqueue(data[byteCount]);                 // Byte1
         }
 
-        execute();
-        
         if (extraBits > 0) {
             byteCount++;
         }
         
-        return mpsse.read(byteCount);
+        return mpsse.transact(byteCount);
     }
     
     /**
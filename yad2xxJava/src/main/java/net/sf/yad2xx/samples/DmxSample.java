@@ -22,9 +22,8 @@ import java.io.InputStream;
 import java.io.PrintStream;
 
 import net.sf.yad2xx.Device;
-import net.sf.yad2xx.FTDIConstants;
-import net.sf.yad2xx.FTDIException;
 import net.sf.yad2xx.FTDIInterface;
+import net.sf.yad2xx.dmx.DmxOutput;
 
 /**
  * Demonstrates an FTDI chip operating as a DMX-512 interface. This requires
@@ -40,7 +39,8 @@ import net.sf.yad2xx.FTDIInterface;
  * <li>BLUE</li>
  * </ol>
  * <p>
- * Light should be full RED.
+ * Light should be full RED. Frames are sent by a {@link DmxOutput} at its
+ * default refresh rate, '+' and '-' change the RED level and 'q' quits.
  *
  * @author Stephen Davies
  * @since 20 May 2016
@@ -48,11 +48,6 @@ import net.sf.yad2xx.FTDIInterface;
  */
 public class DmxSample extends AbstractSample {
 
-    /**
-     * DMX baud rate.
-     */
-    private static final int DMX_BAUD_RATE = 250000;
-
     /**
      * Maximum channel value.
      */
@@ -60,28 +55,17 @@ public class DmxSample extends AbstractSample {
 
     /**
      * Use 192 of possible 512 channels.
-     * Plus 1 to allow for start code (0).
      */
-    private static final int CHANNEL_COUNT = 192 + 1;
-
-    private boolean running;
-
-    private byte[] channels;
+    private static final int CHANNEL_COUNT = 192;
 
-    private Device device;
+    private static final int INTENSITY = 1;
 
-    public DmxSample() {
-        running = true;
-        channels = new byte[CHANNEL_COUNT];
+    private static final int RED = 2;
 
-        // Default setting is for a channels to be off/zero
-        for (int i = 0; i < CHANNEL_COUNT; i++) {
-            channels[i] = (byte) 0;
-        }
-
-        channels[1] = (byte) FULL_ON;  // Intensity/strobe channel
-        channels[2] = (byte) FULL_ON;  // RED channel
-    }
+    /**
+     * Change in RED level per key press.
+     */
+    private static final int STEP = 0x10;
 
     private void displayUsage() {
         displayUsage("net.sf.yad2xx.samples.DmxSample [-h] [-p hex]");
@@ -119,48 +103,39 @@ public class DmxSample extends AbstractSample {
                 return;
             }
 
-            device = devices[0];
+            Device device = devices[0];
 
             device.open();
             device.reset();
             delay(10);
 
-            device.setDataCharacteristics(FTDIConstants.FT_BITS_8,
-                    FTDIConstants.FT_STOP_BITS_2,
-                    FTDIConstants.FT_PARITY_NONE);
-            device.setBaudRate(DMX_BAUD_RATE);
-            delay(10);
-
-            Thread background = new Thread() {
-                @Override
-                public void run() {
-                    try {
-                        while (running) {
-                            sendDmxFrame();
-                            delay(1000);
-                        }
-                    } catch (Exception e) {
-                        running = false;
-                        e.printStackTrace();
-                    }
-                }
-            };
+            try (DmxOutput dmx = new DmxOutput(device)) {
+                dmx.configure();
+                dmx.setChannelCount(CHANNEL_COUNT);
 
-            background.start();
+                // All other channels default to off/zero
+                dmx.setChannel(INTENSITY, FULL_ON);
+                dmx.setChannel(RED, FULL_ON);
+                dmx.start();
 
-            InputStream in = System.in;
+                InputStream in = System.in;
+                boolean running = true;
 
-            while (running) {
-                int c = in.read();
-                if (c == -1) {
-                    running = false;
-                } else {
-                    if (c == 'q') {
+                while (running && dmx.isRunning()) {
+                    int c = in.read();
+                    if (c == -1 || c == 'q') {
                         running = false;
                     } else if (c == '+') {
-                        // if ()
+                        dmx.setChannel(RED, Math.min(FULL_ON, dmx.getChannel(RED) + STEP));
+                    } else if (c == '-') {
+                        dmx.setChannel(RED, Math.max(0, dmx.getChannel(RED) - STEP));
                     }
                 }
+
+                if (dmx.getFailure() != null) {
+                    dmx.getFailure().printStackTrace(System.err);
+                }
+                out.println(dmx.getFrameCount() + " frames sent, " + dmx.getSkippedFrames() + " skipped");
             }
 
             device.close();
@@ -168,11 +143,4 @@ public class DmxSample extends AbstractSample {
             e.printStackTrace(System.err);
         }
     }
-
-    private void sendDmxFrame() throws FTDIException {
-        device.setBreak(true); // BREAK indicates start of frame
-        device.setBreak(false);
-
-        device.write(channels); // START code plus 192 channel bytes
-    }
 }
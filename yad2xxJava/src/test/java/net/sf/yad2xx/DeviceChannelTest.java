@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Heap buffer paths only, direct buffers go straight to native code.
+ *
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class DeviceChannelTest {
+
+	/**
+	 * Object under test.
+	 */
+	private DeviceChannel channel;
+
+	@Mock
+	private Device mockedDevice;
+
+	@Before
+	public void setUp() {
+		channel = new DeviceChannel(mockedDevice);
+	}
+
+	@Test
+	public void testReadWaitsThenReadsAvailable() throws Exception {
+		when(mockedDevice.awaitRx(1, DeviceChannel.WAIT_SLICE)).thenReturn(0, 3);
+		when(mockedDevice.tryRead(any(byte[].class), eq(2), eq(3), any(int[].class))).thenAnswer(invocation -> {
+			byte[] buffer = invocation.getArgument(0);
+			buffer[2] = 1;
+			buffer[3] = 2;
+			buffer[4] = 3;
+			return 3;
+		});
+
+		ByteBuffer dst = ByteBuffer.allocate(8);
+		dst.position(2);
+
+		assertEquals(3, channel.read(dst));
+		assertEquals(5, dst.position());
+		assertEquals(3, dst.get(4));
+	}
+
+	@Test
+	public void testWriteAdvancesPosition() throws Exception {
+		when(mockedDevice.tryWrite(any(byte[].class), eq(1), eq(3), any(int[].class))).thenReturn(3);
+
+		ByteBuffer src = ByteBuffer.wrap(new byte[4]);
+		src.position(1);
+
+		assertEquals(3, channel.write(src));
+		assertFalse(src.hasRemaining());
+	}
+
+	/**
+	 * Checked before any device call, so a read only direct buffer never
+	 * reaches native code.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadIntoReadOnlyBuffer() throws Exception {
+		channel.read(ByteBuffer.allocateDirect(4).asReadOnlyBuffer());
+	}
+
+	@Test(expected = ClosedChannelException.class)
+	public void testReadAfterClose() throws Exception {
+		channel.close();
+		verify(mockedDevice).close();
+
+		channel.read(ByteBuffer.allocate(1));
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks lease hand-off, ordering of waiters and the pool counters.
+ *
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class DevicePoolTest {
+
+	private Device a;
+	private Device b;
+
+	@Before
+	public void setUp() {
+		a = new Device(0, 0, DeviceType.FT_DEVICE_232R.ordinal(), 0x04036001, 0x11, "A1", "one", 0);
+		b = new Device(1, 0, DeviceType.FT_DEVICE_232R.ordinal(), 0x04036001, 0x12, "B2", "two", 0);
+	}
+
+	/**
+	 * Starts a thread that leases, records the serial number and releases.
+	 */
+	private Thread waiter(DevicePool pool, Device wanted, int priority, List<String> order, CountDownLatch done) {
+		Thread thread = new Thread(() -> {
+			try (DeviceLease lease = pool.acquire(wanted, priority, 5, TimeUnit.SECONDS)) {
+				order.add(priority + ":" + lease.getDevice().getSerialNumber());
+			} catch (InterruptedException e) {
+				// test ends
+			}
+			done.countDown();
+		});
+		thread.start();
+		return thread;
+	}
+
+	private static void awaitWaiting(DevicePool pool, int count) throws InterruptedException {
+		while (pool.getStatistics().getWaitingCount() < count) {
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	public void testLeaseIsExclusiveUntilClosed() throws Exception {
+		try (DevicePool pool = new DevicePool(Arrays.asList(a, b))) {
+			DeviceLease first = pool.acquire(0, TimeUnit.MILLISECONDS);
+			DeviceLease second = pool.acquire(0, TimeUnit.MILLISECONDS);
+
+			assertNotSame(first.getDevice(), second.getDevice());
+			assertNull(pool.acquire(10, TimeUnit.MILLISECONDS));
+
+			first.close();
+			first.close();
+			try {
+				first.getDevice();
+				fail("closed lease still usable");
+			} catch (IllegalStateException e) {
+				// expected
+			}
+
+			DeviceLease third = pool.acquire(0, TimeUnit.MILLISECONDS);
+			assertNotNull(third);
+			third.close();
+			second.close();
+
+			DevicePool.Statistics statistics = pool.getStatistics();
+			assertEquals(3, statistics.getLeaseCount());
+			assertEquals(1, statistics.getTimeoutCount());
+			assertEquals(2, statistics.getIdleCount());
+			assertTrue(statistics.getMaxHoldNanos() >= statistics.getMeanHoldNanos());
+			assertTrue(statistics.getMeanHoldNanos() > 0);
+		}
+	}
+
+	@Test
+	public void testHoldTimeFixedOnClose() throws Exception {
+		try (DevicePool pool = new DevicePool(Collections.singletonList(a))) {
+			DeviceLease lease = pool.acquire(0, TimeUnit.MILLISECONDS);
+			Thread.sleep(2);
+			lease.close();
+
+			long held = lease.getHoldNanos();
+			Thread.sleep(2);
+			assertEquals(held, lease.getHoldNanos());
+			assertEquals((double) held, pool.getStatistics().getMeanHoldNanos(), 0.0);
+		}
+	}
+
+	@Test
+	public void testWaitersServedByPriorityThenArrival() throws Exception {
+		List<String> order = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(3);
+
+		try (DevicePool pool = new DevicePool(Collections.singletonList(a))) {
+			DeviceLease held = pool.acquire(0, TimeUnit.MILLISECONDS);
+
+			waiter(pool, null, 0, order, done);
+			awaitWaiting(pool, 1);
+			waiter(pool, null, 5, order, done);
+			awaitWaiting(pool, 2);
+			waiter(pool, null, 0, order, done);
+			awaitWaiting(pool, 3);
+
+			held.close();
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+		}
+
+		assertEquals("[5:A1, 0:A1, 0:A1]", order.toString());
+	}
+
+	@Test
+	public void testSpecificDeviceWaiterDoesNotBlockOthers() throws Exception {
+		List<String> order = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(1);
+
+		try (DevicePool pool = new DevicePool(Arrays.asList(a, b))) {
+			DeviceLease heldA = pool.acquire(a, 0, 0, TimeUnit.MILLISECONDS);
+
+			waiter(pool, a, 0, order, done);
+			awaitWaiting(pool, 1);
+
+			// B is idle and nobody ahead wants it
+			DeviceLease leaseB = pool.acquire(0, TimeUnit.MILLISECONDS);
+			assertSame(b, leaseB.getDevice());
+			leaseB.close();
+
+			heldA.close();
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+		}
+
+		assertEquals("[0:A1]", order.toString());
+	}
+
+	@Test
+	public void testCloseFailsWaiters() throws Exception {
+		DevicePool pool = new DevicePool(Collections.singletonList(a));
+		DeviceLease held = pool.acquire(0, TimeUnit.MILLISECONDS);
+		Exception[] failure = new Exception[1];
+
+		Thread thread = new Thread(() -> {
+			try {
+				pool.acquire(5, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				failure[0] = e;
+			}
+		});
+		thread.start();
+		awaitWaiting(pool, 1);
+
+		pool.close();
+		thread.join(5000);
+
+		assertTrue(failure[0] instanceof IllegalStateException);
+		held.close();
+		assertEquals(1, pool.getStatistics().getIdleCount());
+	}
+}
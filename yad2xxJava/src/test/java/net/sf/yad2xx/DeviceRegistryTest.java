@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives the registry from scripted enumerations, so no device is needed.
+ *
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class DeviceRegistryTest {
+
+	/**
+	 * Object under test.
+	 */
+	private DeviceRegistry registry;
+
+	/**
+	 * Result of the next enumeration.
+	 */
+	private Device[] bus;
+
+	/**
+	 * Thrown by the next enumeration instead, if set.
+	 */
+	private FTDIException error;
+
+	private List<String> events;
+
+	@Before
+	public void setUp() {
+		registry = new DeviceRegistry(() -> {
+			if (error != null) {
+				throw error;
+			}
+			return bus;
+		});
+		events = new ArrayList<>();
+		registry.addListener(new DeviceListener() {
+			@Override
+			public void deviceAttached(Device device) {
+				events.add("+" + device.getSerialNumber());
+			}
+
+			@Override
+			public void deviceDetached(Device device) {
+				events.add("-" + device.getSerialNumber());
+			}
+		});
+	}
+
+	private static Device device(int index, int flags, int locationId, String serialNumber, String description) {
+		return new Device(index, flags, DeviceType.FT_DEVICE_232R.ordinal(), 0x04036001, locationId, serialNumber,
+				description, 0);
+	}
+
+	@Test
+	public void testLookups() throws Exception {
+		bus = new Device[] {
+				device(0, 0, 0x11, "A1", "FT232R USB UART"),
+				device(1, 0, 0x12, "B2", "FT232R USB UART"),
+				device(2, 0, 0x13, "C3", "DMX")
+		};
+
+		registry.rescan();
+
+		assertSame(bus[1], registry.findBySerialNumber("B2"));
+		assertSame(bus[2], registry.findByLocationId(0x13));
+		assertEquals(2, registry.findByDescription("FT232R USB UART").size());
+		assertTrue(registry.findByDescription("none").isEmpty());
+		assertNull(registry.findBySerialNumber("Z9"));
+		assertEquals(3, registry.getDevices().size());
+	}
+
+	@Test
+	public void testRescanKeepsInstancesAndReportsChanges() throws Exception {
+		bus = new Device[] { device(0, 0, 0x11, "A1", "one"), device(1, 0, 0x12, "B2", "two") };
+		registry.rescan();
+		Device b2 = registry.findBySerialNumber("B2");
+
+		// A1 unplugged, C3 plugged in, B2 moves to index 0
+		bus = new Device[] { device(0, 0, 0x12, "B2", "two"), device(1, 0, 0x13, "C3", "three") };
+		registry.rescan();
+
+		assertSame(b2, registry.findBySerialNumber("B2"));
+		assertEquals(0, b2.getIndex());
+		assertNull(registry.findBySerialNumber("A1"));
+		assertEquals(2, registry.getDevices().size());
+		assertEquals("[+A1, +B2, -A1, +C3]", events.toString());
+	}
+
+	@Test
+	public void testOpenDeviceMatchedByLocation() throws Exception {
+		bus = new Device[] { device(0, 0, 0x11, "A1", "one") };
+		registry.rescan();
+		Device a1 = registry.findBySerialNumber("A1");
+
+		// Opened elsewhere, D2XX no longer reports the details
+		bus = new Device[] { device(0, FTDIConstants.FT_FLAGS_OPENED, 0x11, "", "") };
+		registry.rescan();
+
+		assertSame(a1, registry.findByLocationId(0x11));
+		assertEquals("A1", a1.getSerialNumber());
+		assertEquals("one", a1.getDescription());
+		assertEquals(FTDIConstants.FT_FLAGS_OPENED, a1.getFlags());
+		assertEquals("[+A1]", events.toString());
+	}
+
+	@Test
+	public void testFailedRescanKeepsIndexes() throws Exception {
+		bus = new Device[] { device(0, 0, 0x11, "A1", "one") };
+		registry.rescan();
+
+		error = new FTDIException(FTStatus.FT_DEVICE_LIST_NOT_READY, "FT_CreateDeviceInfoList");
+		try {
+			registry.rescan();
+			fail("enumeration error not thrown");
+		} catch (FTDIException e) {
+			assertSame(error, e);
+		}
+
+		assertNotNull(registry.findBySerialNumber("A1"));
+		assertEquals("[+A1]", events.toString());
+	}
+}
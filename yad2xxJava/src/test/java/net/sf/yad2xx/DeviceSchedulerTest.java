@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class DeviceSchedulerTest {
+
+	/**
+	 * Object under test.
+	 */
+	private DeviceScheduler scheduler;
+
+	@Mock
+	private Device firstDevice;
+
+	@Mock
+	private Device secondDevice;
+
+	@Before
+	public void setUp() {
+		scheduler = new DeviceScheduler(2);
+	}
+
+	@After
+	public void tearDown() {
+		scheduler.close();
+	}
+
+	@Test
+	public void testRunsEachDevicePeriodically() throws Exception {
+		CountDownLatch first = new CountDownLatch(5);
+		CountDownLatch second = new CountDownLatch(5);
+
+		DeviceScheduler.Registration registration = scheduler.schedule(firstDevice, 2, TimeUnit.MILLISECONDS,
+				d -> first.countDown());
+		scheduler.schedule(secondDevice, 3, TimeUnit.MILLISECONDS, d -> second.countDown());
+
+		assertTrue(first.await(5, TimeUnit.SECONDS));
+		assertTrue(second.await(5, TimeUnit.SECONDS));
+		assertTrue(registration.getStatistics().getCount() >= 4);
+		assertEquals(2, scheduler.getRegistrations().size());
+	}
+
+	@Test
+	public void testDeviceNeverRunsConcurrently() throws Exception {
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(10);
+
+		scheduler.schedule(firstDevice, 1, TimeUnit.MILLISECONDS, d -> {
+			if (active.incrementAndGet() > 1) {
+				overlaps.incrementAndGet();
+			}
+			try {
+				Thread.sleep(3);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			active.decrementAndGet();
+			done.countDown();
+		});
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(0, overlaps.get());
+		assertTrue(scheduler.getRegistration(firstDevice).getStatistics().getMissedDeadlines() > 0);
+	}
+
+	@Test
+	public void testFailureStopsRegistration() throws Exception {
+		FTDIException error = new FTDIException(FTStatus.FT_IO_ERROR, "FT_Write");
+		CountDownLatch failed = new CountDownLatch(1);
+
+		DeviceScheduler.Registration registration = scheduler.schedule(firstDevice, 1, TimeUnit.MILLISECONDS,
+				d -> {
+					failed.countDown();
+					throw error;
+				});
+
+		assertTrue(failed.await(5, TimeUnit.SECONDS));
+		while (registration.isActive()) {
+			Thread.sleep(1);
+		}
+		assertSame(error, registration.getFailure());
+
+		// Device can be registered again once the old registration is gone
+		while (scheduler.getRegistration(firstDevice) != null) {
+			Thread.sleep(1);
+		}
+		scheduler.schedule(firstDevice, 1, TimeUnit.SECONDS, d -> { });
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testDeviceScheduledOnce() {
+		scheduler.schedule(firstDevice, 1, TimeUnit.SECONDS, d -> { });
+		scheduler.schedule(firstDevice, 1, TimeUnit.SECONDS, d -> { });
+	}
+
+	@Test
+	public void testCancel() {
+		DeviceScheduler.Registration registration = scheduler.schedule(firstDevice, 1, TimeUnit.HOURS, d -> { });
+
+		registration.cancel();
+
+		assertFalse(registration.isActive());
+		assertNull(scheduler.getRegistration(firstDevice));
+	}
+}
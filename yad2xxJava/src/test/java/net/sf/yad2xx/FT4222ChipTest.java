@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.yad2xx.ft4222.ChipMode;
+import net.sf.yad2xx.ft4222.InterfaceRole;
+
+/**
+ * Grouping of D2XX interfaces into chips, no hardware needed.
+ *
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class FT4222ChipTest {
+
+	private static FT4222Device ft4222(DeviceType type, int locationId, String serial) {
+		return new FT4222Device(0, 0, type.ordinal(), 0, locationId, serial, "FT4222", 0);
+	}
+
+	@Test
+	public void testGroupTwoMode0Chips() {
+		Device[] devices = {
+				ft4222(DeviceType.FT_DEVICE_4222H_0, 0x2112, "B"),
+				new Device(0, 0, DeviceType.FT_DEVICE_232H.ordinal(), 0, 0x2113, "FT1234", "", 0),
+				ft4222(DeviceType.FT_DEVICE_4222H_0, 0x2111, "A"),
+				ft4222(DeviceType.FT_DEVICE_4222H_0, 0x2121, "A"),
+				ft4222(DeviceType.FT_DEVICE_4222H_0, 0x2122, "B") };
+
+		List<FT4222Chip> chips = FT4222Chip.group(devices);
+
+		assertEquals(2, chips.size());
+		FT4222Chip chip = chips.get(0);
+		assertEquals(ChipMode.MODE_0, chip.getMode());
+		assertSame(devices[2], chip.getInterface(InterfaceRole.DATA));
+		assertSame(devices[0], chip.getInterface(InterfaceRole.GPIO));
+		assertEquals(0x2121, chips.get(1).getInterface(0).getLocationId());
+	}
+
+	/**
+	 * Adjacent single interface chips must not be merged.
+	 */
+	@Test
+	public void testGroupMode3Chips() {
+		Device[] devices = {
+				ft4222(DeviceType.FT_DEVICE_4222H_3, 0x11, "X1A"),
+				ft4222(DeviceType.FT_DEVICE_4222H_3, 0x12, "X2A") };
+
+		List<FT4222Chip> chips = FT4222Chip.group(devices);
+
+		assertEquals(2, chips.size());
+		assertEquals("X1", chips.get(0).getSerialNumber());
+	}
+
+	@Test
+	public void testSelectMode2() {
+		Device[] devices = new Device[4];
+		for (int i = 0; i < devices.length; i++) {
+			devices[i] = ft4222(DeviceType.FT_DEVICE_4222H_1_2, 0x31 + i, "Q" + (char) ('A' + i));
+		}
+		FT4222Chip chip = FT4222Chip.group(devices).get(0);
+		assertEquals(3, chip.getInterfaces(InterfaceRole.SPI_MASTER).size());
+
+		chip.setMode(ChipMode.MODE_2);
+
+		assertEquals(4, chip.getInterfaces(InterfaceRole.SPI_MASTER).size());
+		assertTrue(chip.getInterfaces(InterfaceRole.GPIO).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testModeMustMatchInterfaceCount() {
+		FT4222Chip chip = FT4222Chip.group(new Device[] { ft4222(DeviceType.FT_DEVICE_4222H_3, 1, "A") }).get(0);
+		chip.setMode(ChipMode.MODE_0);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.sf.yad2xx.ft4222.I2cMasterFlag;
+
+/**
+ * Argument checks performed before any native call, so no device is needed.
+ *
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class FT4222DeviceTest {
+
+	/**
+	 * Object under test.
+	 */
+	private FT4222Device device;
+
+	@Before
+	public void setUp() {
+		device = new FT4222Device(0, 0, DeviceType.FT_DEVICE_4222H_0.ordinal(), 0, 0, "", "", 0);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testWriteBeyondArray() throws Exception {
+		device.spiMasterSingleWrite(new byte[4], 2, 4, true);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testReadWriteBeyondReadArray() throws Exception {
+		device.spiMasterSingleReadWrite(new byte[2], 0, new byte[4], 0, 4, true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTransferTooLong() throws Exception {
+		device.spiMasterSingleRead(new byte[70000], 0, 70000, true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadIntoReadOnlyBuffer() throws Exception {
+		device.spiMasterSingleReadWrite(ByteBuffer.allocate(4).asReadOnlyBuffer(), ByteBuffer.allocate(4), true);
+	}
+
+	/**
+	 * A slice with room for less than the write must be rejected before the
+	 * native call, not overrun.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadWriteBeyondReadBufferLimit() throws Exception {
+		ByteBuffer read = ByteBuffer.allocate(8);
+		read.limit(2);
+		device.spiMasterSingleReadWrite(read, ByteBuffer.allocate(4), true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSingleReadIntoReadOnlyBuffer() throws Exception {
+		device.spiMasterSingleRead(ByteBuffer.allocate(4).asReadOnlyBuffer(), true);
+	}
+
+	/**
+	 * A read only direct buffer must not reach the native code, which would
+	 * write into it.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadFullyIntoReadOnlyDirectBuffer() throws Exception {
+		device.spiMasterSingleReadFully(ByteBuffer.allocateDirect(4).asReadOnlyBuffer(), true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testI2cReadFullyIntoReadOnlyDirectBuffer() throws Exception {
+		device.i2cMasterReadFully(0x50, ByteBuffer.allocateDirect(4).asReadOnlyBuffer());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMultiSingleWriteTooLong() throws Exception {
+		device.spiMasterMultiReadWrite(new byte[4], 0, new byte[20], 0, 16, 4, 4);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testMultiWriteBeyondArray() throws Exception {
+		device.spiMasterMultiReadWrite(new byte[4], 0, new byte[8], 0, 4, 8, 4);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testReadFullyBeyondArray() throws Exception {
+		device.spiMasterSingleReadFully(new byte[100000], 50000, 60000, true);
+	}
+
+	/**
+	 * Chunked transfers are not limited to 16 bits but still need an
+	 * initialized device to learn the chunk size.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testWriteFullyRequiresOpenDevice() throws Exception {
+		device.i2cMasterWriteFully(0x50, new byte[100000], 0, 100000);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testWriteExBeyondArray() throws Exception {
+		device.i2cMasterWriteEx(0x50, I2cMasterFlag.START, new byte[2], 1, 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWriteThenReadTooLong() throws Exception {
+		device.i2cMasterWriteThenRead(0x50, new byte[1], new byte[70000]);
+	}
+}
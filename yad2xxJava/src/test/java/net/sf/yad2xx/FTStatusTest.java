@@ -80,5 +80,14 @@ public class FTStatusTest {
         assertSame(FTStatus.FT4222_FUN_NOT_SUPPORT, FTStatus.byOrdinal(1022));
     }
 
+    /**
+     * The native library caches each range in a 32 entry table
+     * (STATUS_TABLE_SIZE in FTDIInterface.c).
+     */
+    @Test
+    public void testFitsNativeLookupTables() {
+        assertNull(FTStatus.byOrdinal(31));
+        assertNull(FTStatus.byOrdinal(1031));
+    }
 
 }
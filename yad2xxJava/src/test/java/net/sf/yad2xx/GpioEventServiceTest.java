@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.yad2xx.ft4222.GpioEvent;
+import net.sf.yad2xx.ft4222.GpioPort;
+import net.sf.yad2xx.ft4222.GpioTrigger;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class GpioEventServiceTest {
+
+	@Test
+	public void testDecode() {
+		int[] buffer = { 0x001, 0x302, 0x208 };
+
+		List<GpioEvent> events = GpioEventService.decode(buffer, 2, 1234L);
+
+		assertEquals(2, events.size());
+		assertEquals(GpioPort.GPIO_PORT0, events.get(0).getPort());
+		assertEquals(GpioTrigger.GPIO_TRIGGER_RISING, events.get(0).getTrigger());
+		assertEquals(GpioPort.GPIO_PORT3, events.get(1).getPort());
+		assertEquals(GpioTrigger.GPIO_TRIGGER_FALLING, events.get(1).getTrigger());
+		assertEquals(1234L, events.get(1).getTimestamp());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStartRequiresOpenDevice() throws Exception {
+		FT4222Device device = new FT4222Device(0, 0, DeviceType.FT_DEVICE_4222H_0.ordinal(), 0, 0, "", "", 0);
+
+		try (GpioEventService service = new GpioEventService(device)) {
+			service.start(GpioPort.GPIO_PORT2);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Argument checks performed before any native call, so no device is needed.
+ *
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class I2cSlaveRegisterFileTest {
+
+	private final FT4222Device device = new FT4222Device(0, 0, DeviceType.FT_DEVICE_4222H_0.ordinal(), 0, 0, "",
+			"", 0);
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyRegisters() {
+		new I2cSlaveRegisterFile(device, 257);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWriteMaskSizeMismatch() {
+		new I2cSlaveRegisterFile(device, new byte[16], new byte[8], 4);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStartRequiresOpenDevice() throws Exception {
+		new I2cSlaveRegisterFile(device, 16).start();
+	}
+
+	/**
+	 * Registers can be prepared before the emulator starts.
+	 */
+	@Test
+	public void testSetRegistersWhenStopped() throws Exception {
+		I2cSlaveRegisterFile file = new I2cSlaveRegisterFile(device, new byte[] { 1, 2, 3, 4 }, null, 4);
+		file.setRegisters(1, new byte[] { (byte) 0xAA, (byte) 0xBB }, 0, 2);
+		file.setRegister(3, 0x1FF);
+
+		assertArrayEquals(new byte[] { 1, (byte) 0xAA, (byte) 0xBB, (byte) 0xFF }, file.getRegisters());
+		assertEquals(0xFF, file.getRegister(3));
+		assertEquals(0, file.getPointer());
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with yad2xx. If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class RingBufferTest {
+
+	@Test
+	public void testCapacityRoundedUp() {
+		assertEquals(16, new RingBuffer(10).capacity());
+		assertEquals(16, new RingBuffer(16).capacity());
+	}
+
+	@Test
+	public void testWrap() {
+		RingBuffer ring = new RingBuffer(8);
+
+		produce(ring, 1, 2, 3, 4, 5, 6);
+		byte[] b = new byte[4];
+		assertEquals(4, ring.read(b, 0, 4));
+		assertArrayEquals(new byte[] { 1, 2, 3, 4 }, b);
+
+		// 7, 8 fill the end, 9, 10 wrap to the start
+		produce(ring, 7, 8, 9, 10);
+		assertEquals(6, ring.available());
+		assertEquals(2, ring.writable());
+
+		ByteBuffer view = ring.peek();
+		assertEquals(4, view.remaining());
+		assertTrue(view.isReadOnly());
+		assertEquals(5, view.get(0));
+		ring.consume(4);
+
+		ByteBuffer dst = ByteBuffer.allocate(8);
+		assertEquals(2, ring.read(dst));
+		assertEquals(9, dst.get(0));
+		assertEquals(10, dst.get(1));
+		assertEquals(0, ring.available());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOverCommit() {
+		new RingBuffer(8).commit(9);
+	}
+
+	@Test
+	public void testAwaitData() throws Exception {
+		RingBuffer ring = new RingBuffer(8);
+		assertFalse(ring.awaitData(1, TimeUnit.MILLISECONDS));
+
+		Thread producer = new Thread(() -> produce(ring, 42));
+		producer.start();
+		assertTrue(ring.awaitData(5, TimeUnit.SECONDS));
+		producer.join();
+		assertEquals(1, ring.available());
+
+		ring.consume(1);
+		ring.close();
+		assertFalse(ring.awaitData(5, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Writes as a native producer would, through the backing buffer.
+	 */
+	private static void produce(RingBuffer ring, int... values) {
+		ByteBuffer buffer = ring.buffer();
+		for (int i = 0; i < values.length; i++) {
+			buffer.put((ring.writeOffset() + i) & (ring.capacity() - 1), (byte) values[i]);
+		}
+		ring.commit(values.length);
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx;
+
+import static net.sf.yad2xx.FTDIConstants.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class SerialPortTest {
+
+	/**
+	 * Object under test.
+	 */
+	private SerialPort port;
+
+	@Mock
+	private Device mockedDevice;
+
+	@Before
+	public void setUp() {
+		port = new SerialPort(mockedDevice, 1024);
+	}
+
+	@Test
+	public void testConfigure() throws Exception {
+		port.configure(3000000, FT_BITS_8, FT_STOP_BITS_1, FT_PARITY_NONE, FT_FLOW_RTS_CTS);
+
+		verify(mockedDevice).setBaudRate(3000000);
+		verify(mockedDevice).setDataCharacteristics(FT_BITS_8, FT_STOP_BITS_1, FT_PARITY_NONE);
+		verify(mockedDevice).setFlowControl(FT_FLOW_RTS_CTS, (char) 0x11, (char) 0x13);
+	}
+
+	@Test
+	public void testPollAndTakeFromRing() throws Exception {
+		assertEquals(-1, port.poll());
+
+		RingBuffer ring = port.getRing();
+		ring.buffer().put(ring.writeOffset(), (byte) 0xA5);
+		ring.commit(1);
+
+		assertEquals(0xA5, port.take());
+		assertEquals(-1, port.poll());
+
+		port.close();
+		assertEquals(-1, port.take());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStartRequiresOpenDevice() throws Exception {
+		port.start();
+	}
+}
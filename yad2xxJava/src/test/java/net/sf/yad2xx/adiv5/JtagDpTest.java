@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 Stephen Davies
+ * 
+ * This file is part of yad2xx.
+ * 
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.adiv5;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import net.sf.yad2xx.jtag.Jtag;
+import net.sf.yad2xx.jtag.ScanResult;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class JtagDpTest {
+
+	private static final int OK = JtagDp.ACK_OK_FAULT;
+	private static final int WAIT = JtagDp.ACK_WAIT;
+
+	@Mock
+	private Jtag mockedJtag;
+
+	/**
+	 * Scripted DR scan responses, ack and data.
+	 */
+	private Deque<long[]> responses;
+
+	/**
+	 * DR scan requests sent, RnW, A[3:2] and data.
+	 */
+	private List<Long> requests;
+
+	@Before
+	public void setUp() throws Exception {
+		responses = new ArrayDeque<>();
+		requests = new ArrayList<>();
+		when(mockedJtag.queueScanDR(eq(JtagDp.DR_LENGTH), any(byte[].class))).thenAnswer(invocation -> {
+			requests.add(JtagDp.getBits(invocation.getArgument(1), 0, JtagDp.DR_LENGTH));
+			long[] response = responses.remove();
+			byte[] data = new byte[5];
+			JtagDp.setBits(data, 0, response[0] | (response[1] << 3), JtagDp.DR_LENGTH);
+			ScanResult result = mock(ScanResult.class);
+			when(result.getData()).thenReturn(data);
+			return result;
+		});
+	}
+
+	private void respond(int ack, long data) {
+		responses.add(new long[] { ack, data & 0xFFFFFFFFL });
+	}
+
+	@Test
+	public void testPackRequest() {
+		long request = JtagDp.getBits(JtagDp.packRequest(true, MemAp.DRW, 0x80000001), 0, JtagDp.DR_LENGTH);
+
+		assertEquals(1, request & 1);						// RnW
+		assertEquals(3, (request >> 1) & 3);				// A[3:2]
+		assertEquals(0x80000001L, request >>> 3);
+	}
+
+	@Test
+	public void testPostedReadCollectedFromNextScan() throws Exception {
+		JtagDp dp = new JtagDp(mockedJtag);
+		MemAp ap = new MemAp(dp, 0);
+
+		respond(OK, 0);				// SELECT
+		respond(OK, 0);				// CSW
+		respond(OK, 0);				// TAR
+		respond(OK, 0);				// DRW read
+		respond(OK, 0xCAFEBABE);	// CTRL/STAT read, returns DRW
+		respond(OK, 0);				// RDBUFF, returns CTRL/STAT
+
+		assertEquals(0xCAFEBABE, ap.readWord(0x20000000));
+		assertTrue(responses.isEmpty());
+	}
+
+	@Test
+	public void testWaitReplaysWithTarRestored() throws Exception {
+		JtagDp dp = new JtagDp(mockedJtag);
+		MemAp ap = new MemAp(dp, 0);
+
+		respond(OK, 0);				// CTRL/STAT write
+		respond(OK, 0);				// CTRL/STAT read
+		respond(OK, 0);				// RDBUFF
+		dp.writeDp(JtagDp.DP_CTRL_STAT, JtagDp.ORUNDETECT);
+
+		respond(OK, 0);				// SELECT
+		respond(OK, 0);				// CSW
+		respond(OK, 0);				// TAR
+		respond(WAIT, 0);			// DRW read, rejected
+		respond(OK, 0);				// CTRL/STAT read, ignored (overrun)
+		respond(OK, 0);				// RDBUFF, ignored
+		respond(OK, 0);				// clear STICKYORUN
+		respond(OK, 0);				// TAR restored
+		respond(OK, 0);				// DRW read
+		respond(OK, 0x12345678);	// CTRL/STAT read, returns DRW
+		respond(OK, 0);				// RDBUFF
+
+		assertEquals(0x12345678, ap.readWord(0x20000000));
+		assertEquals(1, dp.getWaitCount());
+		assertEquals(1, dp.getIdleCycles());
+		assertTrue(responses.isEmpty());
+	}
+
+	@Test
+	public void testStickyClearKeepsCtrlStat() throws Exception {
+		JtagDp dp = new JtagDp(mockedJtag);
+		int ctrlStat = JtagDp.CSYSPWRUPREQ | JtagDp.CDBGPWRUPREQ | JtagDp.ORUNDETECT;
+
+		respond(OK, 0);				// CTRL/STAT write
+		respond(OK, 0);				// CTRL/STAT read
+		respond(OK, 0);				// RDBUFF
+		dp.writeDp(JtagDp.DP_CTRL_STAT, ctrlStat | JtagDp.STICKY_FLAGS);
+
+		respond(OK, 0);				// SELECT
+		respond(WAIT, 0);			// CSW write, rejected
+		respond(OK, 0);				// CTRL/STAT read, ignored (overrun)
+		respond(OK, 0);				// RDBUFF, ignored
+		respond(OK, 0);				// clear STICKYORUN
+		respond(OK, 0);				// CSW write
+		respond(OK, 0);				// CTRL/STAT read
+		respond(OK, 0);				// RDBUFF
+		dp.writeAp(0, MemAp.CSW, 0);
+
+		long clear = requests.get(7);
+		assertEquals(0, clear & 1);							// write
+		assertEquals(1, (clear >> 1) & 3);					// CTRL/STAT
+		assertEquals(ctrlStat | JtagDp.STICKYORUN, (int) (clear >>> 3));
+		assertTrue(responses.isEmpty());
+	}
+
+	@Test
+	public void testWaitWithoutOverrunDetectionAborts() throws Exception {
+		JtagDp dp = new JtagDp(mockedJtag);
+
+		respond(OK, 0);				// SELECT
+		respond(WAIT, 0);			// CSW write, rejected
+		respond(OK, 0);				// CTRL/STAT read
+		respond(OK, 0);				// RDBUFF
+
+		try {
+			dp.writeAp(0, MemAp.CSW, 0);
+			fail("Expected DapException");
+		} catch (DapException e) {
+			// replaying would repeat the transactions that were accepted
+		}
+		assertTrue(responses.isEmpty());
+		verify(mockedJtag).scanDR(eq(JtagDp.DR_LENGTH), any(byte[].class));
+	}
+
+	@Test(expected = DapException.class)
+	public void testStickyErrorReported() throws Exception {
+		JtagDp dp = new JtagDp(mockedJtag);
+
+		respond(OK, 0);				// SELECT
+		respond(OK, 0);				// CSW write
+		respond(OK, 0);				// CTRL/STAT read
+		respond(OK, JtagDp.STICKYERR);	// RDBUFF, returns CTRL/STAT
+		respond(OK, 0);				// clear STICKYERR
+
+		dp.writeAp(0, MemAp.CSW, 0);
+	}
+
+	@Test
+	public void testChunksStopAtTarWrap() {
+		assertEquals(1024, MemAp.chunkLength(0x20000000, 4096));
+		assertEquals(16, MemAp.chunkLength(0x200003F0, 4096));
+		assertEquals(8, MemAp.chunkLength(0x20000000, 8));
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.bitbang;
+
+import static net.sf.yad2xx.FTDIConstants.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import net.sf.yad2xx.Device;
+import net.sf.yad2xx.FTDIBitMode;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class BitBangTest {
+
+	/**
+	 * Object under test.
+	 */
+	private BitBang bitBang;
+
+	@Mock
+	private Device mockedDevice;
+
+	/**
+	 * Simulated pins, written samples are read back inverted.
+	 */
+	private byte[] fifo;
+	private int fifoHead;
+	private int fifoTail;
+
+	@Before
+	public void setUp() throws Exception {
+		bitBang = new BitBang(mockedDevice, 0x0F);
+		bitBang.setTransferSize(64);
+		fifo = new byte[1024];
+	}
+
+	private void simulatePins() throws Exception {
+		when(mockedDevice.tryWrite(any(byte[].class), anyInt(), anyInt(), any(int[].class))).thenAnswer(i -> {
+			byte[] b = i.getArgument(0);
+			int offset = i.getArgument(1);
+			int length = i.getArgument(2);
+			for (int n = 0; n < length; n++) {
+				fifo[fifoHead++] = (byte) ~b[offset + n];
+			}
+			return length;
+		});
+		when(mockedDevice.awaitRx(anyInt(), anyLong())).thenAnswer(i -> fifoHead - fifoTail);
+		when(mockedDevice.tryRead(any(byte[].class), anyInt(), anyInt(), any(int[].class))).thenAnswer(i -> {
+			byte[] b = i.getArgument(0);
+			int offset = i.getArgument(1);
+			int length = Math.min((int) i.getArgument(2), 10);
+			System.arraycopy(fifo, fifoTail, b, offset, length);
+			fifoTail += length;
+			return length;
+		});
+	}
+
+	@Test
+	public void testConfigure() throws Exception {
+		assertEquals(1000000, bitBang.configure(1000000));
+
+		verify(mockedDevice).setBitMode((byte) 0x0F, FTDIBitMode.FT_BITMODE_SYNC_BITBANG);
+		verify(mockedDevice).setBaudRate(62500);
+		verify(mockedDevice).setUSBParameters(64, 64);
+		verify(mockedDevice).purge(FT_PURGE_RX | FT_PURGE_TX);
+	}
+
+	@Test
+	public void testTransferCapturesEverySample() throws Exception {
+		simulatePins();
+		bitBang.configure(1000000);
+		byte[] samples = new byte[300];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = (byte) i;
+		}
+
+		byte[] capture = bitBang.transfer(samples);
+
+		for (int i = 0; i < samples.length; i++) {
+			assertEquals((byte) ~i, capture[i]);
+		}
+		assertEquals(fifoHead, fifoTail);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWaveformOnInputPin() throws Exception {
+		bitBang.configure(1000000);
+		bitBang.play(new Waveform(1000).edge(4, 0, true));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testNotConfigured() throws Exception {
+		bitBang.transfer(new byte[1]);
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.bitbang;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class WaveformTest {
+
+	/**
+	 * 1 MHz, one sample per microsecond.
+	 */
+	private static final int RATE = 1000000;
+
+	@Test
+	public void testEdgesRoundToSamples() {
+		Waveform waveform = new Waveform(10000)
+				.setInitialLevel(0, true)
+				.edge(0, 3000, false)
+				.pulse(1, 2400, 2000);
+
+		byte[] samples = waveform.compile(RATE);
+
+		assertArrayEquals(new byte[] { 1, 1, 3, 2, 0, 0, 0, 0, 0, 0 }, samples);
+		assertEquals(0x03, waveform.getPinMask());
+	}
+
+	@Test
+	public void testLastEdgeAtSameTimeWins() {
+		byte[] samples = new Waveform(4000).edge(2, 1000, true).edge(2, 1000, false).compile(RATE);
+
+		assertArrayEquals(new byte[4], samples);
+	}
+
+	@Test
+	public void testPwm() {
+		byte[] samples = new Waveform(8000).pwm(7, 4000, 0.25).compile(RATE);
+
+		byte high = (byte) 0x80;
+		assertArrayEquals(new byte[] { high, 0, 0, 0, high, 0, 0, 0 }, samples);
+	}
+
+	@Test
+	public void testServoCentre() {
+		byte[] samples = new Waveform(Waveform.SERVO_PERIOD_NANOS).servo(0, 0.5).compile(100000);
+
+		int high = 0;
+		for (byte b : samples) {
+			high += b;
+		}
+		assertEquals(2000, samples.length);
+		assertEquals(150, high);
+		assertEquals(1, samples[149]);
+		assertEquals(0, samples[150]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEdgeOutsideWaveform() {
+		new Waveform(1000).edge(0, 1001, true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPin() {
+		new Waveform(1000).edge(8, 0, true);
+	}
+}
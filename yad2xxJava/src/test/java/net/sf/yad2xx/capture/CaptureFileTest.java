@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class CaptureFileTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static List<long[]> runs(CaptureFile file) throws IOException {
+		List<long[]> runs = new ArrayList<>();
+		file.forEachRun((value, start, count) -> runs.add(new long[] { value, start, count }));
+		return runs;
+	}
+
+	@Test
+	public void testRunLengthRoundTrip() throws Exception {
+		Path path = folder.getRoot().toPath().resolve("test.cap");
+
+		try (CaptureFile file = CaptureFile.create(path, 16, 1000000)) {
+			file.append(new int[] { 0xFFFF, 0xFFFF, 0xFFFF, 1, 1, 0xFFFF }, 0, 6);
+			file.setTriggerSample(3);
+
+			assertEquals(2, file.getRunCount());
+			assertEquals(3, runs(file).size());
+		}
+
+		try (CaptureFile file = CaptureFile.open(path)) {
+			List<long[]> runs = runs(file);
+
+			assertEquals(16, file.getWidth());
+			assertEquals(1000000, file.getSampleRate());
+			assertEquals(6, file.getSampleCount());
+			assertEquals(3, file.getTriggerSample());
+			assertArrayEquals(new long[] { 0xFFFF, 0, 3 }, runs.get(0));
+			assertArrayEquals(new long[] { 1, 3, 2 }, runs.get(1));
+			assertArrayEquals(new long[] { 0xFFFF, 5, 1 }, runs.get(2));
+		}
+	}
+
+	@Test
+	public void testGrowsAcrossRegions() throws Exception {
+		Path path = folder.getRoot().toPath().resolve("long.cap");
+		int samples = 300000;
+
+		try (CaptureFile file = CaptureFile.create(path, 8, 1)) {
+			for (int i = 0; i < samples; i++) {
+				file.append(i & 1);
+			}
+		}
+
+		try (CaptureFile file = CaptureFile.open(path)) {
+			long[] expected = { 0 };
+			file.forEachRun((value, start, count) -> {
+				assertEquals(expected[0] & 1, value);
+				assertEquals(expected[0], start);
+				assertEquals(1, count);
+				expected[0]++;
+			});
+			assertEquals(samples, expected[0]);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectsOtherFiles() throws Exception {
+		Path path = folder.newFile("other.cap").toPath();
+		Files.write(path, new byte[100]);
+
+		CaptureFile.open(path);
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.capture;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Captures from a counting source, so each sample equals its index
+ * modulo 256, then checks the trigger position and the exports.
+ *
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class LogicCaptureTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Object under test.
+	 */
+	private LogicCapture capture;
+
+	private Path path;
+
+	@Before
+	public void setUp() {
+		capture = new LogicCapture(new SampleSource() {
+			private int next;
+
+			@Override
+			public int getWidth() {
+				return 8;
+			}
+
+			@Override
+			public long getSampleRate() {
+				return 1000000;
+			}
+
+			@Override
+			public int read(int[] samples, int offset, int length) {
+				int count = Math.min(length, 100);
+				for (int i = 0; i < count; i++) {
+					samples[offset + i] = next++ & 0xFF;
+				}
+				return count;
+			}
+		});
+		path = folder.getRoot().toPath().resolve("capture.cap");
+	}
+
+	private static List<Integer> values(CaptureFile file) throws Exception {
+		List<Integer> values = new ArrayList<>();
+		file.forEachRun((value, start, count) -> values.add(value));
+		return values;
+	}
+
+	@Test
+	public void testPatternTriggerWithPreTrigger() throws Exception {
+		try (CaptureFile file = capture.capture(path, Trigger.pattern(0xFF, 150), 5, 10)) {
+			List<Integer> values = values(file);
+
+			assertEquals(15, file.getSampleCount());
+			assertEquals(5, file.getTriggerSample());
+			assertEquals(145, (int) values.get(0));
+			assertEquals(150, (int) values.get(5));
+			assertEquals(159, (int) values.get(14));
+		}
+	}
+
+	@Test
+	public void testEdgeTriggerWithShortHistory() throws Exception {
+		// bit 2 first rises at sample 4, only 4 samples of history exist
+		try (CaptureFile file = capture.capture(path, Trigger.rising(2), 10, 3)) {
+			assertEquals(4, file.getTriggerSample());
+			assertEquals(7, file.getSampleCount());
+			assertEquals(0, (int) values(file).get(0));
+		}
+	}
+
+	@Test
+	public void testVcdExport() throws Exception {
+		try (CaptureFile file = capture.capture(path, 3)) {
+			StringWriter out = new StringWriter();
+			VcdExporter.export(file, out, new String[] { "CLK" });
+			String vcd = out.toString();
+
+			assertTrue(vcd.contains("$var wire 1 ! CLK $end"));
+			assertTrue(vcd.contains("$var wire 1 ( D7 $end"));
+			assertTrue(vcd.contains("#0\n$dumpvars\n0!\n"));
+			assertTrue(vcd.contains("#1000\n1!\n"));
+			assertTrue(vcd.contains("#2000\n0!\n1\"\n"));
+			assertTrue(vcd.endsWith("#3000\n"));
+		}
+	}
+
+	@Test
+	public void testSigrokExport() throws Exception {
+		try (CaptureFile file = capture.capture(path, 300)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			SigrokExporter.export(file, out, null);
+
+			ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+			byte[] logic = null;
+			String metadata = null;
+			for (ZipEntry entry; (entry = zip.getNextEntry()) != null;) {
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				byte[] b = new byte[4096];
+				for (int n; (n = zip.read(b)) > 0;) {
+					content.write(b, 0, n);
+				}
+				if (entry.getName().equals("logic-1-1")) {
+					logic = content.toByteArray();
+				} else if (entry.getName().equals("metadata")) {
+					metadata = content.toString("UTF-8");
+				}
+			}
+
+			assertEquals(300, logic.length);
+			assertEquals((byte) 299, logic[299]);
+			assertTrue(metadata.contains("samplerate=1000000\n"));
+			assertTrue(metadata.contains("probe8=D7\n"));
+		}
+	}
+}
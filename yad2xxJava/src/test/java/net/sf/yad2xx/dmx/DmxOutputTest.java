@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.dmx;
+
+import static net.sf.yad2xx.FTDIConstants.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import net.sf.yad2xx.Device;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class DmxOutputTest {
+
+	/**
+	 * Object under test.
+	 */
+	private DmxOutput dmx;
+
+	@Mock
+	private Device mockedDevice;
+
+	/**
+	 * Copies of each frame written, the engine reuses its front buffer.
+	 */
+	private List<byte[]> written;
+
+	@Before
+	public void setUp() throws Exception {
+		dmx = new DmxOutput(mockedDevice);
+		written = new ArrayList<>();
+	}
+
+	private void captureWrites() throws Exception {
+		when(mockedDevice.writeWithBreak(any(byte[].class), anyInt(), anyInt(), anyInt(), anyInt())).thenAnswer(i -> {
+			byte[] frame = i.getArgument(0);
+			int length = i.getArgument(1);
+			byte[] copy = new byte[length];
+			System.arraycopy(frame, 0, copy, 0, length);
+			written.add(copy);
+			return length;
+		});
+	}
+
+	@Test
+	public void testConfigure() throws Exception {
+		dmx.configure();
+
+		verify(mockedDevice).setBaudRate(250000);
+		verify(mockedDevice).setDataCharacteristics(FT_BITS_8, FT_STOP_BITS_2, FT_PARITY_NONE);
+		verify(mockedDevice).setFlowControl(FT_FLOW_NONE, (char) 0, (char) 0);
+		verify(mockedDevice).purge(FT_PURGE_TX);
+	}
+
+	@Test
+	public void testFrameCarriesStartCodeAndChannels() throws Exception {
+		captureWrites();
+		dmx.setChannelCount(24);
+		dmx.setChannel(1, 0xFF);
+		dmx.setChannels(22, new byte[] { 1, 2, 3 }, 0, 3);
+
+		dmx.sendFrame();
+
+		verify(mockedDevice).writeWithBreak(any(byte[].class), eq(25), eq(DmxOutput.SLOT_MICROS),
+				eq(DmxOutput.DEFAULT_BREAK_MICROS), eq(DmxOutput.DEFAULT_MAB_MICROS));
+		byte[] frame = written.get(0);
+		assertEquals(0, frame[0]);
+		assertEquals((byte) 0xFF, frame[1]);
+		assertEquals(0, frame[2]);
+		assertEquals(3, frame[24]);
+		assertEquals(1, dmx.getFrameCount());
+	}
+
+	@Test
+	public void testQueuedPacketReplacesOneFrame() throws Exception {
+		captureWrites();
+		dmx.setChannelCount(24);
+		dmx.setStartCode(0x17);
+		dmx.queuePacket(new byte[] { (byte) 0xCC, 1, 0x20 });
+
+		dmx.sendFrame();
+		dmx.sendFrame();
+
+		assertArrayEquals(new byte[] { (byte) 0xCC, 1, 0x20 }, written.get(0));
+		assertEquals(25, written.get(1).length);
+		assertEquals(0x17, written.get(1)[0]);
+	}
+
+	@Test
+	public void testLaterUpdateReachesNextFrame() throws Exception {
+		captureWrites();
+		dmx.setChannelCount(24);
+		dmx.setChannel(5, 10);
+		dmx.sendFrame();
+		dmx.setChannel(5, 20);
+		dmx.sendFrame();
+
+		assertEquals(10, written.get(0)[5]);
+		assertEquals(20, written.get(1)[5]);
+		assertEquals(0, dmx.getDeferredCount());
+	}
+
+	/**
+	 * A writer flipping the whole universe between two values must never be
+	 * seen half applied, even when the sender has to resend a stale frame.
+	 */
+	@Test
+	public void testConcurrentWriterNeverTorn() throws Exception {
+		captureWrites();
+		byte[] low = new byte[DmxOutput.UNIVERSE_SIZE - 1];
+		byte[] high = new byte[DmxOutput.UNIVERSE_SIZE - 1];
+		Arrays.fill(high, (byte) 0xFF);
+		AtomicBoolean stop = new AtomicBoolean();
+
+		Thread writer = new Thread(() -> {
+			boolean flip = false;
+			while (!stop.get()) {
+				byte[] values = (flip = !flip) ? high : low;
+				dmx.setChannels(1, values, 0, values.length);
+				// idle gaps let the sender start copies that a write then spoils
+				long until = System.nanoTime() + 1000;
+				while (System.nanoTime() < until) {
+					Thread.yield();
+				}
+			}
+		});
+		writer.start();
+		try {
+			for (int i = 0; i < 20000; i++) {
+				dmx.sendFrame();
+			}
+		} finally {
+			stop.set(true);
+			writer.join();
+		}
+
+		for (byte[] frame : written) {
+			for (int channel = 2; channel < frame.length; channel++) {
+				assertEquals("torn frame", frame[1], frame[channel]);
+			}
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testChannelZeroIsStartCode() {
+		dmx.setChannel(0, 1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testChannelsBeyondUniverse() {
+		dmx.setChannels(511, new byte[3], 0, 3);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRefreshRateLimit() {
+		dmx.setRefreshRate(50);
+	}
+
+	/**
+	 * A full universe cannot go out at the highest refresh rate, the period
+	 * stretches to the frame time. Short frames run at the rate asked for.
+	 */
+	@Test
+	public void testPeriodCoversFullUniverse() {
+		dmx.setRefreshRate(DmxOutput.MAX_REFRESH_RATE);
+		long frameNanos = (DmxOutput.DEFAULT_BREAK_MICROS + DmxOutput.DEFAULT_MAB_MICROS
+				+ DmxOutput.UNIVERSE_SIZE * DmxOutput.SLOT_MICROS) * 1000L;
+		assertEquals(frameNanos, dmx.getPeriodNanos());
+
+		dmx.setChannelCount(24);
+		assertEquals(Math.round(1e9 / DmxOutput.MAX_REFRESH_RATE), dmx.getPeriodNanos());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBreakTooShort() {
+		dmx.setBreakTiming(88, 12);
+	}
+}
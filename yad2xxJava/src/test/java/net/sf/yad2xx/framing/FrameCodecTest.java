@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Round trips and edge cases for the three codecs and the delimiter search.
+ *
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class FrameCodecTest {
+
+	private static byte[] roundTrip(FrameCodec codec, byte[] payload) throws Exception {
+		ByteBuffer encoded = ByteBuffer.allocate(codec.maxEncodedLength(payload.length));
+		codec.encode(ByteBuffer.wrap(payload), encoded);
+		encoded.flip();
+
+		ByteBuffer frame = codec.decode(encoded);
+		assertNotNull(frame);
+		assertFalse(encoded.hasRemaining());
+
+		byte[] result = new byte[frame.remaining()];
+		frame.get(result);
+		return result;
+	}
+
+	@Test
+	public void testSlipEscapes() throws Exception {
+		byte[] payload = { 1, SlipCodec.END, 2, SlipCodec.ESC, 3 };
+		assertArrayEquals(payload, roundTrip(new SlipCodec(), payload));
+	}
+
+	@Test
+	public void testSlipIncompleteFrame() throws Exception {
+		ByteBuffer in = ByteBuffer.wrap(new byte[] { SlipCodec.END, 1, 2 });
+		assertNull(new SlipCodec().decode(in));
+	}
+
+	@Test(expected = MalformedFrameException.class)
+	public void testSlipBadEscape() throws Exception {
+		new SlipCodec().decode(ByteBuffer.wrap(new byte[] { SlipCodec.ESC, 1, SlipCodec.END }));
+	}
+
+	@Test
+	public void testCobsZeros() throws Exception {
+		byte[] payload = { 0, 0x11, 0, 0, 0x22, 0 };
+		assertArrayEquals(payload, roundTrip(new CobsCodec(), payload));
+	}
+
+	/**
+	 * Blocks are limited to 254 data bytes.
+	 */
+	@Test
+	public void testCobsLongBlocks() throws Exception {
+		for (int length : new int[] { 253, 254, 255, 600 }) {
+			byte[] payload = new byte[length];
+			for (int i = 0; i < length; i++) {
+				payload[i] = (byte) (i % 255 + 1);
+			}
+			assertArrayEquals(payload, roundTrip(new CobsCodec(), payload));
+		}
+	}
+
+	@Test
+	public void testCobsEncoding() {
+		ByteBuffer out = ByteBuffer.allocate(8);
+		new CobsCodec().encode(ByteBuffer.wrap(new byte[] { 0x11, 0x22, 0x00, 0x33 }), out);
+		assertArrayEquals(new byte[] { 3, 0x11, 0x22, 2, 0x33, 0 }, Arrays.copyOf(out.array(), out.position()));
+	}
+
+	@Test
+	public void testLengthPrefix() throws Exception {
+		byte[] payload = new byte[300];
+		payload[299] = 7;
+		assertArrayEquals(payload, roundTrip(new LengthPrefixCodec(2, 1024), payload));
+	}
+
+	@Test(expected = MalformedFrameException.class)
+	public void testLengthPrefixTooLong() throws Exception {
+		new LengthPrefixCodec(1, 4).decode(ByteBuffer.wrap(new byte[] { 5, 0, 0, 0, 0, 0 }));
+	}
+
+	/**
+	 * Every position within and around a long word.
+	 */
+	@Test
+	public void testDelimiterSearch() {
+		for (int at = 0; at < 20; at++) {
+			ByteBuffer buffer = ByteBuffer.allocate(20);
+			for (int i = 0; i < 20; i++) {
+				buffer.put(i, (byte) 0x80);
+			}
+			buffer.put(at, (byte) 0);
+			assertEquals(at, Delimiters.indexOf(buffer, 0, 20, (byte) 0));
+			assertEquals(-1, Delimiters.indexOf(buffer, at + 1, 20, (byte) 0));
+		}
+	}
+}
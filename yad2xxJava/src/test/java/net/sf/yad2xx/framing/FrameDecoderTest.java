@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Stephen Davies
+ *
+ * This file is part of yad2xx.
+ *
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.framing;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.junit.Test;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class FrameDecoderTest {
+
+	/**
+	 * Frames written in one batch come back one at a time.
+	 */
+	@Test
+	public void testEncodeBatchThenDecode() throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		CountingChannel sink = new CountingChannel(Channels.newChannel(stream));
+		FrameEncoder encoder = new FrameEncoder(sink, new CobsCodec());
+
+		for (int i = 1; i <= 10; i++) {
+			encoder.add(new byte[i], 0, i);
+		}
+		assertEquals(10, encoder.getPendingFrames());
+		encoder.flush();
+		assertEquals(1, sink.writes);
+
+		FrameDecoder decoder = new FrameDecoder(
+				Channels.newChannel(new ByteArrayInputStream(stream.toByteArray())), new CobsCodec(), 16);
+		for (int i = 1; i <= 10; i++) {
+			assertEquals(i, decoder.next().remaining());
+		}
+		assertNull(decoder.next());
+		assertEquals(10, decoder.getFrameCount());
+	}
+
+	/**
+	 * A frame larger than the buffer is discarded and decoding resumes at
+	 * the next delimiter.
+	 */
+	@Test
+	public void testOversizedFrameDiscarded() throws Exception {
+		byte[] stream = new byte[24];
+		for (int i = 0; i < 20; i++) {
+			stream[i] = 1;
+		}
+		stream[20] = SlipCodec.END;
+		stream[21] = 9;
+		stream[22] = SlipCodec.END;
+
+		FrameDecoder decoder = new FrameDecoder(Channels.newChannel(new ByteArrayInputStream(stream, 0, 23)),
+				new SlipCodec(), 8);
+
+		ByteBuffer frame = decoder.next();
+		while (frame != null && frame.remaining() != 1) {
+			frame = decoder.next();
+		}
+		assertNotNull(frame);
+		assertEquals(9, frame.get(0));
+		assertTrue(decoder.getDiscardedBytes() >= 16);
+	}
+
+	private static class CountingChannel implements WritableByteChannel {
+
+		private final WritableByteChannel target;
+		int writes;
+
+		CountingChannel(WritableByteChannel target) {
+			this.target = target;
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			writes++;
+			return target.write(src);
+		}
+
+		@Override
+		public boolean isOpen() {
+			return target.isOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			target.close();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Stephen Davies
+ * 
+ * This file is part of yad2xx.
+ * 
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class BsdlTest {
+
+	private static final String SOURCE =
+			"-- test part\n" +
+			"entity TESTPART is\n" +
+			"  generic (PHYSICAL_PIN_MAP : string := \"QFP\");\n" +
+			"  attribute INSTRUCTION_LENGTH of TESTPART : entity is 5;\n" +
+			"  attribute INSTRUCTION_OPCODE of TESTPART : entity is\n" +
+			"    \"BYPASS (11111),\" &\n" +
+			"    \"EXTEST (00000),\" &   -- drives pins\n" +
+			"    \"SAMPLE (00010, 00011),\" &\n" +
+			"    \"IDCODE (00001)\";\n" +
+			"  attribute BOUNDARY_LENGTH of TESTPART : entity is 4;\n" +
+			"  attribute BOUNDARY_REGISTER of TESTPART : entity is\n" +
+			"    \"3 (BC_1, D(0), input, X),\" &\n" +
+			"    \"2 (BC_1, *, control, 0),\" &\n" +
+			"    \"1 (BC_1, D(1), output3, X, 2, 0, Z),\" &\n" +
+			"    \"0 (BC_1, CLK, clock, 1)\";\n" +
+			"end TESTPART;\n";
+
+	@Test
+	public void testAttributes() {
+		Bsdl bsdl = Bsdl.parse(SOURCE);
+
+		assertEquals("TESTPART", bsdl.getEntity());
+		assertEquals(5, bsdl.getInstructionLength());
+		assertEquals(4, bsdl.getBoundaryLength());
+		assertTrue(bsdl.hasInstruction("sample"));
+		assertFalse(bsdl.hasInstruction("INTEST"));
+	}
+
+	@Test
+	public void testOpcodeIsLsbFirst() {
+		Bsdl bsdl = Bsdl.parse(SOURCE);
+
+		assertArrayEquals(new byte[] { 0x02 }, bsdl.getOpcode("SAMPLE"));
+		assertArrayEquals(new byte[] { 0x1F }, bsdl.getOpcode("BYPASS"));
+	}
+
+	@Test
+	public void testCells() {
+		Bsdl bsdl = Bsdl.parse(SOURCE);
+
+		BoundaryCell cell = bsdl.getCells().get(1);
+		assertEquals("D(1)", cell.getPort());
+		assertEquals(BoundaryCell.Function.OUTPUT3, cell.getFunction());
+		assertEquals(2, cell.getControlCell());
+		assertEquals(0, cell.getDisableValue());
+
+		assertEquals(3, bsdl.getCell("d(0)").getNumber());
+		assertEquals('1', bsdl.getCell("CLK").getSafe());
+		assertNull(bsdl.getCell("D(7)"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingCell() {
+		Bsdl.parse(SOURCE.replace("BOUNDARY_LENGTH of TESTPART : entity is 4", 
+				"BOUNDARY_LENGTH of TESTPART : entity is 5"));
+	}
+}
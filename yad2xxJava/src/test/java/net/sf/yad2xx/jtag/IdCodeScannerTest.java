@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Stephen Davies
+ * 
+ * This file is part of yad2xx.
+ * 
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+public class IdCodeScannerTest {
+
+	private static void setBits(byte[] data, int offset, int value, int count) {
+		for (int i = 0; i < count; i++) {
+			if ((value & (1 << i)) != 0) {
+				data[(offset + i) / 8] |= 1 << ((offset + i) % 8);
+			}
+		}
+	}
+
+	@Test
+	public void testChainWithBypassedDevice() {
+		// STM32F1: boundary scan TAP nearest TDO, then a device in BYPASS, then the DAP
+		int bitCount = 5 * 32;
+		byte[] data = new byte[bitCount / 8];
+		setBits(data, 0, 0x16410041, 32);
+		setBits(data, 33, 0x3BA00477, 32);
+		for (int bit = 65; bit < bitCount; bit++) {
+			setBits(data, bit, 1, 1);
+		}
+
+		int[] chain = IdCodeScanner.parseChain(data, bitCount);
+
+		assertTrue(Arrays.equals(new int[] { 0x16410041, 0, 0x3BA00477 }, chain));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStuckTdo() {
+		IdCodeScanner.parseChain(new byte[16], 128);
+	}
+
+	@Test
+	public void testDefaultDatabase() {
+		DeviceDatabase db = DeviceDatabase.getDefault();
+
+		IdCode dap = db.identify(0x4BA00477);
+		assertEquals("ARM", dap.getManufacturerName());
+		assertEquals(5, dap.getJep106Bank());
+		assertEquals(0x3B, dap.getJep106Code());
+		assertEquals(4, dap.getIrLength());
+		assertSame(dap, db.identify(0x4BA00477));
+
+		IdCode cpld = db.identify(0x59604093);
+		assertEquals("Xilinx", cpld.getManufacturerName());
+		assertEquals("XC9572XL", cpld.getPartName());
+		assertEquals(5, cpld.getVersion());
+
+		IdCode unknown = db.identify(0x0000F093);
+		assertEquals("Xilinx", unknown.getManufacturerName());
+		assertNull(unknown.getPartName());
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Stephen Davies
+ * 
+ * This file is part of yad2xx.
+ * 
+ * yad2xx is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * yad2xx is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with yad2xx.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.sf.yad2xx.jtag;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import net.sf.yad2xx.Device;
+import net.sf.yad2xx.DeviceType;
+
+/**
+ * @author		Stephen Davies
+ * @since		October 2026
+ * @since		2.1
+ */
+@RunWith(MockitoJUnitRunner.StrictStubs.class)
+public class JtagTest {
+
+	/**
+	 * Object under test.
+	 */
+	private Jtag jtag;
+
+	@Mock
+	private Device mockedDevice;
+
+	@Before
+	public void setUp() {
+		when(mockedDevice.getType()).thenReturn(DeviceType.FT_DEVICE_232H);
+
+		jtag = new Jtag(mockedDevice);
+		jtag.reset();
+	}
+
+	@Test
+	public void testQueuedScansShareOneTransfer() throws Exception {
+		// 12 bit DR: whole byte, 3 bits right justified later, final bit in bit 7
+		// 4 bit IR: 3 bits, final bit
+		final byte[] response = { (byte) 0xBC, 0x40, (byte) 0x80, (byte) 0xA0, 0x00 };
+		when(mockedDevice.transact(any(byte[].class), anyInt(), any(byte[].class), anyInt(), anyInt()))
+				.thenAnswer(invocation -> {
+					byte[] buffer = invocation.getArgument(2);
+					System.arraycopy(response, 0, buffer, 0, response.length);
+					return response.length;
+				});
+
+		ScanResult dr = jtag.queueScanDR(12, new byte[2]);
+		ScanResult ir = jtag.queueScanIR(4, new byte[1]);
+		assertFalse(dr.isComplete());
+
+		jtag.flush();
+
+		assertArrayEquals(new byte[] { (byte) 0xBC, 0x0A }, dr.getData());
+		assertArrayEquals(new byte[] { 0x05 }, ir.getData());
+
+		// reset, then a single round trip for both scans
+		verify(mockedDevice).write(any(byte[].class), anyInt());
+		verify(mockedDevice).transact(any(byte[].class), anyInt(), any(byte[].class), eq(5), anyInt());
+	}
+
+	@Test
+	public void testStreamedScanSplitsIntoChunks() throws Exception {
+		when(mockedDevice.transact(any(byte[].class), anyInt(), any(byte[].class), anyInt(), anyInt()))
+				.thenAnswer(invocation -> invocation.getArgument(3));
+
+		int length = Jtag.STREAM_CHUNK + 2;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		jtag.scanDR(length * 8L, new ByteArrayInputStream(new byte[length]), out);
+
+		assertEquals(length, out.size());
+		// reset, one whole chunk, then the final 16 bits
+		verify(mockedDevice).write(any(byte[].class), anyInt());
+		verify(mockedDevice).transact(any(byte[].class), anyInt(), any(byte[].class), eq(Jtag.STREAM_CHUNK), anyInt());
+		verify(mockedDevice).transact(any(byte[].class), anyInt(), any(byte[].class), eq(3), anyInt());
+	}
+
+	/**
+	 * A transition requested by the caller goes out at once, unless scans
+	 * are queued, in which case it waits for their flush.
+	 */
+	@Test
+	public void testTransitionSentUnlessScansQueued() throws Exception {
+		jtag.transitionTo(TapState.IDLE);
+		verify(mockedDevice, times(2)).write(any(byte[].class), anyInt());
+
+		jtag.queueScanDR(8, new byte[1]);
+		jtag.transitionTo(TapState.DRPAUSE);
+		verify(mockedDevice, times(2)).write(any(byte[].class), anyInt());
+	}
+
+	@Test
+	public void testDecodeSingleBit() {
+		byte[] result = new byte[1];
+		Jtag.decodeShift(1, new byte[] { (byte) 0x80 }, 0, result);
+		assertEquals(1, result[0]);
+	}
+
+	@Test
+	public void testDecodeWholeByte() {
+		byte[] result = new byte[1];
+		// 7 bits 0x5A & 0x7F shifted in from the top, bit 7 via TMS
+		Jtag.decodeShift(8, new byte[] { (byte) 0xB4, (byte) 0x80 }, 0, result);
+		assertEquals((byte) 0xDA, result[0]);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testResultUnavailableBeforeFlush() throws Exception {
+		jtag.queueScanDR(8, new byte[1]).getData();
+	}
+}
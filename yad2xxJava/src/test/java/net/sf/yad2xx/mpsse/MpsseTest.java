@@ -18,6 +18,7 @@
  */
 package net.sf.yad2xx.mpsse;
 
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 import org.junit.Before;
@@ -27,6 +28,8 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import net.sf.yad2xx.Device;
 import net.sf.yad2xx.DeviceType;
+import net.sf.yad2xx.FTDIException;
+import net.sf.yad2xx.FTStatus;
 
 /**
  * @author		Stephen Davies
@@ -62,6 +65,36 @@ public class MpsseTest {
 		mpsse = new Mpsse(mockedDevice);
 	}
 	
+	@Test
+	public void testClockFrequency() {
+		assertEquals(0, mpsse.getClockFrequency());
+
+		mpsse.configureClock(100000);
+		assertEquals(100000, mpsse.getClockFrequency());
+
+		mpsse.configureClock(30000000);
+		assertEquals(30000000, mpsse.getClockFrequency());
+
+		// never faster than requested
+		mpsse.configureClock(7000000);
+		assertEquals(6000000, mpsse.getClockFrequency());
+	}
+
+	/**
+	 * A response that times out part way must not come back zero filled.
+	 */
+	@Test
+	public void testShortResponseFails() throws Exception {
+		when(mockedDevice.transact(any(byte[].class), anyInt(), any(byte[].class), eq(4), anyInt())).thenReturn(3);
+
+		try {
+			mpsse.transact(4);
+			fail("short response accepted");
+		} catch (FTDIException e) {
+			assertEquals(FTStatus.FT_IO_ERROR, e.getStatus());
+		}
+	}
+
 	@Test
 	public void testClose() throws Exception {
 		mpsse.close();
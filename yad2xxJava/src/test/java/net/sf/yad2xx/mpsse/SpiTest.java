@@ -52,9 +52,18 @@ public class SpiTest {
 		spi = new Spi(mockedDevice);
 	}
 
+	/**
+	 * Device answers every transaction in full.
+	 */
+	private void answerInFull() throws Exception {
+		when(mockedDevice.transact(any(byte[].class), anyInt(), any(byte[].class), anyInt(), anyInt()))
+				.thenAnswer(invocation -> invocation.getArgument(3));
+	}
+
 	@Test
 	public void testTransactReadWriteWithSmallBuffer() throws Exception {
 		byte[] data = new byte[50];		// small buffer
+		answerInFull();
 		
 		spi.transactReadWrite(data);
 
@@ -64,6 +73,7 @@ public class SpiTest {
 	@Test
 	public void testTransactReadWriteWithMediumBuffer() throws Exception {
 		byte[] data = new byte[10000];
+		answerInFull();
 		
 		spi.transactReadWrite(data);
 